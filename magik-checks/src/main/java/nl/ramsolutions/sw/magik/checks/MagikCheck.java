@@ -8,7 +8,9 @@ import java.lang.reflect.Field;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import nl.ramsolutions.sw.magik.Location;
 import nl.ramsolutions.sw.magik.MagikFile;
 import nl.ramsolutions.sw.magik.MagikVisitor;
@@ -82,6 +84,25 @@ public abstract class MagikCheck extends MagikVisitor {
     return Collections.unmodifiableList(this.issues);
   }
 
+  /**
+   * Scan the file for issues with multiple checks, walking the tree once.
+   *
+   * @param magikFile File to use.
+   * @param checks Checks to run.
+   * @return Issues per check, in the order of {@code checks}.
+   */
+  public static Map<MagikCheck, List<MagikIssue>> scanFileForIssues(
+      final MagikFile magikFile, final List<? extends MagikCheck> checks) {
+    MagikVisitor.scanFile(magikFile, checks);
+
+    final Map<MagikCheck, List<MagikIssue>> issues = new LinkedHashMap<>();
+    for (final MagikCheck check : checks) {
+      issues.put(check, Collections.unmodifiableList(check.issues));
+    }
+
+    return issues;
+  }
+
   /**
    * Add a new issue.
    *
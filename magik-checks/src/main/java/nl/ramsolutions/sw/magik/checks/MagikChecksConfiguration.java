@@ -2,6 +2,7 @@ package nl.ramsolutions.sw.magik.checks;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -13,12 +14,16 @@ import org.sonar.check.RuleProperty;
 /** {@link MagikCheck} specific configuration. */
 public class MagikChecksConfiguration {
 
+  private record DerivedKey(List<Class<? extends MagikCheck>> checkClasses) {}
+
   private static final String KEY_DISABLED_CHECKS = "disabled";
   private static final String KEY_ENABLED_CHECKS = "enabled";
   private static final String KEY_IGNORED_PATHS = "ignore";
 
   private final MagikToolsProperties properties;
   private final List<Class<? extends MagikCheck>> checkClasses;
+  private List<MagikCheckHolder> holders;
+  private long holdersGeneration;
 
   /**
    * Constructor which reads properties from {@code path}.
@@ -32,16 +37,42 @@ public class MagikChecksConfiguration {
     this.properties = properties;
   }
 
+  /**
+   * Get the configuration for the given checks and properties. Configurations are kept with the
+   * properties instance, such as the properties shared by all files in a directory.
+   *
+   * @param checkClasses {@link Class}es of {@link MagikCheck}s.
+   * @param properties Properties to use.
+   * @return Configuration.
+   */
+  public static MagikChecksConfiguration of(
+      final List<Class<? extends MagikCheck>> checkClasses, final MagikToolsProperties properties) {
+    return properties.computeDerivedIfAbsent(
+        new DerivedKey(checkClasses),
+        derivedProperties -> new MagikChecksConfiguration(checkClasses, derivedProperties));
+  }
+
   public List<String> getIgnores() {
     return this.properties.getPropertyList(KEY_IGNORED_PATHS);
   }
 
   /**
-   * Get {@link MagikCheck}s, each contained by a {@link MagikCheckHolder}.
+   * Get {@link MagikCheck}s, each contained by a {@link MagikCheckHolder}. The holders are built
+   * once, until the properties change.
    *
    * @return
    */
-  public List<MagikCheckHolder> getAllChecks() {
+  public synchronized List<MagikCheckHolder> getAllChecks() {
+    final long generation = this.properties.getGeneration();
+    if (this.holders == null || this.holdersGeneration != generation) {
+      this.holders = Collections.unmodifiableList(this.buildHolders());
+      this.holdersGeneration = generation;
+    }
+
+    return this.holders;
+  }
+
+  private List<MagikCheckHolder> buildHolders() {
     final List<MagikCheckHolder> holders = new ArrayList<>();
 
     final List<String> disableds = this.properties.getPropertyList(KEY_DISABLED_CHECKS);
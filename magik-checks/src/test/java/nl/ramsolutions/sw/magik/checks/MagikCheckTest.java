@@ -0,0 +1,95 @@
+package nl.ramsolutions.sw.magik.checks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import nl.ramsolutions.sw.magik.MagikFile;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link MagikCheck}. */
+class MagikCheckTest {
+
+  private static final URI DEFAULT_URI = URI.create("file:///tmp/test_magik_check/source.magik");
+
+  private static final String SOURCE =
+      """
+      _package sw
+      $
+
+      _pragma(classify_level=restricted)
+      def_slotted_exemplar(:Exemplar, {{:slot_a, _unset}, {:SlotB, _unset}})
+      $
+
+      _method exemplar.m(a, b, _optional c)
+        ## Test method.
+        _local unused << 10
+        _if a _is _unset
+        _then
+          _return b
+        _elif a = 1
+        _then
+          write(1,2)
+        _endif
+        # _local x << 1
+        _loop
+          _if b _then _leave _endif
+        _endloop
+        _return .slot_a.size + .slotb + c.rest
+      _endmethod
+      $
+
+      _global g << _proc(x)
+        show(x)
+        x.remex()
+      _endproc
+      $
+      """;
+
+  private List<MagikCheck> createChecks() throws ReflectiveOperationException {
+    final List<MagikCheck> checks = new ArrayList<>();
+    for (final Class<? extends MagikCheck> checkClass : CheckList.getChecks()) {
+      final MagikCheckHolder holder =
+          new MagikCheckHolder(checkClass, Collections.emptySet(), true);
+      checks.add(holder.createCheck());
+    }
+    return checks;
+  }
+
+  private List<String> describe(final List<MagikIssue> issues) {
+    return issues.stream()
+        .map(
+            issue ->
+                String.format(
+                    "%s %d:%d-%d:%d %s",
+                    issue.check().getClass().getSimpleName(),
+                    issue.startLine(),
+                    issue.startColumn(),
+                    issue.endLine(),
+                    issue.endColumn(),
+                    issue.message()))
+        .toList();
+  }
+
+  @Test
+  void testScanFileForIssuesSinglePass() throws ReflectiveOperationException {
+    final List<String> expected = new ArrayList<>();
+    for (final MagikCheck check : this.createChecks()) {
+      final MagikFile magikFile = new MagikFile(DEFAULT_URI, SOURCE);
+      expected.addAll(this.describe(check.scanFileForIssues(magikFile)));
+    }
+
+    final MagikFile magikFile = new MagikFile(DEFAULT_URI, SOURCE);
+    final Map<MagikCheck, List<MagikIssue>> issues =
+        MagikCheck.scanFileForIssues(magikFile, this.createChecks());
+    final List<String> actual =
+        issues.values().stream()
+            .flatMap(checkIssues -> this.describe(checkIssues).stream())
+            .toList();
+
+    assertThat(actual).isNotEmpty().containsExactlyElementsOf(expected);
+  }
+}
@@ -1,6 +1,5 @@
 package nl.ramsolutions.sw.magik.debugadapter;
 
-import com.sonar.sslr.api.AstNode;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
@@ -12,20 +11,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
-import nl.ramsolutions.sw.magik.Position;
-import nl.ramsolutions.sw.magik.analysis.AstQuery;
-import nl.ramsolutions.sw.magik.analysis.helpers.MethodDefinitionNodeHelper;
-import nl.ramsolutions.sw.magik.api.MagikGrammar;
 import nl.ramsolutions.sw.magik.debugadapter.slap.ISlapProtocol;
 import nl.ramsolutions.sw.magik.debugadapter.slap.ISlapResponse;
 import nl.ramsolutions.sw.magik.debugadapter.slap.SlapErrorException;
 import nl.ramsolutions.sw.magik.debugadapter.slap.events.BreakpointEvent;
 import nl.ramsolutions.sw.magik.debugadapter.slap.responses.BreakpointSetResponse;
 import nl.ramsolutions.sw.magik.debugadapter.slap.responses.EvalResponse;
-import nl.ramsolutions.sw.magik.parser.MagikParser;
 import org.eclipse.lsp4j.debug.ExceptionBreakpointsFilter;
 import org.eclipse.lsp4j.debug.FunctionBreakpoint;
+import org.eclipse.lsp4j.debug.OutputEventArguments;
+import org.eclipse.lsp4j.debug.OutputEventArgumentsCategory;
 import org.eclipse.lsp4j.debug.Source;
 import org.eclipse.lsp4j.debug.SourceBreakpoint;
 import org.eclipse.lsp4j.debug.StoppedEventArguments;
@@ -47,7 +44,11 @@ class BreakpointManager {
     private long breakpointId;
     private final String methodName;
     private final int methodLine;
+    private int sourceLine;
     private String condition;
+    private HitCondition hitCondition;
+    private LogMessage logMessage;
+    private final AtomicLong hitCount = new AtomicLong();
     private String message;
 
     /**
@@ -59,6 +60,7 @@ class BreakpointManager {
     MagikBreakpoint(final String methodName, final int methodLine) {
       this.methodName = methodName;
       this.methodLine = methodLine;
+      this.sourceLine = methodLine;
       this.condition = null;
 
       this.setBreakpointId(ISlapProtocol.INVALID_BREAKPOINT_ID);
@@ -74,6 +76,7 @@ class BreakpointManager {
     MagikBreakpoint(final String methodName, final int methodLine, final String condition) {
       this.methodName = methodName;
       this.methodLine = methodLine;
+      this.sourceLine = methodLine;
       this.condition = condition;
 
       this.setBreakpointId(ISlapProtocol.INVALID_BREAKPOINT_ID);
@@ -87,6 +90,19 @@ class BreakpointManager {
       return this.methodLine;
     }
 
+    /**
+     * Get the line in the source this breakpoint was set on.
+     *
+     * @return Line in source.
+     */
+    int getSourceLine() {
+      return this.sourceLine;
+    }
+
+    void setSourceLine(final int sourceLine) {
+      this.sourceLine = sourceLine;
+    }
+
     @CheckForNull
     String getCondition() {
       return this.condition;
@@ -96,6 +112,34 @@ class BreakpointManager {
       this.condition = condition;
     }
 
+    @CheckForNull
+    HitCondition getHitCondition() {
+      return this.hitCondition;
+    }
+
+    void setHitCondition(final @Nullable HitCondition hitCondition) {
+      this.hitCondition = hitCondition;
+    }
+
+    @CheckForNull
+    LogMessage getLogMessage() {
+      return this.logMessage;
+    }
+
+    void setLogMessage(final @Nullable LogMessage logMessage) {
+      this.logMessage = logMessage;
+    }
+
+    /**
+     * Register a hit of this breakpoint. Events are handled on their own threads, so hits can be
+     * registered concurrently.
+     *
+     * @return New hit count.
+     */
+    long incrementHitCount() {
+      return this.hitCount.incrementAndGet();
+    }
+
     void setMessage(final String message) {
       this.message = message;
     }
@@ -143,6 +187,7 @@ class BreakpointManager {
   private final Map<Source, List<MagikBreakpoint>> sourceBreakpoints = new HashMap<>();
   private MagikBreakpoint conditionBreakpoint;
   private final Map<Long, MagikBreakpoint> breakpointIds = new HashMap<>();
+  private final Map<Path, MethodLineIndex> methodLineIndices = new HashMap<>();
 
   BreakpointManager(final ISlapProtocol slapProtocol, final IDebugProtocolClient debugClient) {
     this.slapProtocol = slapProtocol;
@@ -166,16 +211,26 @@ class BreakpointManager {
     final List<MagikBreakpoint> breakpoints =
         this.sourceBreakpoints.computeIfAbsent(source, key -> new ArrayList<>());
 
-    // Add new breakpoints.
-    final List<Integer> magikBreakpointLines =
-        breakpoints.stream().map(MagikBreakpoint::getMethodLine).toList();
-    final List<SourceBreakpoint> addedBreakpoints =
-        Arrays.stream(newSourceBreakpoints)
-            .filter(breakpoint -> !magikBreakpointLines.contains(breakpoint.getLine()))
-            .toList();
-    for (final SourceBreakpoint sourceBreakpoint : addedBreakpoints) {
-      this.addBreakpoint(source, sourceBreakpoint);
+    // Add new breakpoints, update the options of existing breakpoints.
+    final Map<Integer, MagikBreakpoint> magikBreakpointLines =
+        breakpoints.stream()
+            .collect(
+                Collectors.toMap(
+                    MagikBreakpoint::getSourceLine, breakpoint -> breakpoint, (a, b) -> a));
+    final List<SourceBreakpoint> addedBreakpoints = new ArrayList<>();
+    for (final SourceBreakpoint sourceBreakpoint : newSourceBreakpoints) {
+      final MagikBreakpoint magikBreakpoint = magikBreakpointLines.get(sourceBreakpoint.getLine());
+      if (magikBreakpoint == null) {
+        addedBreakpoints.add(sourceBreakpoint);
+      } else {
+        BreakpointManager.applyOptions(
+            magikBreakpoint,
+            sourceBreakpoint.getCondition(),
+            sourceBreakpoint.getHitCondition(),
+            sourceBreakpoint.getLogMessage());
+      }
     }
+    this.addBreakpoints(source, addedBreakpoints);
 
     // Remove old breakpoints.
     final List<Integer> sourceBreakpointLines =
@@ -183,7 +238,7 @@ class BreakpointManager {
     final List<MagikBreakpoint> removedBreakpoints =
         breakpoints.stream()
             .filter(
-                magikBreakpoint -> !sourceBreakpointLines.contains(magikBreakpoint.getMethodLine()))
+                magikBreakpoint -> !sourceBreakpointLines.contains(magikBreakpoint.getSourceLine()))
             .toList();
     for (final MagikBreakpoint magikBreakpoint : removedBreakpoints) {
       this.removeBreakpoint(source, magikBreakpoint);
@@ -205,21 +260,102 @@ class BreakpointManager {
    */
   MagikBreakpoint addBreakpoint(final Source source, final SourceBreakpoint sourceBreakpoint)
       throws IOException, InterruptedException, ExecutionException {
-    int line = sourceBreakpoint.getLine();
-    final AstNode methodNode = this.getNode(source, line);
-    final String method;
-    if (methodNode == null) {
-      method = "<not_in_method>";
-    } else {
-      final MethodDefinitionNodeHelper helper = new MethodDefinitionNodeHelper(methodNode);
-      method = helper.getFullExemplarMethodName();
-      final int methodLine = methodNode.getTokenLine();
-      if (methodLine == line) {
-        line = 0;
+    return this.addBreakpoints(source, List.of(sourceBreakpoint)).get(0);
+  }
+
+  /**
+   * Add new breakpoints to self and debugger. All breakpoints are sent before awaiting any reply.
+   * Every reply is awaited and every breakpoint is registered, breakpoints which could not be set
+   * are registered as unverified.
+   *
+   * @param source Source.
+   * @param newSourceBreakpoints Source breakpoints.
+   * @return New magik breakpoints.
+   * @throws IOException -
+   * @throws InterruptedException -
+   */
+  private List<MagikBreakpoint> addBreakpoints(
+      final Source source, final List<SourceBreakpoint> newSourceBreakpoints)
+      throws IOException, InterruptedException {
+    final List<MagikBreakpoint> magikBreakpoints = new ArrayList<>();
+    final List<CompletableFuture<ISlapResponse>> breakpointSetFutures = new ArrayList<>();
+    for (final SourceBreakpoint sourceBreakpoint : newSourceBreakpoints) {
+      final MagikBreakpoint magikBreakpoint = this.toMagikBreakpoint(source, sourceBreakpoint);
+      magikBreakpoints.add(magikBreakpoint);
+      breakpointSetFutures.add(this.requestSetBreakpoint(magikBreakpoint));
+    }
+
+    InterruptedException interruptedException = null;
+    for (int i = 0; i < magikBreakpoints.size(); ++i) {
+      final MagikBreakpoint magikBreakpoint = magikBreakpoints.get(i);
+      final CompletableFuture<ISlapResponse> breakpointSetFuture = breakpointSetFutures.get(i);
+      if (interruptedException == null || breakpointSetFuture.isDone()) {
+        try {
+          this.awaitSetBreakpointOrUnverified(magikBreakpoint, breakpointSetFuture);
+        } catch (final InterruptedException exception) {
+          // Keep registering the breakpoints which were already set, rethrow afterwards.
+          interruptedException = exception;
+        }
       }
+
+      this.registerBreakpoint(source, magikBreakpoint);
+    }
+
+    if (interruptedException != null) {
+      throw interruptedException;
+    }
+
+    return magikBreakpoints;
+  }
+
+  /**
+   * Await the reply for setting a breakpoint. If the breakpoint could not be set, it stays
+   * unverified and the reason is set as its message.
+   */
+  private void awaitSetBreakpointOrUnverified(
+      final MagikBreakpoint magikBreakpoint,
+      final CompletableFuture<ISlapResponse> breakpointSetFuture)
+      throws InterruptedException {
+    try {
+      this.awaitSetBreakpoint(magikBreakpoint, breakpointSetFuture);
+    } catch (final ExecutionException exception) {
+      final Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+      magikBreakpoint.setMessage(cause.getMessage());
+
+      LOGGER.warn("Unable to create breakpoint: {}", magikBreakpoint, cause);
+    }
+  }
+
+  private MagikBreakpoint toMagikBreakpoint(
+      final Source source, final SourceBreakpoint sourceBreakpoint) {
+    final int line = sourceBreakpoint.getLine();
+    final MethodLineIndex.MethodRange methodRange = this.getMethodRange(source, line);
+    final MagikBreakpoint magikBreakpoint;
+    if (methodRange == null) {
+      magikBreakpoint = new MagikBreakpoint("<not_in_method>", line);
+    } else {
+      final String method = methodRange.methodName();
+      final int methodLine = methodRange.startLine() == line ? 0 : line;
+      magikBreakpoint = new MagikBreakpoint(method, methodLine);
     }
-    final String condition = sourceBreakpoint.getCondition();
-    return this.createBreakpoint(source, method, line, condition);
+
+    magikBreakpoint.setSourceLine(line);
+    BreakpointManager.applyOptions(
+        magikBreakpoint,
+        sourceBreakpoint.getCondition(),
+        sourceBreakpoint.getHitCondition(),
+        sourceBreakpoint.getLogMessage());
+    return magikBreakpoint;
+  }
+
+  private static void applyOptions(
+      final MagikBreakpoint magikBreakpoint,
+      final @Nullable String condition,
+      final @Nullable String hitCondition,
+      final @Nullable String logMessage) {
+    magikBreakpoint.setCondition(condition != null && !condition.isBlank() ? condition : null);
+    magikBreakpoint.setHitCondition(HitCondition.parse(hitCondition));
+    magikBreakpoint.setLogMessage(logMessage != null ? LogMessage.parse(logMessage) : null);
   }
 
   /** Remove breakpoint. */
@@ -282,8 +418,14 @@ class BreakpointManager {
     final Source source = null;
     final String methodName = functionBreakpoint.getName();
     final int methodLine = 0;
-    final String condition = functionBreakpoint.getCondition();
-    return this.createBreakpoint(source, methodName, methodLine, condition);
+    final MagikBreakpoint magikBreakpoint = this.sendSetBreakpoint(methodName, methodLine);
+    BreakpointManager.applyOptions(
+        magikBreakpoint,
+        functionBreakpoint.getCondition(),
+        functionBreakpoint.getHitCondition(),
+        null);
+    this.registerBreakpoint(source, magikBreakpoint);
+    return magikBreakpoint;
   }
 
   // endregion
@@ -364,22 +506,16 @@ class BreakpointManager {
    * Handle a {@link BreakpointEvent}.
    *
    * @param breakpointEvent event.
+   * @return True if the thread stopped, false if it was resumed.
    */
-  void handleBreakpointEvent(final BreakpointEvent breakpointEvent) {
+  boolean handleBreakpointEvent(final BreakpointEvent breakpointEvent) {
     final long threadId = breakpointEvent.getThreadId();
-
-    // If conditional breakpoint, then test condition and optionally continue.
     final long breakpointId = breakpointEvent.getBreakpointId();
     final MagikBreakpoint magikBreakpoint = this.getBreakpoint(breakpointId);
-    final String condition = magikBreakpoint.getCondition();
-    if (condition != null) {
+    if (magikBreakpoint != null) {
       try {
-        final EvalResponse eval =
-            (EvalResponse) this.slapProtocol.evaluate(threadId, 0, condition).get();
-        final String result = eval.getResult();
-        if (!result.equals(SW_TRUE)) {
-          this.slapProtocol.resumeThread(threadId).get();
-          return;
+        if (!this.shouldStop(threadId, magikBreakpoint)) {
+          return false;
         }
       } catch (InterruptedException exception) {
         LOGGER.warn("Interrupted!", exception);
@@ -393,28 +529,92 @@ class BreakpointManager {
     args.setThreadId((int) threadId);
     args.setReason(StoppedEventArgumentsReason.BREAKPOINT);
     this.debugClient.stopped(args);
+    return true;
+  }
+
+  /**
+   * Test if the thread should stop at the breakpoint. If not, the thread is resumed without
+   * awaiting the reply. The hit condition is tested locally, a log point is evaluated in at most a
+   * single round trip.
+   */
+  private boolean shouldStop(final long threadId, final MagikBreakpoint magikBreakpoint)
+      throws IOException, InterruptedException, ExecutionException {
+    // If conditional breakpoint, then test condition and optionally continue.
+    final String condition = magikBreakpoint.getCondition();
+    if (condition != null) {
+      final EvalResponse eval =
+          (EvalResponse) this.slapProtocol.evaluate(threadId, 0, condition).get();
+      final String result = eval.getResult();
+      if (!result.equals(SW_TRUE)) {
+        this.slapProtocol.resumeThread(threadId);
+        return false;
+      }
+    }
+
+    // Hits are only counted when the condition holds.
+    final long hitCount = magikBreakpoint.incrementHitCount();
+    final HitCondition hitCondition = magikBreakpoint.getHitCondition();
+    if (hitCondition != null && !hitCondition.test(hitCount)) {
+      this.slapProtocol.resumeThread(threadId);
+      return false;
+    }
+
+    // Log points never stop, the resume is sent along with the evaluation.
+    final LogMessage logMessage = magikBreakpoint.getLogMessage();
+    if (logMessage != null) {
+      final String expression = logMessage.getExpression();
+      final CompletableFuture<ISlapResponse> evalFuture =
+          expression != null ? this.slapProtocol.evaluate(threadId, 0, expression) : null;
+      this.slapProtocol.resumeThread(threadId);
+
+      String message = logMessage.format();
+      if (evalFuture != null) {
+        try {
+          message = logMessage.format(((EvalResponse) evalFuture.get()).getResult());
+        } catch (ExecutionException exception) {
+          // Thread is already resumed, log the unformatted message.
+          LOGGER.debug("Unable to evaluate log message: {}", expression, exception);
+        }
+      }
+
+      final OutputEventArguments args = new OutputEventArguments();
+      args.setCategory(OutputEventArgumentsCategory.CONSOLE);
+      args.setOutput(message + "\n");
+      this.debugClient.output(args);
+      return false;
+    }
+
+    return true;
   }
 
   // endergion
 
   // region: Internals
-  private AstNode getNode(final Source source, final int line) {
+  /**
+   * Get the method surrounding a line in a source. The source is parsed once per modification,
+   * after which the methods are looked up from a {@link MethodLineIndex}.
+   */
+  @CheckForNull
+  private MethodLineIndex.MethodRange getMethodRange(final Source source, final int line) {
     final Path path = Path.of(source.getPath());
-    final MagikParser parser = new MagikParser();
-    final AstNode node = parser.parseSafe(path);
-    return AstQuery.nodeSurrounding(node, new Position(line, 0), MagikGrammar.METHOD_DEFINITION);
-  }
+    MethodLineIndex methodLineIndex = this.methodLineIndices.get(path);
+    if (methodLineIndex == null || !methodLineIndex.isValid(path)) {
+      try {
+        methodLineIndex = MethodLineIndex.of(path);
+      } catch (final IOException exception) {
+        LOGGER.warn("Unable to read source: {}", path, exception);
+        this.methodLineIndices.remove(path);
+        return null;
+      }
 
-  private MagikBreakpoint createBreakpoint(
-      final @Nullable Source source,
-      final String method,
-      final int line,
-      final @Nullable String condition)
-      throws IOException, InterruptedException, ExecutionException {
-    // Send breakpoint to debugger.
-    final MagikBreakpoint magikBreakpoint = this.sendSetBreakpoint(method, line);
-    magikBreakpoint.setCondition(condition);
+      this.methodLineIndices.put(path, methodLineIndex);
+    }
 
+    return methodLineIndex.getMethodRange(line);
+  }
+
+  private void registerBreakpoint(
+      final @Nullable Source source, final MagikBreakpoint magikBreakpoint) {
     // Register breakpoint id, if successful.
     final long breakpointId = magikBreakpoint.getBreakpointId();
     if (breakpointId != ISlapProtocol.INVALID_BREAKPOINT_ID) {
@@ -425,19 +625,30 @@ class BreakpointManager {
     final List<MagikBreakpoint> breakpoints =
         this.sourceBreakpoints.computeIfAbsent(source, key -> new ArrayList<>());
     breakpoints.add(magikBreakpoint);
-
-    return magikBreakpoint;
   }
 
   private MagikBreakpoint sendSetBreakpoint(final String method, final int line)
       throws IOException, InterruptedException, ExecutionException {
-    LOGGER.trace("Send set breakpoint: method: {}, line: {}", method, line);
-
     final MagikBreakpoint magikBreakpoint = new MagikBreakpoint(method, line);
+    final CompletableFuture<ISlapResponse> breakpointSetFuture =
+        this.requestSetBreakpoint(magikBreakpoint);
+    this.awaitSetBreakpoint(magikBreakpoint, breakpointSetFuture);
+    return magikBreakpoint;
+  }
+
+  private CompletableFuture<ISlapResponse> requestSetBreakpoint(
+      final MagikBreakpoint magikBreakpoint) throws IOException {
+    final String method = magikBreakpoint.getMethodName();
+    final int line = magikBreakpoint.getMethodLine();
+    LOGGER.trace("Send set breakpoint: method: {}, line: {}", method, line);
+    return this.slapProtocol.setBreakpoint(method, line);
+  }
 
+  private void awaitSetBreakpoint(
+      final MagikBreakpoint magikBreakpoint,
+      final CompletableFuture<ISlapResponse> breakpointSetFuture)
+      throws InterruptedException, ExecutionException {
     try {
-      final CompletableFuture<ISlapResponse> breakpointSetFuture =
-          this.slapProtocol.setBreakpoint(method, line);
       final BreakpointSetResponse breakpointSet = (BreakpointSetResponse) breakpointSetFuture.get();
       final long breakpointId = breakpointSet.getBreakpointId();
       magikBreakpoint.setBreakpointId(breakpointId);
@@ -455,8 +666,6 @@ class BreakpointManager {
         throw exception;
       }
     }
-
-    return magikBreakpoint;
   }
 
   private void sendDeleteBreakpoint(final MagikBreakpoint magikBreakpoint)
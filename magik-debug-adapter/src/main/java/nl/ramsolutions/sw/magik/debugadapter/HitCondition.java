@@ -0,0 +1,79 @@
+package nl.ramsolutions.sw.magik.debugadapter;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hit condition of a breakpoint, e.g., {@code >= 5}, {@code == 3} or {@code % 2}. A bare number is
+ * treated as {@code >=}. Tested locally against the hit count, without a round trip to the session.
+ */
+final class HitCondition {
+
+  private static final Pattern HIT_CONDITION_PATTERN =
+      Pattern.compile("^\\s*(==|=|>=|>|<=|<|%)?\\s*(\\d+)\\s*$");
+  private static final Map<String, BiPredicate<Long, Long>> OPERATORS =
+      Map.of(
+          "==", (hitCount, value) -> hitCount.equals(value),
+          "=", (hitCount, value) -> hitCount.equals(value),
+          ">=", (hitCount, value) -> hitCount >= value,
+          ">", (hitCount, value) -> hitCount > value,
+          "<=", (hitCount, value) -> hitCount <= value,
+          "<", (hitCount, value) -> hitCount < value,
+          "%", (hitCount, value) -> value != 0 && hitCount % value == 0);
+
+  private final String operator;
+  private final long value;
+
+  private HitCondition(final String operator, final long value) {
+    this.operator = operator;
+    this.value = value;
+  }
+
+  /**
+   * Parse a hit condition.
+   *
+   * @param hitCondition Hit condition expression.
+   * @return Parsed hit condition, or null if empty or malformed.
+   */
+  @CheckForNull
+  static HitCondition parse(final @Nullable String hitCondition) {
+    if (hitCondition == null || hitCondition.isBlank()) {
+      return null;
+    }
+
+    final Matcher matcher = HIT_CONDITION_PATTERN.matcher(hitCondition);
+    if (!matcher.matches()) {
+      return null;
+    }
+
+    final String operator = matcher.group(1) != null ? matcher.group(1) : ">=";
+    final long value;
+    try {
+      value = Long.parseLong(matcher.group(2));
+    } catch (final NumberFormatException exception) {
+      return null;
+    }
+    return new HitCondition(operator, value);
+  }
+
+  /**
+   * Test if the hit count satisfies this condition.
+   *
+   * @param hitCount Hit count (1-based).
+   * @return True if satisfied, false otherwise.
+   */
+  boolean test(final long hitCount) {
+    return OPERATORS.get(this.operator).test(hitCount, this.value);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s@%s(%s %s)",
+        this.getClass().getName(), Integer.toHexString(this.hashCode()), this.operator, this.value);
+  }
+}
@@ -0,0 +1,96 @@
+package nl.ramsolutions.sw.magik.debugadapter;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Log message of a log point, e.g., {@code "a is {a}, b is {b}"}. All embedded expressions are
+ * evaluated in a single expression, after which the message is formatted locally.
+ */
+final class LogMessage {
+
+  private static final String RECORD_SEPARATOR = "\u001e";
+  private static final String EXPRESSION_SEPARATOR = ", character.from_value(30), ";
+
+  private final List<String> literals;
+  private final List<String> expressions;
+
+  private LogMessage(final List<String> literals, final List<String> expressions) {
+    this.literals = literals;
+    this.expressions = expressions;
+  }
+
+  /**
+   * Parse a log message. Expressions are enclosed in braces.
+   *
+   * @param logMessage Log message.
+   * @return Parsed log message.
+   */
+  static LogMessage parse(final String logMessage) {
+    final List<String> literals = new ArrayList<>();
+    final List<String> expressions = new ArrayList<>();
+    int index = 0;
+    while (true) {
+      final int open = logMessage.indexOf('{', index);
+      final int close = open != -1 ? logMessage.indexOf('}', open + 1) : -1;
+      if (close == -1) {
+        break;
+      }
+
+      literals.add(logMessage.substring(index, open));
+      expressions.add(logMessage.substring(open + 1, close).strip());
+      index = close + 1;
+    }
+    literals.add(logMessage.substring(index));
+
+    return new LogMessage(
+        Collections.unmodifiableList(literals), Collections.unmodifiableList(expressions));
+  }
+
+  /**
+   * Get the Magik expression evaluating all embedded expressions at once.
+   *
+   * @return Magik expression, or null if the message has no embedded expressions.
+   */
+  @CheckForNull
+  String getExpression() {
+    if (this.expressions.isEmpty()) {
+      return null;
+    }
+
+    return this.expressions.stream()
+        .collect(Collectors.joining(EXPRESSION_SEPARATOR, "write_string(", ")"));
+  }
+
+  /**
+   * Format the message without any evaluated expressions.
+   *
+   * @return Formatted message.
+   */
+  String format() {
+    return this.format(null);
+  }
+
+  /**
+   * Format the message from the result of {@link #getExpression()}.
+   *
+   * @param result Result of evaluated expression.
+   * @return Formatted message.
+   */
+  String format(final @Nullable String result) {
+    final String[] values = result != null ? result.split(RECORD_SEPARATOR, -1) : new String[] {};
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < this.literals.size(); ++i) {
+      builder.append(this.literals.get(i));
+      if (i < this.expressions.size()) {
+        final String value = i < values.length ? values[i] : "{" + this.expressions.get(i) + "}";
+        builder.append(value);
+      }
+    }
+    return builder.toString();
+  }
+}
@@ -111,6 +111,10 @@ public final class Lsp4jConversion {
               variable.setName(magikVariable.getName());
               variable.setValue(magikVariable.getValue());
               variable.setEvaluateName(magikVariable.getExpression());
+              if (magikVariable.getIndexedCount() != -1) {
+                // Lets the client page through the elements using start/count.
+                variable.setIndexedVariables(magikVariable.getIndexedCount());
+              }
               return variable;
             })
         .toArray(size -> new Variable[size]);
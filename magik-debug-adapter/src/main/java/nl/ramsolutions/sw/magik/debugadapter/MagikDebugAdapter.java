@@ -104,6 +104,9 @@ public class MagikDebugAdapter implements IDebugProtocolServer, SlapEventListene
 
     final Capabilities capabilities = new Capabilities();
     capabilities.setSupportsFunctionBreakpoints(true);
+    capabilities.setSupportsConditionalBreakpoints(true);
+    capabilities.setSupportsHitConditionalBreakpoints(true);
+    capabilities.setSupportsLogPoints(true);
     capabilities.setExceptionBreakpointFilters(BreakpointManager.EXCEPTION_BREAKPOINTS_FILTERS);
     return CompletableFuture.completedFuture(capabilities);
   }
@@ -305,7 +308,8 @@ public class MagikDebugAdapter implements IDebugProtocolServer, SlapEventListene
         () -> {
           final int reference = args.getVariablesReference();
           try {
-            final List<MagikVariable> magikVariables = this.variableManager.getVariables(reference);
+            final List<MagikVariable> magikVariables =
+                this.variableManager.getVariables(reference, args.getStart(), args.getCount());
 
             // Return response.
             final VariablesResponse response = new VariablesResponse();
@@ -591,9 +595,11 @@ public class MagikDebugAdapter implements IDebugProtocolServer, SlapEventListene
    */
   void processEvent(final ISlapEvent event) {
     if (event instanceof BreakpointEvent breakpointEvent) {
-      this.breakpointManager.handleBreakpointEvent(breakpointEvent);
-      this.threadManager.handleBreakpointEvent(breakpointEvent);
-      this.variableManager.handleBreakpointEvent(breakpointEvent);
+      // Resumed threads, i.e., log points and unmet conditions, leave other state untouched.
+      if (this.breakpointManager.handleBreakpointEvent(breakpointEvent)) {
+        this.threadManager.handleBreakpointEvent(breakpointEvent);
+        this.variableManager.handleBreakpointEvent(breakpointEvent);
+      }
     } else if (event instanceof ThreadStartedEvent threadStartedEvent) {
       this.threadManager.handleThreadStartedEvent(threadStartedEvent);
     } else if (event instanceof ThreadEndedEvent threadEndedEvent) {
@@ -0,0 +1,105 @@
+package nl.ramsolutions.sw.magik.debugadapter;
+
+import com.sonar.sslr.api.AstNode;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import nl.ramsolutions.sw.magik.analysis.helpers.MethodDefinitionNodeHelper;
+import nl.ramsolutions.sw.magik.api.MagikGrammar;
+import nl.ramsolutions.sw.magik.parser.MagikParser;
+
+/** Index of the line ranges of the methods defined in a source file. */
+final class MethodLineIndex {
+
+  /**
+   * Method defined in the source file.
+   *
+   * @param startLine First line of method definition.
+   * @param endLine Last line of method definition.
+   * @param methodName Full exemplar method name, e.g., {@code user:exemplar.method()}.
+   */
+  record MethodRange(int startLine, int endLine, String methodName) {}
+
+  private final FileTime lastModifiedTime;
+  private final List<MethodRange> methodRanges;
+
+  private MethodLineIndex(final FileTime lastModifiedTime, final List<MethodRange> methodRanges) {
+    this.lastModifiedTime = lastModifiedTime;
+    this.methodRanges = methodRanges;
+  }
+
+  /**
+   * Build the index of a source file, parsing it once.
+   *
+   * @param path Path to source file.
+   * @return Index.
+   * @throws IOException -
+   */
+  static MethodLineIndex of(final Path path) throws IOException {
+    final FileTime lastModifiedTime = Files.getLastModifiedTime(path);
+    final MagikParser parser = new MagikParser();
+    final AstNode node = parser.parseSafe(path);
+    final List<MethodRange> methodRanges =
+        node.getDescendants(MagikGrammar.METHOD_DEFINITION).stream()
+            .map(
+                methodNode -> {
+                  final MethodDefinitionNodeHelper helper =
+                      new MethodDefinitionNodeHelper(methodNode);
+                  return new MethodRange(
+                      methodNode.getTokenLine(),
+                      methodNode.getLastToken().getLine(),
+                      helper.getFullExemplarMethodName());
+                })
+            .sorted(Comparator.comparing(MethodRange::startLine))
+            .toList();
+    return new MethodLineIndex(lastModifiedTime, methodRanges);
+  }
+
+  /**
+   * Test if the index is still up to date with the source file.
+   *
+   * @param path Path to source file.
+   * @return True if up to date, false otherwise.
+   */
+  boolean isValid(final Path path) {
+    try {
+      return this.lastModifiedTime.equals(Files.getLastModifiedTime(path));
+    } catch (final IOException exception) {
+      return false;
+    }
+  }
+
+  /**
+   * Get the method surrounding the given line.
+   *
+   * @param line Line (1-based).
+   * @return Method surrounding the line, or null if not in a method.
+   */
+  @CheckForNull
+  MethodRange getMethodRange(final int line) {
+    // Binary search for the last method starting at or before line.
+    int low = 0;
+    int high = this.methodRanges.size() - 1;
+    MethodRange candidate = null;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final MethodRange methodRange = this.methodRanges.get(mid);
+      if (methodRange.startLine() <= line) {
+        candidate = methodRange;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+
+    if (candidate == null || candidate.endLine() < line) {
+      return null;
+    }
+
+    return candidate;
+  }
+}
@@ -1,11 +1,17 @@
 package nl.ramsolutions.sw.magik.debugadapter;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import nl.ramsolutions.sw.magik.debugadapter.slap.ErrorMessage;
 import nl.ramsolutions.sw.magik.debugadapter.slap.ISlapProtocol;
@@ -43,12 +49,52 @@ class ThreadManager {
   private static final String EVAL_EXEMPLAR_PACKAGE =
       "_self.define_method_target.meta_at(:exemplar_global).package.association_at(%s).package.name.write_string";
 
+  /**
+   * Resolved source path of a method, valid as long as the local file is not modified. Only local
+   * files can be checked, a redefinition from elsewhere (e.g., the console) is not detected.
+   */
+  private record SourcePath(Path path, FileTime lastModifiedTime) {
+
+    /**
+     * Get a cacheable {@link SourcePath}.
+     *
+     * @param path Path of source file.
+     * @return SourcePath, or null if the file does not exist locally and cannot be validated.
+     */
+    @CheckForNull
+    static SourcePath of(final Path path) {
+      final FileTime lastModifiedTime = SourcePath.getLastModifiedTime(path);
+      if (lastModifiedTime == null) {
+        return null;
+      }
+
+      return new SourcePath(path, lastModifiedTime);
+    }
+
+    boolean isValid() {
+      return this.lastModifiedTime.equals(SourcePath.getLastModifiedTime(this.path));
+    }
+
+    @CheckForNull
+    private static FileTime getLastModifiedTime(final Path path) {
+      try {
+        return Files.getLastModifiedTime(path);
+      } catch (final IOException exception) {
+        return null;
+      }
+    }
+  }
+
   private final ISlapProtocol slapProtocol;
   private final IDebugProtocolClient debugClient;
   private final PathMapper pathMapper;
   private boolean stepCompletedEventReceived;
   private BreakpointEvent breakpointEvent;
 
+  // Per session caches: exemplar name to package name, and method name to source path.
+  private final Map<String, String> exemplarPackages = new ConcurrentHashMap<>();
+  private final Map<String, SourcePath> methodSourcePaths = new ConcurrentHashMap<>();
+
   /**
    * Constructor.
    *
@@ -78,11 +124,17 @@ class ThreadManager {
     final CompletableFuture<ISlapResponse> futureThreadList = this.slapProtocol.getThreadList();
     final ThreadListResponse threadList = (ThreadListResponse) futureThreadList.get();
 
-    // Get all thread info for each received thread ID.
+    // Request all thread info for each received thread ID at once.
+    final Map<Long, CompletableFuture<ISlapResponse>> threadInfoFutures = new LinkedHashMap<>();
+    for (final long threadId : threadList.getThreadIds()) {
+      threadInfoFutures.put(threadId, this.slapProtocol.getThreadInfo(threadId));
+    }
+
     final List<Thread> threads = new ArrayList<>();
-    for (long threadId : threadList.getThreadIds()) {
-      final CompletableFuture<ISlapResponse> threadInfoFuture =
-          this.slapProtocol.getThreadInfo(threadId);
+    for (final Map.Entry<Long, CompletableFuture<ISlapResponse>> entry :
+        threadInfoFutures.entrySet()) {
+      final long threadId = entry.getKey();
+      final CompletableFuture<ISlapResponse> threadInfoFuture = entry.getValue();
       try {
         final ThreadInfoResponse threadInfo = (ThreadInfoResponse) threadInfoFuture.get();
         LOGGER.trace("Got thread, id: {}, thread info: {}", threadId, threadInfo);
@@ -121,10 +173,28 @@ class ThreadManager {
         this.slapProtocol.getThreadStack(threadId);
     final ThreadStackResponse threadStack = (ThreadStackResponse) threadStackFuture.get();
 
-    // Do conversion here due to filtering on language + getting source,
-    // instead of Lsp4jConversion.
+    // Don't mess with non-Magik stack frames.
+    final List<ThreadStackResponse.StackElement> stackElements =
+        threadStack.getStackFrames().stream()
+            .filter(stackElement -> stackElement.getLanguage().equals(LANGUAGE_MAGIK))
+            .toList();
+
+    // Determine the packages of all methods, then the sources of all methods, keeping many
+    // requests in flight at once.
+    final List<CompletableFuture<ISlapResponse>> packageFutures = new ArrayList<>();
+    for (final ThreadStackResponse.StackElement stackElement : stackElements) {
+      packageFutures.add(this.requestPackage(threadId, stackElement));
+    }
+    final List<CompletableFuture<Path>> sourcePathFutures = new ArrayList<>();
+    for (int i = 0; i < stackElements.size(); ++i) {
+      final ThreadStackResponse.StackElement stackElement = stackElements.get(i);
+      sourcePathFutures.add(this.requestSourcePath(stackElement, packageFutures.get(i)));
+    }
+
+    // Do conversion here due to getting source, instead of Lsp4jConversion.
     final List<StackFrame> stackFrames = new ArrayList<>();
-    for (final ThreadStackResponse.StackElement stackElement : threadStack.getStackFrames()) {
+    for (int i = 0; i < stackElements.size(); ++i) {
+      final ThreadStackResponse.StackElement stackElement = stackElements.get(i);
       LOGGER.trace(
           "Stack element, level: {}, language: {}, name: '{}', offset: {}",
           stackElement.getLevel(),
@@ -132,13 +202,8 @@ class ThreadManager {
           stackElement.getName(),
           stackElement.getOffset());
 
-      // Don't mess with non-Magik stack frames.
-      if (!stackElement.getLanguage().equals(LANGUAGE_MAGIK)) {
-        continue;
-      }
-
       // This sets the frameId to the given stack frames.
-      final Path path = this.determinePath(threadId, stackElement);
+      final Path path = this.determinePath(sourcePathFutures.get(i));
       final StackFrame stackFrame = Lsp4jConversion.toLsp4j(threadId, stackElement, path);
       stackFrames.add(stackFrame);
     }
@@ -146,44 +211,113 @@ class ThreadManager {
     return stackFrames;
   }
 
-  private Path determinePath(
-      final long threadId, final ThreadStackResponse.StackElement stackElement)
+  /**
+   * Request the package of the exemplar of the method of a stack element, if it needs to be
+   * determined.
+   *
+   * @return Future with the package, or null if not needed.
+   */
+  @CheckForNull
+  private CompletableFuture<ISlapResponse> requestPackage(
+      final long threadId, final ThreadStackResponse.StackElement stackElement) throws IOException {
+    final String method = stackElement.getName();
+    if (method.equals(UNNAMED_PROC) || method.equals(LOOPBODY)) {
+      return null;
+    }
+
+    final int indexDot = method.indexOf('.');
+    final int indexBracket = method.indexOf('[');
+    final int index = indexDot != -1 ? indexDot + 1 : indexBracket;
+    if (method.contains(":") || index == -1) {
+      return null;
+    }
+
+    // Do some extra work to determine package, unless already known.
+    final String exemplarName = method.substring(0, index - 1);
+    final String packageName = this.exemplarPackages.get(exemplarName);
+    if (packageName != null) {
+      return CompletableFuture.completedFuture(new EvalResponse(packageName));
+    }
+
+    final int level = stackElement.getLevel();
+    final String expr = String.format(EVAL_EXEMPLAR_PACKAGE, ":|" + exemplarName + "|");
+    LOGGER.debug("Eval expression: '{}'", expr);
+    return this.slapProtocol
+        .evaluate(threadId, level, expr)
+        .thenApply(
+            response -> {
+              this.exemplarPackages.put(exemplarName, ((EvalResponse) response).getResult());
+              return response;
+            });
+  }
+
+  /**
+   * Request the (mapped) source path of the method of a stack element. Source paths are cached
+   * until the local source file is modified, i.e., when the method is possibly redefined. Source
+   * paths which do not exist locally are never cached.
+   *
+   * @return Future with the source path, or null if the stack element has no source.
+   */
+  @CheckForNull
+  private CompletableFuture<Path> requestSourcePath(
+      final ThreadStackResponse.StackElement stackElement,
+      final @Nullable CompletableFuture<ISlapResponse> packageFuture)
       throws InterruptedException, ExecutionException, IOException {
-    try {
-      String method = stackElement.getName();
-      if (!method.equals(UNNAMED_PROC) && !method.equals(LOOPBODY)) {
-        final int indexDot = method.indexOf('.');
-        final int indexBracket = method.indexOf('[');
-        final int index = indexDot != -1 ? indexDot + 1 : indexBracket;
-        if (!method.contains(":") && index != -1) {
-          // Do some extra work to determine package.
-          final int level = stackElement.getLevel();
-
-          final String exemplarName = ":|" + method.substring(0, index - 1) + "|";
-          final String expr = String.format(EVAL_EXEMPLAR_PACKAGE, exemplarName);
-          LOGGER.debug("Eval expression: '{}'", expr);
-          final EvalResponse eval =
-              (EvalResponse) this.slapProtocol.evaluate(threadId, level, expr).get();
-          method = eval.getResult() + ":" + method;
-
-          // Bonus: update exemplar name with package.
-          stackElement.setName(method);
-        }
+    String method = stackElement.getName();
+    if (method.equals(UNNAMED_PROC) || method.equals(LOOPBODY)) {
+      return null;
+    }
 
-        // Clear any spaces (before `<<`/`^<<`). Lazy approach...
-        method = method.replace(" ", "");
+    if (packageFuture != null) {
+      try {
+        final EvalResponse eval = (EvalResponse) packageFuture.get();
+        method = eval.getResult() + ":" + method;
+
+        // Bonus: update exemplar name with package.
+        stackElement.setName(method);
+      } catch (final ExecutionException exception) {
+        if (!ThreadManager.isIgnorableError(exception)) {
+          throw exception;
+        }
 
-        // Get source file for method.
-        final CompletableFuture<ISlapResponse> sourceFileFuture =
-            this.slapProtocol.getSourceFile(method);
-        final SourceFileResponse sourceFile = (SourceFileResponse) sourceFileFuture.get();
-        final String filename = sourceFile.getFilename();
-        final Path daPath = Path.of(filename);
-        return this.pathMapper.applyMapping(daPath);
+        return null;
       }
+    }
+
+    // Clear any spaces (before `<<`/`^<<`). Lazy approach...
+    final String methodName = method.replace(" ", "");
+    final SourcePath sourcePath = this.methodSourcePaths.get(methodName);
+    if (sourcePath != null && sourcePath.isValid()) {
+      return CompletableFuture.completedFuture(sourcePath.path());
+    }
+
+    // Get source file for method.
+    return this.slapProtocol
+        .getSourceFile(methodName)
+        .thenApply(
+            response -> {
+              final String filename = ((SourceFileResponse) response).getFilename();
+              final Path daPath = Path.of(filename);
+              final Path path = this.pathMapper.applyMapping(daPath);
+              final SourcePath resolvedSourcePath = SourcePath.of(path);
+              if (resolvedSourcePath != null) {
+                this.methodSourcePaths.put(methodName, resolvedSourcePath);
+              }
+              return path;
+            });
+  }
+
+  @CheckForNull
+  private Path determinePath(final @Nullable CompletableFuture<Path> sourcePathFuture)
+      throws InterruptedException, ExecutionException {
+    if (sourcePathFuture == null) {
+      return null;
+    }
+
+    try {
+      return sourcePathFuture.get();
     } catch (final ExecutionException exception) {
-      if (exception.getCause() instanceof SlapErrorException slapErrorException
-          && slapErrorException.getError().getErrorMessage() != ErrorMessage.METHOD_NOT_FOUND) {
+      if (!ThreadManager.isIgnorableError(exception)) {
         throw exception;
       }
     }
@@ -191,6 +325,15 @@ class ThreadManager {
     return null;
   }
 
+  /**
+   * Test if the error is ignorable, i.e., anything but a {@link SlapErrorException} other than
+   * method not found.
+   */
+  private static boolean isIgnorableError(final ExecutionException exception) {
+    return !(exception.getCause() instanceof SlapErrorException slapErrorException)
+        || slapErrorException.getError().getErrorMessage() == ErrorMessage.METHOD_NOT_FOUND;
+  }
+
   /**
    * Pause a thread.
    *
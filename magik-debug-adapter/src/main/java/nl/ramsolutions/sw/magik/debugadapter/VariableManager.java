@@ -1,5 +1,6 @@
 package nl.ramsolutions.sw.magik.debugadapter;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -8,12 +9,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 import nl.ramsolutions.sw.magik.debugadapter.slap.ISlapProtocol;
 import nl.ramsolutions.sw.magik.debugadapter.slap.events.BreakpointEvent;
 import nl.ramsolutions.sw.magik.debugadapter.slap.events.StepCompletedEvent;
 import nl.ramsolutions.sw.magik.debugadapter.slap.responses.EvalResponse;
 import nl.ramsolutions.sw.magik.debugadapter.slap.responses.StackFrameLocalsResponse;
 import nl.ramsolutions.sw.magik.debugadapter.slap.responses.StackFrameLocalsResponse.Local;
+import nl.ramsolutions.sw.magik.debugadapter.slap.responses.StackFrameLocalsResponse.LocalType;
 import nl.ramsolutions.sw.magik.debugadapter.slap.responses.StackFrameLocalsResponse.VariableType;
 import org.eclipse.lsp4j.debug.Scope;
 import org.slf4j.Logger;
@@ -32,6 +35,9 @@ class VariableManager {
     private final String name;
     private final String value;
     private final String expression;
+    private final int chunkStart;
+    private final int chunkCount;
+    private final int indexedCount;
 
     /**
      * Constructor.
@@ -48,11 +54,63 @@ class VariableManager {
         final String name,
         final String value,
         final String expression) {
+      this(id, frameId, name, value, expression, -1);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param id Variable ID.
+     * @param frameId Frame ID.
+     * @param name Name of variable.
+     * @param value Value of variable.
+     * @param expression Expression for varaible.
+     * @param indexedCount Number of elements if value is an indexed collection, -1 otherwise.
+     */
+    MagikVariable(
+        final int id,
+        final int frameId,
+        final String name,
+        final String value,
+        final String expression,
+        final int indexedCount) {
       this.id = id;
       this.frameId = frameId;
       this.name = name;
       this.value = value;
       this.expression = expression;
+      this.chunkStart = -1;
+      this.chunkCount = -1;
+      this.indexedCount = indexedCount;
+    }
+
+    /**
+     * Constructor for a chunk of an indexed collection.
+     *
+     * @param id Variable ID.
+     * @param frameId Frame ID.
+     * @param name Name of variable.
+     * @param value Value of variable.
+     * @param expression Expression for the indexed collection.
+     * @param chunkStart Index of first element in chunk.
+     * @param chunkCount Number of elements in chunk.
+     */
+    MagikVariable(
+        final int id,
+        final int frameId,
+        final String name,
+        final String value,
+        final String expression,
+        final int chunkStart,
+        final int chunkCount) {
+      this.id = id;
+      this.frameId = frameId;
+      this.name = name;
+      this.value = value;
+      this.expression = expression;
+      this.chunkStart = chunkStart;
+      this.chunkCount = chunkCount;
+      this.indexedCount = chunkCount;
     }
 
     int getId() {
@@ -74,6 +132,27 @@ class VariableManager {
     String getExpression() {
       return this.expression;
     }
+
+    boolean isChunk() {
+      return this.chunkStart != -1;
+    }
+
+    int getChunkStart() {
+      return this.chunkStart;
+    }
+
+    int getChunkCount() {
+      return this.chunkCount;
+    }
+
+    /**
+     * Get the number of indexed child variables, used by clients to page through them.
+     *
+     * @return Number of elements of an indexed collection or chunk, -1 if not indexed.
+     */
+    int getIndexedCount() {
+      return this.indexedCount;
+    }
   }
 
   /** Scope type. */
@@ -82,6 +161,22 @@ class VariableManager {
     SLOTS,
   }
 
+  /** Maximum number of indexed variables returned at once, larger collections are chunked. */
+  static final int PAGE_SIZE = 100;
+
+  // Separators used to return multiple values from a single evaluation.
+  private static final String RECORD_SEPARATOR = "\u001e";
+  private static final String UNIT_SEPARATOR = "\u001f";
+
+  // Magik expression giving the size of an indexed collection as a string, or an empty string.
+  private static final String INDEXED_SIZE_EXPRESSION =
+      ""
+          + "_if %1$s.is_kind_of?(sw:indexed_format_mixin) _andif "
+          + "_not %1$s.is_kind_of?(sw:enumerated_format_mixin) "
+          + "_then >> %1$s.sys!size.write_string "
+          + "_else >> \"\" "
+          + "_endif";
+
   private final ISlapProtocol slapProtocol;
   private final Map<Integer, Integer> frameIds = new HashMap<>();
   private final Map<Integer, Scope> scopes = new HashMap<>();
@@ -169,14 +264,21 @@ class VariableManager {
    * @param frameId Frame ID.
    * @param name Variable name.
    * @param value Variable value.
+   * @param expression Expression to get variable.
+   * @param indexedCount Number of elements if value is an indexed collection, -1 otherwise.
    * @return New variable.
    */
   private MagikVariable addVariable(
-      final int frameId, final String name, final String value, final String expression) {
+      final int frameId,
+      final String name,
+      final String value,
+      final String expression,
+      final int indexedCount) {
     final int id = ++this.lastId;
     this.frameIds.put(id, frameId);
 
-    final MagikVariable variable = new MagikVariable(id, frameId, name, value, expression);
+    final MagikVariable variable =
+        new MagikVariable(id, frameId, name, value, expression, indexedCount);
     this.variables.put(id, variable);
     return variable;
   }
@@ -186,12 +288,13 @@ class VariableManager {
    *
    * @param frameId Frame ID.
    * @param local Local to convert.
+   * @param indexedCount Number of elements if value is an indexed collection, -1 otherwise.
    * @return New variable.
    */
-  private MagikVariable addVariable(final int frameId, final Local local) {
+  private MagikVariable addVariable(final int frameId, final Local local, final int indexedCount) {
     final String name = local.getName();
     final String value = local.getValue();
-    return addVariable(frameId, name, value, name);
+    return this.addVariable(frameId, name, value, name, indexedCount);
   }
 
   /**
@@ -201,14 +304,16 @@ class VariableManager {
    * @param name Name of variable.
    * @param value Value of variable.
    * @param expression Expression to get variable.
+   * @param indexedCount Number of elements if value is an indexed collection, -1 otherwise.
    * @return New variable.
    */
   private MagikVariable addVariable(
       final MagikVariable variable,
       final String name,
       final String value,
-      final String expression) {
-    return this.addVariable(variable.getFrameId(), name, value, expression);
+      final String expression,
+      final int indexedCount) {
+    return this.addVariable(variable.getFrameId(), name, value, expression, indexedCount);
   }
 
   /**
@@ -221,6 +326,27 @@ class VariableManager {
     return this.variables.get(variableId);
   }
 
+  /**
+   * Add a new chunk variable, representing a range of elements of an indexed collection.
+   *
+   * @param variable Indexed collection variable.
+   * @param start Index of first element.
+   * @param count Number of elements.
+   * @return New variable.
+   */
+  private MagikVariable addChunkVariable(
+      final MagikVariable variable, final int start, final int count) {
+    final int id = ++this.lastId;
+    final int frameId = variable.getFrameId();
+    this.frameIds.put(id, frameId);
+
+    final String name = "[" + start + ".." + (start + count - 1) + "]";
+    final MagikVariable chunkVariable =
+        new MagikVariable(id, frameId, name, "", variable.getExpression(), start, count);
+    this.variables.put(id, chunkVariable);
+    return chunkVariable;
+  }
+
   /**
    * Get variables.
    *
@@ -229,83 +355,169 @@ class VariableManager {
    */
   List<MagikVariable> getVariables(final int reference)
       throws IOException, InterruptedException, ExecutionException {
-    final List<MagikVariable> magikVariables = new ArrayList<>();
+    return this.getVariables(reference, null, null);
+  }
 
+  /**
+   * Get variables, optionally paged.
+   *
+   * <p>Indexed collections are fetched one page at a time. If no page is requested and the
+   * collection contains more than {@link #PAGE_SIZE} elements, chunk variables are returned
+   * instead, which can be expanded themselves.
+   *
+   * @param reference Reference to use.
+   * @param start Index of first variable to return, or null to start at the first.
+   * @param count Number of variables to return, or null to return all.
+   * @return Variables.
+   */
+  List<MagikVariable> getVariables(
+      final int reference, final @Nullable Integer start, final @Nullable Integer count)
+      throws IOException, InterruptedException, ExecutionException {
     // Call into debugger to get variables.
     final Scope scope = this.getScope(reference);
-    MagikVariable variable = this.getVariable(reference);
+    final MagikVariable variable = this.getVariable(reference);
     if (scope != null) {
-      final int scopeId = scope.getVariablesReference();
-      final int frameId = this.getFrameId(scopeId);
-      final long threadId = Lsp4jConversion.frameIdToThreadId(frameId);
-      final int level = Lsp4jConversion.frameIdToLevel(frameId);
-      final StackFrameLocalsResponse stackFrameLocals =
-          (StackFrameLocalsResponse) this.slapProtocol.getStackFrameLocals(threadId, level).get();
-
-      stackFrameLocals.getLocals().stream()
-          .filter(local -> !local.getVariableTypes().contains(VariableType.SLOT))
-          .map(local -> this.addVariable(frameId, local))
-          .forEach(magikVariables::add);
+      return this.variablesFromScope(scope);
+    } else if (variable != null && variable.isChunk()) {
+      return this.variablesFromChunk(variable, start, count);
     } else if (variable != null) {
-      final int frameId = variable.getFrameId();
-      final long threadId = Lsp4jConversion.frameIdToThreadId(frameId);
-      final int level = Lsp4jConversion.frameIdToLevel(frameId);
-      final String expression = variable.getExpression();
-
-      // Determine type:
-      // - sw:enumerated_format_mixin
-      // - sw:indexed_format_mixin
-      // - sw:slotted_format_mixin
-      final String typeExpression =
-          ""
-              + "_if "
-              + expression
-              + ".is_kind_of?(sw:enumerated_format_mixin) "
-              + "_then >> :enumerated_format_mixin "
-              + "_elif "
-              + expression
-              + ".is_kind_of?(sw:indexed_format_mixin) "
-              + "_then >> :indexed_format_mixin "
-              + "_elif "
-              + expression
-              + ".is_kind_of?(sw:slotted_format_mixin) "
-              + "_then >> :slotted_format_mixin "
-              + "_else >> expression.class_name "
-              + "_endif";
-      final EvalResponse typeEvalResponse =
-          (EvalResponse) this.slapProtocol.evaluate(threadId, level, typeExpression).get();
-      List<MagikVariable> subVariables = null;
-      switch (typeEvalResponse.getResult()) {
-        case ":enumerated_format_mixin":
-          subVariables = this.variablesFromEnumerated(variable);
-          break;
-
-        case ":indexed_format_mixin":
-          subVariables = this.variablesFromIndexed(variable);
-          break;
-
-        case ":slotted_format_mixin":
-          subVariables = this.variablesFromSlotted(variable);
-          break;
-
-        default:
-          LOGGER.warn(
-              "Unknown type for expression: {}, class: {}",
-              expression,
-              typeEvalResponse.getResult());
-          subVariables = new ArrayList<>();
-          break;
-      }
-      magikVariables.addAll(subVariables);
+      return this.variablesFromVariable(variable, start, count);
     }
 
-    // Sort variables.
-    final Comparator<MagikVariable> byName = Comparator.comparing(MagikVariable::getName);
-    return magikVariables.stream().sorted(byName).toList();
+    return Collections.emptyList();
   }
 
   // endregion
 
+  private List<MagikVariable> variablesFromScope(final Scope scope)
+      throws IOException, InterruptedException, ExecutionException {
+    final int scopeId = scope.getVariablesReference();
+    final int frameId = this.getFrameId(scopeId);
+    final long threadId = Lsp4jConversion.frameIdToThreadId(frameId);
+    final int level = Lsp4jConversion.frameIdToLevel(frameId);
+    final StackFrameLocalsResponse stackFrameLocals =
+        (StackFrameLocalsResponse) this.slapProtocol.getStackFrameLocals(threadId, level).get();
+
+    final List<Local> locals =
+        stackFrameLocals.getLocals().stream()
+            .filter(local -> !local.getVariableTypes().contains(VariableType.SLOT))
+            .toList();
+    final Map<String, Integer> indexedCounts = this.indexedCounts(frameId, locals);
+
+    final Comparator<MagikVariable> byName = Comparator.comparing(MagikVariable::getName);
+    return locals.stream()
+        .map(
+            local ->
+                this.addVariable(frameId, local, indexedCounts.getOrDefault(local.getName(), -1)))
+        .sorted(byName)
+        .toList();
+  }
+
+  /**
+   * Get the number of elements of the locals which are indexed collections, using a single
+   * evaluation. Only object locals can be indexed collections.
+   */
+  private Map<String, Integer> indexedCounts(final int frameId, final List<Local> locals)
+      throws IOException, InterruptedException, ExecutionException {
+    final List<String> names =
+        locals.stream()
+            .filter(local -> local.getLocalType() == LocalType.TYPE_OBJ)
+            .map(Local::getName)
+            .toList();
+    if (names.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    // Get all sizes in one go, as: size RS size RS ...
+    final String sizesExpression =
+        names.stream()
+            .map(
+                name ->
+                    "stream.write("
+                        + INDEXED_SIZE_EXPRESSION.formatted(name)
+                        + ", character.from_value(30))\n")
+            .collect(
+                Collectors.joining(
+                    "",
+                    "_block\n_local stream << internal_text_output_stream.new()\n",
+                    ">> stream.string\n_endblock"));
+    final long threadId = Lsp4jConversion.frameIdToThreadId(frameId);
+    final int level = Lsp4jConversion.frameIdToLevel(frameId);
+    final EvalResponse sizesEvalResponse =
+        (EvalResponse) this.slapProtocol.evaluate(threadId, level, sizesExpression).get();
+    final String[] sizes = sizesEvalResponse.getResult().split(RECORD_SEPARATOR, -1);
+
+    final Map<String, Integer> indexedCounts = new HashMap<>();
+    for (int i = 0; i < names.size() && i < sizes.length; ++i) {
+      indexedCounts.put(names.get(i), VariableManager.parseIndexedCount(sizes[i]));
+    }
+    return indexedCounts;
+  }
+
+  private static int parseIndexedCount(final String size) {
+    return size.isEmpty() ? -1 : Integer.parseInt(size);
+  }
+
+  private List<MagikVariable> variablesFromVariable(
+      final MagikVariable variable, final @Nullable Integer start, final @Nullable Integer count)
+      throws IOException, InterruptedException, ExecutionException {
+    final int frameId = variable.getFrameId();
+    final long threadId = Lsp4jConversion.frameIdToThreadId(frameId);
+    final int level = Lsp4jConversion.frameIdToLevel(frameId);
+    final String expression = variable.getExpression();
+
+    // Determine type:
+    // - sw:enumerated_format_mixin
+    // - sw:indexed_format_mixin
+    // - sw:slotted_format_mixin
+    final String typeExpression =
+        ""
+            + "_if "
+            + expression
+            + ".is_kind_of?(sw:enumerated_format_mixin) "
+            + "_then >> :enumerated_format_mixin "
+            + "_elif "
+            + expression
+            + ".is_kind_of?(sw:indexed_format_mixin) "
+            + "_then >> :indexed_format_mixin "
+            + "_elif "
+            + expression
+            + ".is_kind_of?(sw:slotted_format_mixin) "
+            + "_then >> :slotted_format_mixin "
+            + "_else >> expression.class_name "
+            + "_endif";
+    final EvalResponse typeEvalResponse =
+        (EvalResponse) this.slapProtocol.evaluate(threadId, level, typeExpression).get();
+    switch (typeEvalResponse.getResult()) {
+      case ":enumerated_format_mixin":
+        return this.variablesFromEnumerated(variable);
+
+      case ":indexed_format_mixin":
+        return start != null || count != null
+            ? this.variablesFromIndexed(
+                variable, start != null ? start : 0, count != null ? count : Integer.MAX_VALUE)
+            : this.variablesFromIndexed(variable);
+
+      case ":slotted_format_mixin":
+        return VariableManager.page(this.variablesFromSlotted(variable), start, count);
+
+      default:
+        LOGGER.warn(
+            "Unknown type for expression: {}, class: {}", expression, typeEvalResponse.getResult());
+        return Collections.emptyList();
+    }
+  }
+
+  private static List<MagikVariable> page(
+      final List<MagikVariable> variables,
+      final @Nullable Integer start,
+      final @Nullable Integer count) {
+    final int fromIndex = Math.min(start != null ? start : 0, variables.size());
+    final int toIndex =
+        count != null ? Math.min(fromIndex + count, variables.size()) : variables.size();
+    return variables.subList(fromIndex, toIndex);
+  }
+
   private List<MagikVariable> variablesFromSlotted(final MagikVariable variable)
       throws InterruptedException, ExecutionException, IOException {
     final int frameId = variable.getFrameId();
@@ -313,39 +525,54 @@ class VariableManager {
     final int level = Lsp4jConversion.frameIdToLevel(frameId);
     final String expression = variable.getExpression();
 
-    // Get slots.
+    // Get all slot names, values and sizes in one go, as: name US value US size RS ...
     final String slotsExpression =
-        ""
-            + expression
-            + ".sys!all_slot_names()"
-            + ".map(_proc(sn) _return sn.subseq(sn.index_of(%!) + 1) _endproc)"
-            + ".join_as_strings(%,)";
+        """
+        _block
+          _local object << %s
+          _local stream << internal_text_output_stream.new()
+          _for slot_name _over object.sys!all_slot_names().fast_elements()
+          _loop
+            _local name << slot_name.subseq(slot_name.index_of(%%!) + 1)
+            _local value << object.sys!slot(name.as_symbol())
+            stream.write(
+              name, character.from_value(31),
+              value.print_string, character.from_value(31),
+              %s, character.from_value(30))
+          _endloop
+          >> stream.string
+        _endblock"""
+            .formatted(expression, INDEXED_SIZE_EXPRESSION.formatted("value"));
     final EvalResponse slotsEvalResponse =
         (EvalResponse) this.slapProtocol.evaluate(threadId, level, slotsExpression).get();
-    final String slotNames = slotsEvalResponse.getResult();
+    final String slots = slotsEvalResponse.getResult();
 
-    // For each slot, get contents
     final List<MagikVariable> magikVariables = new ArrayList<>();
-    for (final String slotName : slotNames.split(",")) {
-      if ("".equals(slotName)) {
+    for (final String slot : slots.split(RECORD_SEPARATOR)) {
+      final int index = slot.indexOf(UNIT_SEPARATOR);
+      final int sizeIndex = slot.lastIndexOf(UNIT_SEPARATOR);
+      if (index == -1 || sizeIndex == index) {
         continue;
       }
 
+      final String slotName = slot.substring(0, index);
+      final String slotValue = slot.substring(index + 1, sizeIndex);
+      final int indexedCount = VariableManager.parseIndexedCount(slot.substring(sizeIndex + 1));
       final String slotValueExpression = expression + ".sys!slot(:" + slotName + ")";
-      final EvalResponse slotValueResponse =
-          (EvalResponse)
-              this.slapProtocol
-                  .evaluate(threadId, level, slotValueExpression + ".print_string")
-                  .get();
-      final String slotValue = slotValueResponse.getResult();
-
       final MagikVariable slotVariable =
-          this.addVariable(variable, slotName, slotValue, slotValueExpression);
+          this.addVariable(variable, slotName, slotValue, slotValueExpression, indexedCount);
       magikVariables.add(slotVariable);
     }
+
+    final Comparator<MagikVariable> byName = Comparator.comparing(MagikVariable::getName);
+    magikVariables.sort(byName);
     return magikVariables;
   }
 
+  /**
+   * Get the variables of an indexed collection. Collections larger than {@link #PAGE_SIZE} are
+   * returned as chunks.
+   */
   private List<MagikVariable> variablesFromIndexed(final MagikVariable variable)
       throws InterruptedException, ExecutionException, IOException {
     final int frameId = variable.getFrameId();
@@ -358,23 +585,105 @@ class VariableManager {
     final EvalResponse sizeEvalResponse =
         (EvalResponse) this.slapProtocol.evaluate(threadId, level, sizeExpression).get();
     final int size = Integer.parseInt(sizeEvalResponse.getResult());
+    if (size > PAGE_SIZE) {
+      return this.chunkVariables(variable, 0, size);
+    }
 
-    // Get contents.
-    final List<MagikVariable> magikVariables = new ArrayList<>();
-    for (int i = 0; i < size; ++i) {
-      final String itemValueExpression = expression + ".sys!at0(" + i + ")";
-      final EvalResponse itemValueResponse =
-          (EvalResponse)
-              this.slapProtocol
-                  .evaluate(threadId, level, itemValueExpression + ".print_string")
-                  .get();
-      final String itemValue = itemValueResponse.getResult();
+    return this.variablesFromIndexed(variable, 0, size);
+  }
 
-      final MagikVariable slotVariable =
-          this.addVariable(variable, Integer.toString(i), itemValue, itemValueExpression);
-      magikVariables.add(slotVariable);
+  /**
+   * Get the variables of a chunk. Chunks larger than {@link #PAGE_SIZE} are returned as (smaller)
+   * chunks, unless a page is requested.
+   */
+  private List<MagikVariable> variablesFromChunk(
+      final MagikVariable variable, final @Nullable Integer start, final @Nullable Integer count)
+      throws InterruptedException, ExecutionException, IOException {
+    final int chunkStart = variable.getChunkStart();
+    final int chunkCount = variable.getChunkCount();
+    if (start == null && count == null) {
+      return chunkCount > PAGE_SIZE
+          ? this.chunkVariables(variable, chunkStart, chunkCount)
+          : this.variablesFromIndexed(variable, chunkStart, chunkCount);
+    }
+
+    final int pageStart = Math.min(start != null ? start : 0, chunkCount);
+    final int pageCount = Math.min(count != null ? count : chunkCount, chunkCount - pageStart);
+    return this.variablesFromIndexed(variable, chunkStart + pageStart, pageCount);
+  }
+
+  /**
+   * Create chunk variables for a range of an indexed collection, such that there are at most {@link
+   * #PAGE_SIZE} chunks.
+   */
+  private List<MagikVariable> chunkVariables(
+      final MagikVariable variable, final int start, final int count) {
+    long chunkSize = PAGE_SIZE;
+    while (chunkSize * PAGE_SIZE < count) {
+      chunkSize *= PAGE_SIZE;
     }
 
+    final List<MagikVariable> magikVariables = new ArrayList<>();
+    final long end = (long) start + count;
+    for (long chunkStart = start; chunkStart < end; chunkStart += chunkSize) {
+      final int chunkCount = (int) Math.min(chunkSize, end - chunkStart);
+      magikVariables.add(this.addChunkVariable(variable, (int) chunkStart, chunkCount));
+    }
+    return magikVariables;
+  }
+
+  /**
+   * Get a page of the variables of an indexed collection, using a single evaluation. The page is
+   * clamped to the size of the collection.
+   */
+  private List<MagikVariable> variablesFromIndexed(
+      final MagikVariable variable, final int start, final int count)
+      throws InterruptedException, ExecutionException, IOException {
+    final int frameId = variable.getFrameId();
+    final long threadId = Lsp4jConversion.frameIdToThreadId(frameId);
+    final int level = Lsp4jConversion.frameIdToLevel(frameId);
+    final String expression = variable.getExpression();
+
+    // Get all values and sizes of the page in one go, as: value US size RS value US size RS ...
+    final long end = Math.min((long) start + count, Integer.MAX_VALUE);
+    final String pageExpression =
+        """
+        _block
+          _local object << %s
+          _local end << object.sys!size
+          _if end > %d _then end << %d _endif
+          _local stream << internal_text_output_stream.new()
+          _for index _over range(%d, end - 1)
+          _loop
+            _local value << object.sys!at0(index)
+            stream.write(
+              value.print_string, character.from_value(31),
+              %s, character.from_value(30))
+          _endloop
+          >> stream.string
+        _endblock"""
+            .formatted(expression, end, end, start, INDEXED_SIZE_EXPRESSION.formatted("value"));
+    final EvalResponse pageEvalResponse =
+        (EvalResponse) this.slapProtocol.evaluate(threadId, level, pageExpression).get();
+    final String values = pageEvalResponse.getResult();
+
+    // Each item is terminated by a separator.
+    final List<MagikVariable> magikVariables = new ArrayList<>();
+    final String[] items = values.split(RECORD_SEPARATOR, -1);
+    for (int i = 0; i < items.length - 1; ++i) {
+      final int index = start + i;
+      final int sizeIndex = items[i].lastIndexOf(UNIT_SEPARATOR);
+      final String itemValue = sizeIndex != -1 ? items[i].substring(0, sizeIndex) : items[i];
+      final int indexedCount =
+          sizeIndex != -1
+              ? VariableManager.parseIndexedCount(items[i].substring(sizeIndex + 1))
+              : -1;
+      final String itemValueExpression = expression + ".sys!at0(" + index + ")";
+      final MagikVariable itemVariable =
+          this.addVariable(
+              variable, Integer.toString(index), itemValue, itemValueExpression, indexedCount);
+      magikVariables.add(itemVariable);
+    }
     return magikVariables;
   }
 
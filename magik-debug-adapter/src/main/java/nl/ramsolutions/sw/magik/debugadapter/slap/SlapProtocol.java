@@ -7,10 +7,11 @@ import java.nio.ByteOrder;
 import java.nio.channels.AsynchronousCloseException;
 import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import nl.ramsolutions.sw.magik.debugadapter.slap.events.BreakpointEvent;
 import nl.ramsolutions.sw.magik.debugadapter.slap.events.DisconnectedEvent;
@@ -40,6 +41,7 @@ public class SlapProtocol implements ISlapProtocol {
   static class RequestFuture {
     private final RequestType requestType;
     private final CompletableFuture<ISlapResponse> future;
+    private final List<ISlapResponse> subResponses = new ArrayList<>();
 
     RequestFuture(final RequestType requestType, final CompletableFuture<ISlapResponse> future) {
       this.requestType = requestType;
@@ -59,12 +61,6 @@ public class SlapProtocol implements ISlapProtocol {
   private static final String DEBUG_CLIENT_ID = "DuckOnATricycle\0";
   private static final String DEBUG_AGENT_ID = "SwanOnAUnicycle\0";
 
-  /** State of protocol. */
-  enum State {
-    WAITING,
-    WAITING_FOR_MULTIPLE_RESPONSES,
-  }
-
   /** Event listener for incoming events. */
   public interface SlapEventListener {
     /**
@@ -80,12 +76,11 @@ public class SlapProtocol implements ISlapProtocol {
   private SocketChannel socketChannel;
   private final ByteBuffer inputBuffer = ByteBuffer.allocate(65536);
   private ByteOrder byteOrder = ByteOrder.nativeOrder();
-  private State state;
-  private RequestType multiResponseRequestType;
   private long version;
-  private final List<RequestFuture> requestFutures =
-      Collections.synchronizedList(new ArrayList<>());
-  private final List<ISlapResponse> subResponses = new ArrayList<>();
+  // Outstanding requests, in order of sending. Guarded by itself.
+  private final Deque<RequestFuture> requestFutures = new ArrayDeque<>();
+  // Request currently receiving a multi-packet reply, only used by the receiver thread.
+  private RequestFuture multiResponseRequest;
 
   /**
    * Constructor.
@@ -98,7 +93,6 @@ public class SlapProtocol implements ISlapProtocol {
     this.inetSocketAddress = new InetSocketAddress(host, port);
     this.listener = listener;
 
-    this.state = State.WAITING;
     this.version = -1;
   }
 
@@ -136,6 +130,7 @@ public class SlapProtocol implements ISlapProtocol {
                   LOGGER.error(exception.getMessage(), exception);
                 }
               }
+              protocol.failFutureRequests();
               final DisconnectedEvent event = new DisconnectedEvent();
               protocol.listener.handleEvent(event);
             });
@@ -268,7 +263,8 @@ public class SlapProtocol implements ISlapProtocol {
     buffer.put(data);
     buffer.flip();
 
-    // Try to keep these future-bookkeeping and socket in order.
+    // Keep the order of future-bookkeeping and socket the same, replies are matched in order.
+    // The lock is only held while sending, many requests can be awaiting their reply.
     synchronized (this) {
       LOGGER.trace(
           "Thread: {}, Sending, type: {}, param0: {}, param1: {}",
@@ -296,7 +292,12 @@ public class SlapProtocol implements ISlapProtocol {
   private void handleData() throws IOException {
     // Read from socket.
     try {
-      this.socketChannel.read(this.inputBuffer);
+      final int read = this.socketChannel.read(this.inputBuffer);
+      if (read == -1) {
+        // Channel has reached end-of-stream, debuggee went away.
+        this.socketChannel.close();
+        return;
+      }
     } catch (final AsynchronousCloseException ex) {
       // Channel has reached end-of-stream.
       this.socketChannel.close();
@@ -310,6 +311,11 @@ public class SlapProtocol implements ISlapProtocol {
     while (this.inputBuffer.hasRemaining()) {
       final int startPosition = this.inputBuffer.position();
       final int bufferLength = this.inputBuffer.limit() - startPosition;
+      if (bufferLength < Integer.BYTES) {
+        // Did not receive the message length (yet), wait for more data.
+        break;
+      }
+
       final int messageLength = (int) ByteBufferHelper.peekUInt32(this.inputBuffer); // byte: 0-4
       LOGGER.trace("Message length: {}, buffer size: {}", messageLength, bufferLength);
       if (bufferLength < messageLength) {
@@ -376,12 +382,14 @@ public class SlapProtocol implements ISlapProtocol {
     // 04-08: uint32, response type
     // 08-12: uint32, request type
     // 12-16: uint32, 0xFFFFFFFF, if multi-message and stop-message
-    final int val = (int) ByteBufferHelper.readUInt32(buffer, 8);
-    final RequestType requestType =
-        this.state == State.WAITING ? RequestType.valueOf(val) : this.multiResponseRequestType;
-    final boolean isEndPacket =
-        this.state == State.WAITING_FOR_MULTIPLE_RESPONSES && this.isEndPacket(buffer);
+    if (this.multiResponseRequest != null) {
+      // Currently receiving multiple responses.
+      this.handleMultiResponse(this.multiResponseRequest, buffer);
+      return;
+    }
 
+    final int val = (int) ByteBufferHelper.readUInt32(buffer, 8);
+    final RequestType requestType = RequestType.valueOf(val);
     final ISlapResponse response;
     switch (requestType) {
       case GET_THREAD_LIST:
@@ -400,28 +408,10 @@ public class SlapProtocol implements ISlapProtocol {
         response = ResumeThreadResponse.decode(buffer);
         break;
 
-      case GET_THREAD_STACK:
-        if (this.state == State.WAITING_FOR_MULTIPLE_RESPONSES) {
-          // Currently receiving multiple responses.
-          response = this.handleMultiGetThreadStack(buffer, isEndPacket);
-        } else {
-          // First packet sets state.
-          response = null;
-          this.state = State.WAITING_FOR_MULTIPLE_RESPONSES;
-          this.multiResponseRequestType = RequestType.GET_THREAD_STACK;
-        }
-        break;
-
-      case GET_FRAME_LOCALS:
-        if (this.state == State.WAITING_FOR_MULTIPLE_RESPONSES) {
-          // Currently receiving multiple responses.
-          response = handleMultiGetFrameLocals(buffer, isEndPacket);
-        } else {
-          // First packet sets state.
-          response = null;
-          this.state = State.WAITING_FOR_MULTIPLE_RESPONSES;
-          this.multiResponseRequestType = RequestType.GET_FRAME_LOCALS;
-        }
+      case GET_THREAD_STACK, GET_FRAME_LOCALS:
+        // First packet, following packets up to the end packet belong to this request.
+        response = null;
+        this.multiResponseRequest = this.pollFutureRequest(requestType);
         break;
 
       case BREAKPOINT_SET:
@@ -466,38 +456,29 @@ public class SlapProtocol implements ISlapProtocol {
     }
   }
 
-  private ISlapResponse handleMultiGetFrameLocals(
-      final ByteBuffer buffer, final boolean isEndPacket) {
-    final ISlapResponse response;
-    if (isEndPacket) {
-      // Build final message.
-      response = new StackFrameLocalsResponse(this.subResponses);
-      this.subResponses.clear();
-      this.state = State.WAITING;
-      this.multiResponseRequestType = null;
-    } else {
-      response = null;
-      final ISlapResponse subResponse = StackFrameLocalsResponse.Local.decode(buffer);
-      this.subResponses.add(subResponse);
+  private void handleMultiResponse(final RequestFuture requestFuture, final ByteBuffer buffer) {
+    final boolean isThreadStack = requestFuture.requestType == RequestType.GET_THREAD_STACK;
+    if (!this.isEndPacket(buffer)) {
+      final ISlapResponse subResponse =
+          isThreadStack
+              ? ThreadStackResponse.StackElement.decode(buffer)
+              : StackFrameLocalsResponse.Local.decode(buffer);
+      requestFuture.subResponses.add(subResponse);
+      return;
     }
-    return response;
-  }
 
-  private ISlapResponse handleMultiGetThreadStack(
-      final ByteBuffer buffer, final boolean isEndPacket) {
-    final ISlapResponse response;
-    if (isEndPacket) {
-      // Build final message.
-      response = new ThreadStackResponse(this.subResponses);
-      this.subResponses.clear();
-      this.state = State.WAITING;
-      this.multiResponseRequestType = null;
-    } else {
-      response = null;
-      final ISlapResponse subResponse = ThreadStackResponse.StackElement.decode(buffer);
-      this.subResponses.add(subResponse);
-    }
-    return response;
+    // Build final message.
+    final ISlapResponse response =
+        isThreadStack
+            ? new ThreadStackResponse(requestFuture.subResponses)
+            : new StackFrameLocalsResponse(requestFuture.subResponses);
+    this.multiResponseRequest = null;
+    LOGGER.trace(
+        "Thread: {}, Received reply: type: {}, {}",
+        Thread.currentThread().getName(),
+        requestFuture.requestType,
+        response);
+    requestFuture.future.complete(response);
   }
 
   private boolean isEndPacket(final ByteBuffer buffer) {
@@ -789,63 +770,64 @@ public class SlapProtocol implements ISlapProtocol {
     return future;
   }
 
-  private void handleFutureRequest(final RequestType requestType, final ISlapResponse response) {
-    RequestFuture requestFuture = null;
-
-    LOGGER.debug(
-        "Thread: {}, Request type: {}, response: {}, request futures: {}",
-        Thread.currentThread().getName(),
-        requestType,
-        response,
-        this.requestFutures);
-
+  /**
+   * Take the outstanding request for a reply. Replies arrive in order of sending, so this is the
+   * oldest outstanding request of the given type. If none is outstanding, a new, unreferenced
+   * request future is returned.
+   *
+   * @param requestType Request type of reply.
+   * @return Request future.
+   */
+  private RequestFuture pollFutureRequest(final RequestType requestType) {
     synchronized (this.requestFutures) {
-      final Optional<RequestFuture> first =
-          this.requestFutures.stream().filter(pair -> pair.requestType == requestType).findFirst();
-      if (!first.isPresent()) {
-        LOGGER.warn(
-            "Thread: {}, Trying to handle request, but not available, request type: {}",
-            Thread.currentThread().getName(),
-            requestType);
-        return;
+      LOGGER.debug(
+          "Thread: {}, Request type: {}, request futures: {}",
+          Thread.currentThread().getName(),
+          requestType,
+          this.requestFutures);
+
+      final Iterator<RequestFuture> iterator = this.requestFutures.iterator();
+      while (iterator.hasNext()) {
+        final RequestFuture requestFuture = iterator.next();
+        if (requestFuture.requestType == requestType) {
+          iterator.remove();
+          return requestFuture;
+        }
       }
-
-      requestFuture = first.get();
-      this.requestFutures.remove(requestFuture);
     }
 
+    LOGGER.warn(
+        "Thread: {}, Trying to handle request, but not available, request type: {}",
+        Thread.currentThread().getName(),
+        requestType);
+    return new RequestFuture(requestType, new CompletableFuture<>());
+  }
+
+  private void handleFutureRequest(final RequestType requestType, final ISlapResponse response) {
+    final RequestFuture requestFuture = this.pollFutureRequest(requestType);
     requestFuture.future.complete(response);
   }
 
   private void handleErrorFutureRequest(
       final RequestType requestType, final ErrorResponse errorResponse) {
-    RequestFuture requestFuture = null;
-
-    LOGGER.debug(
-        "Thread: {}, Request type: {}, error response: {}, request futures: {}",
-        Thread.currentThread().getName(),
-        requestType,
-        errorResponse,
-        this.requestFutures);
+    final RequestFuture requestFuture = this.pollFutureRequest(requestType);
+    final SlapErrorException exception = new SlapErrorException(errorResponse);
+    requestFuture.future.completeExceptionally(exception);
+  }
 
+  /** Fail all outstanding requests, after the connection has been closed. */
+  private void failFutureRequests() {
+    final List<RequestFuture> outstandingRequestFutures;
     synchronized (this.requestFutures) {
-      final Optional<RequestFuture> findFirst =
-          this.requestFutures.stream().filter(pair -> pair.requestType == requestType).findFirst();
-      if (!findFirst.isPresent()) {
-        LOGGER.warn(
-            "Thread: {}, Trying to handle request, but not available, request type: {}",
-            Thread.currentThread().getName(),
-            requestType);
-        return;
-      }
-
-      requestFuture = findFirst.get();
-      this.requestFutures.remove(requestFuture);
+      outstandingRequestFutures = new ArrayList<>(this.requestFutures);
+      this.requestFutures.clear();
     }
 
-    final SlapErrorException exception = new SlapErrorException(errorResponse);
-    requestFuture.future.completeExceptionally(exception);
+    final IOException exception = new IOException("Connection closed");
+    outstandingRequestFutures.forEach(
+        requestFuture -> requestFuture.future.completeExceptionally(exception));
   }
+
   // endregion
 
 }
@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
@@ -12,9 +14,14 @@ import nl.ramsolutions.sw.magik.debugadapter.slap.ISlapProtocol;
 import nl.ramsolutions.sw.magik.debugadapter.slap.ISlapResponse;
 import nl.ramsolutions.sw.magik.debugadapter.slap.RequestType;
 import nl.ramsolutions.sw.magik.debugadapter.slap.SlapErrorException;
+import nl.ramsolutions.sw.magik.debugadapter.slap.events.BreakpointEvent;
 import nl.ramsolutions.sw.magik.debugadapter.slap.responses.ErrorResponse;
+import nl.ramsolutions.sw.magik.debugadapter.slap.responses.EvalResponse;
+import org.eclipse.lsp4j.debug.OutputEventArguments;
 import org.eclipse.lsp4j.debug.Source;
 import org.eclipse.lsp4j.debug.SourceBreakpoint;
+import org.eclipse.lsp4j.debug.StoppedEventArguments;
+import org.eclipse.lsp4j.debug.services.IDebugProtocolClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -118,4 +125,139 @@ class BreakpointManagerTest {
     assertThat(breakpoint.getMessage()).isEqualTo("METHOD_NOT_FOUND");
     assertThat(breakpoint.getBreakpointId()).isEqualTo(ISlapProtocol.INVALID_BREAKPOINT_ID);
   }
+
+  @Test
+  void testSetBreakpointsRegistersAcceptedWhenOneFails()
+      throws IOException, InterruptedException, ExecutionException {
+    final TestSlapProtocol slapProtocol =
+        new TestSlapProtocol() {
+          private int requestCount;
+
+          @Override
+          public CompletableFuture<ISlapResponse> setBreakpoint(
+              final String method, final int line) {
+            if (++this.requestCount == 2) {
+              final CompletableFuture<ISlapResponse> future = new CompletableFuture<>();
+              future.completeExceptionally(new IOException("Connection lost"));
+              return future;
+            }
+
+            return super.setBreakpoint(method, line);
+          }
+        };
+    final BreakpointManager manager = new BreakpointManager(slapProtocol, null);
+
+    final Source source = new Source();
+    source.setPath(getPath("magik-debug-adapter/src/test/resources/bpt.magik").toString());
+    final SourceBreakpoint[] sourceBreakpoints = new SourceBreakpoint[3];
+    for (int i = 0; i < sourceBreakpoints.length; ++i) {
+      sourceBreakpoints[i] = new SourceBreakpoint();
+      sourceBreakpoints[i].setLine(17 + i);
+    }
+    final List<BreakpointManager.MagikBreakpoint> breakpoints =
+        manager.setBreakpoints(source, sourceBreakpoints);
+    assertThat(breakpoints)
+        .extracting(BreakpointManager.MagikBreakpoint::isVerified)
+        .containsExactly(true, false, true);
+    assertThat(breakpoints.get(1).getMessage()).isEqualTo("Connection lost");
+
+    // Accepted breakpoints are registered by their ID.
+    final BreakpointManager.MagikBreakpoint breakpoint0 = breakpoints.get(0);
+    assertThat(manager.getBreakpoint(breakpoint0.getBreakpointId())).isSameAs(breakpoint0);
+    final BreakpointManager.MagikBreakpoint breakpoint2 = breakpoints.get(2);
+    assertThat(manager.getBreakpoint(breakpoint2.getBreakpointId())).isSameAs(breakpoint2);
+  }
+
+  @Test
+  void testIncrementHitCountConcurrently() throws InterruptedException {
+    final BreakpointManager.MagikBreakpoint breakpoint =
+        new BreakpointManager.MagikBreakpoint("user:bpt.t()", 0);
+    final int iterations = 10_000;
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; ++i) {
+      final Thread thread =
+          new Thread(
+              () -> {
+                for (int j = 0; j < iterations; ++j) {
+                  breakpoint.incrementHitCount();
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(breakpoint.incrementHitCount()).isEqualTo(4L * iterations + 1);
+  }
+
+  @Test
+  void testHitConditionAndLogMessage()
+      throws IOException, InterruptedException, ExecutionException {
+    final List<String> requests = new ArrayList<>();
+    final TestSlapProtocol slapProtocol =
+        new TestSlapProtocol() {
+          @Override
+          public CompletableFuture<ISlapResponse> evaluate(
+              final long threadId, final int level, final String expression) throws IOException {
+            requests.add(expression);
+            final EvalResponse response = new EvalResponse("10\u001e:a");
+            return CompletableFuture.completedFuture(response);
+          }
+
+          @Override
+          public CompletableFuture<ISlapResponse> resumeThread(final long threadId)
+              throws IOException {
+            requests.add("resume");
+            return null;
+          }
+        };
+    final List<String> outputs = new ArrayList<>();
+    final List<Integer> stops = new ArrayList<>();
+    final IDebugProtocolClient debugClient =
+        new IDebugProtocolClient() {
+          @Override
+          public void output(final OutputEventArguments args) {
+            outputs.add(args.getOutput());
+          }
+
+          @Override
+          public void stopped(final StoppedEventArguments args) {
+            stops.add(args.getThreadId());
+          }
+        };
+    final BreakpointManager manager = new BreakpointManager(slapProtocol, debugClient);
+
+    final Source source = new Source();
+    source.setPath(getPath("magik-debug-adapter/src/test/resources/bpt.magik").toString());
+    final SourceBreakpoint hitBreakpoint = new SourceBreakpoint();
+    hitBreakpoint.setLine(18);
+    hitBreakpoint.setHitCondition(">= 2");
+    final SourceBreakpoint logBreakpoint = new SourceBreakpoint();
+    logBreakpoint.setLine(19);
+    logBreakpoint.setLogMessage("a: {a}, b: {b}");
+    final List<BreakpointManager.MagikBreakpoint> breakpoints =
+        manager.setBreakpoints(source, new SourceBreakpoint[] {hitBreakpoint, logBreakpoint});
+    final long hitBreakpointId = breakpoints.get(0).getBreakpointId();
+    final long logBreakpointId = breakpoints.get(1).getBreakpointId();
+
+    // First hit is skipped without any evaluation.
+    assertThat(manager.handleBreakpointEvent(new BreakpointEvent(hitBreakpointId, 1))).isFalse();
+    assertThat(requests).containsExactly("resume");
+    assertThat(stops).isEmpty();
+
+    // Second hit stops.
+    requests.clear();
+    assertThat(manager.handleBreakpointEvent(new BreakpointEvent(hitBreakpointId, 1))).isTrue();
+    assertThat(requests).isEmpty();
+    assertThat(stops).containsExactly(1);
+
+    // Log point evaluates once, resumes and never stops.
+    stops.clear();
+    assertThat(manager.handleBreakpointEvent(new BreakpointEvent(logBreakpointId, 1))).isFalse();
+    assertThat(requests).containsExactly("write_string(a, character.from_value(30), b)", "resume");
+    assertThat(outputs).containsExactly("a: 10, b: :a\n");
+    assertThat(stops).isEmpty();
+  }
 }
@@ -0,0 +1,43 @@
+package nl.ramsolutions.sw.magik.debugadapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for HitCondition. */
+@SuppressWarnings("checkstyle:MagicNumber")
+class HitConditionTest {
+
+  @Test
+  void testBareNumber() {
+    final HitCondition hitCondition = HitCondition.parse("3");
+    assertThat(hitCondition).isNotNull();
+    assertThat(hitCondition.test(2)).isFalse();
+    assertThat(hitCondition.test(3)).isTrue();
+    assertThat(hitCondition.test(4)).isTrue();
+  }
+
+  @Test
+  void testEquals() {
+    final HitCondition hitCondition = HitCondition.parse("== 3");
+    assertThat(hitCondition).isNotNull();
+    assertThat(hitCondition.test(3)).isTrue();
+    assertThat(hitCondition.test(4)).isFalse();
+  }
+
+  @Test
+  void testModulo() {
+    final HitCondition hitCondition = HitCondition.parse("%2");
+    assertThat(hitCondition).isNotNull();
+    assertThat(hitCondition.test(1)).isFalse();
+    assertThat(hitCondition.test(2)).isTrue();
+    assertThat(hitCondition.test(4)).isTrue();
+  }
+
+  @Test
+  void testMalformed() {
+    assertThat(HitCondition.parse("x > 3")).isNull();
+    assertThat(HitCondition.parse(" ")).isNull();
+    assertThat(HitCondition.parse(null)).isNull();
+  }
+}
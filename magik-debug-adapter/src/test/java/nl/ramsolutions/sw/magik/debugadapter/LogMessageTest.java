@@ -0,0 +1,33 @@
+package nl.ramsolutions.sw.magik.debugadapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/** Tests for LogMessage. */
+class LogMessageTest {
+
+  @Test
+  void testPlainMessage() {
+    final LogMessage logMessage = LogMessage.parse("reached");
+    assertThat(logMessage.getExpression()).isNull();
+    assertThat(logMessage.format()).isEqualTo("reached");
+  }
+
+  @Test
+  void testExpressions() {
+    final LogMessage logMessage = LogMessage.parse("{ a }+{b.size} = {a + b.size}");
+    assertThat(logMessage.getExpression())
+        .isEqualTo(
+            "write_string(a, character.from_value(30), b.size, character.from_value(30), a + b.size)");
+    assertThat(logMessage.format("1\u001e2\u001e3")).isEqualTo("1+2 = 3");
+    assertThat(logMessage.format()).isEqualTo("{a}+{b.size} = {a + b.size}");
+  }
+
+  @Test
+  void testUnclosedBrace() {
+    final LogMessage logMessage = LogMessage.parse("value {a");
+    assertThat(logMessage.getExpression()).isNull();
+    assertThat(logMessage.format()).isEqualTo("value {a");
+  }
+}
@@ -0,0 +1,37 @@
+package nl.ramsolutions.sw.magik.debugadapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+/** Tests for MethodLineIndex. */
+@SuppressWarnings("checkstyle:MagicNumber")
+class MethodLineIndexTest {
+
+  private static final Path PATH = Path.of("src/test/resources/bpt.magik");
+
+  @Test
+  void testGetMethodRange() throws IOException {
+    final MethodLineIndex index = MethodLineIndex.of(PATH);
+    assertThat(index.isValid(PATH)).isTrue();
+
+    final MethodLineIndex.MethodRange methodRange = index.getMethodRange(18);
+    assertThat(methodRange).isNotNull();
+    assertThat(methodRange.methodName()).isEqualTo("user:bpt.t()");
+    assertThat(methodRange.startLine()).isEqualTo(17);
+    assertThat(methodRange.endLine()).isEqualTo(31);
+
+    assertThat(index.getMethodRange(12).methodName()).isEqualTo("user:bpt.invoke()");
+    assertThat(index.getMethodRange(48).methodName()).isEqualTo("user:bpt.ci()");
+  }
+
+  @Test
+  void testGetMethodRangeOutsideMethod() throws IOException {
+    final MethodLineIndex index = MethodLineIndex.of(PATH);
+    assertThat(index.getMethodRange(1)).isNull();
+    assertThat(index.getMethodRange(15)).isNull();
+    assertThat(index.getMethodRange(100)).isNull();
+  }
+}
@@ -3,7 +3,10 @@ package nl.ramsolutions.sw.magik.debugadapter;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
@@ -19,6 +22,7 @@ import nl.ramsolutions.sw.magik.debugadapter.slap.responses.ThreadStackResponse;
 import org.eclipse.lsp4j.debug.StackFrame;
 import org.eclipse.lsp4j.debug.Thread;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /** Tests for ThreadManager. */
 @SuppressWarnings("checkstyle:MagicNumber")
@@ -121,4 +125,84 @@ class ThreadManagerTest {
     final Path path1Expected = Path.of("/home/user/src/module/sources/file2.magik");
     assertThat(path1).isEqualTo(path1Expected);
   }
+
+  @Test
+  void testStackTraceCached(final @TempDir Path tempDir)
+      throws IOException, InterruptedException, ExecutionException {
+    final Path sourcePath = Files.createFile(tempDir.resolve("file.magik"));
+    final List<String> requests = new ArrayList<>();
+    final TestSlapProtocol slapProtocol =
+        ThreadManagerTest.createSourceFileSlapProtocol(requests, sourcePath.toString());
+
+    final PathMapper pathMapper = new PathMapper(Collections.emptyMap());
+    final ThreadManager manager = new ThreadManager(slapProtocol, null, pathMapper);
+    final List<StackFrame> stackFrames0 = manager.stackTrace(1);
+    // Both methods are on the same exemplar, its package is determined once.
+    assertThat(requests).containsExactly("evaluate", "sw:object.m1()", "sw:object.m2()");
+
+    // Stepping resolves from the cache.
+    requests.clear();
+    final List<StackFrame> stackFrames1 = manager.stackTrace(1);
+    assertThat(requests).isEmpty();
+    assertThat(stackFrames1)
+        .extracting(StackFrame::getName)
+        .containsExactly("sw:object.m1()", "sw:object.m2()");
+    assertThat(stackFrames1.get(1).getSource().getPath())
+        .isEqualTo(stackFrames0.get(1).getSource().getPath());
+
+    // Modifying the file invalidates the cache.
+    requests.clear();
+    Files.setLastModifiedTime(sourcePath, FileTime.fromMillis(0));
+    manager.stackTrace(1);
+    assertThat(requests).containsExactly("sw:object.m1()", "sw:object.m2()");
+  }
+
+  @Test
+  void testStackTraceNotCachedWhenSourceMissing()
+      throws IOException, InterruptedException, ExecutionException {
+    final List<String> requests = new ArrayList<>();
+    final TestSlapProtocol slapProtocol =
+        ThreadManagerTest.createSourceFileSlapProtocol(
+            requests, "/non_existing/module/sources/file.magik");
+
+    final PathMapper pathMapper = new PathMapper(Collections.emptyMap());
+    final ThreadManager manager = new ThreadManager(slapProtocol, null, pathMapper);
+    manager.stackTrace(1);
+
+    // Remote/unmapped source cannot be validated, so it is requested again.
+    requests.clear();
+    manager.stackTrace(1);
+    assertThat(requests).containsExactly("sw:object.m1()", "sw:object.m2()");
+  }
+
+  private static TestSlapProtocol createSourceFileSlapProtocol(
+      final List<String> requests, final String filename) {
+    return new TestSlapProtocol() {
+      @Override
+      public CompletableFuture<ISlapResponse> getThreadStack(long threadId) throws IOException {
+        final ThreadStackResponse response =
+            new ThreadStackResponse(
+                List.of(
+                    new ThreadStackResponse.StackElement(0, 0, "object.m1()", "Magik"),
+                    new ThreadStackResponse.StackElement(1, 30, "object.m2()", "Magik")));
+        return CompletableFuture.completedFuture(response);
+      }
+
+      @Override
+      public CompletableFuture<ISlapResponse> evaluate(
+          final long threadId, final int level, final String expression) throws IOException {
+        requests.add("evaluate");
+        final EvalResponse response = new EvalResponse("sw");
+        return CompletableFuture.completedFuture(response);
+      }
+
+      @Override
+      public CompletableFuture<ISlapResponse> getSourceFile(final String method)
+          throws IOException {
+        requests.add(method);
+        final SourceFileResponse response = new SourceFileResponse(filename);
+        return CompletableFuture.completedFuture(response);
+      }
+    };
+  }
 }
@@ -8,11 +8,17 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import nl.ramsolutions.sw.magik.debugadapter.VariableManager.MagikVariable;
 import nl.ramsolutions.sw.magik.debugadapter.slap.ISlapResponse;
+import nl.ramsolutions.sw.magik.debugadapter.slap.responses.EvalResponse;
 import nl.ramsolutions.sw.magik.debugadapter.slap.responses.StackFrameLocalsResponse;
 import nl.ramsolutions.sw.magik.debugadapter.slap.responses.StackFrameLocalsResponse.LocalType;
 import org.eclipse.lsp4j.debug.Scope;
+import org.eclipse.lsp4j.debug.Variable;
 import org.junit.jupiter.api.Test;
 
 /** Tests for VariableManager. */
@@ -74,4 +80,116 @@ class VariableManagerTest {
     assertThat(variable1.getName()).isEqualTo("var2");
     assertThat(variable1.getValue()).isEqualTo("value2");
   }
+
+  /** Slap protocol which evaluates expressions on an indexed collection of 250 integers. */
+  private static final class IndexedSlapProtocol extends TestSlapProtocol {
+
+    private static final int SIZE = 250;
+    private static final Pattern PAGE_PATTERN =
+        Pattern.compile("_if end > (\\d+) .*range\\((\\d+), end - 1\\)", Pattern.DOTALL);
+
+    private int evaluations;
+
+    @Override
+    public CompletableFuture<ISlapResponse> getStackFrameLocals(long threadId, int level) {
+      final StackFrameLocalsResponse.Local local =
+          new StackFrameLocalsResponse.Local(
+              LocalType.TYPE_OBJ,
+              "collection",
+              "a rope",
+              EnumSet.noneOf(StackFrameLocalsResponse.VariableType.class));
+      return CompletableFuture.completedFuture(
+          new StackFrameLocalsResponse(List.<ISlapResponse>of(local)));
+    }
+
+    @Override
+    public CompletableFuture<ISlapResponse> evaluate(
+        final long threadId, final int level, final String expression) {
+      this.evaluations++;
+      final String result;
+      final Matcher matcher = PAGE_PATTERN.matcher(expression);
+      if (matcher.find()) {
+        final int end = Math.min(Integer.parseInt(matcher.group(1)), SIZE);
+        final int start = Integer.parseInt(matcher.group(2));
+        result =
+            IntStream.range(start, end)
+                .mapToObj(index -> "value" + index + "\u001f\u001e")
+                .collect(Collectors.joining());
+      } else if (expression.startsWith("_block")) {
+        result = SIZE + "\u001e";
+      } else if (expression.contains("is_kind_of?")) {
+        result = ":indexed_format_mixin";
+      } else if (expression.endsWith(".sys!size")) {
+        result = Integer.toString(SIZE);
+      } else {
+        throw new IllegalStateException("Unexpected expression: " + expression);
+      }
+      return CompletableFuture.completedFuture(new EvalResponse(result));
+    }
+  }
+
+  private MagikVariable getCollectionVariable(final VariableManager manager)
+      throws IOException, InterruptedException, ExecutionException {
+    final int frameId = Lsp4jConversion.threadIdLevelToFrameId(20, 0);
+    final Scope localScope = manager.getScopes(frameId)[0];
+    return manager.getVariables(localScope.getVariablesReference()).get(0);
+  }
+
+  @Test
+  void testIndexedVariablesChunked() throws IOException, InterruptedException, ExecutionException {
+    final IndexedSlapProtocol slapProtocol = new IndexedSlapProtocol();
+    final VariableManager manager = new VariableManager(slapProtocol);
+    final MagikVariable collection = this.getCollectionVariable(manager);
+
+    final List<MagikVariable> chunks = manager.getVariables(collection.getId());
+    assertThat(chunks)
+        .extracting(MagikVariable::getName)
+        .containsExactly("[0..99]", "[100..199]", "[200..249]");
+
+    slapProtocol.evaluations = 0;
+    final List<MagikVariable> items = manager.getVariables(chunks.get(2).getId());
+    assertThat(slapProtocol.evaluations).isEqualTo(1);
+    assertThat(items).hasSize(50);
+    assertThat(items.get(0).getName()).isEqualTo("200");
+    assertThat(items.get(0).getValue()).isEqualTo("value200");
+    assertThat(items.get(0).getExpression()).isEqualTo("collection.sys!at0(200)");
+  }
+
+  @Test
+  void testIndexedVariablesPagedByClient()
+      throws IOException, InterruptedException, ExecutionException {
+    final IndexedSlapProtocol slapProtocol = new IndexedSlapProtocol();
+    final VariableManager manager = new VariableManager(slapProtocol);
+    final MagikVariable collection = this.getCollectionVariable(manager);
+    final Variable collectionVariable = Lsp4jConversion.toLsp4j(List.of(collection))[0];
+    assertThat(collectionVariable.getIndexedVariables()).isEqualTo(250);
+
+    final List<MagikVariable> chunks = manager.getVariables(collection.getId());
+    final Variable[] chunkVariables = Lsp4jConversion.toLsp4j(chunks);
+    assertThat(chunkVariables)
+        .extracting(Variable::getIndexedVariables)
+        .containsExactly(100, 100, 50);
+
+    // Client pages through the chunk, relative to its start.
+    final List<MagikVariable> items =
+        manager.getVariables(chunkVariables[1].getVariablesReference(), 10, 3);
+    assertThat(items).extracting(MagikVariable::getName).containsExactly("110", "111", "112");
+    assertThat(Lsp4jConversion.toLsp4j(items))
+        .extracting(Variable::getIndexedVariables)
+        .containsOnlyNulls();
+  }
+
+  @Test
+  void testIndexedVariablesPaged() throws IOException, InterruptedException, ExecutionException {
+    final IndexedSlapProtocol slapProtocol = new IndexedSlapProtocol();
+    final VariableManager manager = new VariableManager(slapProtocol);
+    final MagikVariable collection = this.getCollectionVariable(manager);
+
+    slapProtocol.evaluations = 0;
+    final List<MagikVariable> items = manager.getVariables(collection.getId(), 245, 10);
+    assertThat(slapProtocol.evaluations).isEqualTo(2); // Type and page.
+    assertThat(items)
+        .extracting(MagikVariable::getValue)
+        .containsExactly("value245", "value246", "value247", "value248", "value249");
+  }
 }
@@ -0,0 +1,270 @@
+package nl.ramsolutions.sw.magik.debugadapter.slap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import nl.ramsolutions.sw.magik.debugadapter.slap.events.BreakpointEvent;
+import nl.ramsolutions.sw.magik.debugadapter.slap.events.DisconnectedEvent;
+import nl.ramsolutions.sw.magik.debugadapter.slap.responses.EvalResponse;
+import nl.ramsolutions.sw.magik.debugadapter.slap.responses.StackFrameLocalsResponse;
+import nl.ramsolutions.sw.magik.debugadapter.slap.responses.ThreadStackResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for SlapProtocol, against a fake debug agent. */
+@SuppressWarnings("checkstyle:MagicNumber")
+class SlapProtocolTest {
+
+  private static final long TIMEOUT_SECONDS = 10;
+  private static final int END_PACKET = 0xFFFFFFFF;
+
+  private final BlockingQueue<ISlapEvent> events = new LinkedBlockingQueue<>();
+  private ServerSocketChannel serverChannel;
+  private SocketChannel agentChannel;
+  private SlapProtocol protocol;
+
+  @BeforeEach
+  void connect() throws IOException, InterruptedException, ExecutionException {
+    this.serverChannel = ServerSocketChannel.open();
+    this.serverChannel.bind(new InetSocketAddress("127.0.0.1", 0));
+    final int port = this.serverChannel.socket().getLocalPort();
+    this.protocol = new SlapProtocol("127.0.0.1", port, this.events::add);
+
+    final CompletableFuture<Void> connected =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                this.protocol.connect();
+              } catch (final IOException | SlapException exception) {
+                throw new IllegalStateException(exception);
+              }
+            });
+    this.agentChannel = this.serverChannel.accept();
+
+    final ByteBuffer clientId = ByteBuffer.allocate(16);
+    while (clientId.hasRemaining()) {
+      this.agentChannel.read(clientId);
+    }
+    final ByteBuffer handshake = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+    handshake.put("SwanOnAUnicycle\0".getBytes(StandardCharsets.UTF_8));
+    handshake.put((byte) 1);
+    handshake.putInt(20, 1);
+    handshake.position(0);
+    this.agentChannel.write(handshake);
+
+    connected.get();
+  }
+
+  @AfterEach
+  void close() throws IOException {
+    this.agentChannel.close();
+    this.serverChannel.close();
+    this.protocol.close();
+  }
+
+  @Test
+  void testPipelinedRepliesCompleteInRequestOrder() throws Exception {
+    final CompletableFuture<ISlapResponse> eval1 = this.protocol.evaluate(1, 0, "a");
+    final CompletableFuture<ISlapResponse> stack = this.protocol.getThreadStack(1);
+    final CompletableFuture<ISlapResponse> eval2 = this.protocol.evaluate(1, 0, "b");
+    final CompletableFuture<ISlapResponse> eval3 = this.protocol.evaluate(1, 0, "c");
+
+    // All replies in a single write, with an event in between the stack packets.
+    this.send(
+        SlapProtocolTest.evalReply("result_a"),
+        SlapProtocolTest.multiReply(RequestType.GET_THREAD_STACK, 0),
+        SlapProtocolTest.stackElement(0, 10, "object.method1()", "magik"),
+        SlapProtocolTest.breakpointEvent(7, 1),
+        SlapProtocolTest.stackElement(1, 20, "object.method2()", "magik"),
+        SlapProtocolTest.multiReply(RequestType.GET_THREAD_STACK, END_PACKET),
+        SlapProtocolTest.evalReply("result_b"),
+        SlapProtocolTest.error(RequestType.EVALUATE, ErrorMessage.EVALUATION_FAILED));
+
+    assertThat(SlapProtocolTest.await(eval1))
+        .isInstanceOfSatisfying(
+            EvalResponse.class, response -> assertThat(response.getResult()).isEqualTo("result_a"));
+    assertThat(SlapProtocolTest.await(eval2))
+        .isInstanceOfSatisfying(
+            EvalResponse.class, response -> assertThat(response.getResult()).isEqualTo("result_b"));
+    assertThat(SlapProtocolTest.await(stack))
+        .isInstanceOfSatisfying(
+            ThreadStackResponse.class,
+            response ->
+                assertThat(response.getStackFrames())
+                    .extracting(ThreadStackResponse.StackElement::getName)
+                    .containsExactly("object.method1()", "object.method2()"));
+    assertThatThrownBy(() -> SlapProtocolTest.await(eval3))
+        .hasCauseInstanceOf(SlapErrorException.class)
+        .cause()
+        .satisfies(
+            cause ->
+                assertThat(((SlapErrorException) cause).getError().getErrorMessage())
+                    .isEqualTo(ErrorMessage.EVALUATION_FAILED));
+
+    final ISlapEvent event = this.events.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    assertThat(event)
+        .isInstanceOfSatisfying(
+            BreakpointEvent.class,
+            breakpointEvent -> assertThat(breakpointEvent.getBreakpointId()).isEqualTo(7));
+  }
+
+  @Test
+  void testSplitRepliesAreAssembled() throws Exception {
+    final CompletableFuture<ISlapResponse> locals = this.protocol.getStackFrameLocals(1, 0);
+    final CompletableFuture<ISlapResponse> eval = this.protocol.evaluate(1, 0, "a");
+
+    final byte[] replies =
+        SlapProtocolTest.concat(
+            SlapProtocolTest.multiReply(RequestType.GET_FRAME_LOCALS, 0),
+            SlapProtocolTest.local("x", 42),
+            SlapProtocolTest.local("y", 43),
+            SlapProtocolTest.multiReply(RequestType.GET_FRAME_LOCALS, END_PACKET),
+            SlapProtocolTest.evalReply("result_a"));
+    // Split within the length of the first message, and within the first local.
+    this.sendSplit(replies, 2, 24);
+
+    assertThat(SlapProtocolTest.await(locals))
+        .isInstanceOfSatisfying(
+            StackFrameLocalsResponse.class,
+            response ->
+                assertThat(response.getLocals())
+                    .extracting(
+                        StackFrameLocalsResponse.Local::getName,
+                        StackFrameLocalsResponse.Local::getValue)
+                    .containsExactly(tuple("x", "42"), tuple("y", "43")));
+    assertThat(SlapProtocolTest.await(eval))
+        .isInstanceOfSatisfying(
+            EvalResponse.class, response -> assertThat(response.getResult()).isEqualTo("result_a"));
+  }
+
+  @Test
+  void testDisconnectFailsOutstandingRequests() throws Exception {
+    final CompletableFuture<ISlapResponse> eval1 = this.protocol.evaluate(1, 0, "a");
+    final CompletableFuture<ISlapResponse> eval2 = this.protocol.evaluate(1, 0, "b");
+
+    this.send(SlapProtocolTest.evalReply("result_a"));
+    assertThat(SlapProtocolTest.await(eval1)).isInstanceOf(EvalResponse.class);
+
+    // Graceful end-of-stream from the debug agent.
+    this.agentChannel.shutdownOutput();
+
+    assertThatThrownBy(() -> SlapProtocolTest.await(eval2)).hasCauseInstanceOf(IOException.class);
+    final ISlapEvent event = this.events.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    assertThat(event).isInstanceOf(DisconnectedEvent.class);
+  }
+
+  private static ISlapResponse await(final CompletableFuture<ISlapResponse> future)
+      throws Exception {
+    return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  private void send(final byte[]... messages) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.wrap(SlapProtocolTest.concat(messages));
+    while (buffer.hasRemaining()) {
+      this.agentChannel.write(buffer);
+    }
+  }
+
+  private void sendSplit(final byte[] data, final int... splits)
+      throws IOException, InterruptedException {
+    int start = 0;
+    for (final int split : splits) {
+      this.send(Arrays.copyOfRange(data, start, split));
+      // Give the receiver the chance to handle the partial data.
+      Thread.sleep(50);
+      start = split;
+    }
+    this.send(Arrays.copyOfRange(data, start, data.length));
+  }
+
+  private static byte[] concat(final byte[]... messages) {
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    for (final byte[] message : messages) {
+      stream.writeBytes(message);
+    }
+    return stream.toByteArray();
+  }
+
+  private static ByteBuffer message(final int length, final ResponseType responseType) {
+    final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(length);
+    buffer.putInt(responseType.getVal());
+    return buffer;
+  }
+
+  private static byte[] evalReply(final String result) {
+    final byte[] resultBytes = result.getBytes(StandardCharsets.UTF_8);
+    final ByteBuffer buffer = SlapProtocolTest.message(20 + resultBytes.length, ResponseType.REPLY);
+    buffer.putInt(RequestType.EVALUATE.getVal());
+    buffer.putInt(0);
+    buffer.putInt(resultBytes.length);
+    buffer.put(resultBytes);
+    return buffer.array();
+  }
+
+  private static byte[] multiReply(final RequestType requestType, final int marker) {
+    final ByteBuffer buffer = SlapProtocolTest.message(16, ResponseType.REPLY);
+    buffer.putInt(requestType.getVal());
+    buffer.putInt(marker);
+    return buffer.array();
+  }
+
+  private static byte[] stackElement(
+      final int level, final int offset, final String name, final String language) {
+    final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    final byte[] languageBytes = language.getBytes(StandardCharsets.UTF_8);
+    final ByteBuffer buffer =
+        SlapProtocolTest.message(28 + nameBytes.length + languageBytes.length, ResponseType.REPLY);
+    buffer.putInt(RequestType.GET_THREAD_STACK.getVal());
+    buffer.putInt(level);
+    buffer.putInt(offset);
+    buffer.putInt(nameBytes.length);
+    buffer.putInt(languageBytes.length);
+    buffer.put(nameBytes);
+    buffer.put(languageBytes);
+    return buffer.array();
+  }
+
+  private static byte[] local(final String name, final int value) {
+    final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    final ByteBuffer buffer = SlapProtocolTest.message(24 + nameBytes.length, ResponseType.REPLY);
+    buffer.putInt(RequestType.GET_FRAME_LOCALS.getVal());
+    buffer.putInt(
+        StackFrameLocalsResponse.LocalType.TYPE_INT.getVal() << ISlapResponse.BYTE_2_SHIFT);
+    buffer.putInt(nameBytes.length);
+    buffer.put(nameBytes);
+    buffer.putInt(value);
+    return buffer.array();
+  }
+
+  private static byte[] breakpointEvent(final int breakpointId, final int threadId) {
+    final ByteBuffer buffer = SlapProtocolTest.message(20, ResponseType.EVENT);
+    buffer.putInt(EventType.BREAKPOINT.getVal());
+    buffer.putInt(breakpointId);
+    buffer.putInt(threadId);
+    return buffer.array();
+  }
+
+  private static byte[] error(final RequestType requestType, final ErrorMessage errorMessage) {
+    final ByteBuffer buffer = SlapProtocolTest.message(16, ResponseType.ERROR);
+    buffer.putInt(requestType.getVal());
+    buffer.putInt(errorMessage.getVal());
+    return buffer.array();
+  }
+}
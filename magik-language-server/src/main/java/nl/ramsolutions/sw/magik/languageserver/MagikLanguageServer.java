@@ -116,6 +116,7 @@ public class MagikLanguageServer implements LanguageServer, LanguageClientAware
 
     return CompletableFuture.supplyAsync(
         () -> {
+          this.magikTextDocumentService.shutdown();
           this.magikWorkspaceService.shutdown();
 
           return null;
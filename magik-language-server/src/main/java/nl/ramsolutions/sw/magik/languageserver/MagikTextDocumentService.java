@@ -1,12 +1,18 @@
 package nl.ramsolutions.sw.magik.languageserver;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import nl.ramsolutions.sw.ConfigurationReader;
 import nl.ramsolutions.sw.MagikToolsProperties;
 import nl.ramsolutions.sw.OpenedFile;
@@ -67,7 +73,10 @@ import org.eclipse.lsp4j.RenameParams;
 import org.eclipse.lsp4j.SelectionRange;
 import org.eclipse.lsp4j.SelectionRangeParams;
 import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensDeltaParams;
 import org.eclipse.lsp4j.SemanticTokensParams;
+import org.eclipse.lsp4j.SemanticTokensRangeParams;
 import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.SignatureHelp;
 import org.eclipse.lsp4j.SignatureHelpParams;
@@ -94,7 +103,11 @@ public class MagikTextDocumentService implements TextDocumentService {
 
   // TODO: Better separation of Lsp4J and magik-tools regarding Range/Position.
 
+  /** Opened file, with the version of the buffer it was built from. */
+  private record VersionedFile(OpenedFile openedFile, long version) {}
+
   private static final Logger LOGGER = LoggerFactory.getLogger(MagikTextDocumentService.class);
+  private static final long DIAGNOSTICS_DELAY_MILLIS = 250;
   private static final Logger LOGGER_DURATION =
       LoggerFactory.getLogger(MagikTextDocumentService.class.getName() + "Duration");
 
@@ -117,7 +130,17 @@ public class MagikTextDocumentService implements TextDocumentService {
   private final InlayHintProvider inlayHintProvider;
   private final CodeActionProvider codeActionProvider;
   private final SelectionRangeProvider selectionRangeProvider;
-  private final Map<TextDocumentIdentifier, OpenedFile> openedFiles = new HashMap<>();
+  private final Map<TextDocumentIdentifier, VersionedFile> openedFiles = new ConcurrentHashMap<>();
+  private final Map<TextDocumentIdentifier, TextDocumentBuffer> buffers = new ConcurrentHashMap<>();
+  private final Map<TextDocumentIdentifier, Future<?>> pendingDiagnostics =
+      new ConcurrentHashMap<>();
+  private final ScheduledExecutorService diagnosticsExecutor =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            final Thread thread = new Thread(runnable, "magik-diagnostics");
+            thread.setDaemon(true);
+            return thread;
+          });
 
   /**
    * Constructor.
@@ -157,7 +180,7 @@ public class MagikTextDocumentService implements TextDocumentService {
    * @param capabilities Server capabilities to set.
    */
   public void setCapabilities(final ServerCapabilities capabilities) {
-    capabilities.setTextDocumentSync(TextDocumentSyncKind.Full);
+    capabilities.setTextDocumentSync(TextDocumentSyncKind.Incremental);
 
     this.diagnosticsProvider.setCapabilities(capabilities);
     this.hoverProvider.setCapabilities(capabilities);
@@ -196,37 +219,16 @@ public class MagikTextDocumentService implements TextDocumentService {
 
     // Store file contents.
     final TextDocumentIdentifier textDocumentIdentifier = new TextDocumentIdentifier(uriStr);
-    final String text = textDocument.getText();
-    final OpenedFile openedFile;
-    switch (textDocument.getLanguageId()) {
-      case "product.def":
-        {
-          openedFile = new ProductDefFile(uri, text, this.definitionKeeper, null);
-          break;
-        }
-
-      case "module.def":
-        {
-          openedFile = new ModuleDefFile(uri, text, this.definitionKeeper, null);
-          break;
-        }
+    final TextDocumentBuffer buffer = new TextDocumentBuffer(textDocument.getText());
+    final OpenedFile openedFile =
+        this.createOpenedFile(textDocument.getLanguageId(), uri, buffer.getText(), fileProperties);
+    this.buffers.put(textDocumentIdentifier, buffer);
+    this.openedFiles.put(
+        textDocumentIdentifier, new VersionedFile(openedFile, buffer.getVersion()));
 
-      case "magik":
-        {
-          final MagikTypedFile magikFile =
-              new MagikTypedFile(fileProperties, uri, text, this.definitionKeeper);
-          openedFile = magikFile;
-
-          // Publish diagnostics to client.
-          this.publishDiagnostics(magikFile);
-          break;
-        }
-
-      default:
-        throw new UnsupportedOperationException();
-    }
+    // Publish diagnostics to client.
+    this.scheduleDiagnostics(textDocumentIdentifier, 0);
 
-    this.openedFiles.put(textDocumentIdentifier, openedFile);
     if (LOGGER_DURATION.isTraceEnabled()) {
       LOGGER_DURATION.trace(
           "Duration: {} didOpen, uri: {}",
@@ -242,60 +244,32 @@ public class MagikTextDocumentService implements TextDocumentService {
     final TextDocumentIdentifier textDocumentIdentifier = params.getTextDocument();
     LOGGER.debug("didChange, uri: {}}", textDocumentIdentifier.getUri());
 
-    // Read relevant properties.
-    final String uriStr = textDocumentIdentifier.getUri();
-    final URI uri = URI.create(uriStr);
-    final MagikToolsProperties fileProperties;
-    try {
-      fileProperties = ConfigurationReader.readProperties(uri, properties);
-    } catch (final IOException exception) {
-      throw new IllegalStateException(exception);
-    }
-
-    // Update file contents.
-    final List<TextDocumentContentChangeEvent> contentChangeEvents = params.getContentChanges();
-    final TextDocumentContentChangeEvent contentChangeEvent = contentChangeEvents.get(0);
-    final String text = contentChangeEvent.getText();
-
     // Find original TextDocumentIdentifier.
+    final String uriStr = textDocumentIdentifier.getUri();
     final TextDocumentIdentifier realTextDocumentIdentifier = new TextDocumentIdentifier(uriStr);
-    final OpenedFile existingOpenedFile = this.openedFiles.get(realTextDocumentIdentifier);
-    if (existingOpenedFile == null) {
+    final TextDocumentBuffer buffer = this.buffers.get(realTextDocumentIdentifier);
+    if (buffer == null) {
       // Race condition?
       return;
     }
 
-    final String languageId = existingOpenedFile.getLanguageId();
-    final OpenedFile openedFile;
-    switch (languageId) {
-      case "product.def":
-        {
-          openedFile = new ProductDefFile(uri, text, this.definitionKeeper, null);
-          break;
+    // Update file contents, all changes at once.
+    synchronized (buffer) {
+      for (final TextDocumentContentChangeEvent contentChangeEvent : params.getContentChanges()) {
+        final Range range = contentChangeEvent.getRange();
+        final String text = contentChangeEvent.getText();
+        if (range == null) {
+          buffer.replace(text);
+        } else {
+          buffer.replace(Lsp4jConversion.rangeFromLsp4j(range), text);
         }
-
-      case "module.def":
-        {
-          openedFile = new ModuleDefFile(uri, text, this.definitionKeeper, null);
-          break;
-        }
-
-      case "magik":
-        {
-          final MagikTypedFile magikFile =
-              new MagikTypedFile(fileProperties, uri, text, this.definitionKeeper);
-          openedFile = magikFile;
-
-          // Publish diagnostics to client.
-          this.publishDiagnostics(magikFile);
-          break;
-        }
-
-      default:
-        throw new UnsupportedOperationException();
+      }
     }
 
-    this.openedFiles.put(realTextDocumentIdentifier, openedFile);
+    // The file is rebuilt lazily, when diagnostics or a request need it.
+    // Publish diagnostics to client, after the user stopped typing.
+    this.scheduleDiagnostics(realTextDocumentIdentifier, DIAGNOSTICS_DELAY_MILLIS);
+
     if (LOGGER_DURATION.isTraceEnabled()) {
       LOGGER_DURATION.trace(
           "Duration: {} didChange, uri: {}",
@@ -304,6 +278,71 @@ public class MagikTextDocumentService implements TextDocumentService {
     }
   }
 
+  /**
+   * Get the {@link OpenedFile} for the current version of the document. If the document was changed
+   * since the file was last built, the file is rebuilt from the text of the buffer, reusing the
+   * type reasoner results of unchanged methods.
+   *
+   * @param textDocumentIdentifier Document to get the file for.
+   * @return Opened file, or null if the document is not opened.
+   */
+  @CheckForNull
+  private OpenedFile getOpenedFile(final TextDocumentIdentifier textDocumentIdentifier) {
+    final TextDocumentIdentifier realTextDocumentIdentifier =
+        new TextDocumentIdentifier(textDocumentIdentifier.getUri());
+    final VersionedFile versionedFile = this.openedFiles.get(realTextDocumentIdentifier);
+    final TextDocumentBuffer buffer = this.buffers.get(realTextDocumentIdentifier);
+    if (versionedFile == null || buffer == null) {
+      return null;
+    }
+
+    final String text;
+    final long version;
+    synchronized (buffer) {
+      version = buffer.getVersion();
+      if (versionedFile.version() == version) {
+        return versionedFile.openedFile();
+      }
+
+      text = buffer.getText();
+    }
+
+    // Properties were read when the file was opened.
+    final OpenedFile existingOpenedFile = versionedFile.openedFile();
+    final MagikToolsProperties fileProperties =
+        existingOpenedFile instanceof MagikTypedFile existingMagikFile
+            ? existingMagikFile.getProperties()
+            : this.properties;
+    final URI uri = URI.create(realTextDocumentIdentifier.getUri());
+    final OpenedFile openedFile =
+        this.createOpenedFile(existingOpenedFile.getLanguageId(), uri, text, fileProperties);
+    if (openedFile instanceof MagikTypedFile magikFile
+        && existingOpenedFile instanceof MagikTypedFile existingMagikFile) {
+      magikFile.reuseTypeReasonerState(existingMagikFile);
+    }
+
+    // Keep the newest file, another thread might have built the same or a newer version.
+    final VersionedFile newVersionedFile = new VersionedFile(openedFile, version);
+    final VersionedFile currentVersionedFile =
+        this.openedFiles.computeIfPresent(
+            realTextDocumentIdentifier,
+            (key, current) -> current.version() >= version ? current : newVersionedFile);
+    return currentVersionedFile != null ? currentVersionedFile.openedFile() : openedFile;
+  }
+
+  private OpenedFile createOpenedFile(
+      final String languageId,
+      final URI uri,
+      final String text,
+      final MagikToolsProperties fileProperties) {
+    return switch (languageId) {
+      case "product.def" -> new ProductDefFile(uri, text, this.definitionKeeper, null);
+      case "module.def" -> new ModuleDefFile(uri, text, this.definitionKeeper, null);
+      case "magik" -> new MagikTypedFile(fileProperties, uri, text, this.definitionKeeper);
+      default -> throw new UnsupportedOperationException();
+    };
+  }
+
   @Override
   public void didClose(final DidCloseTextDocumentParams params) {
     final long start = System.nanoTime();
@@ -312,6 +351,13 @@ public class MagikTextDocumentService implements TextDocumentService {
     LOGGER.debug("didClose, uri: {}", textDocumentIdentifier.getUri());
 
     this.openedFiles.remove(textDocumentIdentifier);
+    this.buffers.remove(textDocumentIdentifier);
+    this.semanticTokenProver.removeCachedSemanticTokens(
+        URI.create(textDocumentIdentifier.getUri()));
+    final Future<?> pending = this.pendingDiagnostics.remove(textDocumentIdentifier);
+    if (pending != null) {
+      pending.cancel(true);
+    }
 
     // Clear published diagnostics.
     final List<Diagnostic> diagnostics = Collections.emptyList();
@@ -343,14 +389,77 @@ public class MagikTextDocumentService implements TextDocumentService {
     }
   }
 
-  private void publishDiagnostics(final MagikTypedFile magikFile) {
-    final List<Diagnostic> diagnostics = this.diagnosticsProvider.provideDiagnostics(magikFile);
+  /**
+   * Schedule publishing diagnostics for the file. Any pending or running diagnostics for the same
+   * file are cancelled, as these are stale.
+   */
+  private void scheduleDiagnostics(
+      final TextDocumentIdentifier textDocumentIdentifier, final long delayMillis) {
+    final VersionedFile versionedFile = this.openedFiles.get(textDocumentIdentifier);
+    if (versionedFile == null || !(versionedFile.openedFile() instanceof MagikTypedFile)) {
+      return;
+    }
+
+    this.pendingDiagnostics.compute(
+        textDocumentIdentifier,
+        (key, pending) -> {
+          if (pending != null) {
+            pending.cancel(true);
+          }
+
+          return this.diagnosticsExecutor.schedule(
+              () -> this.publishDiagnostics(textDocumentIdentifier),
+              delayMillis,
+              TimeUnit.MILLISECONDS);
+        });
+  }
+
+  private void publishDiagnostics(final TextDocumentIdentifier textDocumentIdentifier) {
+    final long start = System.nanoTime();
+
+    if (!(this.getOpenedFile(textDocumentIdentifier) instanceof MagikTypedFile magikFile)) {
+      return;
+    }
+
+    final List<Diagnostic> diagnostics;
+    try {
+      diagnostics = this.diagnosticsProvider.provideDiagnostics(magikFile);
+    } catch (final CancellationException exception) {
+      LOGGER.debug("Cancelled diagnostics, uri: {}", textDocumentIdentifier.getUri());
+      return;
+    } catch (final RuntimeException exception) {
+      LOGGER.error(exception.getMessage(), exception);
+      return;
+    }
+
+    // Don't publish diagnostics for a stale version of the file.
+    final VersionedFile versionedFile = this.openedFiles.get(textDocumentIdentifier);
+    final TextDocumentBuffer buffer = this.buffers.get(textDocumentIdentifier);
+    if (Thread.currentThread().isInterrupted()
+        || versionedFile == null
+        || versionedFile.openedFile() != magikFile
+        || buffer == null
+        || buffer.getVersion() != versionedFile.version()) {
+      return;
+    }
 
     // Publish to client.
     final String uri = magikFile.getUri().toString();
     final PublishDiagnosticsParams publishParams = new PublishDiagnosticsParams(uri, diagnostics);
     final LanguageClient languageClient = this.languageServer.getLanguageClient();
     languageClient.publishDiagnostics(publishParams);
+
+    if (LOGGER_DURATION.isTraceEnabled()) {
+      LOGGER_DURATION.trace(
+          "Duration: {} publishDiagnostics, uri: {}",
+          String.format("%.2f", (System.nanoTime() - start) / 1000000000.0),
+          textDocumentIdentifier.getUri());
+    }
+  }
+
+  /** Stop running and pending diagnostics. */
+  public void shutdown() {
+    this.diagnosticsExecutor.shutdownNow();
   }
 
   @Override
@@ -365,7 +474,7 @@ public class MagikTextDocumentService implements TextDocumentService {
         params.getPosition().getCharacter());
 
     final Position position = params.getPosition();
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
 
     return CompletableFuture.supplyAsync(
         () -> {
@@ -406,7 +515,7 @@ public class MagikTextDocumentService implements TextDocumentService {
         params.getPosition().getLine(),
         params.getPosition().getCharacter());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     if (!(openedFile instanceof MagikTypedFile)) {
       return CompletableFuture.supplyAsync(() -> Either.forLeft(Collections.emptyList()));
     }
@@ -444,7 +553,7 @@ public class MagikTextDocumentService implements TextDocumentService {
         params.getPosition().getLine(),
         params.getPosition().getCharacter());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     if (!(openedFile instanceof MagikTypedFile)) {
       return CompletableFuture.supplyAsync(SignatureHelp::new);
     }
@@ -475,7 +584,7 @@ public class MagikTextDocumentService implements TextDocumentService {
     final TextDocumentIdentifier textDocument = params.getTextDocument();
     LOGGER.debug("foldingRange, uri: {}", textDocument.getUri());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     return CompletableFuture.supplyAsync(
         () -> {
           final List<FoldingRange> foldingRanges;
@@ -512,7 +621,7 @@ public class MagikTextDocumentService implements TextDocumentService {
     final Position lsp4jPosition = params.getPosition();
     final nl.ramsolutions.sw.magik.Position position =
         Lsp4jConversion.positionFromLsp4j(lsp4jPosition);
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     return CompletableFuture.supplyAsync(
         () -> {
           final List<nl.ramsolutions.sw.magik.Location> locations;
@@ -550,7 +659,7 @@ public class MagikTextDocumentService implements TextDocumentService {
     final Position lsp4jPosition = params.getPosition();
     final nl.ramsolutions.sw.magik.Position position =
         Lsp4jConversion.positionFromLsp4j(lsp4jPosition);
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     return CompletableFuture.supplyAsync(
         () -> {
           final List<Location> references;
@@ -597,16 +706,17 @@ public class MagikTextDocumentService implements TextDocumentService {
         params.getPosition().getLine(),
         params.getPosition().getCharacter());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     if (!(openedFile instanceof MagikTypedFile)) {
-      return CompletableFuture.supplyAsync(() -> Either.forLeft(Collections.emptyList()));
+      return CompletableFuture.supplyAsync(
+          () -> Either.forRight(new CompletionList(Collections.emptyList())));
     }
 
     final MagikTypedFile magikFile = (MagikTypedFile) openedFile;
     final Position position = params.getPosition();
     return CompletableFuture.supplyAsync(
         () -> {
-          final List<CompletionItem> completions =
+          final CompletionList completions =
               this.completionProvider.provideCompletions(magikFile, position);
           if (LOGGER_DURATION.isTraceEnabled()) {
             LOGGER_DURATION.trace(
@@ -616,10 +726,18 @@ public class MagikTextDocumentService implements TextDocumentService {
                 params.getPosition().getLine(),
                 params.getPosition().getCharacter());
           }
-          return Either.forLeft(completions);
+          return Either.forRight(completions);
         });
   }
 
+  @Override
+  public CompletableFuture<CompletionItem> resolveCompletionItem(final CompletionItem unresolved) {
+    LOGGER.debug("resolveCompletionItem, label: {}", unresolved.getLabel());
+
+    return CompletableFuture.supplyAsync(
+        () -> this.completionProvider.resolveCompletionItem(unresolved, this.definitionKeeper));
+  }
+
   @Override
   public CompletableFuture<List<? extends TextEdit>> formatting(
       final DocumentFormattingParams params) {
@@ -628,7 +746,7 @@ public class MagikTextDocumentService implements TextDocumentService {
     final TextDocumentIdentifier textDocument = params.getTextDocument();
     LOGGER.debug("formatting, uri: {}", textDocument.getUri());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     if (!(openedFile instanceof MagikTypedFile)) {
       return CompletableFuture.supplyAsync(Collections::emptyList);
     }
@@ -661,21 +779,13 @@ public class MagikTextDocumentService implements TextDocumentService {
     final TextDocumentIdentifier textDocument = params.getTextDocument();
     LOGGER.debug("semanticTokensFull, uri: {}", textDocument.getUri());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     return CompletableFuture.supplyAsync(
         () -> {
-          final SemanticTokens semanticTokens;
-          if (openedFile == null) {
-            semanticTokens = null;
-          } else if (openedFile instanceof ProductDefFile productDefFile) {
-            semanticTokens = this.semanticTokenProver.provideSemanticTokensFull(productDefFile);
-          } else if (openedFile instanceof ModuleDefFile moduleDefFile) {
-            semanticTokens = this.semanticTokenProver.provideSemanticTokensFull(moduleDefFile);
-          } else if (openedFile instanceof MagikTypedFile magikFile) {
-            semanticTokens = this.semanticTokenProver.provideSemanticTokensFull(magikFile);
-          } else {
-            throw new UnsupportedOperationException();
-          }
+          final SemanticTokens semanticTokens =
+              openedFile != null
+                  ? this.semanticTokenProver.provideSemanticTokensFull(openedFile)
+                  : null;
 
           if (LOGGER_DURATION.isTraceEnabled()) {
             LOGGER_DURATION.trace(
@@ -687,6 +797,63 @@ public class MagikTextDocumentService implements TextDocumentService {
         });
   }
 
+  @Override
+  public CompletableFuture<Either<SemanticTokens, SemanticTokensDelta>> semanticTokensFullDelta(
+      final SemanticTokensDeltaParams params) {
+    final long start = System.nanoTime();
+
+    final TextDocumentIdentifier textDocument = params.getTextDocument();
+    LOGGER.debug(
+        "semanticTokensFullDelta, uri: {}, previous result id: {}",
+        textDocument.getUri(),
+        params.getPreviousResultId());
+
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
+    return CompletableFuture.supplyAsync(
+        () -> {
+          final Either<SemanticTokens, SemanticTokensDelta> semanticTokens =
+              openedFile != null
+                  ? this.semanticTokenProver.provideSemanticTokensFullDelta(
+                      openedFile, params.getPreviousResultId())
+                  : null;
+
+          if (LOGGER_DURATION.isTraceEnabled()) {
+            LOGGER_DURATION.trace(
+                "Duration: {} semanticTokensFullDelta, uri: {}",
+                String.format("%.2f", (System.nanoTime() - start) / 1000000000.0),
+                textDocument.getUri());
+          }
+          return semanticTokens;
+        });
+  }
+
+  @Override
+  public CompletableFuture<SemanticTokens> semanticTokensRange(
+      final SemanticTokensRangeParams params) {
+    final long start = System.nanoTime();
+
+    final TextDocumentIdentifier textDocument = params.getTextDocument();
+    LOGGER.debug("semanticTokensRange, uri: {}", textDocument.getUri());
+
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
+    final nl.ramsolutions.sw.magik.Range range = Lsp4jConversion.rangeFromLsp4j(params.getRange());
+    return CompletableFuture.supplyAsync(
+        () -> {
+          final SemanticTokens semanticTokens =
+              openedFile != null
+                  ? this.semanticTokenProver.provideSemanticTokensRange(openedFile, range)
+                  : null;
+
+          if (LOGGER_DURATION.isTraceEnabled()) {
+            LOGGER_DURATION.trace(
+                "Duration: {} semanticTokensRange, uri: {}",
+                String.format("%.2f", (System.nanoTime() - start) / 1000000000.0),
+                textDocument.getUri());
+          }
+          return semanticTokens;
+        });
+  }
+
   @Override
   public CompletableFuture<Either3<Range, PrepareRenameResult, PrepareRenameDefaultBehavior>>
       prepareRename(final PrepareRenameParams params) {
@@ -699,7 +866,7 @@ public class MagikTextDocumentService implements TextDocumentService {
         params.getPosition().getLine(),
         params.getPosition().getCharacter());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     if (!(openedFile instanceof MagikTypedFile)) {
       return CompletableFuture.supplyAsync(() -> null);
     }
@@ -733,7 +900,7 @@ public class MagikTextDocumentService implements TextDocumentService {
         params.getPosition().getLine(),
         params.getPosition().getCharacter());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     if (!(openedFile instanceof MagikTypedFile)) {
       return CompletableFuture.supplyAsync(() -> null);
     }
@@ -765,7 +932,7 @@ public class MagikTextDocumentService implements TextDocumentService {
     final TextDocumentIdentifier textDocument = params.getTextDocument();
     LOGGER.debug("documentSymbol, uri: {}", textDocument.getUri());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     if (!(openedFile instanceof MagikTypedFile)) {
       return CompletableFuture.supplyAsync(Collections::emptyList);
     }
@@ -792,7 +959,7 @@ public class MagikTextDocumentService implements TextDocumentService {
     final TextDocumentIdentifier textDocument = params.getTextDocument();
     LOGGER.debug("selectionRange, uri: {}", textDocument.getUri());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     if (!(openedFile instanceof MagikTypedFile)) {
       return CompletableFuture.supplyAsync(Collections::emptyList);
     }
@@ -826,7 +993,7 @@ public class MagikTextDocumentService implements TextDocumentService {
         params.getPosition().getLine(),
         params.getPosition().getCharacter());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     if (!(openedFile instanceof MagikTypedFile)) {
       return CompletableFuture.supplyAsync(() -> null);
     }
@@ -908,7 +1075,7 @@ public class MagikTextDocumentService implements TextDocumentService {
         range.getEnd().getLine(),
         range.getEnd().getCharacter());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     if (!(openedFile instanceof MagikTypedFile)) {
       return CompletableFuture.supplyAsync(Collections::emptyList);
     }
@@ -946,7 +1113,7 @@ public class MagikTextDocumentService implements TextDocumentService {
         range.getEnd().getLine(),
         range.getEnd().getCharacter());
 
-    final OpenedFile openedFile = this.openedFiles.get(textDocument);
+    final OpenedFile openedFile = this.getOpenedFile(textDocument);
     if (!(openedFile instanceof MagikTypedFile)) {
       return CompletableFuture.supplyAsync(Collections::emptyList);
     }
@@ -23,8 +23,9 @@ import nl.ramsolutions.sw.magik.analysis.MagikAnalysisSettings;
 import nl.ramsolutions.sw.magik.analysis.definitions.FilterableDefinitionKeeperAdapter;
 import nl.ramsolutions.sw.magik.analysis.definitions.IDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
-import nl.ramsolutions.sw.magik.analysis.definitions.io.JsonDefinitionReader;
+import nl.ramsolutions.sw.magik.analysis.definitions.io.BinaryDefinitionWriter;
 import nl.ramsolutions.sw.magik.analysis.definitions.io.JsonDefinitionWriter;
+import nl.ramsolutions.sw.magik.analysis.definitions.io.TypeDatabase;
 import nl.ramsolutions.sw.magik.analysis.indexer.MagikIndexer;
 import nl.ramsolutions.sw.magik.analysis.indexer.ProductIndexer;
 import org.eclipse.lsp4j.WorkspaceFolder;
@@ -67,6 +68,16 @@ public class MagikWorkspaceFolder {
   }
 
   public void onInit() throws IOException {
+    this.onInit(MagikIndexer.ProgressListener.NONE);
+  }
+
+  /**
+   * Initialize this workspace folder, reporting the progress of indexing magik files.
+   *
+   * @param progressListener Listener to report indexing progress to.
+   * @throws IOException -
+   */
+  public void onInit(final MagikIndexer.ProgressListener progressListener) throws IOException {
     LOGGER.debug("On init: {}", this);
 
     final MagikAnalysisSettings settings = new MagikAnalysisSettings(this.languageServerProperties);
@@ -76,7 +87,7 @@ public class MagikWorkspaceFolder {
 
     this.runIgnoreHandler();
     this.runProductIndexer();
-    this.runMagikIndexer();
+    this.runMagikIndexer(progressListener);
 
     LOGGER.debug("Done on init: {}", this);
   }
@@ -95,9 +106,9 @@ public class MagikWorkspaceFolder {
   private void readExistingTypesDatabase() throws IOException {
     final Path workspacePath = this.getWorkspacePath();
     final Path typesDbPath = workspacePath.resolve(TYPES_DB_FILENAME);
-    if (Files.exists(typesDbPath)) {
+    if (Files.exists(typesDbPath) || Files.exists(TypeDatabase.getBinaryPath(typesDbPath))) {
       LOGGER.debug("Reading types database for workspace: {}, path: {}", this, typesDbPath);
-      JsonDefinitionReader.readTypes(typesDbPath, this.definitionKeeper);
+      TypeDatabase.readTypes(typesDbPath, this.definitionKeeper);
     }
   }
 
@@ -132,7 +143,8 @@ public class MagikWorkspaceFolder {
     }
   }
 
-  private void runMagikIndexer() throws IOException {
+  private void runMagikIndexer(final MagikIndexer.ProgressListener progressListener)
+      throws IOException {
     LOGGER.debug("Running MagikIndexer for: {}", this);
 
     final Path workspaceFolderPath = this.getWorkspacePath();
@@ -154,22 +166,25 @@ public class MagikWorkspaceFolder {
             filteredDefinitionKeeper.getProcedureDefinitions());
 
     LOGGER.debug("Magik file event count: {}", fileEvents.size());
-    for (final FileEvent fileEvent : fileEvents) {
-      this.magikIndexer.handleFileEvent(fileEvent);
-    }
+    final MagikAnalysisSettings settings = new MagikAnalysisSettings(this.languageServerProperties);
+    final int parallelism = settings.getTypingIndexParallelism();
+    this.magikIndexer.handleFileEvents(fileEvents, parallelism, progressListener);
   }
 
   private void writeTypesDatabase() throws IOException {
     final Path workspacePath = this.getWorkspacePath();
     final Path typesDbPath = workspacePath.resolve(TYPES_DB_FILENAME);
-    if (Files.exists(typesDbPath)) {
-      Files.delete(typesDbPath);
-    }
+    final Path binaryTypesDbPath = TypeDatabase.getBinaryPath(typesDbPath);
+    Files.deleteIfExists(typesDbPath);
+    Files.deleteIfExists(binaryTypesDbPath);
 
     LOGGER.debug("Writing types database for workspace: {}, path: {}", this, typesDbPath);
     final FilterableDefinitionKeeperAdapter filteredDefinitionKeeper =
         this.getWorkspaceFilteredDefinitionKeeper();
     JsonDefinitionWriter.write(typesDbPath, filteredDefinitionKeeper);
+
+    // Binary type database is written last, so it is preferred when reading.
+    BinaryDefinitionWriter.write(binaryTypesDbPath, filteredDefinitionKeeper);
   }
 
   private FilterableDefinitionKeeperAdapter getWorkspaceFilteredDefinitionKeeper() {
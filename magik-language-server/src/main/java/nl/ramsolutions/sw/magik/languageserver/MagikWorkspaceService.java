@@ -10,10 +10,12 @@ import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.ramsolutions.sw.ConfigurationReader;
 import nl.ramsolutions.sw.IgnoreHandler;
 import nl.ramsolutions.sw.MagikToolsProperties;
 import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
-import nl.ramsolutions.sw.magik.analysis.definitions.io.JsonDefinitionReader;
+import nl.ramsolutions.sw.magik.analysis.definitions.io.TypeDatabase;
 import nl.ramsolutions.sw.magik.analysis.indexer.MagikIndexer;
 import nl.ramsolutions.sw.magik.analysis.indexer.ProductIndexer;
 import nl.ramsolutions.sw.magik.analysis.typing.ClassInfoDefinitionReader;
@@ -29,6 +31,7 @@ import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.WorkDoneProgressBegin;
 import org.eclipse.lsp4j.WorkDoneProgressCreateParams;
 import org.eclipse.lsp4j.WorkDoneProgressEnd;
+import org.eclipse.lsp4j.WorkDoneProgressReport;
 import org.eclipse.lsp4j.WorkspaceSymbol;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
@@ -128,13 +131,14 @@ public class MagikWorkspaceService implements WorkspaceService {
     typeDbPaths.forEach(
         pathStr -> {
           final Path path = Path.of(pathStr);
-          if (!Files.exists(path)) {
+          if (!Files.exists(path) && !Files.exists(TypeDatabase.getBinaryPath(path))) {
             LOGGER.warn("Path to types database does not exist: {}", pathStr);
             return;
           }
 
           try {
-            JsonDefinitionReader.readTypes(path, this.definitionKeeper);
+            // Prefers the binary type database, if present.
+            TypeDatabase.readTypes(path, this.definitionKeeper);
           } catch (final IOException exception) {
             LOGGER.error(exception.getMessage(), exception);
           }
@@ -158,6 +162,11 @@ public class MagikWorkspaceService implements WorkspaceService {
                 return;
               }
 
+              // Configuration may resolve differently now.
+              if (ConfigurationReader.isConfigurationFile(path)) {
+                ConfigurationReader.resetCache();
+              }
+
               final nl.ramsolutions.sw.magik.FileEvent.FileChangeType magikFileChangeType =
                   Lsp4jConversion.fileChangeTypeFromLsp4j(fileChangeType);
               final nl.ramsolutions.sw.magik.FileEvent magikFileEvent =
@@ -228,7 +237,7 @@ public class MagikWorkspaceService implements WorkspaceService {
 
   // endregion
 
-  private void runIndexers() {
+  private void runIndexers(final MagikIndexer.ProgressListener progressListener) {
     LOGGER.trace("Run indexers");
 
     // Read types dbs.
@@ -244,7 +253,7 @@ public class MagikWorkspaceService implements WorkspaceService {
     // Update workspace folders.
     for (final MagikWorkspaceFolder workspaceFolder : this.languageServer.getWorkspaceFolders()) {
       try {
-        workspaceFolder.onInit();
+        workspaceFolder.onInit(progressListener);
       } catch (final IOException exception) {
         LOGGER.error(
             "Caught error when initializing workspacefolder: " + workspaceFolder, exception);
@@ -270,11 +279,14 @@ public class MagikWorkspaceService implements WorkspaceService {
 
           final WorkDoneProgressBegin begin = new WorkDoneProgressBegin();
           begin.setTitle("Indexing workspace");
+          begin.setPercentage(0);
           progressParams.setValue(Either.forLeft(begin));
           languageClient.notifyProgress(progressParams);
 
+          final MagikIndexer.ProgressListener progressListener =
+              this.createProgressListener(languageClient, token);
           try {
-            this.runIndexers();
+            this.runIndexers(progressListener);
           } catch (final Exception exception) {
             LOGGER.error(exception.getMessage(), exception);
           }
@@ -287,6 +299,27 @@ public class MagikWorkspaceService implements WorkspaceService {
         });
   }
 
+  private MagikIndexer.ProgressListener createProgressListener(
+      final LanguageClient languageClient, final String token) {
+    final AtomicInteger lastPercentage = new AtomicInteger(-1);
+    return (indexedCount, totalCount) -> {
+      // Only report when the percentage changes, to prevent flooding the client.
+      final int percentage = totalCount != 0 ? indexedCount * 100 / totalCount : 100;
+      final int previousPercentage = lastPercentage.getAndSet(percentage);
+      if (previousPercentage == percentage) {
+        return;
+      }
+
+      final WorkDoneProgressReport report = new WorkDoneProgressReport();
+      report.setMessage(String.format("Indexed %d/%d files", indexedCount, totalCount));
+      report.setPercentage(percentage);
+      final ProgressParams progressParams = new ProgressParams();
+      progressParams.setToken(token);
+      progressParams.setValue(Either.forLeft(report));
+      languageClient.notifyProgress(progressParams);
+    };
+  }
+
   public void shutdown() {
     for (final MagikWorkspaceFolder workspaceFolder : this.languageServer.getWorkspaceFolders()) {
       try {
@@ -0,0 +1,239 @@
+package nl.ramsolutions.sw.magik.languageserver;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import nl.ramsolutions.sw.magik.Position;
+import nl.ramsolutions.sw.magik.Range;
+
+/**
+ * Text of an opened document, supporting incremental changes.
+ *
+ * <p>The text is stored as a piece table: pieces of the original text and of an append-only buffer
+ * with inserted text. Applying a change only updates the pieces and the line index, the text is
+ * only materialized when requested. Lines are separated by {@code \n}, a preceding {@code \r} is
+ * considered part of the line.
+ *
+ * <p>Each change increments the version of the buffer, so users can build derived state only when
+ * the version has changed. This class is thread safe.
+ */
+public class TextDocumentBuffer {
+
+  private static final int MAX_PIECES = 1024;
+
+  /** Piece of text from the original or the added buffer. */
+  private record Piece(boolean added, int start, int length) {
+
+    Piece slice(final int from, final int to) {
+      return new Piece(this.added, this.start + from, to - from);
+    }
+  }
+
+  private String original;
+  private StringBuilder added = new StringBuilder();
+  private List<Piece> pieces = new ArrayList<>();
+  private int length;
+  private int[] lineStarts;
+  private int lineCount;
+  private @CheckForNull String text;
+  private long version;
+
+  /**
+   * Constructor.
+   *
+   * @param text Initial text.
+   */
+  public TextDocumentBuffer(final String text) {
+    this.original = text;
+    this.reset(text);
+  }
+
+  private void reset(final String newText) {
+    this.original = newText;
+    this.added = new StringBuilder();
+    this.pieces = new ArrayList<>();
+    if (!newText.isEmpty()) {
+      this.pieces.add(new Piece(false, 0, newText.length()));
+    }
+
+    this.length = newText.length();
+    this.lineStarts = new int[] {0};
+    this.lineCount = 1;
+    this.insertLineStarts(1, 0, newText);
+    this.text = newText;
+  }
+
+  /**
+   * Get the full text.
+   *
+   * @return Text.
+   */
+  public synchronized String getText() {
+    if (this.text == null) {
+      final StringBuilder builder = new StringBuilder(this.length);
+      for (final Piece piece : this.pieces) {
+        if (piece.added) {
+          builder.append(this.added, piece.start, piece.start + piece.length);
+        } else {
+          builder.append(this.original, piece.start, piece.start + piece.length);
+        }
+      }
+
+      this.text = builder.toString();
+    }
+
+    return this.text;
+  }
+
+  /**
+   * Get the number of lines.
+   *
+   * @return Number of lines.
+   */
+  public synchronized int getLineCount() {
+    return this.lineCount;
+  }
+
+  /**
+   * Replace the text in the given range.
+   *
+   * @param range Range to replace, positions outside the text are clamped.
+   * @param newText Text to replace the range with.
+   */
+  public synchronized void replace(final Range range, final String newText) {
+    final int start = this.offsetOf(range.getStartPosition());
+    final int end = Math.max(start, this.offsetOf(range.getEndPosition()));
+
+    final Piece insert = new Piece(true, this.added.length(), newText.length());
+    this.added.append(newText);
+    this.replacePieces(start, end, insert);
+    this.length += newText.length() - (end - start);
+    this.updateLineStarts(start, end, newText);
+    this.text = null;
+    this.version++;
+
+    if (this.pieces.size() > MAX_PIECES) {
+      this.reset(this.getText());
+    }
+  }
+
+  /**
+   * Replace the full text.
+   *
+   * @param newText New text.
+   */
+  public synchronized void replace(final String newText) {
+    this.reset(newText);
+    this.version++;
+  }
+
+  /**
+   * Get the version, which is incremented on each change.
+   *
+   * @return Version.
+   */
+  public synchronized long getVersion() {
+    return this.version;
+  }
+
+  private int offsetOf(final Position position) {
+    final int lineIndex = position.getLine() - 1;
+    if (lineIndex < 0) {
+      return 0;
+    } else if (lineIndex >= this.lineCount) {
+      return this.length;
+    }
+
+    // Clamp to the end of the line, excluding the newline.
+    final int lineEnd =
+        lineIndex + 1 < this.lineCount ? this.lineStarts[lineIndex + 1] - 1 : this.length;
+    return Math.min(this.lineStarts[lineIndex] + position.getColumn(), lineEnd);
+  }
+
+  private void replacePieces(final int start, final int end, final Piece insert) {
+    final List<Piece> newPieces = new ArrayList<>(this.pieces.size() + 2);
+    boolean inserted = false;
+    int pieceStart = 0;
+    for (final Piece piece : this.pieces) {
+      final int pieceEnd = pieceStart + piece.length;
+      if (pieceEnd <= start || pieceStart >= end) {
+        // Piece is outside of the replaced range.
+        if (!inserted && pieceStart >= end) {
+          TextDocumentBuffer.addPiece(newPieces, insert);
+          inserted = true;
+        }
+
+        newPieces.add(piece);
+      } else {
+        // Piece overlaps the replaced range, keep the parts outside of it.
+        TextDocumentBuffer.addPiece(newPieces, piece.slice(0, Math.max(start - pieceStart, 0)));
+        if (!inserted) {
+          TextDocumentBuffer.addPiece(newPieces, insert);
+          inserted = true;
+        }
+
+        TextDocumentBuffer.addPiece(
+            newPieces, piece.slice(Math.min(end - pieceStart, piece.length), piece.length));
+      }
+
+      pieceStart = pieceEnd;
+    }
+
+    if (!inserted) {
+      TextDocumentBuffer.addPiece(newPieces, insert);
+    }
+
+    this.pieces = newPieces;
+  }
+
+  private static void addPiece(final List<Piece> pieces, final Piece piece) {
+    if (piece.length > 0) {
+      pieces.add(piece);
+    }
+  }
+
+  private void updateLineStarts(final int start, final int end, final String newText) {
+    // Line starts in (start, end] are removed, as the preceding newline is replaced.
+    int firstRemoved = 1;
+    while (firstRemoved < this.lineCount && this.lineStarts[firstRemoved] <= start) {
+      firstRemoved++;
+    }
+
+    int firstKept = firstRemoved;
+    while (firstKept < this.lineCount && this.lineStarts[firstKept] <= end) {
+      firstKept++;
+    }
+
+    final int delta = newText.length() - (end - start);
+    for (int i = firstKept; i < this.lineCount; ++i) {
+      this.lineStarts[i] += delta;
+    }
+
+    System.arraycopy(
+        this.lineStarts, firstKept, this.lineStarts, firstRemoved, this.lineCount - firstKept);
+    this.lineCount -= firstKept - firstRemoved;
+    this.insertLineStarts(firstRemoved, start, newText);
+  }
+
+  private void insertLineStarts(final int index, final int offset, final String newText) {
+    final int newLines = (int) newText.chars().filter(chr -> chr == '\n').count();
+    if (newLines == 0) {
+      return;
+    }
+
+    if (this.lineCount + newLines > this.lineStarts.length) {
+      this.lineStarts =
+          Arrays.copyOf(this.lineStarts, Math.max(this.lineCount + newLines, this.lineCount * 2));
+    }
+
+    System.arraycopy(
+        this.lineStarts, index, this.lineStarts, index + newLines, this.lineCount - index);
+    int lineIndex = index;
+    for (int i = newText.indexOf('\n'); i != -1; i = newText.indexOf('\n', i + 1)) {
+      this.lineStarts[lineIndex++] = offset + i + 1;
+    }
+
+    this.lineCount += newLines;
+  }
+}
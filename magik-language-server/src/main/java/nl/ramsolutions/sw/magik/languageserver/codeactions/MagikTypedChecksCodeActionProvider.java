@@ -63,7 +63,7 @@ public class MagikTypedChecksCodeActionProvider {
     final MagikToolsProperties actualProperties =
         ConfigurationReader.readProperties(searchPath, this.properties);
     final MagikChecksConfiguration config =
-        new MagikChecksConfiguration(CheckList.getChecks(), actualProperties);
+        MagikChecksConfiguration.of(CheckList.getChecks(), actualProperties);
     final List<MagikCheckHolder> allChecks = config.getAllChecks();
     for (final MagikCheckHolder checkHolder : allChecks) {
       if (checkHolder.getCheckClass().equals(checkClass)) {
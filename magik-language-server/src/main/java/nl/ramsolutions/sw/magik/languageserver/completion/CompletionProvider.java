@@ -1,5 +1,6 @@
 package nl.ramsolutions.sw.magik.languageserver.completion;
 
+import com.google.gson.JsonObject;
 import com.sonar.sslr.api.AstNode;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -10,6 +11,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -17,7 +19,10 @@ import java.util.stream.Stream;
 import nl.ramsolutions.sw.magik.MagikTypedFile;
 import nl.ramsolutions.sw.magik.Range;
 import nl.ramsolutions.sw.magik.analysis.AstQuery;
+import nl.ramsolutions.sw.magik.analysis.definitions.ExemplarDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.MagikDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.MethodDefinition;
 import nl.ramsolutions.sw.magik.analysis.helpers.MethodDefinitionNodeHelper;
 import nl.ramsolutions.sw.magik.analysis.scope.GlobalScope;
 import nl.ramsolutions.sw.magik.analysis.scope.Scope;
@@ -31,9 +36,12 @@ import nl.ramsolutions.sw.magik.api.MagikOperator;
 import nl.ramsolutions.sw.magik.api.MagikPunctuator;
 import nl.ramsolutions.sw.magik.languageserver.Lsp4jConversion;
 import nl.ramsolutions.sw.magik.parser.MagikCommentExtractor;
+import nl.ramsolutions.sw.magik.parser.TypeStringParser;
+import nl.ramsolutions.sw.magik.utils.NameIndex;
 import org.eclipse.lsp4j.CompletionItem;
 import org.eclipse.lsp4j.CompletionItemKind;
 import org.eclipse.lsp4j.CompletionItemTag;
+import org.eclipse.lsp4j.CompletionList;
 import org.eclipse.lsp4j.CompletionOptions;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.ServerCapabilities;
@@ -46,6 +54,13 @@ public class CompletionProvider {
   private static final Logger LOGGER = LoggerFactory.getLogger(CompletionProvider.class);
   private static final Set<Character> REMOVAL_STOP_CHARS = new HashSet<>();
   private static final String TOPIC_DEPRECATED = "deprecated";
+  private static final int MAX_TYPE_ITEMS = 100;
+  private static final int MAX_METHOD_ITEMS = 200;
+  private static final String DATA_KIND = "kind";
+  private static final String DATA_KIND_EXEMPLAR = "exemplar";
+  private static final String DATA_KIND_METHOD = "method";
+  private static final String DATA_TYPE_STRING = "typeString";
+  private static final String DATA_METHOD_NAME = "methodName";
 
   static {
     REMOVAL_STOP_CHARS.add(' ');
@@ -76,17 +91,20 @@ public class CompletionProvider {
   public void setCapabilities(final ServerCapabilities capabilities) {
     final CompletionOptions completionOptions = new CompletionOptions();
     completionOptions.setTriggerCharacters(List.of("."));
+    completionOptions.setResolveProvider(true);
     capabilities.setCompletionProvider(completionOptions);
   }
 
   /**
-   * Get a list of completions.
+   * Get a list of completions. The number of global type and method completions is bounded, the
+   * list is marked incomplete when completions were left out. Documentation is added when resolving
+   * a {@link CompletionItem}.
    *
    * @param magikFile Magik file.
    * @param position Position in file.
    * @return List of completions.
    */
-  public List<CompletionItem> provideCompletions(
+  public CompletionList provideCompletions(
       final MagikTypedFile magikFile, final Position position) {
     // Do our best to get a token value, and clean up the source while we're at it.
     final Map.Entry<MagikTypedFile, String> usables = this.getUsableMagikFile(magikFile, position);
@@ -95,18 +113,19 @@ public class CompletionProvider {
     final Position newPosition =
         new Position(position.getLine(), position.getCharacter() - removedPart.length());
     final AstNode node = newMagikFile.getTopNode();
-    final AstNode tokenNode = AstQuery.nodeAt(node, Lsp4jConversion.positionFromLsp4j(newPosition));
+    final AstNode tokenNode =
+        AstQuery.nodeAt(newMagikFile, Lsp4jConversion.positionFromLsp4j(newPosition));
     LOGGER.trace("Current token: {}", removedPart);
 
     // Ensure not in comment.
     if (this.inComment(node, position)) {
-      return Collections.emptyList();
+      return new CompletionList(Collections.emptyList());
     }
 
     // Keyword completion: '_'.
     if (removedPart.startsWith("_")) {
       LOGGER.debug("Providing keyword completions");
-      return this.provideKeywordCompletions();
+      return new CompletionList(this.provideKeywordCompletions());
     }
 
     // Method completion: METHOD_INVOCATION or '.'.
@@ -122,6 +141,51 @@ public class CompletionProvider {
     return this.provideGlobalCompletion(newMagikFile, position, tokenNode);
   }
 
+  /**
+   * Resolve a {@link CompletionItem}, adding the documentation of the definition.
+   *
+   * @param item Item to resolve.
+   * @param definitionKeeper {@link IDefinitionKeeper} to get the definition from.
+   * @return Resolved item.
+   */
+  public CompletionItem resolveCompletionItem(
+      final CompletionItem item, final IDefinitionKeeper definitionKeeper) {
+    if (!(item.getData() instanceof JsonObject data)
+        || !data.has(DATA_KIND)
+        || !data.has(DATA_TYPE_STRING)) {
+      return item;
+    }
+
+    final String kind = data.get(DATA_KIND).getAsString();
+    final TypeString typeString =
+        TypeStringParser.parseTypeString(data.get(DATA_TYPE_STRING).getAsString());
+    final Stream<? extends MagikDefinition> definitions;
+    if (DATA_KIND_EXEMPLAR.equals(kind)) {
+      definitions = definitionKeeper.getExemplarDefinitions(typeString).stream();
+    } else if (DATA_KIND_METHOD.equals(kind) && data.has(DATA_METHOD_NAME)) {
+      final String methodName = data.get(DATA_METHOD_NAME).getAsString();
+      definitions =
+          definitionKeeper.getMethodDefinitions(typeString).stream()
+              .filter(methodDef -> methodDef.getMethodName().equals(methodName));
+    } else {
+      return item;
+    }
+
+    definitions
+        .map(MagikDefinition::getDoc)
+        .filter(Objects::nonNull)
+        .findFirst()
+        .ifPresent(item::setDocumentation);
+    return item;
+  }
+
+  private static JsonObject createData(final String kind, final TypeString typeString) {
+    final JsonObject data = new JsonObject();
+    data.addProperty(DATA_KIND, kind);
+    data.addProperty(DATA_TYPE_STRING, typeString.getFullString());
+    return data;
+  }
+
   /**
    * Test if position is in comment.
    *
@@ -148,7 +212,7 @@ public class CompletionProvider {
    * @return Completions items.
    */
   @SuppressWarnings("checkstyle:NestedIfDepth")
-  private List<CompletionItem> provideGlobalCompletion(
+  private CompletionList provideGlobalCompletion(
       final MagikTypedFile magikFile, final Position position, final @Nullable AstNode tokenNode) {
     final List<CompletionItem> items = new ArrayList<>();
 
@@ -223,19 +287,19 @@ public class CompletionProvider {
       }
     }
 
-    // Global types.
+    // Global types, best matches first.
     final String identifierPart = tokenNode != null ? tokenNode.getTokenValue() : "";
-    definitionKeeper.getExemplarDefinitions().stream()
-        .filter(
-            exemplarDef ->
-                exemplarDef.getTypeString().getFullString().indexOf(identifierPart) != -1)
+    final List<ExemplarDefinition> exemplarDefs =
+        this.findExemplarDefinitions(definitionKeeper, identifierPart);
+    exemplarDefs.stream()
+        .limit(MAX_TYPE_ITEMS)
         .map(
             exemplarDef -> {
-              final CompletionItem item =
-                  new CompletionItem(exemplarDef.getTypeString().getFullString());
-              item.setInsertText(exemplarDef.getTypeString().getFullString());
-              item.setDetail(exemplarDef.getTypeString().getFullString());
-              item.setDocumentation(exemplarDef.getDoc());
+              final TypeString typeString = exemplarDef.getTypeString();
+              final CompletionItem item = new CompletionItem(typeString.getFullString());
+              item.setInsertText(typeString.getFullString());
+              item.setDetail(typeString.getFullString());
+              item.setData(CompletionProvider.createData(DATA_KIND_EXEMPLAR, typeString));
               item.setKind(CompletionItemKind.Class);
               if (exemplarDef.getTopics().contains(TOPIC_DEPRECATED)) {
                 item.setTags(List.of(CompletionItemTag.Deprecated));
@@ -244,7 +308,26 @@ public class CompletionProvider {
             })
         .forEach(items::add);
 
-    return items;
+    final boolean isIncomplete = exemplarDefs.size() > MAX_TYPE_ITEMS;
+    return new CompletionList(isIncomplete, items);
+  }
+
+  private List<ExemplarDefinition> findExemplarDefinitions(
+      final IDefinitionKeeper definitionKeeper, final String identifierPart) {
+    // Get one more than needed, to determine if the list is incomplete.
+    if (identifierPart.isEmpty()) {
+      return NameIndex.rank(
+          definitionKeeper.getExemplarDefinitions(),
+          exemplarDef -> exemplarDef.getTypeString().getFullString(),
+          identifierPart,
+          MAX_TYPE_ITEMS + 1);
+    }
+
+    return definitionKeeper
+        .searchDefinitions(identifierPart, ExemplarDefinition.class::isInstance, MAX_TYPE_ITEMS + 1)
+        .stream()
+        .map(ExemplarDefinition.class::cast)
+        .toList();
   }
 
   /**
@@ -255,7 +338,7 @@ public class CompletionProvider {
    * @param tokenValue Token value.
    * @return List with {@link CompletionItem}s.
    */
-  private List<CompletionItem> provideMethodInvocationCompletion(
+  private CompletionList provideMethodInvocationCompletion(
       final MagikTypedFile magikFile, final AstNode tokenNode, final String tokenValue) {
     // Token -->
     // - parent: any --> parent: ATOM
@@ -273,7 +356,7 @@ public class CompletionProvider {
       // Asking the previous invocation.
       wantedNode = parentNode.getPreviousSibling();
     } else {
-      return Collections.emptyList();
+      return new CompletionList(Collections.emptyList());
     }
 
     final LocalTypeReasonerState reasonerState = magikFile.getTypeReasonerState();
@@ -285,26 +368,38 @@ public class CompletionProvider {
       typeStr = helper.getTypeString();
     }
 
-    // Convert all known methods to CompletionItems.
+    // Convert the best matching methods to CompletionItems.
     LOGGER.debug("Providing method completions for type: {}", typeStr.getFullString());
     final String methodNamePart = tokenValue.startsWith(".") ? tokenValue.substring(1) : tokenValue;
     final TypeStringResolver resolver = magikFile.getTypeStringResolver();
-    return resolver.getMethodDefinitions(typeStr).stream()
-        .filter(methodDef -> methodDef.getMethodName().contains(methodNamePart))
-        .map(
-            methodDef -> {
-              final String methodName = methodDef.getMethodNameWithParameters();
-              final CompletionItem item = new CompletionItem(methodName);
-              item.setInsertText(methodName);
-              item.setDetail(methodDef.getTypeName().getFullString());
-              item.setDocumentation(methodDef.getDoc());
-              item.setKind(CompletionItemKind.Method);
-              if (methodDef.getTopics().contains(TOPIC_DEPRECATED)) {
-                item.setTags(List.of(CompletionItemTag.Deprecated));
-              }
-              return item;
-            })
-        .toList();
+    final List<MethodDefinition> methodDefs =
+        NameIndex.rank(
+            resolver.getMethodDefinitions(typeStr),
+            MethodDefinition::getMethodName,
+            methodNamePart,
+            MAX_METHOD_ITEMS + 1);
+    final List<CompletionItem> items =
+        methodDefs.stream()
+            .limit(MAX_METHOD_ITEMS)
+            .map(
+                methodDef -> {
+                  final String methodName = methodDef.getMethodNameWithParameters();
+                  final CompletionItem item = new CompletionItem(methodName);
+                  item.setInsertText(methodName);
+                  item.setDetail(methodDef.getTypeName().getFullString());
+                  final JsonObject data =
+                      CompletionProvider.createData(DATA_KIND_METHOD, methodDef.getTypeName());
+                  data.addProperty(DATA_METHOD_NAME, methodDef.getMethodName());
+                  item.setData(data);
+                  item.setKind(CompletionItemKind.Method);
+                  if (methodDef.getTopics().contains(TOPIC_DEPRECATED)) {
+                    item.setTags(List.of(CompletionItemTag.Deprecated));
+                  }
+                  return item;
+                })
+            .toList();
+    final boolean isIncomplete = methodDefs.size() > MAX_METHOD_ITEMS;
+    return new CompletionList(isIncomplete, items);
   }
 
   /**
@@ -394,8 +489,8 @@ public class CompletionProvider {
       final MagikTypedFile magikFile, final Position position) {
     MagikTypedFile newMagikFile = magikFile;
 
-    final AstNode node = magikFile.getTopNode();
-    final AstNode tokenNode = AstQuery.nodeAt(node, Lsp4jConversion.positionFromLsp4j(position));
+    final AstNode tokenNode =
+        AstQuery.nodeAt(magikFile, Lsp4jConversion.positionFromLsp4j(position));
     String cleanedToken = "";
     if (tokenNode != null
         && tokenNode.getParent() != null
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import nl.ramsolutions.sw.MagikToolsProperties;
 import nl.ramsolutions.sw.magik.MagikTypedFile;
 import nl.ramsolutions.sw.magik.languageserver.MagikLanguageServerSettings;
@@ -30,6 +31,8 @@ public class DiagnosticsProvider {
   /**
    * Provides diagnostics for a Magik file.
    *
+   * <p>Stops with a {@link CancellationException} when the current thread is interrupted.
+   *
    * @param magikFile Magik file.
    * @return Diagnostics.
    */
@@ -39,6 +42,9 @@ public class DiagnosticsProvider {
     // Linter diagnostics.
     final List<Diagnostic> diagnosticsLinter = this.getDiagnosticsFromLinter(magikFile);
     diagnostics.addAll(diagnosticsLinter);
+    if (Thread.currentThread().isInterrupted()) {
+      throw new CancellationException();
+    }
 
     // Typing diagnostics.
     final MagikLanguageServerSettings settings = new MagikLanguageServerSettings(this.properties);
@@ -6,8 +6,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
-import nl.ramsolutions.sw.ConfigurationLocator;
 import nl.ramsolutions.sw.ConfigurationReader;
 import nl.ramsolutions.sw.MagikToolsProperties;
 import nl.ramsolutions.sw.magik.MagikFile;
@@ -57,9 +57,6 @@ public class MagikChecksDiagnosticsProvider {
    * @throws IOException -
    */
   public List<Diagnostic> getDiagnostics(final MagikFile magikFile) throws IOException {
-    // Empty cache, as the configuration may have changed without us knowing it.
-    ConfigurationLocator.resetCache();
-
     return this.createChecks(magikFile).stream()
         .flatMap(check -> this.runChecks(check, magikFile).stream())
         .filter(magikIssue -> !MagikIssueDisabledChecker.issueDisabled(magikFile, magikIssue))
@@ -78,6 +75,10 @@ public class MagikChecksDiagnosticsProvider {
   }
 
   private List<MagikIssue> runChecks(final MagikCheck check, final MagikFile magikFile) {
+    if (Thread.currentThread().isInterrupted()) {
+      throw new CancellationException();
+    }
+
     final long start = System.nanoTime();
 
     final List<MagikIssue> issues = check.scanFileForIssues(magikFile);
@@ -98,7 +99,7 @@ public class MagikChecksDiagnosticsProvider {
     final MagikToolsProperties actualProperties =
         ConfigurationReader.readProperties(searchPath, this.properties);
     final MagikChecksConfiguration config =
-        new MagikChecksConfiguration(CheckList.getChecks(), actualProperties);
+        MagikChecksConfiguration.of(CheckList.getChecks(), actualProperties);
     final List<MagikCheckHolder> holders = config.getAllChecks();
     return holders.stream()
         .filter(MagikCheckHolder::isEnabled)
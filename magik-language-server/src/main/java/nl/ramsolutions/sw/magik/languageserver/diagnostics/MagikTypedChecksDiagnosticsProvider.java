@@ -6,8 +6,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
-import nl.ramsolutions.sw.ConfigurationLocator;
 import nl.ramsolutions.sw.ConfigurationReader;
 import nl.ramsolutions.sw.MagikToolsProperties;
 import nl.ramsolutions.sw.magik.MagikTypedFile;
@@ -57,9 +57,6 @@ public class MagikTypedChecksDiagnosticsProvider {
    * @throws IOException -
    */
   public List<Diagnostic> getDiagnostics(final MagikTypedFile magikFile) throws IOException {
-    // Empty cache, as the configuration may have changed without us knowing it.
-    ConfigurationLocator.resetCache();
-
     // Parse the file, determine types, and get issues.
     return this.createChecks(magikFile).stream()
         .flatMap(check -> this.runChecks(check, magikFile).stream())
@@ -79,6 +76,11 @@ public class MagikTypedChecksDiagnosticsProvider {
   }
 
   private List<MagikIssue> runChecks(final MagikTypedCheck check, final MagikTypedFile magikFile) {
+    // Stop between checks when cancelled, as reasoning over a file can take a while.
+    if (Thread.currentThread().isInterrupted()) {
+      throw new CancellationException();
+    }
+
     final long start = System.nanoTime();
 
     final List<MagikIssue> issues = check.scanFileForIssues(magikFile);
@@ -100,7 +102,7 @@ public class MagikTypedChecksDiagnosticsProvider {
     final MagikToolsProperties actualProperties =
         ConfigurationReader.readProperties(searchPath, this.properties);
     final MagikChecksConfiguration config =
-        new MagikChecksConfiguration(CheckList.getChecks(), actualProperties);
+        MagikChecksConfiguration.of(CheckList.getChecks(), actualProperties);
     final List<MagikCheckHolder> holders = config.getAllChecks();
     return holders.stream()
         .filter(MagikCheckHolder::isEnabled)
@@ -36,8 +36,7 @@ public class ImplementationProvider {
    */
   public List<Location> provideImplementations(
       final MagikTypedFile magikFile, final Position position) {
-    final AstNode node = magikFile.getTopNode();
-    final AstNode currentNode = AstQuery.nodeAt(node, position, MagikGrammar.IDENTIFIER);
+    final AstNode currentNode = AstQuery.nodeAt(magikFile, position, MagikGrammar.IDENTIFIER);
     if (currentNode == null) {
       return Collections.emptyList();
     }
@@ -65,7 +64,8 @@ public class ImplementationProvider {
     }
 
     final IDefinitionKeeper definitionKeeper = magikFile.getDefinitionKeeper();
-    return definitionKeeper.getMethodDefinitions().stream()
+    final String methodName = helper.getMethodName();
+    return definitionKeeper.getMethodDefinitionsByName(methodName).stream()
         .filter(methodDef -> !typeStr.equals(methodDef.getTypeName()))
         .filter(methodDef -> resolver.isKindOf(methodDef.getTypeName(), typeStr))
         .map(MethodDefinition::getLocation)
@@ -2,15 +2,11 @@ package nl.ramsolutions.sw.magik.languageserver.references;
 
 import com.sonar.sslr.api.AstNode;
 import java.net.URI;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import nl.ramsolutions.sw.definitions.ModuleUsage;
 import nl.ramsolutions.sw.definitions.ProductUsage;
 import nl.ramsolutions.sw.definitions.api.SwModuleDefinitionGrammar;
@@ -119,12 +115,10 @@ public class ReferencesProvider {
    */
   @SuppressWarnings("checkstyle:NestedIfDepth")
   public List<Location> provideReferences(final MagikTypedFile magikFile, final Position position) {
-    // Parse magik.
-    final AstNode node = magikFile.getTopNode();
     final IDefinitionKeeper definitionKeeper = magikFile.getDefinitionKeeper();
 
     // Should always be on an identifier.
-    final AstNode currentNode = AstQuery.nodeAt(node, position, MagikGrammar.IDENTIFIER);
+    final AstNode currentNode = AstQuery.nodeAt(magikFile, position, MagikGrammar.IDENTIFIER);
     if (currentNode == null) {
       return Collections.emptyList();
     }
@@ -200,16 +194,15 @@ public class ReferencesProvider {
     wantedTypeRefs.add(typeName);
     // TODO: Add all ancestors too?
 
-    final Collection<MethodUsage> searchedMethodUsages =
-        wantedTypeRefs.stream()
-            .map(wantedTypeRef -> new MethodUsage(wantedTypeRef, methodName))
-            .collect(Collectors.toSet());
-    final Predicate<MethodUsage> filterPredicate = searchedMethodUsages::contains;
-
-    // Find references.
-    return definitionKeeper.getMethodDefinitions().stream()
-        .flatMap(def -> def.getUsedMethods().stream())
-        .filter(filterPredicate::test)
+    // Find references, via the usage index of the definition keeper.
+    return wantedTypeRefs.stream()
+        .map(wantedTypeRef -> new MethodUsage(wantedTypeRef, methodName))
+        .distinct()
+        .flatMap(
+            wantedUsage ->
+                definitionKeeper.getMethodUsageDefinitions(wantedUsage).stream()
+                    .flatMap(def -> def.getUsedMethods().stream())
+                    .filter(wantedUsage::equals))
         .map(MethodUsage::getLocation)
         .map(Location::validLocation)
         .toList();
@@ -230,23 +223,14 @@ public class ReferencesProvider {
     // usedGlobal might have a different package? This is because the ref might be stored with the
     // current package.
     final TypeString exemplarTypeString = exemplarDefinition.getTypeString();
-    final Set<TypeString> searchedTypes = Set.of(exemplarTypeString);
-    final Collection<GlobalUsage> wantedGlobalUsages =
-        searchedTypes.stream()
-            .map(wantedTypeRef -> new GlobalUsage(wantedTypeRef, null))
-            .collect(Collectors.toSet());
-    final Predicate<GlobalUsage> filterPredicate = wantedGlobalUsages::contains;
+    final GlobalUsage wantedGlobalUsage = new GlobalUsage(exemplarTypeString, null);
 
-    // Find references.
+    // Find references, via the usage index of the definition keeper.
     // TODO: Also parameters, return types of methods/procedures.
     // TODO: Also slots of methods.
-    return Stream.of(
-            definitionKeeper.getMethodDefinitions().stream()
-                .flatMap(def -> def.getUsedGlobals().stream()),
-            definitionKeeper.getProcedureDefinitions().stream()
-                .flatMap(def -> def.getUsedGlobals().stream()))
-        .flatMap(stream -> stream)
-        .filter(filterPredicate::test)
+    return definitionKeeper.getGlobalUsageDefinitions(wantedGlobalUsage).stream()
+        .flatMap(def -> def.getUsedGlobals().stream())
+        .filter(wantedGlobalUsage::equals)
         .map(GlobalUsage::getLocation)
         .map(Location::validLocation)
         .toList();
@@ -255,9 +239,10 @@ public class ReferencesProvider {
   private List<Location> referencesToCondition(
       final IDefinitionKeeper definitionKeeper, final String conditionName) {
     LOGGER.debug("Finding references to condition: {}", conditionName);
-    return definitionKeeper.getMethodDefinitions().stream()
+    final ConditionUsage wantedConditionUsage = new ConditionUsage(conditionName);
+    return definitionKeeper.getConditionUsageDefinitions(wantedConditionUsage).stream()
         .flatMap(def -> def.getUsedConditions().stream())
-        .filter(conditionUsage -> conditionUsage.getConditionName().equals(conditionName))
+        .filter(wantedConditionUsage::equals)
         .map(ConditionUsage::getLocation)
         .map(Location::validLocation)
         .toList();
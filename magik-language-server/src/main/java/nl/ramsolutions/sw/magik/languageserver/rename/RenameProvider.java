@@ -45,13 +45,10 @@ public class RenameProvider {
    */
   public Either3<org.eclipse.lsp4j.Range, PrepareRenameResult, PrepareRenameDefaultBehavior>
       providePrepareRename(final MagikTypedFile magikFile, final Position position) {
-    // Parse magik.
-    final AstNode topNode = magikFile.getTopNode();
-
     // Should always be on an identifier.
     final AstNode node =
         AstQuery.nodeAt(
-            topNode, Lsp4jConversion.positionFromLsp4j(position), MagikGrammar.IDENTIFIER);
+            magikFile, Lsp4jConversion.positionFromLsp4j(position), MagikGrammar.IDENTIFIER);
     if (node == null) {
       return null;
     }
@@ -83,13 +80,10 @@ public class RenameProvider {
    */
   public WorkspaceEdit provideRename(
       final MagikTypedFile magikFile, final Position position, final String newName) {
-    // Parse magik.
-    final AstNode topNode = magikFile.getTopNode();
-
     // Should always be on an identifier.
     final AstNode node =
         AstQuery.nodeAt(
-            topNode, Lsp4jConversion.positionFromLsp4j(position), MagikGrammar.IDENTIFIER);
+            magikFile, Lsp4jConversion.positionFromLsp4j(position), MagikGrammar.IDENTIFIER);
     if (node == null) {
       return null;
     }
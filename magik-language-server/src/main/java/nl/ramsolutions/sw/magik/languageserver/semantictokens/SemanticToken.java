@@ -90,6 +90,15 @@ public class SemanticToken {
     this.modifiers = modifiers;
   }
 
+  /**
+   * Get the original token.
+   *
+   * @return Original token.
+   */
+  public Token getToken() {
+    return this.token;
+  }
+
   private int tokenTypeValue() {
     return this.type.getTokenType();
   }
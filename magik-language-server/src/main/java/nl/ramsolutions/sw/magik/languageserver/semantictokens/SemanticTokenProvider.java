@@ -1,30 +1,51 @@
 package nl.ramsolutions.sw.magik.languageserver.semantictokens;
 
-import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.api.GenericTokenType;
 import com.sonar.sslr.api.Token;
-import java.io.IOException;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import nl.ramsolutions.sw.OpenedFile;
 import nl.ramsolutions.sw.magik.MagikTypedFile;
 import nl.ramsolutions.sw.magik.ModuleDefFile;
 import nl.ramsolutions.sw.magik.ProductDefFile;
+import nl.ramsolutions.sw.magik.Range;
+import nl.ramsolutions.sw.magik.api.MagikGrammar;
 import org.eclipse.lsp4j.DocumentFilter;
 import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensEdit;
 import org.eclipse.lsp4j.SemanticTokensLegend;
+import org.eclipse.lsp4j.SemanticTokensServerFull;
 import org.eclipse.lsp4j.SemanticTokensWithRegistrationOptions;
 import org.eclipse.lsp4j.ServerCapabilities;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Semantic token provider. */
+/**
+ * Semantic token provider.
+ *
+ * <p>The encoded tokens are cached per version of a document, identified by a result id. Deltas are
+ * computed against the previous version of the document.
+ */
 public class SemanticTokenProvider {
 
+  /** Semantic tokens of a version of a document. */
+  private record CachedSemanticTokens(
+      @Nullable OpenedFile openedFile,
+      String resultId,
+      List<SemanticToken> semanticTokens,
+      List<Integer> data) {}
+
   private static final Logger LOGGER = LoggerFactory.getLogger(SemanticTokenProvider.class);
   private static final int SIZE_PER_TOKEN = 5;
 
@@ -37,6 +58,10 @@ public class SemanticTokenProvider {
               .map(SemanticToken.Modifier::getSemanticModifierName)
               .toList());
 
+  private final Map<URI, CachedSemanticTokens> currentSemanticTokens = new ConcurrentHashMap<>();
+  private final Map<URI, CachedSemanticTokens> previousSemanticTokens = new ConcurrentHashMap<>();
+  private final AtomicLong resultIdCounter = new AtomicLong();
+
   /**
    * Set server capabilities.
    *
@@ -45,8 +70,8 @@ public class SemanticTokenProvider {
   public void setCapabilities(final ServerCapabilities capabilities) {
     final SemanticTokensWithRegistrationOptions semanticTokensProvider =
         new SemanticTokensWithRegistrationOptions(SemanticTokenProvider.LEGEND);
-    semanticTokensProvider.setFull(true);
-    semanticTokensProvider.setRange(false);
+    semanticTokensProvider.setFull(new SemanticTokensServerFull(true));
+    semanticTokensProvider.setRange(true);
     semanticTokensProvider.setDocumentSelector(
         List.of(
             new DocumentFilter("product.def", "file", null),
@@ -58,50 +83,182 @@ public class SemanticTokenProvider {
   /**
    * Build SemanticTokens.
    *
-   * @param magikFile Magik file.
+   * @param openedFile Magik file, module.def file or product.def file.
    * @return SemanticTokens.
-   * @throws IOException -
    */
-  public SemanticTokens provideSemanticTokensFull(final MagikTypedFile magikFile) {
-    LOGGER.debug("Providing semantic tokens full, file: {}", magikFile);
+  public SemanticTokens provideSemanticTokensFull(final OpenedFile openedFile) {
+    LOGGER.debug("Providing semantic tokens full, file: {}", openedFile);
 
-    final MagikSemanticTokenWalker walker = new MagikSemanticTokenWalker(magikFile);
-    final AstNode topNode = magikFile.getTopNode();
-    walker.walkAst(topNode);
+    final CachedSemanticTokens cached = this.getSemanticTokens(openedFile);
+    return new SemanticTokens(cached.resultId(), cached.data());
+  }
+
+  /**
+   * Build SemanticTokens, or a delta to the SemanticTokens with the previous result id.
+   *
+   * @param openedFile Magik file, module.def file or product.def file.
+   * @param previousResultId Result id of the SemanticTokens known by the client.
+   * @return Delta if the previous SemanticTokens are known, SemanticTokens otherwise.
+   */
+  public Either<SemanticTokens, SemanticTokensDelta> provideSemanticTokensFullDelta(
+      final OpenedFile openedFile, final String previousResultId) {
+    LOGGER.debug(
+        "Providing semantic tokens full delta, file: {}, previous result id: {}",
+        openedFile,
+        previousResultId);
+
+    final CachedSemanticTokens cached = this.getSemanticTokens(openedFile);
+    if (cached.resultId().equals(previousResultId)) {
+      return Either.forRight(new SemanticTokensDelta(Collections.emptyList(), cached.resultId()));
+    }
+
+    final CachedSemanticTokens previous = this.previousSemanticTokens.get(openedFile.getUri());
+    if (previous == null || !previous.resultId().equals(previousResultId)) {
+      return Either.forLeft(new SemanticTokens(cached.resultId(), cached.data()));
+    }
+
+    final List<SemanticTokensEdit> edits =
+        SemanticTokenProvider.computeEdits(previous.data(), cached.data());
+    return Either.forRight(new SemanticTokensDelta(edits, cached.resultId()));
+  }
+
+  /**
+   * Build SemanticTokens for a range. If the SemanticTokens of this version of the document are not
+   * cached, only the top-level nodes of a Magik file overlapping the range are walked.
+   *
+   * @param openedFile Magik file, module.def file or product.def file.
+   * @param range Range to build SemanticTokens for.
+   * @return SemanticTokens.
+   */
+  public SemanticTokens provideSemanticTokensRange(final OpenedFile openedFile, final Range range) {
+    LOGGER.debug("Providing semantic tokens range, file: {}, range: {}", openedFile, range);
+
+    final CachedSemanticTokens cached = this.currentSemanticTokens.get(openedFile.getUri());
+    final List<SemanticToken> semanticTokens;
+    if (cached != null && cached.openedFile() == openedFile) {
+      semanticTokens = cached.semanticTokens();
+    } else if (openedFile instanceof MagikTypedFile magikFile) {
+      semanticTokens = this.walkSemanticTokens(magikFile, range);
+    } else {
+      semanticTokens = this.getSemanticTokens(openedFile).semanticTokens();
+    }
+
+    final List<SemanticToken> rangeSemanticTokens =
+        semanticTokens.stream()
+            .filter(semanticToken -> new Range(semanticToken.getToken()).overlapsWith(range))
+            .toList();
+    return new SemanticTokens(this.buildData(rangeSemanticTokens));
+  }
+
+  /**
+   * Remove the cached SemanticTokens of a document, e.g., when it is closed.
+   *
+   * @param uri URI of document.
+   */
+  public void removeCachedSemanticTokens(final URI uri) {
+    this.currentSemanticTokens.remove(uri);
+    this.previousSemanticTokens.remove(uri);
+  }
+
+  private CachedSemanticTokens getSemanticTokens(final OpenedFile openedFile) {
+    final URI uri = openedFile.getUri();
+    return this.currentSemanticTokens.compute(
+        uri,
+        (key, cached) -> {
+          if (cached != null && cached.openedFile() == openedFile) {
+            return cached;
+          }
+
+          if (cached != null) {
+            // Keep the previous version for deltas, without keeping the file itself.
+            this.previousSemanticTokens.put(
+                uri,
+                new CachedSemanticTokens(
+                    null, cached.resultId(), Collections.emptyList(), cached.data()));
+          }
 
-    final List<SemanticToken> walkedSemanticTokens = walker.getSemanticTokens();
-    return this.buildSemanticTokens(walkedSemanticTokens);
+          final List<SemanticToken> semanticTokens = this.walkSemanticTokens(openedFile);
+          final String resultId = Long.toString(this.resultIdCounter.incrementAndGet());
+          return new CachedSemanticTokens(
+              openedFile, resultId, semanticTokens, this.buildData(semanticTokens));
+        });
   }
 
-  public SemanticTokens provideSemanticTokensFull(final ModuleDefFile moduleDefFile) {
-    LOGGER.debug("Providing semantic tokens full, file: {}", moduleDefFile);
+  private List<SemanticToken> walkSemanticTokens(final OpenedFile openedFile) {
+    if (openedFile instanceof MagikTypedFile magikFile) {
+      final MagikSemanticTokenWalker walker = new MagikSemanticTokenWalker(magikFile);
+      walker.walkAst(magikFile.getTopNode());
+      return walker.getSemanticTokens();
+    } else if (openedFile instanceof ModuleDefFile moduleDefFile) {
+      final ModuleDefSemanticTokenWalker walker = new ModuleDefSemanticTokenWalker(moduleDefFile);
+      walker.walkAst(moduleDefFile.getTopNode());
+      return walker.getSemanticTokens();
+    } else if (openedFile instanceof ProductDefFile productDefFile) {
+      final ProductDefSemanticTokenWalker walker =
+          new ProductDefSemanticTokenWalker(productDefFile);
+      walker.walkAst(productDefFile.getTopNode());
+      return walker.getSemanticTokens();
+    }
 
-    final ModuleDefSemanticTokenWalker walker = new ModuleDefSemanticTokenWalker(moduleDefFile);
-    final AstNode topNode = moduleDefFile.getTopNode();
-    walker.walkAst(topNode);
+    throw new UnsupportedOperationException();
+  }
 
-    final List<SemanticToken> walkedSemanticTokens = walker.getSemanticTokens();
-    return this.buildSemanticTokens(walkedSemanticTokens);
+  private List<SemanticToken> walkSemanticTokens(
+      final MagikTypedFile magikFile, final Range range) {
+    final MagikSemanticTokenWalker walker = new MagikSemanticTokenWalker(magikFile);
+    magikFile.getTopNode().getChildren().stream()
+        .filter(
+            node ->
+                node.is(MagikGrammar.PACKAGE_SPECIFICATION)
+                    || Range.fromTree(node).overlapsWith(range))
+        .forEach(walker::walkAst);
+    return walker.getSemanticTokens();
   }
 
-  public SemanticTokens provideSemanticTokensFull(final ProductDefFile productDefFile) {
-    LOGGER.debug("Providing semantic tokens full, file: {}", productDefFile);
+  /**
+   * Compute the edits from the previous data to the current data. A single edit replaces the tokens
+   * between the common prefix and suffix.
+   *
+   * @param previousData Previous data.
+   * @param data Current data.
+   * @return Edits.
+   */
+  static List<SemanticTokensEdit> computeEdits(
+      final List<Integer> previousData, final List<Integer> data) {
+    final int maxLength = Math.min(previousData.size(), data.size());
+    int prefixLength = 0;
+    while (prefixLength < maxLength
+        && previousData.get(prefixLength).equals(data.get(prefixLength))) {
+      prefixLength++;
+    }
+    prefixLength -= prefixLength % SIZE_PER_TOKEN;
+
+    int suffixLength = 0;
+    while (suffixLength < maxLength - prefixLength
+        && previousData
+            .get(previousData.size() - 1 - suffixLength)
+            .equals(data.get(data.size() - 1 - suffixLength))) {
+      suffixLength++;
+    }
+    suffixLength -= suffixLength % SIZE_PER_TOKEN;
 
-    final ProductDefSemanticTokenWalker walker = new ProductDefSemanticTokenWalker(productDefFile);
-    final AstNode topNode = productDefFile.getTopNode();
-    walker.walkAst(topNode);
+    final int deleteCount = previousData.size() - prefixLength - suffixLength;
+    final List<Integer> insertData = data.subList(prefixLength, data.size() - suffixLength);
+    if (deleteCount == 0 && insertData.isEmpty()) {
+      return Collections.emptyList();
+    }
 
-    final List<SemanticToken> walkedSemanticTokens = walker.getSemanticTokens();
-    return this.buildSemanticTokens(walkedSemanticTokens);
+    final SemanticTokensEdit edit =
+        new SemanticTokensEdit(prefixLength, deleteCount, new ArrayList<>(insertData));
+    return List.of(edit);
   }
 
-  private SemanticTokens buildSemanticTokens(final List<SemanticToken> walkedSemanticTokens) {
+  private List<Integer> buildData(final List<SemanticToken> walkedSemanticTokens) {
     if (walkedSemanticTokens.isEmpty()) {
-      return new SemanticTokens(Collections.emptyList());
+      return Collections.emptyList();
     }
 
-    final ArrayList<Integer> data =
-        new ArrayList<>((walkedSemanticTokens.size() - 1) * SIZE_PER_TOKEN);
+    final ArrayList<Integer> data = new ArrayList<>(walkedSemanticTokens.size() * SIZE_PER_TOKEN);
     final SemanticToken startSemanticToken = this.createStartSemanticToken();
     Stream.concat(Stream.of(startSemanticToken), walkedSemanticTokens.stream())
         .reduce( // NOSONAR: Data is stored in `data` list.
@@ -109,7 +266,7 @@ public class SemanticTokenProvider {
               s2.dataToPrevious(s1).collect(Collectors.toCollection(() -> data));
               return s2;
             });
-    return new SemanticTokens(data);
+    return Collections.unmodifiableList(data);
   }
 
   private SemanticToken createStartSemanticToken() {
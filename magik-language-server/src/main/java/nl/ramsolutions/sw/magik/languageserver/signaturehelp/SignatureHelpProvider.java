@@ -47,8 +47,7 @@ public class SignatureHelpProvider {
   public SignatureHelp provideSignatureHelp(
       final MagikTypedFile magikFile, final Position position) {
     // Get intended method and called type.
-    final AstNode node = magikFile.getTopNode();
-    AstNode currentNode = AstQuery.nodeAt(node, Lsp4jConversion.positionFromLsp4j(position));
+    AstNode currentNode = AstQuery.nodeAt(magikFile, Lsp4jConversion.positionFromLsp4j(position));
     if (currentNode != null && currentNode.isNot(MagikGrammar.METHOD_INVOCATION)) {
       currentNode = currentNode.getFirstAncestor(MagikGrammar.METHOD_INVOCATION);
     }
@@ -72,8 +71,7 @@ public class SignatureHelpProvider {
       final IDefinitionKeeper definitionKeeper = magikFile.getDefinitionKeeper();
       // Provide all methods with the name.
       sigInfos =
-          definitionKeeper.getMethodDefinitions().stream()
-              .filter(methodDef -> methodDef.getMethodName().startsWith(methodName))
+          definitionKeeper.getMethodDefinitionsByNamePrefix(methodName).stream()
               .map(
                   methodDef ->
                       new SignatureInformation(
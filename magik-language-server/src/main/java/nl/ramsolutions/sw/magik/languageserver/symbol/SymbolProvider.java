@@ -1,21 +1,18 @@
 package nl.ramsolutions.sw.magik.languageserver.symbol;
 
-import java.util.ArrayList;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import java.util.Collections;
 import java.util.List;
-import java.util.function.Predicate;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
+import java.util.Locale;
+import java.util.Objects;
 import nl.ramsolutions.sw.definitions.ModuleDefinition;
 import nl.ramsolutions.sw.definitions.ProductDefinition;
 import nl.ramsolutions.sw.magik.Location;
 import nl.ramsolutions.sw.magik.analysis.definitions.ConditionDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.ExemplarDefinition;
-import nl.ramsolutions.sw.magik.analysis.definitions.GlobalDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.IDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
-import nl.ramsolutions.sw.magik.analysis.definitions.ITypeStringDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.MethodDefinition;
-import nl.ramsolutions.sw.magik.analysis.definitions.ProcedureDefinition;
 import nl.ramsolutions.sw.magik.languageserver.Lsp4jConversion;
 import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.SymbolKind;
@@ -28,6 +25,7 @@ import org.slf4j.LoggerFactory;
 public class SymbolProvider {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SymbolProvider.class);
+  private static final int MAX_RESULTS = 500;
 
   private final IDefinitionKeeper definitionKeeper;
 
@@ -47,183 +45,95 @@ public class SymbolProvider {
   /**
    * Get symbols matching {@code query}.
    *
+   * <p>If the query contains a {@code .}, the part before the dot is matched against the exemplar
+   * name and the part after the dot against the method name. Otherwise, products, modules,
+   * exemplars, methods and conditions are matched on their name.
+   *
    * @param query Query to match against.
    * @return {@link WorkspaceSymbol}s with query results.
    */
   public List<WorkspaceSymbol> getSymbols(final String query) {
     LOGGER.debug("Searching for: '{}'", query);
 
-    if (query.trim().isEmpty()) {
+    final String trimmedQuery = query.trim();
+    if (trimmedQuery.isEmpty()) {
       return Collections.emptyList();
     }
 
-    final List<WorkspaceSymbol> workspaceSymbols = new ArrayList<>();
-    try {
-      this.gatherProducts(query, workspaceSymbols);
-      this.gatherModules(query, workspaceSymbols);
-      this.gatherTypes(query, workspaceSymbols);
-      this.gatherMethods(query, workspaceSymbols);
-      this.gatherConditions(query, workspaceSymbols);
-    } catch (final PatternSyntaxException exception) {
-      LOGGER.info("Ignoring caught exception: {}", exception.getMessage());
-      return Collections.emptyList();
-    }
+    final int dotIndex = trimmedQuery.indexOf('.');
+    final List<IDefinition> definitions =
+        dotIndex == -1
+            ? this.definitionKeeper.searchDefinitions(trimmedQuery, def -> true, MAX_RESULTS)
+            : this.searchMethods(
+                trimmedQuery.substring(0, dotIndex), trimmedQuery.substring(dotIndex + 1));
+    final List<WorkspaceSymbol> workspaceSymbols =
+        definitions.stream().map(this::createWorkspaceSymbol).filter(Objects::nonNull).toList();
 
     LOGGER.debug("Finished searching for: '{}', result count: {}", query, workspaceSymbols.size());
     return workspaceSymbols;
   }
 
-  private void gatherProducts(final String query, final List<WorkspaceSymbol> workspaceSymbols) {
-    final Pattern pattern = Pattern.compile(".*" + query + ".*");
-    final Predicate<ProductDefinition> predicate =
-        definition -> pattern.matcher(definition.getName()).matches();
-    for (final ProductDefinition definition : this.definitionKeeper.getProductDefinitions()) {
-      if (predicate.test(definition)) {
-        final Location conditionLocation = definition.getLocation();
-        final Location location = Location.validLocation(conditionLocation);
-        final WorkspaceSymbol symbol =
-            new WorkspaceSymbol(
-                "Product: " + definition.getName(),
-                SymbolKind.Package,
-                Either.forLeft(Lsp4jConversion.locationToLsp4j(location)));
-        workspaceSymbols.add(symbol);
-      }
-    }
-  }
-
-  private void gatherModules(final String query, final List<WorkspaceSymbol> workspaceSymbols) {
-    final Pattern pattern = Pattern.compile(".*" + query + ".*");
-    final Predicate<ModuleDefinition> predicate =
-        definition -> pattern.matcher(definition.getName()).matches();
-    for (final ModuleDefinition definition : this.definitionKeeper.getModuleDefinitions()) {
-      if (predicate.test(definition)) {
-        final Location conditionLocation = definition.getLocation();
-        final Location location = Location.validLocation(conditionLocation);
-        final WorkspaceSymbol symbol =
-            new WorkspaceSymbol(
-                "Module: " + definition.getName(),
-                SymbolKind.Module,
-                Either.forLeft(Lsp4jConversion.locationToLsp4j(location)));
-        workspaceSymbols.add(symbol);
-      }
-    }
-  }
-
-  private void gatherTypes(final String query, final List<WorkspaceSymbol> workspaceSymbols) {
-    final Predicate<ITypeStringDefinition> predicate = this.buildTypePredicate(query);
-    for (final ExemplarDefinition definition : this.definitionKeeper.getExemplarDefinitions()) {
-      if (predicate.test(definition)) {
-        final Location typeLocation = definition.getLocation();
-        final Location location = Location.validLocation(typeLocation);
-        final WorkspaceSymbol symbol =
-            new WorkspaceSymbol(
-                "Exemplar: " + definition.getTypeString().getFullString(),
-                SymbolKind.Class,
-                Either.forLeft(Lsp4jConversion.locationToLsp4j(location)));
-        workspaceSymbols.add(symbol);
-      }
-    }
-  }
-
-  private void gatherMethods(final String query, final List<WorkspaceSymbol> workspaceSymbols) {
-    final Predicate<MethodDefinition> predicate = this.buildMethodPredicate(query);
-    for (final MethodDefinition definition : this.definitionKeeper.getMethodDefinitions()) {
-      if (predicate.test(definition)) {
-        final Location methodLocation = definition.getLocation();
-        final Location location = Location.validLocation(methodLocation);
-        final WorkspaceSymbol symbol =
-            new WorkspaceSymbol(
-                "Method: " + definition.getName(),
-                SymbolKind.Method,
-                Either.forLeft(Lsp4jConversion.locationToLsp4j(location)));
-        workspaceSymbols.add(symbol);
-      }
-    }
-  }
-
-  /**
-   * Gather {{@link WorkspaceSymbolsymbol}} for matching conditions.
-   *
-   * @param query Query to run.
-   * @param workspaceSymbols List to add results to.
-   */
-  private void gatherConditions(final String query, final List<WorkspaceSymbol> workspaceSymbols) {
-    final Predicate<ConditionDefinition> predicate = this.buildConditionPredicate(query);
-    for (final ConditionDefinition definition : this.definitionKeeper.getConditionDefinitions()) {
-      if (predicate.test(definition)) {
-        final Location conditionLocation = definition.getLocation();
-        final Location location = Location.validLocation(conditionLocation);
-        final WorkspaceSymbol symbol =
-            new WorkspaceSymbol(
-                "Condition: " + definition.getName(),
-                SymbolKind.Class,
-                Either.forLeft(Lsp4jConversion.locationToLsp4j(location)));
-        workspaceSymbols.add(symbol);
-      }
-    }
-  }
-
   /**
-   * Build {@link Predicate} which matches {@link ExemplarDefinition}/{@link ProcedureDefinition}/
-   * {@link GlobalDefinition}.
-   *
-   * <p>This only gives a matchable * predicate if no '.' appears in the query.
+   * Search {@link MethodDefinition}s.
    *
-   * @param query Query string
-   * @return Predicate to match with.
+   * @param typeQuery Query for the exemplar name.
+   * @param methodQuery Query for the method name.
+   * @return Matching method definitions.
    */
-  private Predicate<ITypeStringDefinition> buildTypePredicate(final String query) {
-    final int dotIndex = query.indexOf('.');
-    if (dotIndex != -1) {
-      return type -> false;
+  private List<IDefinition> searchMethods(final String typeQuery, final String methodQuery) {
+    LOGGER.trace("Type query: {}, method query: {}", typeQuery, methodQuery);
+    final String lowerTypeQuery = typeQuery.toLowerCase(Locale.ROOT);
+    if (!methodQuery.isEmpty()) {
+      return this.definitionKeeper.searchDefinitions(
+          methodQuery,
+          def ->
+              def instanceof MethodDefinition methodDef
+                  && methodDef
+                      .getTypeName()
+                      .getFullString()
+                      .toLowerCase(Locale.ROOT)
+                      .contains(lowerTypeQuery),
+          MAX_RESULTS);
     }
 
-    final Pattern pattern = Pattern.compile(".*" + query + ".*");
-    return definition -> pattern.matcher(definition.getTypeString().getFullString()).matches();
+    // No method query, get all methods of the matching exemplars.
+    return this.definitionKeeper
+        .searchDefinitions(typeQuery, ExemplarDefinition.class::isInstance, MAX_RESULTS)
+        .stream()
+        .map(ExemplarDefinition.class::cast)
+        .flatMap(
+            exemplarDef ->
+                this.definitionKeeper.getMethodDefinitions(exemplarDef.getTypeString()).stream())
+        .limit(MAX_RESULTS)
+        .map(IDefinition.class::cast)
+        .toList();
   }
 
-  /**
-   * Build {@link Predicate} which matches {@link MethodDefinition}. This only gives a matchable
-   * predicate if '.' appears in the query.
-   *
-   * @param query Query string
-   * @return Predicate to match with.
-   */
-  private Predicate<MethodDefinition> buildMethodPredicate(final String query) {
-    final int dotIndex = query.indexOf('.');
-    if (dotIndex == -1) {
-      // No `.`, match only based on method name.
-      final Pattern pattern = Pattern.compile(".*" + query + ".*");
-      return definition -> pattern.matcher(definition.getMethodName()).matches();
-    }
-
-    final String typeQuery = query.substring(0, dotIndex);
-    LOGGER.trace("Type query: {}", typeQuery);
-    final Pattern typePattern = Pattern.compile(".*" + Pattern.quote(typeQuery) + ".*");
-
-    final String methodQuery = query.substring(dotIndex + 1);
-    LOGGER.trace("Method query: {}", methodQuery);
-    final Pattern methodPattern = Pattern.compile(".*" + Pattern.quote(methodQuery) + ".*");
-
-    return definition ->
-        typePattern.matcher(definition.getTypeName().getFullString()).matches()
-            && methodPattern.matcher(definition.getMethodName()).matches();
-  }
-
-  /**
-   * Build {@link Predicate} which matches {@link ConditionDefinition}. This only gives a matchable
-   * predicate if no '.' appears in the query.
-   *
-   * @param query Query string
-   * @return Predicate to match with.
-   */
-  private Predicate<ConditionDefinition> buildConditionPredicate(final String query) {
-    final int dotIndex = query.indexOf('.');
-    if (dotIndex != -1) {
-      return type -> false;
+  @CheckForNull
+  private WorkspaceSymbol createWorkspaceSymbol(final IDefinition definition) {
+    final String name;
+    final SymbolKind symbolKind;
+    if (definition instanceof ProductDefinition productDefinition) {
+      name = "Product: " + productDefinition.getName();
+      symbolKind = SymbolKind.Package;
+    } else if (definition instanceof ModuleDefinition moduleDefinition) {
+      name = "Module: " + moduleDefinition.getName();
+      symbolKind = SymbolKind.Module;
+    } else if (definition instanceof ExemplarDefinition exemplarDefinition) {
+      name = "Exemplar: " + exemplarDefinition.getTypeString().getFullString();
+      symbolKind = SymbolKind.Class;
+    } else if (definition instanceof MethodDefinition methodDefinition) {
+      name = "Method: " + methodDefinition.getName();
+      symbolKind = SymbolKind.Method;
+    } else if (definition instanceof ConditionDefinition conditionDefinition) {
+      name = "Condition: " + conditionDefinition.getName();
+      symbolKind = SymbolKind.Class;
+    } else {
+      return null;
     }
 
-    final Pattern pattern = Pattern.compile(".*" + query + ".*");
-    return definition -> pattern.matcher(definition.getName()).matches();
+    final Location location = Location.validLocation(definition.getLocation());
+    return new WorkspaceSymbol(
+        name, symbolKind, Either.forLeft(Lsp4jConversion.locationToLsp4j(location)));
   }
 }
@@ -0,0 +1,114 @@
+package nl.ramsolutions.sw.magik.languageserver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import nl.ramsolutions.sw.magik.Position;
+import nl.ramsolutions.sw.magik.Range;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link TextDocumentBuffer}. */
+class TextDocumentBufferTest {
+
+  private static Range range(
+      final int startLine, final int startColumn, final int endLine, final int endColumn) {
+    return new Range(new Position(startLine, startColumn), new Position(endLine, endColumn));
+  }
+
+  @Test
+  void testInsert() {
+    final TextDocumentBuffer buffer = new TextDocumentBuffer("_method a.b\n_endmethod\n");
+    buffer.replace(range(1, 11, 1, 11), "\n  _return 1");
+
+    assertThat(buffer.getText()).isEqualTo("_method a.b\n  _return 1\n_endmethod\n");
+    assertThat(buffer.getLineCount()).isEqualTo(4);
+  }
+
+  @Test
+  void testVersionIncrementsPerChange() {
+    final TextDocumentBuffer buffer = new TextDocumentBuffer("line1\n");
+    final long version = buffer.getVersion();
+
+    buffer.replace(range(1, 5, 1, 5), "a");
+    buffer.replace("line2\n");
+    assertThat(buffer.getVersion()).isEqualTo(version + 2);
+    assertThat(buffer.getText()).isEqualTo("line2\n");
+    assertThat(buffer.getVersion()).isEqualTo(version + 2);
+  }
+
+  @Test
+  void testDeleteAcrossLines() {
+    final TextDocumentBuffer buffer = new TextDocumentBuffer("line1\nline2\nline3\n");
+    buffer.replace(range(1, 4, 3, 4), "");
+
+    assertThat(buffer.getText()).isEqualTo("line3\n");
+    assertThat(buffer.getLineCount()).isEqualTo(2);
+  }
+
+  @Test
+  void testMultipleChanges() {
+    final TextDocumentBuffer buffer = new TextDocumentBuffer("abc\ndef\n");
+    buffer.replace(range(2, 0, 2, 0), "x");
+    buffer.replace(range(1, 3, 2, 0), " ");
+    buffer.replace(range(1, 0, 1, 1), "A");
+
+    assertThat(buffer.getText()).isEqualTo("Abc xdef\n");
+    assertThat(buffer.getLineCount()).isEqualTo(2);
+  }
+
+  @Test
+  void testClampOutOfRange() {
+    final TextDocumentBuffer buffer = new TextDocumentBuffer("abc\ndef");
+    buffer.replace(range(1, 10, 1, 10), "!");
+    buffer.replace(range(5, 0, 5, 0), "?");
+
+    assertThat(buffer.getText()).isEqualTo("abc!\ndef?");
+  }
+
+  @Test
+  void testReplaceFull() {
+    final TextDocumentBuffer buffer = new TextDocumentBuffer("abc");
+    buffer.replace(range(1, 1, 1, 1), "x");
+    buffer.replace("new\ntext");
+
+    assertThat(buffer.getText()).isEqualTo("new\ntext");
+    assertThat(buffer.getLineCount()).isEqualTo(2);
+  }
+
+  @Test
+  void testRandomChangesMatchFullText() {
+    final Random random = new Random(42);
+    final String[] inserts = {"", "a", "bc", "\n", "d\ne", "\n\n", "_block\n_endblock"};
+    final StringBuilder expected = new StringBuilder("_package sw\n_method a.b\n_endmethod\n");
+    final TextDocumentBuffer buffer = new TextDocumentBuffer(expected.toString());
+    for (int i = 0; i < 5000; ++i) {
+      final int start = random.nextInt(expected.length() + 1);
+      final int end = start + random.nextInt(Math.min(expected.length() - start, 5) + 1);
+      final String insert = inserts[random.nextInt(inserts.length)];
+      final Range range =
+          new Range(
+              TextDocumentBufferTest.positionOf(expected, start),
+              TextDocumentBufferTest.positionOf(expected, end));
+
+      expected.replace(start, end, insert);
+      buffer.replace(range, insert);
+
+      assertThat(buffer.getText()).isEqualTo(expected.toString());
+    }
+
+    assertThat(buffer.getLineCount()).isEqualTo(expected.toString().split("\n", -1).length);
+  }
+
+  private static Position positionOf(final CharSequence text, final int offset) {
+    int line = 1;
+    int lineStart = 0;
+    for (int i = 0; i < offset; ++i) {
+      if (text.charAt(i) == '\n') {
+        line++;
+        lineStart = i + 1;
+      }
+    }
+
+    return new Position(line, offset - lineStart);
+  }
+}
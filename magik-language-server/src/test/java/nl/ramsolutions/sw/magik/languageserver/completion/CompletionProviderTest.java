@@ -19,6 +19,7 @@ import nl.ramsolutions.sw.magik.analysis.typing.TypeString;
 import nl.ramsolutions.sw.magik.api.MagikKeyword;
 import org.eclipse.lsp4j.CompletionItem;
 import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.CompletionList;
 import org.eclipse.lsp4j.Position;
 import org.junit.jupiter.api.Test;
 
@@ -28,13 +29,36 @@ class CompletionProviderTest {
 
   private static final URI DEFAULT_URI = URI.create("memory://source.magik");
 
-  private List<CompletionItem> getCompletions(
+  private CompletionList getCompletionList(
       final String code, final IDefinitionKeeper definitionKeeper, final Position position) {
     final MagikTypedFile magikFile = new MagikTypedFile(DEFAULT_URI, code, definitionKeeper);
     final CompletionProvider provider = new CompletionProvider();
     return provider.provideCompletions(magikFile, position);
   }
 
+  private List<CompletionItem> getCompletions(
+      final String code, final IDefinitionKeeper definitionKeeper, final Position position) {
+    return this.getCompletionList(code, definitionKeeper, position).getItems();
+  }
+
+  private static MethodDefinition createMethodDefinition(
+      final TypeString typeString, final String methodName, final String doc) {
+    return new MethodDefinition(
+        null,
+        null,
+        null,
+        doc,
+        null,
+        typeString,
+        methodName,
+        Collections.emptySet(),
+        Collections.emptyList(),
+        null,
+        Collections.emptySet(),
+        ExpressionResultString.UNDEFINED,
+        ExpressionResultString.EMPTY);
+  }
+
   private List<CompletionItem> getCompletions(final String code, final Position position) {
     final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
     return this.getCompletions(code, definitionKeeper, position);
@@ -260,4 +284,36 @@ class CompletionProviderTest {
     final List<CompletionItem> completions = this.getCompletions(code, definitionKeeper, position);
     assertThat(completions).isEmpty();
   }
+
+  @Test
+  void testMethodCompletionRankedAndBounded() {
+    final String code =
+        """
+        _method a.b
+            1.find
+        _endmethod""";
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+    definitionKeeper.add(
+        CompletionProviderTest.createMethodDefinition(
+            TypeString.SW_INTEGER, "refind()", "Refind."));
+    definitionKeeper.add(
+        CompletionProviderTest.createMethodDefinition(TypeString.SW_INTEGER, "find()", "Find."));
+    for (int i = 0; i < 250; ++i) {
+      definitionKeeper.add(
+          CompletionProviderTest.createMethodDefinition(
+              TypeString.SW_INTEGER, "find_" + i + "()", null));
+    }
+    final Position position = new Position(1, 10); // On 'd'.
+    final CompletionList completionList = this.getCompletionList(code, definitionKeeper, position);
+
+    assertThat(completionList.isIncomplete()).isTrue();
+    assertThat(completionList.getItems()).hasSizeLessThan(252);
+    final CompletionItem item = completionList.getItems().get(0);
+    assertThat(item.getLabel()).isEqualTo("find()");
+    assertThat(item.getDocumentation()).isNull();
+
+    final CompletionProvider provider = new CompletionProvider();
+    final CompletionItem resolvedItem = provider.resolveCompletionItem(item, definitionKeeper);
+    assertThat(resolvedItem.getDocumentation().getLeft()).isEqualTo("Find.");
+  }
 }
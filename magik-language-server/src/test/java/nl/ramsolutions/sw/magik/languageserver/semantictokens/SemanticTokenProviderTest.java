@@ -3,10 +3,16 @@ package nl.ramsolutions.sw.magik.languageserver.semantictokens;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.net.URI;
+import java.util.List;
 import nl.ramsolutions.sw.magik.MagikTypedFile;
+import nl.ramsolutions.sw.magik.Position;
+import nl.ramsolutions.sw.magik.Range;
 import nl.ramsolutions.sw.magik.analysis.definitions.DefinitionKeeper;
 import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
 import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensEdit;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.junit.jupiter.api.Test;
 
 /** Test SemanticTokenProvider. */
@@ -398,4 +404,55 @@ class SemanticTokenProviderTest {
             SemanticToken.Type.KEYWORD.getTokenType(),
             0);
   }
+
+  @Test
+  void testFullDelta() {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+    final MagikTypedFile magikFile0 =
+        new MagikTypedFile(DEFAULT_URI, "100\n200\n300", definitionKeeper);
+    final MagikTypedFile magikFile1 =
+        new MagikTypedFile(DEFAULT_URI, "100\n2000\n300", definitionKeeper);
+    final SemanticTokenProvider provider = new SemanticTokenProvider();
+    final String resultId0 = provider.provideSemanticTokensFull(magikFile0).getResultId();
+
+    final Either<SemanticTokens, SemanticTokensDelta> delta =
+        provider.provideSemanticTokensFullDelta(magikFile1, resultId0);
+    assertThat(delta.isRight()).isTrue();
+    assertThat(delta.getRight().getResultId()).isNotEqualTo(resultId0);
+    assertThat(delta.getRight().getEdits())
+        .containsExactly(
+            new SemanticTokensEdit(
+                5, 5, List.of(1, 0, "2000".length(), SemanticToken.Type.NUMBER.getTokenType(), 0)));
+
+    // Up to date.
+    final String resultId1 = delta.getRight().getResultId();
+    final Either<SemanticTokens, SemanticTokensDelta> emptyDelta =
+        provider.provideSemanticTokensFullDelta(magikFile1, resultId1);
+    assertThat(emptyDelta.getRight().getEdits()).isEmpty();
+
+    // Unknown previous result id.
+    final Either<SemanticTokens, SemanticTokensDelta> full =
+        provider.provideSemanticTokensFullDelta(magikFile1, "unknown");
+    assertThat(full.isLeft()).isTrue();
+    assertThat(full.getLeft().getResultId()).isEqualTo(resultId1);
+  }
+
+  @Test
+  void testRange() {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+    final MagikTypedFile magikFile =
+        new MagikTypedFile(DEFAULT_URI, "100\n200\n300", definitionKeeper);
+    final SemanticTokenProvider provider = new SemanticTokenProvider();
+    final Range range = new Range(new Position(2, 0), new Position(2, 3));
+
+    final SemanticTokens semanticTokens = provider.provideSemanticTokensRange(magikFile, range);
+    assertThat(semanticTokens.getData())
+        .containsExactly(1, 0, "200".length(), SemanticToken.Type.NUMBER.getTokenType(), 0);
+
+    // From cache.
+    provider.provideSemanticTokensFull(magikFile);
+    final SemanticTokens cachedSemanticTokens =
+        provider.provideSemanticTokensRange(magikFile, range);
+    assertThat(cachedSemanticTokens.getData()).isEqualTo(semanticTokens.getData());
+  }
 }
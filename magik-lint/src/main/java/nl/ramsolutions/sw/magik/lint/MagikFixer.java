@@ -123,7 +123,7 @@ public class MagikFixer {
   private List<Class<? extends MagikCheck>> getEnabledChecks(final MagikFile magikFile) {
     final MagikToolsProperties fileProperties = magikFile.getProperties();
     final MagikChecksConfiguration checksConfig =
-        new MagikChecksConfiguration(CheckList.getChecks(), fileProperties);
+        MagikChecksConfiguration.of(CheckList.getChecks(), fileProperties);
     return checksConfig.getAllChecks().stream()
         .filter(MagikCheckHolder::isEnabled)
         .map(MagikCheckHolder::getCheckClass)
@@ -133,7 +133,7 @@ public class MagikFixer {
   private boolean isFileIgnored(final MagikFile magikFile) {
     final MagikToolsProperties fileProperties = magikFile.getProperties();
     final MagikChecksConfiguration checksConfig =
-        new MagikChecksConfiguration(CheckList.getChecks(), fileProperties);
+        MagikChecksConfiguration.of(CheckList.getChecks(), fileProperties);
     final URI uri = magikFile.getUri();
     final Path path = Path.of(uri);
     final FileSystem fs = FileSystems.getDefault();
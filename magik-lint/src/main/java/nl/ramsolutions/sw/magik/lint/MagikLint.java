@@ -1,5 +1,6 @@
 package nl.ramsolutions.sw.magik.lint;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
 import java.io.Writer;
 import java.net.URI;
@@ -10,12 +11,26 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 import nl.ramsolutions.sw.ConfigurationReader;
 import nl.ramsolutions.sw.FileCharsetDeterminer;
+import nl.ramsolutions.sw.IgnoreHandler;
 import nl.ramsolutions.sw.MagikToolsProperties;
+import nl.ramsolutions.sw.magik.FileEvent;
+import nl.ramsolutions.sw.magik.FileEvent.FileChangeType;
 import nl.ramsolutions.sw.magik.Location;
 import nl.ramsolutions.sw.magik.MagikFile;
+import nl.ramsolutions.sw.magik.MagikTypedFile;
+import nl.ramsolutions.sw.magik.analysis.MagikAnalysisSettings;
+import nl.ramsolutions.sw.magik.analysis.definitions.DefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.io.TypeDatabase;
+import nl.ramsolutions.sw.magik.analysis.indexer.MagikIndexer;
+import nl.ramsolutions.sw.magik.analysis.indexer.ProductIndexer;
+import nl.ramsolutions.sw.magik.analysis.typing.ClassInfoDefinitionReader;
 import nl.ramsolutions.sw.magik.checks.CheckList;
 import nl.ramsolutions.sw.magik.checks.MagikCheck;
 import nl.ramsolutions.sw.magik.checks.MagikCheckHolder;
@@ -34,37 +49,63 @@ public class MagikLint {
   public static final String KEY_COLUMN_OFFSET = "magik.lint.column-offset";
   public static final String KEY_MSG_TEMPLATE = "magik.lint.msg-template";
   public static final String KEY_OVERRIDE_CONFIG = "magik.lint.overrideConfigFile";
+  public static final String KEY_CACHE_DIR = "magik.lint.cache-dir";
+  public static final String KEY_TYPED = "magik.lint.typed";
+  public static final String KEY_TYPE_DATABASE_PATHS = "magik.typing.typeDatabasePaths";
+  public static final String KEY_PRODUCT_DIRS = "magik.productDirs";
+
+  private static final List<Class<? extends MagikCheck>> TYPED_CHECKS =
+      Stream.concat(
+              CheckList.getChecks().stream(),
+              nl.ramsolutions.sw.magik.typedchecks.CheckList.getChecks().stream())
+          .toList();
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MagikLint.class);
+  private static final int BATCH_SIZE =
+      Math.max(64, Runtime.getRuntime().availableProcessors() * 8);
+  private static final Location.LocationRangeComparator LOCATION_COMPARATOR =
+      new Location.LocationRangeComparator();
 
   private final MagikToolsProperties properties;
   private final Reporter reporter;
+  private final MagikLintCache cache;
 
   /**
    * Constructor, parses command line and reads configuration.
    *
    * @param configuration Configuration.
    * @param reporter Reporter.
+   * @throws IOException -
    */
-  public MagikLint(final MagikToolsProperties properties, final Reporter reporter) {
+  public MagikLint(final MagikToolsProperties properties, final Reporter reporter)
+      throws IOException {
     this.properties = properties;
     this.reporter = reporter;
+
+    final Path cacheDir = properties.getPropertyPath(MagikLint.KEY_CACHE_DIR);
+    this.cache = cacheDir != null ? new MagikLintCache(cacheDir) : null;
   }
 
   /**
    * Build context for a file.
    *
    * @param path Path to file
+   * @param definitionKeeper Shared {@link IDefinitionKeeper} to build a {@link MagikTypedFile}, or
+   *     null for an untyped {@link MagikFile}.
    * @return Visitor context for file.
-   * @throws IOException -
    */
-  private MagikFile buildMagikFile(final Path path) {
+  private MagikFile buildMagikFile(
+      final Path path, final @Nullable IDefinitionKeeper definitionKeeper) {
     try {
       final MagikToolsProperties fileProperties =
           ConfigurationReader.readProperties(path, this.properties);
       final URI uri = path.toUri();
       final Charset charset = FileCharsetDeterminer.determineCharset(path);
       final String fileContents = Files.readString(path, charset);
+      if (definitionKeeper != null) {
+        return new MagikTypedFile(fileProperties, uri, fileContents, definitionKeeper);
+      }
+
       return new MagikFile(fileProperties, uri, fileContents);
     } catch (final IOException exception) {
       LOGGER.error("Caught exception:", exception);
@@ -73,17 +114,52 @@ public class MagikLint {
   }
 
   /**
-   * Run a single check on context.
+   * Build the {@link IDefinitionKeeper} used by the typed checks. Type databases and the class info
+   * of product directories are read first, after which all files are indexed in parallel. The
+   * keeper is not modified afterwards, so it can be shared by all files.
    *
-   * @param magikFile File to run check on.
-   * @param holder MagikCheckHolder Check to run.
-   * @return Issues/infractions found.
-   * @throws ReflectiveOperationException -
+   * @param paths Paths to index.
+   * @return Definition keeper.
+   * @throws IOException -
    */
-  private List<MagikIssue> runCheckOnFile(final MagikFile magikFile, final MagikCheckHolder holder)
-      throws ReflectiveOperationException {
-    final MagikCheck check = holder.createCheck();
-    return check.scanFileForIssues(magikFile);
+  private IDefinitionKeeper buildDefinitionKeeper(final Collection<Path> paths) throws IOException {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+    final IgnoreHandler ignoreHandler = new IgnoreHandler();
+
+    for (final String typeDbPathStr :
+        this.properties.getPropertyList(MagikLint.KEY_TYPE_DATABASE_PATHS)) {
+      final Path typeDbPath = Path.of(typeDbPathStr);
+      if (!Files.exists(typeDbPath) && !Files.exists(TypeDatabase.getBinaryPath(typeDbPath))) {
+        LOGGER.warn("Path to types database does not exist: {}", typeDbPath);
+        continue;
+      }
+
+      TypeDatabase.readTypes(typeDbPath, definitionKeeper);
+    }
+
+    final ProductIndexer productIndexer = new ProductIndexer(definitionKeeper, ignoreHandler);
+    for (final String productDirStr : this.properties.getPropertyList(MagikLint.KEY_PRODUCT_DIRS)) {
+      final Path productDir = Path.of(productDirStr);
+      if (!Files.exists(productDir)) {
+        LOGGER.warn("Path to product dir does not exist: {}", productDir);
+        continue;
+      }
+
+      ClassInfoDefinitionReader.readProductDirectory(productDir, definitionKeeper);
+      productIndexer.handleFileEvent(new FileEvent(productDir.toUri(), FileChangeType.CREATED));
+    }
+
+    final MagikIndexer magikIndexer =
+        new MagikIndexer(definitionKeeper, this.properties, ignoreHandler);
+    final List<FileEvent> fileEvents =
+        paths.stream().map(path -> new FileEvent(path.toUri(), FileChangeType.CREATED)).toList();
+    final MagikAnalysisSettings analysisSettings = new MagikAnalysisSettings(this.properties);
+    magikIndexer.handleFileEvents(
+        fileEvents,
+        analysisSettings.getTypingIndexParallelism(),
+        MagikIndexer.ProgressListener.NONE);
+
+    return definitionKeeper;
   }
 
   /**
@@ -153,29 +229,78 @@ public class MagikLint {
   /**
    * Run the linter on {@code paths}.
    *
+   * <p>If typed checks are enabled, all files are indexed into a shared {@link IDefinitionKeeper}
+   * first, after which all checks are run on each file.
+   *
+   * <p>Files are checked in parallel, in bounded batches, ordered by path. The issues of each batch
+   * are reported per file, sorted by location, after which the batch is released. No further
+   * batches, and no files at all for a limit of 0, are checked once {@code max-infractions} issues
+   * are reported.
+   *
    * @throws IOException -
    * @throws ReflectiveOperationException -
    */
   public void run(final Collection<Path> paths) throws IOException, ReflectiveOperationException {
     final long maxInfractions =
         this.properties.getPropertyLong(MagikLint.KEY_MAX_INFRACTIONS, Long.MAX_VALUE);
-    final Location.LocationRangeComparator locationCompare = new Location.LocationRangeComparator();
-    paths.stream()
-        .parallel()
-        .map(this::buildMagikFile)
-        .filter(magikFile -> !this.isFileIgnored(magikFile))
-        .map(this::runChecksOnFile)
-        .flatMap(List::stream)
-        .sorted((issue0, issue1) -> locationCompare.compare(issue0.location(), issue1.location()))
-        .sequential()
-        .limit(maxInfractions)
-        .forEach(this.reporter::reportIssue);
+    if (maxInfractions <= 0) {
+      return;
+    }
+
+    final IDefinitionKeeper definitionKeeper =
+        this.properties.getPropertyBoolean(MagikLint.KEY_TYPED, false)
+            ? this.buildDefinitionKeeper(paths)
+            : null;
+    final List<Path> sortedPaths =
+        paths.stream().sorted(Comparator.comparing(Path::toUri)).toList();
+    long reportedCount = 0;
+    for (int start = 0; start < sortedPaths.size(); start += BATCH_SIZE) {
+      if (reportedCount >= maxInfractions) {
+        return;
+      }
+
+      final int end = Math.min(start + BATCH_SIZE, sortedPaths.size());
+      final List<List<MagikIssue>> batchIssues =
+          sortedPaths.subList(start, end).parallelStream()
+              .map(path -> this.checkFile(path, definitionKeeper))
+              .toList();
+      for (final List<MagikIssue> fileIssues : batchIssues) {
+        for (final MagikIssue issue : fileIssues) {
+          if (reportedCount >= maxInfractions) {
+            break;
+          }
+
+          this.reporter.reportIssue(issue);
+          reportedCount += 1;
+        }
+      }
+    }
+  }
+
+  /**
+   * Check a single file.
+   *
+   * @param path Path to file.
+   * @param definitionKeeper Shared {@link IDefinitionKeeper} for typed checks, or null.
+   * @return Issues, sorted by location.
+   */
+  private List<MagikIssue> checkFile(
+      final Path path, final @Nullable IDefinitionKeeper definitionKeeper) {
+    final MagikFile magikFile = this.buildMagikFile(path, definitionKeeper);
+    if (this.isFileIgnored(magikFile)) {
+      return Collections.emptyList();
+    }
+
+    return this.runChecksOnFile(magikFile).stream()
+        .sorted(
+            (issue0, issue1) -> LOCATION_COMPARATOR.compare(issue0.location(), issue1.location()))
+        .toList();
   }
 
   private boolean isFileIgnored(final MagikFile magikFile) {
     final MagikToolsProperties fileProperties = magikFile.getProperties();
     final MagikChecksConfiguration checksConfig =
-        new MagikChecksConfiguration(CheckList.getChecks(), fileProperties);
+        MagikChecksConfiguration.of(CheckList.getChecks(), fileProperties);
     final URI uri = magikFile.getUri();
     final Path path = Path.of(uri);
     final FileSystem fs = FileSystems.getDefault();
@@ -190,39 +315,60 @@ public class MagikLint {
   }
 
   /**
-   * Run {@link MagikCheckHolder}s on {@link MagikFile}.
+   * Run {@link MagikCheckHolder}s on {@link MagikFile}. If a cache is used and the untyped file is
+   * unchanged, the issues are taken from the cache without parsing the file.
    *
    * @param magikFile File to run on.
-   * @param holders {@link MagikCheckHolder}s to run.
    * @return List of {@link MagikIssue}s for the given file.
    */
   private List<MagikIssue> runChecksOnFile(final MagikFile magikFile) {
     LOGGER.trace("Thread: {}, checking file: {}", Thread.currentThread().getName(), magikFile);
 
-    final List<MagikIssue> magikIssues = new ArrayList<>();
-
-    // Run checks on files.
+    // Create checks, including the typed checks for a typed file.
     final MagikToolsProperties fileProperties = magikFile.getProperties();
+    final boolean isTyped = magikFile instanceof MagikTypedFile;
+    final List<Class<? extends MagikCheck>> checkClasses =
+        isTyped ? MagikLint.TYPED_CHECKS : CheckList.getChecks();
     final MagikChecksConfiguration checksConfig =
-        new MagikChecksConfiguration(CheckList.getChecks(), fileProperties);
+        MagikChecksConfiguration.of(checkClasses, fileProperties);
     final Iterable<MagikCheckHolder> holders = checksConfig.getAllChecks();
+    final List<MagikCheck> checks = new ArrayList<>();
     for (final MagikCheckHolder holder : holders) {
       if (!holder.isEnabled()) {
         continue;
       }
 
       try {
-        final List<MagikIssue> issues =
-            this.runCheckOnFile(magikFile, holder).stream()
-                .filter(
-                    magikIssue -> !MagikIssueDisabledChecker.issueDisabled(magikFile, magikIssue))
-                .toList();
-        magikIssues.addAll(issues);
+        final MagikCheck check = holder.createCheck();
+        checks.add(check);
       } catch (final ReflectiveOperationException exception) {
         LOGGER.error(exception.getMessage(), exception);
       }
     }
 
-    return magikIssues;
+    // Typed results depend on all files, these are never cached.
+    if (this.cache == null || isTyped) {
+      return MagikLint.scanFileForIssues(magikFile, checks);
+    }
+
+    final String key = this.cache.computeKey(magikFile);
+    final List<MagikIssue> cachedIssues = this.cache.get(magikFile, key, checks);
+    if (cachedIssues != null) {
+      LOGGER.trace("Thread: {}, cached file: {}", Thread.currentThread().getName(), magikFile);
+      return cachedIssues;
+    }
+
+    final List<MagikIssue> issues = MagikLint.scanFileForIssues(magikFile, checks);
+    this.cache.put(magikFile, key, issues);
+    return issues;
+  }
+
+  private static List<MagikIssue> scanFileForIssues(
+      final MagikFile magikFile, final List<MagikCheck> checks) {
+    // Run checks on file, walking the tree once.
+    return MagikCheck.scanFileForIssues(magikFile, checks).values().stream()
+        .flatMap(List::stream)
+        .filter(magikIssue -> !MagikIssueDisabledChecker.issueDisabled(magikFile, magikIssue))
+        .toList();
   }
 }
@@ -0,0 +1,216 @@
+package nl.ramsolutions.sw.magik.lint;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import nl.ramsolutions.sw.MagikToolsProperties;
+import nl.ramsolutions.sw.magik.Location;
+import nl.ramsolutions.sw.magik.MagikFile;
+import nl.ramsolutions.sw.magik.Position;
+import nl.ramsolutions.sw.magik.Range;
+import nl.ramsolutions.sw.magik.checks.CheckList;
+import nl.ramsolutions.sw.magik.checks.MagikCheck;
+import nl.ramsolutions.sw.magik.checks.MagikCheckHolder;
+import nl.ramsolutions.sw.magik.checks.MagikIssue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk cache of {@link MagikIssue}s per file.
+ *
+ * <p>An entry is keyed by the contents of the file, the effective properties of the file and the
+ * set of checks. Any change to one of these invalidates the entry.
+ */
+public class MagikLintCache {
+
+  private record CachedIssue(
+      String checkKey,
+      String message,
+      int startLine,
+      int startColumn,
+      int endLine,
+      int endColumn) {}
+
+  private record CacheEntry(String key, List<CachedIssue> issues) {}
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MagikLintCache.class);
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  private static final String ENTRY_EXTENSION = ".json";
+  private static final Set<String> REPORTING_KEYS =
+      Set.of(
+          MagikLint.KEY_MAX_INFRACTIONS,
+          MagikLint.KEY_COLUMN_OFFSET,
+          MagikLint.KEY_MSG_TEMPLATE,
+          MagikLint.KEY_CACHE_DIR);
+  private static final String CHECKS_VERSION = MagikLintCache.determineChecksVersion();
+
+  private final Path cacheDir;
+  private final Gson gson = new Gson();
+
+  /**
+   * Constructor.
+   *
+   * @param cacheDir Directory to store the cache in.
+   * @throws IOException -
+   */
+  public MagikLintCache(final Path cacheDir) throws IOException {
+    this.cacheDir = cacheDir;
+    Files.createDirectories(cacheDir);
+  }
+
+  private static String determineChecksVersion() {
+    final String version = MagikLint.class.getPackage().getImplementationVersion();
+    final String checks =
+        CheckList.getChecks().stream().map(Class::getName).collect(Collectors.joining(","));
+    return version + ";" + checks;
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (final NoSuchAlgorithmException exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+
+  private static String hash(final String value) {
+    final MessageDigest digest = MagikLintCache.createDigest();
+    final byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+    return HexFormat.of().formatHex(hash);
+  }
+
+  /**
+   * Compute the cache key for a file.
+   *
+   * @param magikFile File.
+   * @return Cache key.
+   */
+  String computeKey(final MagikFile magikFile) {
+    final MessageDigest digest = MagikLintCache.createDigest();
+    digest.update(CHECKS_VERSION.getBytes(StandardCharsets.UTF_8));
+    final MagikToolsProperties properties = magikFile.getProperties();
+    properties.toSortedMap().entrySet().stream()
+        .filter(entry -> !REPORTING_KEYS.contains(entry.getKey()))
+        .map(entry -> "\n" + entry.getKey() + "=" + entry.getValue())
+        .forEach(line -> digest.update(line.getBytes(StandardCharsets.UTF_8)));
+    digest.update((byte) 0);
+    digest.update(magikFile.getSource().getBytes(StandardCharsets.UTF_8));
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private Path getEntryPath(final MagikFile magikFile) {
+    final String name = MagikLintCache.hash(magikFile.getUri().toString());
+    return this.cacheDir.resolve(name + ENTRY_EXTENSION);
+  }
+
+  /**
+   * Get the cached issues for a file.
+   *
+   * @param magikFile File.
+   * @param key Cache key of file.
+   * @param checks Enabled checks for the file, used to restore the issues.
+   * @return Cached issues, or null if not cached or outdated.
+   */
+  @CheckForNull
+  List<MagikIssue> get(
+      final MagikFile magikFile, final String key, final Collection<MagikCheck> checks) {
+    final Path entryPath = this.getEntryPath(magikFile);
+    if (!Files.exists(entryPath)) {
+      return null;
+    }
+
+    final CacheEntry entry;
+    try {
+      final String json = Files.readString(entryPath, StandardCharsets.UTF_8);
+      entry = this.gson.fromJson(json, CacheEntry.class);
+    } catch (final IOException | JsonParseException exception) {
+      LOGGER.warn("Unable to read cache entry: {}", entryPath, exception);
+      return null;
+    }
+
+    if (entry == null || !key.equals(entry.key()) || entry.issues() == null) {
+      return null;
+    }
+
+    final Map<String, MagikCheck> checksByKey =
+        checks.stream()
+            .filter(check -> check.getHolder() != null)
+            .collect(
+                Collectors.toMap(
+                    check -> check.getHolder().getCheckKey(),
+                    Function.identity(),
+                    (check0, check1) -> check0));
+    final URI uri = magikFile.getUri();
+    final List<MagikIssue> issues =
+        entry.issues().stream()
+            .filter(cachedIssue -> checksByKey.containsKey(cachedIssue.checkKey()))
+            .map(
+                cachedIssue -> {
+                  final Range range =
+                      new Range(
+                          new Position(cachedIssue.startLine(), cachedIssue.startColumn()),
+                          new Position(cachedIssue.endLine(), cachedIssue.endColumn()));
+                  final Location location = new Location(uri, range);
+                  final MagikCheck check = checksByKey.get(cachedIssue.checkKey());
+                  return new MagikIssue(location, cachedIssue.message(), check);
+                })
+            .toList();
+    if (issues.size() != entry.issues().size()) {
+      // Check set differs from the one the entry was built with.
+      return null;
+    }
+
+    return issues;
+  }
+
+  /**
+   * Store the issues for a file.
+   *
+   * @param magikFile File.
+   * @param key Cache key of file.
+   * @param issues Issues found in file.
+   */
+  void put(final MagikFile magikFile, final String key, final List<MagikIssue> issues) {
+    final List<CachedIssue> cachedIssues =
+        issues.stream()
+            .map(
+                issue -> {
+                  final MagikCheckHolder holder = issue.check().getHolder();
+                  final String checkKey = holder != null ? holder.getCheckKey() : null;
+                  return new CachedIssue(
+                      checkKey,
+                      issue.message(),
+                      issue.startLine(),
+                      issue.startColumn(),
+                      issue.endLine(),
+                      issue.endColumn());
+                })
+            .toList();
+    final CacheEntry entry = new CacheEntry(key, cachedIssues);
+    final Path entryPath = this.getEntryPath(magikFile);
+    try {
+      // Write to a temporary file first, as files are linted in parallel.
+      final Path tempPath = Files.createTempFile(this.cacheDir, null, ENTRY_EXTENSION);
+      Files.writeString(tempPath, this.gson.toJson(entry), StandardCharsets.UTF_8);
+      Files.move(
+          tempPath, entryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException exception) {
+      LOGGER.warn("Unable to write cache entry: {}", entryPath, exception);
+    }
+  }
+}
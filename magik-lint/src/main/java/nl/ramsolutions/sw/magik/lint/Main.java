@@ -60,6 +60,32 @@ public final class Main {
           .hasArg()
           .type(PatternOptionBuilder.NUMBER_VALUE)
           .build();
+  private static final Option OPTION_CACHE_DIR =
+      Option.builder()
+          .longOpt("cache-dir")
+          .desc("Directory to cache results in, unchanged files are skipped")
+          .hasArg()
+          .type(PatternOptionBuilder.FILE_VALUE)
+          .build();
+  private static final Option OPTION_TYPED =
+      Option.builder()
+          .longOpt("typed")
+          .desc("Index all files and run typed checks as well")
+          .build();
+  private static final Option OPTION_TYPES_DB =
+      Option.builder()
+          .longOpt("types-db")
+          .desc("Types database to read for typed checks, can be repeated")
+          .hasArg()
+          .type(PatternOptionBuilder.FILE_VALUE)
+          .build();
+  private static final Option OPTION_PRODUCT_DIR =
+      Option.builder()
+          .longOpt("product-dir")
+          .desc("Product directory to read class info from for typed checks, can be repeated")
+          .hasArg()
+          .type(PatternOptionBuilder.FILE_VALUE)
+          .build();
   private static final Option OPTION_DEBUG =
       Option.builder().longOpt("debug").desc("Enable showing of debug information").build();
   private static final Option OPTION_VERSION =
@@ -77,6 +103,10 @@ public final class Main {
     OPTIONS.addOption(OPTION_SHOW_CHECKS);
     OPTIONS.addOption(OPTION_COLUMN_OFFSET);
     OPTIONS.addOption(OPTION_MAX_INFRACTIONS);
+    OPTIONS.addOption(OPTION_CACHE_DIR);
+    OPTIONS.addOption(OPTION_TYPED);
+    OPTIONS.addOption(OPTION_TYPES_DB);
+    OPTIONS.addOption(OPTION_PRODUCT_DIR);
     OPTIONS.addOption(OPTION_DEBUG);
     OPTIONS.addOption(OPTION_VERSION);
     OPTIONS.addOption(OPTION_APPLY_FIXES);
@@ -251,5 +281,26 @@ public final class Main {
       final String value = commandLine.getOptionValue(OPTION_RCFILE);
       properties.setProperty(MagikLint.KEY_OVERRIDE_CONFIG, value);
     }
+
+    if (commandLine.hasOption(OPTION_CACHE_DIR)) {
+      final String value = commandLine.getOptionValue(OPTION_CACHE_DIR);
+      properties.setProperty(MagikLint.KEY_CACHE_DIR, value);
+    }
+
+    if (commandLine.hasOption(OPTION_TYPED)) {
+      properties.setProperty(MagikLint.KEY_TYPED, true);
+    }
+
+    if (commandLine.hasOption(OPTION_TYPES_DB)) {
+      final String[] values = commandLine.getOptionValues(OPTION_TYPES_DB);
+      final String value = String.join(MagikToolsProperties.LIST_SEPARATOR, values);
+      properties.setProperty(MagikLint.KEY_TYPE_DATABASE_PATHS, value);
+    }
+
+    if (commandLine.hasOption(OPTION_PRODUCT_DIR)) {
+      final String[] values = commandLine.getOptionValues(OPTION_PRODUCT_DIR);
+      final String value = String.join(MagikToolsProperties.LIST_SEPARATOR, values);
+      properties.setProperty(MagikLint.KEY_PRODUCT_DIRS, value);
+    }
   }
 }
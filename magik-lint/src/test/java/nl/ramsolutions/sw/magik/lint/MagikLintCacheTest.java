@@ -0,0 +1,102 @@
+package nl.ramsolutions.sw.magik.lint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import nl.ramsolutions.sw.MagikToolsProperties;
+import nl.ramsolutions.sw.magik.Location;
+import nl.ramsolutions.sw.magik.MagikFile;
+import nl.ramsolutions.sw.magik.Position;
+import nl.ramsolutions.sw.magik.Range;
+import nl.ramsolutions.sw.magik.checks.CheckList;
+import nl.ramsolutions.sw.magik.checks.MagikCheck;
+import nl.ramsolutions.sw.magik.checks.MagikCheckHolder;
+import nl.ramsolutions.sw.magik.checks.MagikChecksConfiguration;
+import nl.ramsolutions.sw.magik.checks.MagikIssue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Test MagikLintCache. */
+class MagikLintCacheTest {
+
+  private static final URI TEST_URI = URI.create("file:///test.magik");
+
+  @TempDir Path cacheDir;
+
+  private static List<MagikCheck> createChecks(final MagikToolsProperties properties)
+      throws ReflectiveOperationException {
+    final MagikChecksConfiguration checksConfig =
+        new MagikChecksConfiguration(CheckList.getChecks(), properties);
+    final List<MagikCheck> checks = new ArrayList<>();
+    for (final MagikCheckHolder holder : checksConfig.getAllChecks()) {
+      if (holder.isEnabled()) {
+        checks.add(holder.createCheck());
+      }
+    }
+    return checks;
+  }
+
+  @Test
+  void testPutGet() throws IOException, ReflectiveOperationException {
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    final MagikFile magikFile = new MagikFile(properties, TEST_URI, "_block\n_endblock\n");
+    final List<MagikCheck> checks = MagikLintCacheTest.createChecks(properties);
+    final MagikCheck check = checks.get(0);
+    final Range range = new Range(new Position(1, 0), new Position(2, 9));
+    final MagikIssue issue = new MagikIssue(new Location(TEST_URI, range), "message", check);
+
+    final MagikLintCache cache = new MagikLintCache(this.cacheDir);
+    final String key = cache.computeKey(magikFile);
+    assertThat(cache.get(magikFile, key, checks)).isNull();
+
+    cache.put(magikFile, key, List.of(issue));
+    final List<MagikIssue> cachedIssues = cache.get(magikFile, key, checks);
+    assertThat(cachedIssues).hasSize(1);
+    final MagikIssue cachedIssue = cachedIssues.get(0);
+    assertThat(cachedIssue.message()).isEqualTo("message");
+    assertThat(cachedIssue.check()).isSameAs(check);
+    assertThat(cachedIssue.startLine()).isEqualTo(1);
+    assertThat(cachedIssue.startColumn()).isZero();
+    assertThat(cachedIssue.endLine()).isEqualTo(2);
+    assertThat(cachedIssue.endColumn()).isEqualTo(9);
+    assertThat(cachedIssue.location().getUri()).isEqualTo(TEST_URI);
+  }
+
+  @Test
+  void testKeyChangesWithContentsAndProperties() throws IOException {
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    final MagikFile magikFile0 = new MagikFile(properties, TEST_URI, "_block\n_endblock\n");
+    final MagikFile magikFile1 = new MagikFile(properties, TEST_URI, "_block\n_endblock\n$\n");
+    final MagikToolsProperties otherProperties =
+        new MagikToolsProperties(Map.of("disabled", "line-length"));
+    final MagikFile magikFile2 = new MagikFile(otherProperties, TEST_URI, "_block\n_endblock\n");
+    final MagikToolsProperties reportingProperties =
+        new MagikToolsProperties(Map.of(MagikLint.KEY_MSG_TEMPLATE, "${msg}"));
+    final MagikFile magikFile3 =
+        new MagikFile(reportingProperties, TEST_URI, "_block\n_endblock\n");
+
+    final MagikLintCache cache = new MagikLintCache(this.cacheDir);
+    final String key0 = cache.computeKey(magikFile0);
+    assertThat(cache.computeKey(magikFile1)).isNotEqualTo(key0);
+    assertThat(cache.computeKey(magikFile2)).isNotEqualTo(key0);
+    assertThat(cache.computeKey(magikFile3)).isEqualTo(key0);
+  }
+
+  @Test
+  void testOutdatedEntry() throws IOException, ReflectiveOperationException {
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    final MagikFile magikFile0 = new MagikFile(properties, TEST_URI, "_block\n_endblock\n");
+    final MagikFile magikFile1 = new MagikFile(properties, TEST_URI, "_block\n_endblock\n$\n");
+    final List<MagikCheck> checks = MagikLintCacheTest.createChecks(properties);
+
+    final MagikLintCache cache = new MagikLintCache(this.cacheDir);
+    cache.put(magikFile0, cache.computeKey(magikFile0), List.of());
+    assertThat(cache.get(magikFile0, cache.computeKey(magikFile0), checks)).isEmpty();
+    assertThat(cache.get(magikFile1, cache.computeKey(magikFile1), checks)).isNull();
+  }
+}
@@ -0,0 +1,139 @@
+package nl.ramsolutions.sw.magik.lint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import nl.ramsolutions.sw.MagikToolsProperties;
+import nl.ramsolutions.sw.magik.checks.MagikIssue;
+import nl.ramsolutions.sw.magik.lint.output.Reporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Test MagikLint. */
+class MagikLintTest {
+
+  /** Reporter collecting all reported issues. */
+  private static final class CollectingReporter implements Reporter {
+
+    private final List<MagikIssue> issues = new ArrayList<>();
+
+    @Override
+    public synchronized void reportIssue(final MagikIssue magikIssue) {
+      this.issues.add(magikIssue);
+    }
+
+    @Override
+    public Set<String> reportedSeverities() {
+      return new HashSet<>();
+    }
+  }
+
+  @TempDir Path sourceDir;
+
+  private List<Path> writeSources() throws IOException {
+    final Path pathA = this.sourceDir.resolve("a.magik");
+    Files.writeString(
+        pathA,
+        """
+        def_slotted_exemplar(:test_exemplar, {})
+        $
+
+        _method test_exemplar.m1()
+        _endmethod
+        $
+        """);
+    final Path pathB = this.sourceDir.resolve("b.magik");
+    Files.writeString(
+        pathB,
+        """
+        _method test_exemplar.m2()
+          _self.m1()
+          _self.m3()
+        _endmethod
+        $
+        """);
+    return List.of(pathA, pathB);
+  }
+
+  private List<String> runLint(final MagikToolsProperties properties)
+      throws IOException, ReflectiveOperationException {
+    properties.setProperty("disabled", "all");
+    properties.setProperty("enabled", "method-exists");
+    final CollectingReporter reporter = new CollectingReporter();
+    final MagikLint lint = new MagikLint(properties, reporter);
+    lint.run(this.writeSources());
+    return reporter.issues.stream().map(MagikIssue::message).toList();
+  }
+
+  @Test
+  void testUntyped() throws IOException, ReflectiveOperationException {
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    assertThat(this.runLint(properties)).isEmpty();
+  }
+
+  @Test
+  void testTyped() throws IOException, ReflectiveOperationException {
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    properties.setProperty(MagikLint.KEY_TYPED, true);
+    assertThat(this.runLint(properties)).containsExactly("Unknown method: user:test_exemplar.m3()");
+  }
+
+  @Test
+  void testMaxInfractions() throws IOException, ReflectiveOperationException {
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    properties.setProperty(MagikLint.KEY_TYPED, true);
+    properties.setProperty(MagikLint.KEY_MAX_INFRACTIONS, 0L);
+    assertThat(this.runLint(properties)).isEmpty();
+  }
+
+  @Test
+  void testIssuesOrderedPerFile() throws IOException, ReflectiveOperationException {
+    final Path pathC = this.sourceDir.resolve("c.magik");
+    Files.writeString(
+        pathC,
+        """
+        _method test_exemplar.m4()
+          _self.m6()
+          _self.m5()
+        _endmethod
+        $
+        """);
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    properties.setProperty("disabled", "all");
+    properties.setProperty("enabled", "method-exists");
+    properties.setProperty(MagikLint.KEY_TYPED, true);
+    final CollectingReporter reporter = new CollectingReporter();
+    final MagikLint lint = new MagikLint(properties, reporter);
+    final List<Path> paths = new ArrayList<>(this.writeSources());
+    paths.add(0, pathC);
+    lint.run(paths);
+    assertThat(reporter.issues)
+        .extracting(MagikIssue::message)
+        .containsExactly(
+            "Unknown method: user:test_exemplar.m3()",
+            "Unknown method: user:test_exemplar.m6()",
+            "Unknown method: user:test_exemplar.m5()");
+  }
+
+  @Test
+  void testMaxInfractionsZeroChecksNoFiles() throws IOException, ReflectiveOperationException {
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    properties.setProperty(MagikLint.KEY_TYPED, true);
+    properties.setProperty(MagikLint.KEY_MAX_INFRACTIONS, 0L);
+    final CollectingReporter reporter = new CollectingReporter();
+    final MagikLint lint = new MagikLint(properties, reporter);
+
+    // Checking (or indexing) the missing file would fail.
+    final Path missingPath = this.sourceDir.resolve("missing.magik");
+    final List<Path> paths = new ArrayList<>(this.writeSources());
+    paths.add(missingPath);
+    lint.run(paths);
+    assertThat(reporter.issues).isEmpty();
+  }
+}
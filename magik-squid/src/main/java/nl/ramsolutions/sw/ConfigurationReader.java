@@ -3,13 +3,62 @@ package nl.ramsolutions.sw;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-/** Class to determine the location of the properties file to read. */
+/**
+ * Class to determine the location of the properties file to read.
+ *
+ * <p>Resolved and merged properties are cached per directory. The cache is invalidated through
+ * {@link #resetCache()}, when a configuration file changes, or when the given properties are
+ * modified. Entries of superseded generations of the given properties are evicted. Values compiled
+ * from the merged properties, such as the configuration of the checks, are kept with the merged
+ * properties through {@link MagikToolsProperties#computeDerivedIfAbsent}.
+ */
 public final class ConfigurationReader {
 
+  private record CacheKey(Path directory, MagikToolsProperties properties, long generation) {}
+
+  private static final Map<CacheKey, MagikToolsProperties> CACHE = new ConcurrentHashMap<>();
+
   private ConfigurationReader() {}
 
+  /** Reset the cache of resolved properties, and the cache of located configuration files. */
+  public static void resetCache() {
+    ConfigurationReader.CACHE.clear();
+    ConfigurationLocator.resetCache();
+  }
+
+  /**
+   * Get the number of cached entries.
+   *
+   * @return Number of cached entries.
+   */
+  static int getCacheSize() {
+    return ConfigurationReader.CACHE.size();
+  }
+
+  /**
+   * Test if a path is a file which influences the resolved configuration.
+   *
+   * @param path Path to test.
+   * @return True if a configuration file, or a file used to locate one.
+   */
+  public static boolean isConfigurationFile(final Path path) {
+    final Path fileName = path.getFileName();
+    if (fileName == null) {
+      return false;
+    }
+
+    final String name = fileName.toString();
+    return name.equals(ConfigurationLocator.MAGIK_LINT_RC_FILENAME)
+        || name.equals(ConfigurationLocator.HIDDEN_MAGIK_LINT_RC_FILENAME)
+        || name.equals("product.def")
+        || name.equals("module.def");
+  }
+
   /**
    * Determine the path of the `magik-lint.properties` file to read.
    *
@@ -36,13 +85,28 @@ public final class ConfigurationReader {
    * Read properties.
    *
    * <p>Uses {@link nl.ramsolutions.sw.magik.lint.MagikLint.KEY_OVERRIDE_CONFIG} in case the
-   * settings file is overridden.
+   * settings file is overridden. The resulting properties are shared by all files in the same
+   * directory and must not be modified.
    */
   public static MagikToolsProperties readProperties(
       final Path path, final MagikToolsProperties properties) throws IOException {
+    final Path directory = Files.isRegularFile(path) ? path.getParent() : path;
+    final CacheKey key = new CacheKey(directory, properties, properties.getGeneration());
+    final MagikToolsProperties cachedProperties = ConfigurationReader.CACHE.get(key);
+    if (cachedProperties != null) {
+      return cachedProperties;
+    }
+
+    // Evict entries for older generations of the given properties.
+    final long generation = key.generation();
+    ConfigurationReader.CACHE
+        .keySet()
+        .removeIf(
+            cacheKey -> cacheKey.properties() == properties && cacheKey.generation() != generation);
+
     // final String overridePath = properties.getPropertyString(MagikLint.KEY_OVERRIDE_CONFIG);
     final String overrideConfigFile = properties.getPropertyString("magik.lint.overrideConfigFile");
-    final Path propertiesPath = ConfigurationReader.determinePath(path, overrideConfigFile);
+    final Path propertiesPath = ConfigurationReader.determinePath(directory, overrideConfigFile);
 
     // Copy properties, but override all from propertiesPath.
     final MagikToolsProperties fileProperties =
@@ -50,7 +114,11 @@ public final class ConfigurationReader {
             ? new MagikToolsProperties(propertiesPath)
             : MagikToolsProperties.DEFAULT_PROPERTIES;
 
-    return MagikToolsProperties.merge(properties, fileProperties);
+    final MagikToolsProperties mergedProperties =
+        MagikToolsProperties.merge(properties, fileProperties);
+    final MagikToolsProperties existingProperties =
+        ConfigurationReader.CACHE.putIfAbsent(key, mergedProperties);
+    return existingProperties != null ? existingProperties : mergedProperties;
   }
 
   public static MagikToolsProperties readProperties(
@@ -10,6 +10,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +39,8 @@ public class MagikToolsProperties {
   private static final Logger LOGGER = LoggerFactory.getLogger(MagikToolsProperties.class);
 
   private final Properties properties = new Properties();
+  private final AtomicLong generation = new AtomicLong();
+  private final Map<Object, Object> derivedValues = new ConcurrentHashMap<>();
 
   public MagikToolsProperties() {}
 
@@ -56,6 +63,7 @@ public class MagikToolsProperties {
 
   public void clear() {
     this.properties.clear();
+    this.generation.incrementAndGet();
   }
 
   public void reset() {
@@ -65,10 +73,38 @@ public class MagikToolsProperties {
 
   public void putAll(final Properties newProperties) {
     this.properties.putAll(newProperties);
+    this.generation.incrementAndGet();
   }
 
   public void putAll(final MagikToolsProperties newProperties) {
     this.properties.putAll(newProperties.properties);
+    this.generation.incrementAndGet();
+  }
+
+  /**
+   * Get the generation of these properties, which changes on every modification. Used to detect
+   * whether values derived from these properties are outdated.
+   *
+   * @return Generation.
+   */
+  public long getGeneration() {
+    return this.generation.get();
+  }
+
+  /**
+   * Get a value derived from these properties, such as a compiled configuration, computing it once
+   * per key. Derived values live as long as these properties do. As the properties can be modified
+   * afterwards, a derived value should check {@link #getGeneration()} when needed.
+   *
+   * @param <T> Type of derived value.
+   * @param key Key of derived value.
+   * @param factory Factory to compute the value from these properties.
+   * @return Derived value.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T computeDerivedIfAbsent(
+      final Object key, final Function<MagikToolsProperties, T> factory) {
+    return (T) this.derivedValues.computeIfAbsent(key, derivedKey -> factory.apply(this));
   }
 
   /**
@@ -80,10 +116,12 @@ public class MagikToolsProperties {
   public void setProperty(final String key, @Nullable final String value) {
     if (value == null) {
       this.properties.remove(key);
+      this.generation.incrementAndGet();
       return;
     }
 
     this.properties.setProperty(key, value);
+    this.generation.incrementAndGet();
   }
 
   /**
@@ -95,11 +133,13 @@ public class MagikToolsProperties {
   public void setProperty(final String key, @Nullable final Integer value) {
     if (value == null) {
       this.properties.remove(key);
+      this.generation.incrementAndGet();
       return;
     }
 
     final String valueStr = Integer.toString(value);
     this.properties.setProperty(key, valueStr);
+    this.generation.incrementAndGet();
   }
 
   /**
@@ -111,11 +151,13 @@ public class MagikToolsProperties {
   public void setProperty(final String key, @Nullable final Long value) {
     if (value == null) {
       this.properties.remove(key);
+      this.generation.incrementAndGet();
       return;
     }
 
     final String valueStr = Long.toString(value);
     this.properties.setProperty(key, valueStr);
+    this.generation.incrementAndGet();
   }
 
   /**
@@ -127,11 +169,13 @@ public class MagikToolsProperties {
   public void setProperty(final String key, @Nullable final Boolean value) {
     if (value == null) {
       this.properties.remove(key);
+      this.generation.incrementAndGet();
       return;
     }
 
     final String valueStr = Boolean.toString(value);
     this.properties.setProperty(key, valueStr);
+    this.generation.incrementAndGet();
   }
 
   /**
@@ -289,6 +333,17 @@ public class MagikToolsProperties {
     return Arrays.stream(values).map(String::trim).toList();
   }
 
+  /**
+   * Get all properties, sorted by key.
+   *
+   * @return Sorted properties.
+   */
+  public SortedMap<String, String> toSortedMap() {
+    final SortedMap<String, String> map = new TreeMap<>();
+    this.properties.forEach((key, value) -> map.put(key.toString(), value.toString()));
+    return Collections.unmodifiableSortedMap(map);
+  }
+
   /**
    * Merge two sets of properties.
    *
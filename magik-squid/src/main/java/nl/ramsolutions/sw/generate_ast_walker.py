@@ -38,7 +38,7 @@ import nl.ramsolutions.sw.magik.api.MagikGrammar;
  * Note that this is generated by the {@code generate_ast_walker.py} script,
  * do not edit this file manually!
  */
-public abstract class AstWalker {
+public abstract class MagikAstWalker {
 
     /**
      * Walk children of node.
@@ -63,7 +63,6 @@ public abstract class AstWalker {
      * Start walking the node. The pre- and post-methods are called upon tree traversal.
      * @param node Node to start walking.
      */
-    @SuppressWarnings({"java:S1479", "checkstyle:MethodLength"})
     public void walkAst(final AstNode node) {
         final AstNodeType nodeType = node.getType();
         if (!(nodeType instanceof MagikGrammar)) {
@@ -71,27 +70,36 @@ public abstract class AstWalker {
             return;
         }
 
-        final MagikGrammar value = (MagikGrammar) nodeType;
-        switch (value) {""")
+        this.walkPreNode(node);
+        this.walkChildren(node);
+        this.walkPostNode(node);
+    }""")
 
-# generate cases
-for element in elements:
-  java_name = to_java_name(element)
+# generate pre- and post-dispatch-methods
+for prepost in ['Pre', 'Post']:
   print(f"""
+    /**
+     * Call the {prepost.lower()}-method for the type of node.
+     * @param node Node to call the {prepost.lower()}-method for.
+     */
+    @SuppressWarnings({{"java:S1479", "checkstyle:MethodLength"}})
+    protected void walk{prepost}Node(final AstNode node) {{
+        final MagikGrammar value = (MagikGrammar) node.getType();
+        switch (value) {{""")
+
+  for element in elements:
+    java_name = to_java_name(element)
+    print(f"""
             case {element}:
-                this.walkPre{java_name}(node);
-                this.walkChildren(node);
-                this.walkPost{java_name}(node);
+                this.walk{prepost}{java_name}(node);
                 break;""")
 
-print("""
+  print(f"""
             default:
-                this.walkPreDefault(node);
-                this.walkChildren(node);
-                this.walkPostDefault(node);
+                this.walk{prepost}Default(node);
                 break;
-        }
-    }""")
+        }}
+    }}""")
 
 # generate pre- and post-walk-methods
 for element in elements:
@@ -19,6 +19,7 @@ import java.util.stream.IntStream;
 import nl.ramsolutions.sw.FileCharsetDeterminer;
 import nl.ramsolutions.sw.MagikToolsProperties;
 import nl.ramsolutions.sw.OpenedFile;
+import nl.ramsolutions.sw.magik.analysis.TokenIndex;
 import nl.ramsolutions.sw.magik.analysis.definitions.DefinitionReader;
 import nl.ramsolutions.sw.magik.analysis.definitions.MagikDefinition;
 import nl.ramsolutions.sw.magik.analysis.scope.GlobalScope;
@@ -37,6 +38,7 @@ public class MagikFile extends OpenedFile {
   private final @Nullable Instant timestamp;
   private final MagikToolsProperties properties;
   private AstNode astNode;
+  private TokenIndex tokenIndex;
   private GlobalScope globalScope;
   private List<MagikDefinition> definitions;
   private final Map<CommentInstructionReader.Instruction, Map<Integer, Map<String, String>>>
@@ -120,6 +122,20 @@ public class MagikFile extends OpenedFile {
     return this.astNode;
   }
 
+  /**
+   * Get the {@link TokenIndex} for this file.
+   *
+   * @return {@link TokenIndex} for this file.
+   */
+  public synchronized TokenIndex getTokenIndex() {
+    if (this.tokenIndex == null) {
+      final AstNode topNode = this.getTopNode();
+      this.tokenIndex = new TokenIndex(topNode);
+    }
+
+    return this.tokenIndex;
+  }
+
   /**
    * Get the {@link GlobalScope} for this file.
    *
@@ -61,20 +61,30 @@ public class MagikTypedFile extends MagikFile {
   }
 
   /**
-   * Get the resulting state from the {@link LocalTypeReasoner}.
+   * Get the resulting state from the {@link LocalTypeReasoner}. Types are reasoned lazily, per
+   * top-level method definition.
    *
    * @return The {@link LocalTypeReasonerState}.
    */
   public synchronized LocalTypeReasonerState getTypeReasonerState() {
     if (this.reasonerState == null) {
       final LocalTypeReasoner reasoner = new LocalTypeReasoner(this);
-      reasoner.run();
       this.reasonerState = reasoner.getState();
     }
 
     return this.reasonerState;
   }
 
+  /**
+   * Reuse the type reasoner results of unchanged methods from a previous version of this file.
+   *
+   * @param previousMagikFile Previous version of this file.
+   */
+  public void reuseTypeReasonerState(final MagikTypedFile previousMagikFile) {
+    final LocalTypeReasonerState previousState = previousMagikFile.getTypeReasonerState();
+    this.getTypeReasonerState().reuse(previousState);
+  }
+
   @Override
   public String toString() {
     return String.format(
@@ -1,7 +1,10 @@
 package nl.ramsolutions.sw.magik;
 
 import com.sonar.sslr.api.AstNode;
+import java.util.ArrayList;
+import java.util.List;
 import nl.ramsolutions.sw.magik.analysis.MagikAstWalker;
+import nl.ramsolutions.sw.magik.analysis.MagikCompositeAstWalker;
 
 /** Magik visitor. */
 public abstract class MagikVisitor extends MagikAstWalker {
@@ -23,4 +26,30 @@ public abstract class MagikVisitor extends MagikAstWalker {
     final AstNode topNode = this.magikFile.getTopNode();
     this.walkAst(topNode);
   }
+
+  /**
+   * Scan the file with multiple visitors, walking the tree once for all visitors which can be
+   * combined. Other visitors walk the tree themselves.
+   *
+   * @param scannedMagikFile Context to use.
+   * @param visitors Visitors to scan with.
+   */
+  public static void scanFile(
+      final MagikFile scannedMagikFile, final List<? extends MagikVisitor> visitors) {
+    final List<MagikVisitor> combinableVisitors = new ArrayList<>();
+    for (final MagikVisitor visitor : visitors) {
+      if (MagikCompositeAstWalker.canCombine(visitor)) {
+        visitor.magikFile = scannedMagikFile;
+        combinableVisitors.add(visitor);
+      } else {
+        visitor.scanFile(scannedMagikFile);
+      }
+    }
+
+    if (!combinableVisitors.isEmpty()) {
+      final AstNode topNode = scannedMagikFile.getTopNode();
+      final MagikCompositeAstWalker walker = new MagikCompositeAstWalker(combinableVisitors);
+      walker.walkAst(topNode);
+    }
+  }
 }
@@ -13,6 +13,8 @@ import java.util.Objects;
 public class Position implements Comparable<Position> {
 
   private static final String NEWLINE_REGEXP = "(?:\\n|\\r\\n|\\r)";
+  private static final int COLUMN_BITS = 32;
+  private static final long COLUMN_MASK = 0xFFFFFFFFL;
 
   /** Comparator for {@link Position}s. */
   public static class PositionComparator implements Comparator<Position>, Serializable {
@@ -101,6 +103,26 @@ public class Position implements Comparable<Position> {
     return this.column;
   }
 
+  /**
+   * Pack this position to a single value, ordered the same as {@link Position}s.
+   *
+   * @return Packed value.
+   */
+  public long pack() {
+    return Position.pack(this.line, this.column);
+  }
+
+  /**
+   * Pack a line/column to a single value, ordered the same as {@link Position}s.
+   *
+   * @param line Line.
+   * @param column Column.
+   * @return Packed value.
+   */
+  public static long pack(final int line, final int column) {
+    return ((long) line << COLUMN_BITS) | (column & COLUMN_MASK);
+  }
+
   public boolean isBeforeRange(final Range range) {
     return this.compareTo(range.getStartPosition()) < 0;
   }
@@ -4,6 +4,7 @@ import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.api.AstNodeType;
 import com.sonar.sslr.api.Token;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
@@ -11,8 +12,8 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import nl.ramsolutions.sw.definitions.api.SwModuleDefinitionGrammar;
 import nl.ramsolutions.sw.definitions.api.SwProductDefinitionGrammar;
+import nl.ramsolutions.sw.magik.MagikFile;
 import nl.ramsolutions.sw.magik.Position;
-import nl.ramsolutions.sw.magik.Range;
 import nl.ramsolutions.sw.magik.api.MagikGrammar;
 
 /** AstNode query utility functions. */
@@ -108,7 +109,8 @@ public final class AstQuery {
   }
 
   /**
-   * Get the node in {@code topNode} before {@code position}.
+   * Get the node in {@code topNode} before {@code position}, i.e., the last token ending before
+   * {@code position}.
    *
    * @param topNode Top node.
    * @param position Position for node.
@@ -116,20 +118,7 @@ public final class AstQuery {
    */
   @CheckForNull
   public static AstNode nodeBefore(final AstNode topNode, final Position position) {
-    final List<AstNode> nodes =
-        AstQuery.dfs(topNode)
-            .filter(AstQuery::isTokenNode)
-            .filter(
-                node -> {
-                  final Token token = node.getToken();
-                  final Range range = new Range(token);
-                  return position.isBeforeRange(range);
-                })
-            .toList();
-    if (nodes.isEmpty()) {
-      return null;
-    }
-    return nodes.get(nodes.size() - 1);
+    return new TokenIndex(topNode).nodeBefore(position);
   }
 
   /**
@@ -141,20 +130,7 @@ public final class AstQuery {
    */
   @CheckForNull
   public static AstNode nodeAt(final AstNode topNode, final Position position) {
-    final List<AstNode> nodes =
-        AstQuery.dfs(topNode)
-            .filter(AstQuery::isTokenNode)
-            .filter(
-                node -> {
-                  final Token token = node.getToken();
-                  final Range range = new Range(token);
-                  return !position.isBeforeRange(range) && !position.isAfterRange(range);
-                })
-            .toList();
-    if (nodes.isEmpty()) {
-      return null;
-    }
-    return nodes.get(0);
+    return new TokenIndex(topNode).nodeAt(position);
   }
 
   /**
@@ -169,6 +145,41 @@ public final class AstQuery {
   public static AstNode nodeAt(
       final AstNode topNode, final Position position, final AstNodeType... nodeTypes) {
     final AstNode node = AstQuery.nodeAt(topNode, position);
+    return AstQuery.withParentOfType(node, nodeTypes);
+  }
+
+  /**
+   * Get the (token) node in {@code magikFile} at {@code position}, using the {@link TokenIndex} of
+   * the file.
+   *
+   * @param magikFile Magik file.
+   * @param position Position for node.
+   * @return Token-Node at position.
+   */
+  @CheckForNull
+  public static AstNode nodeAt(final MagikFile magikFile, final Position position) {
+    return magikFile.getTokenIndex().nodeAt(position);
+  }
+
+  /**
+   * Get the (token) node in {@code magikFile} at {@code position} of a specific type, using the
+   * {@link TokenIndex} of the file.
+   *
+   * @param magikFile Magik file.
+   * @param position Position for node.
+   * @param nodeTypes Node type to look for.
+   * @return Token-Node at position.
+   */
+  @CheckForNull
+  public static AstNode nodeAt(
+      final MagikFile magikFile, final Position position, final AstNodeType... nodeTypes) {
+    final AstNode node = AstQuery.nodeAt(magikFile, position);
+    return AstQuery.withParentOfType(node, nodeTypes);
+  }
+
+  @CheckForNull
+  private static AstNode withParentOfType(
+      final @Nullable AstNode node, final AstNodeType... nodeTypes) {
     if (node == null) {
       return null;
     }
@@ -180,7 +191,8 @@ public final class AstQuery {
   }
 
   /**
-   * Get the node in {@code topNode} after {@code position}.
+   * Get the node in {@code topNode} after {@code position}, i.e., the first token starting after
+   * {@code position}.
    *
    * @param topNode Top node.
    * @param position Position for node.
@@ -188,20 +200,7 @@ public final class AstQuery {
    */
   @CheckForNull
   public static AstNode nodeAfter(final AstNode topNode, final Position position) {
-    final List<AstNode> nodes =
-        AstQuery.dfs(topNode)
-            .filter(AstQuery::isTokenNode)
-            .filter(
-                node -> {
-                  final Token token = node.getToken();
-                  final Range range = new Range(token);
-                  return position.isAfterRange(range);
-                })
-            .toList();
-    if (nodes.isEmpty()) {
-      return null;
-    }
-    return nodes.get(0);
+    return new TokenIndex(topNode).nodeAfter(position);
   }
 
   /**
@@ -314,10 +313,4 @@ public final class AstQuery {
         || node.is(SwModuleDefinitionGrammar.values())
         || node.is(MagikGrammar.values());
   }
-
-  private static boolean isTokenNode(final AstNode node) {
-    return node.isNot(SwProductDefinitionGrammar.values())
-        && node.isNot(SwModuleDefinitionGrammar.values())
-        && node.isNot(MagikGrammar.values());
-  }
 }
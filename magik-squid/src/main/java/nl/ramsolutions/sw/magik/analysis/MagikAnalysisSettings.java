@@ -15,6 +15,7 @@ public class MagikAnalysisSettings {
   private static final String INDEX_SLOT_USAGES = "magik.typing.indexSlotUsages";
   private static final String INDEX_CONDITION_USAGES = "magik.typing.indexConditionUsages";
   private static final String CACHE_INDEXED_DEFINITIONS = "magik.typing.cacheIndexedDefinitions";
+  private static final String INDEX_PARALLELISM = "magik.typing.indexParallelism";
 
   private final MagikToolsProperties properties;
 
@@ -42,4 +43,11 @@ public class MagikAnalysisSettings {
   public boolean getTypingCacheIndexedDefinitions() {
     return this.properties.getPropertyBoolean(CACHE_INDEXED_DEFINITIONS) != Boolean.FALSE;
   }
+
+  public int getTypingIndexParallelism() {
+    final int parallelism =
+        this.properties.getPropertyInteger(
+            INDEX_PARALLELISM, Runtime.getRuntime().availableProcessors());
+    return Math.max(1, parallelism);
+  }
 }
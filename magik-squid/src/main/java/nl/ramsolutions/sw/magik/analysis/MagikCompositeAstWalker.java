@@ -0,0 +1,213 @@
+package nl.ramsolutions.sw.magik.analysis;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.Trivia;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import nl.ramsolutions.sw.magik.api.MagikGrammar;
+
+/**
+ * Walks the tree once for multiple {@link MagikAstWalker}s.
+ *
+ * <p>The pre- and post-methods are only called on the walkers which override the method for the
+ * type of node, or the {@code walkPreDefault}/{@code walkPostDefault} method. Which methods are
+ * overridden is determined once per walker class.
+ *
+ * <p>Walkers overriding {@code walkAst}, {@code walkChildren} or {@code walkTokens} cannot be
+ * combined, as these control the traversal itself. Use {@link #canCombine(MagikAstWalker)} to test
+ * this.
+ */
+public class MagikCompositeAstWalker extends MagikAstWalker {
+
+  private static final String WALK_PRE = "walkPre";
+  private static final String WALK_POST = "walkPost";
+  private static final String DEFAULT = "Default";
+
+  private static final ClassValue<Subscriptions> SUBSCRIPTIONS =
+      new ClassValue<>() {
+        @Override
+        protected Subscriptions computeValue(final Class<?> type) {
+          return new Subscriptions(type);
+        }
+      };
+
+  /** Methods of a walker class overriding the methods of {@link MagikAstWalker}. */
+  private static final class Subscriptions {
+
+    private final boolean combinable;
+    private final Set<MagikGrammar> preTypes = EnumSet.noneOf(MagikGrammar.class);
+    private final Set<MagikGrammar> postTypes = EnumSet.noneOf(MagikGrammar.class);
+    private final boolean token;
+    private final boolean trivia;
+
+    Subscriptions(final Class<?> type) {
+      this.combinable =
+          !Subscriptions.isOverridden(type, "walkAst", AstNode.class)
+              && !Subscriptions.isOverridden(type, "walkChildren", AstNode.class)
+              && !Subscriptions.isOverridden(type, "walkTokens", AstNode.class);
+      final boolean preDefault = Subscriptions.isOverridden(type, WALK_PRE + DEFAULT);
+      final boolean postDefault = Subscriptions.isOverridden(type, WALK_POST + DEFAULT);
+      for (final MagikGrammar grammar : MagikGrammar.values()) {
+        final String name = Subscriptions.methodName(grammar);
+        if (preDefault || Subscriptions.isOverridden(type, WALK_PRE + name)) {
+          this.preTypes.add(grammar);
+        }
+
+        if (postDefault || Subscriptions.isOverridden(type, WALK_POST + name)) {
+          this.postTypes.add(grammar);
+        }
+      }
+
+      this.token = Subscriptions.isOverridden(type, "walkToken", Token.class);
+      this.trivia = Subscriptions.isOverridden(type, "walkTrivia", Trivia.class);
+    }
+
+    /**
+     * Get the name of the pre-/post-method for a grammar rule, e.g., {@code METHOD_DEFINITION}
+     * results in {@code MethodDefinition}. Mirrors {@code generate_ast_walker.py}.
+     */
+    private static String methodName(final MagikGrammar grammar) {
+      final StringBuilder builder = new StringBuilder();
+      boolean wordStart = true;
+      for (final char chr : grammar.name().toCharArray()) {
+        if (chr != '_') {
+          builder.append(wordStart ? Character.toUpperCase(chr) : Character.toLowerCase(chr));
+        }
+
+        wordStart = !Character.isLetter(chr);
+      }
+
+      return builder.toString();
+    }
+
+    private static boolean isOverridden(final Class<?> type, final String methodName) {
+      return Subscriptions.isOverridden(type, methodName, AstNode.class);
+    }
+
+    private static boolean isOverridden(
+        final Class<?> type, final String methodName, final Class<?> parameterType) {
+      final Class<?> declaringClass =
+          Subscriptions.getDeclaringClass(type, methodName, parameterType);
+      return declaringClass != null && declaringClass != MagikAstWalker.class;
+    }
+
+    @CheckForNull
+    private static Class<?> getDeclaringClass(
+        final Class<?> type, final String methodName, final Class<?> parameterType) {
+      Class<?> currentType = type;
+      while (currentType != null) {
+        for (final Method method : currentType.getDeclaredMethods()) {
+          if (method.getName().equals(methodName)
+              && method.getParameterCount() == 1
+              && method.getParameterTypes()[0] == parameterType) {
+            return currentType;
+          }
+        }
+
+        currentType = currentType.getSuperclass();
+      }
+
+      return null;
+    }
+  }
+
+  private final Map<MagikGrammar, MagikAstWalker[]> preWalkers = new EnumMap<>(MagikGrammar.class);
+  private final Map<MagikGrammar, MagikAstWalker[]> postWalkers = new EnumMap<>(MagikGrammar.class);
+  private final MagikAstWalker[] tokenWalkers;
+  private final MagikAstWalker[] triviaWalkers;
+
+  /**
+   * Constructor.
+   *
+   * @param walkers Walkers to combine, called in the given order.
+   * @throws IllegalArgumentException If a walker cannot be combined.
+   */
+  public MagikCompositeAstWalker(final List<? extends MagikAstWalker> walkers) {
+    final Map<MagikGrammar, List<MagikAstWalker>> pre = new EnumMap<>(MagikGrammar.class);
+    final Map<MagikGrammar, List<MagikAstWalker>> post = new EnumMap<>(MagikGrammar.class);
+    final List<MagikAstWalker> token = new ArrayList<>();
+    final List<MagikAstWalker> trivia = new ArrayList<>();
+    for (final MagikAstWalker walker : walkers) {
+      final Subscriptions subscriptions = SUBSCRIPTIONS.get(walker.getClass());
+      if (!subscriptions.combinable) {
+        throw new IllegalArgumentException("Cannot combine walker: " + walker);
+      }
+
+      subscriptions.preTypes.forEach(
+          grammar -> pre.computeIfAbsent(grammar, key -> new ArrayList<>()).add(walker));
+      subscriptions.postTypes.forEach(
+          grammar -> post.computeIfAbsent(grammar, key -> new ArrayList<>()).add(walker));
+      if (subscriptions.token) {
+        token.add(walker);
+      }
+
+      if (subscriptions.trivia) {
+        trivia.add(walker);
+      }
+    }
+
+    pre.forEach(
+        (grammar, list) -> this.preWalkers.put(grammar, list.toArray(MagikAstWalker[]::new)));
+    post.forEach(
+        (grammar, list) -> this.postWalkers.put(grammar, list.toArray(MagikAstWalker[]::new)));
+    this.tokenWalkers = token.toArray(MagikAstWalker[]::new);
+    this.triviaWalkers = trivia.toArray(MagikAstWalker[]::new);
+  }
+
+  /**
+   * Test if the walker can be combined with other walkers.
+   *
+   * @param walker Walker to test.
+   * @return True if the walker can be combined, false otherwise.
+   */
+  public static boolean canCombine(final MagikAstWalker walker) {
+    return SUBSCRIPTIONS.get(walker.getClass()).combinable;
+  }
+
+  @Override
+  protected void walkPreNode(final AstNode node) {
+    final MagikAstWalker[] walkers = this.preWalkers.get(node.getType());
+    if (walkers == null) {
+      return;
+    }
+
+    for (final MagikAstWalker walker : walkers) {
+      walker.walkPreNode(node);
+    }
+  }
+
+  @Override
+  protected void walkPostNode(final AstNode node) {
+    final MagikAstWalker[] walkers = this.postWalkers.get(node.getType());
+    if (walkers == null) {
+      return;
+    }
+
+    for (final MagikAstWalker walker : walkers) {
+      walker.walkPostNode(node);
+    }
+  }
+
+  @Override
+  protected void walkTokens(final AstNode tokenNode) {
+    if (this.tokenWalkers.length == 0 && this.triviaWalkers.length == 0) {
+      return;
+    }
+
+    final Token token = tokenNode.getToken();
+    for (final MagikAstWalker walker : this.triviaWalkers) {
+      token.getTrivia().forEach(walker::walkTrivia);
+    }
+
+    for (final MagikAstWalker walker : this.tokenWalkers) {
+      walker.walkToken(token);
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package nl.ramsolutions.sw.magik.analysis;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Token;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.util.ArrayList;
+import java.util.List;
+import nl.ramsolutions.sw.definitions.api.SwModuleDefinitionGrammar;
+import nl.ramsolutions.sw.definitions.api.SwProductDefinitionGrammar;
+import nl.ramsolutions.sw.magik.Position;
+import nl.ramsolutions.sw.magik.api.MagikGrammar;
+
+/**
+ * Index of the token nodes in a tree, ordered by position.
+ *
+ * <p>The start and end positions of the tokens are packed into sorted arrays, so the token node at,
+ * before or after a position is found using a binary search, without walking the tree. Use {@link
+ * nl.ramsolutions.sw.magik.MagikFile#getTokenIndex()} to get the index built once for a file.
+ */
+public final class TokenIndex {
+
+  private final AstNode topNode;
+  private final AstNode[] tokenNodes;
+  private final long[] starts;
+  private final long[] ends;
+
+  /**
+   * Constructor.
+   *
+   * @param topNode Top node to index the token nodes of.
+   */
+  public TokenIndex(final AstNode topNode) {
+    this.topNode = topNode;
+
+    final List<AstNode> nodes = new ArrayList<>();
+    TokenIndex.collectTokenNodes(topNode, nodes);
+    this.tokenNodes = nodes.toArray(AstNode[]::new);
+    this.starts = new long[this.tokenNodes.length];
+    this.ends = new long[this.tokenNodes.length];
+    for (int i = 0; i < this.tokenNodes.length; ++i) {
+      final Token token = this.tokenNodes[i].getToken();
+      this.starts[i] = Position.fromTokenStart(token).pack();
+      this.ends[i] = Position.fromTokenEnd(token).pack();
+    }
+  }
+
+  private static void collectTokenNodes(final AstNode node, final List<AstNode> tokenNodes) {
+    if (TokenIndex.isTokenNode(node)) {
+      tokenNodes.add(node);
+    }
+
+    for (final AstNode childNode : node.getChildren()) {
+      TokenIndex.collectTokenNodes(childNode, tokenNodes);
+    }
+  }
+
+  private static boolean isTokenNode(final AstNode node) {
+    return node.isNot(SwProductDefinitionGrammar.values())
+        && node.isNot(SwModuleDefinitionGrammar.values())
+        && node.isNot(MagikGrammar.values());
+  }
+
+  /**
+   * Get the index of the first value in {@code values} which is greater than or equal to {@code
+   * key}, or the length of {@code values} if none.
+   */
+  private static int lowerBound(final long[] values, final long key) {
+    int low = 0;
+    int high = values.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (values[mid] < key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  public AstNode getTopNode() {
+    return this.topNode;
+  }
+
+  /**
+   * Get the token node at {@code position}.
+   *
+   * @param position Position for node.
+   * @return Token node at position, or null if none.
+   */
+  @CheckForNull
+  public AstNode nodeAt(final Position position) {
+    final long key = position.pack();
+    final int index = TokenIndex.lowerBound(this.ends, key);
+    if (index == this.ends.length || this.starts[index] > key) {
+      return null;
+    }
+    return this.tokenNodes[index];
+  }
+
+  /**
+   * Get the last token node ending before {@code position}.
+   *
+   * @param position Position for node.
+   * @return Token node before position, or null if none.
+   */
+  @CheckForNull
+  public AstNode nodeBefore(final Position position) {
+    final long key = position.pack();
+    final int index = TokenIndex.lowerBound(this.ends, key) - 1;
+    if (index < 0) {
+      return null;
+    }
+    return this.tokenNodes[index];
+  }
+
+  /**
+   * Get the first token node starting after {@code position}.
+   *
+   * @param position Position for node.
+   * @return Token node after position, or null if none.
+   */
+  @CheckForNull
+  public AstNode nodeAfter(final Position position) {
+    final long key = Position.pack(position.getLine(), position.getColumn() + 1);
+    final int index = TokenIndex.lowerBound(this.starts, key);
+    if (index == this.starts.length) {
+      return null;
+    }
+    return this.tokenNodes[index];
+  }
+
+  /**
+   * Get the number of indexed tokens.
+   *
+   * @return Number of tokens.
+   */
+  public int size() {
+    return this.tokenNodes.length;
+  }
+}
@@ -0,0 +1,44 @@
+package nl.ramsolutions.sw.magik.analysis.definitions;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generations of the types, methods and modules in a {@link DefinitionKeeper}, incremented after
+ * each change.
+ */
+final class DefinitionGenerations {
+
+  private final AtomicLong typeGeneration = new AtomicLong();
+  private final AtomicLong methodGeneration = new AtomicLong();
+  private final AtomicLong moduleGeneration = new AtomicLong();
+
+  void typeChanged() {
+    this.typeGeneration.incrementAndGet();
+  }
+
+  void methodChanged() {
+    this.methodGeneration.incrementAndGet();
+  }
+
+  void moduleChanged() {
+    this.moduleGeneration.incrementAndGet();
+  }
+
+  void allChanged() {
+    this.typeChanged();
+    this.methodChanged();
+    this.moduleChanged();
+  }
+
+  long getTypeGeneration() {
+    return this.typeGeneration.get();
+  }
+
+  long getMethodGeneration() {
+    return this.methodGeneration.get();
+  }
+
+  long getModuleGeneration() {
+    return this.moduleGeneration.get();
+  }
+}
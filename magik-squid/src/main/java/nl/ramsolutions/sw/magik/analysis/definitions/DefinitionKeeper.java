@@ -2,13 +2,16 @@ package nl.ramsolutions.sw.magik.analysis.definitions;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import nl.ramsolutions.sw.definitions.ModuleDefinition;
 import nl.ramsolutions.sw.definitions.ProductDefinition;
 import nl.ramsolutions.sw.magik.analysis.typing.TypeString;
+import nl.ramsolutions.sw.magik.utils.NameIndex;
 
 /** In memory Definition keeper. */
 public class DefinitionKeeper implements IDefinitionKeeper {
@@ -29,6 +32,19 @@ public class DefinitionKeeper implements IDefinitionKeeper {
   private final Map<TypeString, Set<ProcedureDefinition>> procedureDefinitions =
       new ConcurrentHashMap<>();
 
+  // Reverse index: usage (without location) to definitions containing the usage.
+  private final UsageIndex usageIndex = new UsageIndex();
+
+  // Secondary indices: (sorted) method name to methods, parent type to child exemplars.
+  private final MethodNameIndex methodNameIndex = new MethodNameIndex();
+  private final ExemplarChildIndex exemplarChildIndex = new ExemplarChildIndex();
+
+  // Symbol index: name to products, modules, exemplars, methods and conditions.
+  private final NameIndex<IDefinition> symbolIndex = new NameIndex<>();
+
+  // Generations, incremented after each change.
+  private final DefinitionGenerations generations = new DefinitionGenerations();
+
   /** Constructor. */
   public DefinitionKeeper() {
     this(true);
@@ -54,6 +70,7 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<ProductDefinition> definitions =
         this.productDefinitions.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet());
     definitions.add(definition);
+    this.symbolIndex.add(name, definition);
   }
 
   @Override
@@ -62,6 +79,8 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<ModuleDefinition> definitions =
         this.moduleDefinitions.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet());
     definitions.add(definition);
+    this.symbolIndex.add(name, definition);
+    this.generations.moduleChanged();
   }
 
   @Override
@@ -70,6 +89,7 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<PackageDefinition> definitions =
         this.packageDefinitions.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet());
     definitions.add(definition);
+    this.generations.typeChanged();
   }
 
   @Override
@@ -80,6 +100,9 @@ public class DefinitionKeeper implements IDefinitionKeeper {
         this.exemplarDefinitions.computeIfAbsent(
             bareTypeString, k -> ConcurrentHashMap.newKeySet());
     definitions.add(definition);
+    this.symbolIndex.add(bareTypeString.getFullString(), definition);
+    this.exemplarChildIndex.add(definition);
+    this.generations.typeChanged();
   }
 
   @Override
@@ -88,6 +111,10 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<MethodDefinition> definitions =
         this.methodDefinitions.computeIfAbsent(bareTypeString, k -> ConcurrentHashMap.newKeySet());
     definitions.add(definition);
+    this.symbolIndex.add(definition.getMethodName(), definition);
+    this.methodNameIndex.add(definition);
+    this.usageIndex.add(definition);
+    this.generations.methodChanged();
   }
 
   @Override
@@ -96,6 +123,7 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<GlobalDefinition> definitions =
         this.globalDefinitions.computeIfAbsent(bareTypeString, k -> ConcurrentHashMap.newKeySet());
     definitions.add(definition);
+    this.generations.typeChanged();
   }
 
   @Override
@@ -112,6 +140,7 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<ConditionDefinition> definitions =
         this.conditionDefinitions.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet());
     definitions.add(definition);
+    this.symbolIndex.add(name, definition);
   }
 
   @Override
@@ -122,6 +151,8 @@ public class DefinitionKeeper implements IDefinitionKeeper {
         this.procedureDefinitions.computeIfAbsent(
             bareTypeString, k -> ConcurrentHashMap.newKeySet());
     definitions.add(definition);
+    this.usageIndex.add(definition);
+    this.generations.typeChanged();
   }
 
   @Override
@@ -130,6 +161,7 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<ProductDefinition> definitions =
         this.productDefinitions.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet());
     definitions.remove(definition);
+    this.symbolIndex.remove(name, definition);
   }
 
   @Override
@@ -138,6 +170,8 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<ModuleDefinition> definitions =
         this.moduleDefinitions.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet());
     definitions.remove(definition);
+    this.symbolIndex.remove(name, definition);
+    this.generations.moduleChanged();
   }
 
   @Override
@@ -146,6 +180,7 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<PackageDefinition> definitions =
         this.packageDefinitions.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet());
     definitions.remove(definition);
+    this.generations.typeChanged();
   }
 
   @Override
@@ -155,6 +190,9 @@ public class DefinitionKeeper implements IDefinitionKeeper {
         this.exemplarDefinitions.computeIfAbsent(
             bareTypeString, k -> ConcurrentHashMap.newKeySet());
     definitions.remove(definition);
+    this.symbolIndex.remove(bareTypeString.getFullString(), definition);
+    this.exemplarChildIndex.remove(definition);
+    this.generations.typeChanged();
   }
 
   @Override
@@ -163,6 +201,10 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<MethodDefinition> definitions =
         this.methodDefinitions.computeIfAbsent(bareTypeString, k -> ConcurrentHashMap.newKeySet());
     definitions.remove(definition);
+    this.symbolIndex.remove(definition.getMethodName(), definition);
+    this.methodNameIndex.remove(definition);
+    this.usageIndex.remove(definition);
+    this.generations.methodChanged();
   }
 
   @Override
@@ -171,6 +213,7 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<GlobalDefinition> definitions =
         this.globalDefinitions.computeIfAbsent(bareTypeString, k -> ConcurrentHashMap.newKeySet());
     definitions.remove(definition);
+    this.generations.typeChanged();
   }
 
   @Override
@@ -187,6 +230,7 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     final Set<ConditionDefinition> definitions =
         this.conditionDefinitions.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet());
     definitions.remove(definition);
+    this.symbolIndex.remove(name, definition);
   }
 
   @Override
@@ -196,6 +240,8 @@ public class DefinitionKeeper implements IDefinitionKeeper {
         this.procedureDefinitions.computeIfAbsent(
             bareTypeString, k -> ConcurrentHashMap.newKeySet());
     definitions.remove(definition);
+    this.usageIndex.remove(definition);
+    this.generations.typeChanged();
   }
 
   @Override
@@ -343,6 +389,64 @@ public class DefinitionKeeper implements IDefinitionKeeper {
         .collect(Collectors.toSet());
   }
 
+  @Override
+  public Collection<ICallableDefinition> getMethodUsageDefinitions(final MethodUsage methodUsage) {
+    return this.usageIndex.getMethodUsageDefinitions(methodUsage);
+  }
+
+  @Override
+  public Collection<ICallableDefinition> getGlobalUsageDefinitions(final GlobalUsage globalUsage) {
+    return this.usageIndex.getGlobalUsageDefinitions(globalUsage);
+  }
+
+  @Override
+  public Collection<MethodDefinition> getSlotUsageDefinitions(final SlotUsage slotUsage) {
+    return this.usageIndex.getSlotUsageDefinitions(slotUsage);
+  }
+
+  @Override
+  public Collection<ICallableDefinition> getConditionUsageDefinitions(
+      final ConditionUsage conditionUsage) {
+    return this.usageIndex.getConditionUsageDefinitions(conditionUsage);
+  }
+
+  @Override
+  public Collection<MethodDefinition> getMethodDefinitionsByName(final String methodName) {
+    return this.methodNameIndex.getByName(methodName);
+  }
+
+  @Override
+  public Collection<MethodDefinition> getMethodDefinitionsByNamePrefix(final String prefix) {
+    return this.methodNameIndex.getByNamePrefix(prefix);
+  }
+
+  @Override
+  public Collection<ExemplarDefinition> getExemplarDefinitionsByParent(
+      final TypeString parentTypeName) {
+    return this.exemplarChildIndex.getByParent(parentTypeName);
+  }
+
+  @Override
+  public List<IDefinition> searchDefinitions(
+      final String query, final Predicate<IDefinition> predicate, final int limit) {
+    return this.symbolIndex.search(query, predicate, limit);
+  }
+
+  @Override
+  public long getTypeGeneration() {
+    return this.generations.getTypeGeneration();
+  }
+
+  @Override
+  public long getMethodGeneration() {
+    return this.generations.getMethodGeneration();
+  }
+
+  @Override
+  public long getModuleGeneration() {
+    return this.generations.getModuleGeneration();
+  }
+
   /** Clear any contained {@link MagikDefinition}s. */
   @Override
   public void clear() {
@@ -355,5 +459,10 @@ public class DefinitionKeeper implements IDefinitionKeeper {
     this.methodDefinitions.clear();
     this.globalDefinitions.clear();
     this.procedureDefinitions.clear();
+    this.usageIndex.clear();
+    this.methodNameIndex.clear();
+    this.exemplarChildIndex.clear();
+    this.symbolIndex.clear();
+    this.generations.allChanged();
   }
 }
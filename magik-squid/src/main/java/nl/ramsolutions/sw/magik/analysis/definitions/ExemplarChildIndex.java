@@ -0,0 +1,47 @@
+package nl.ramsolutions.sw.magik.analysis.definitions;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import nl.ramsolutions.sw.magik.analysis.typing.TypeString;
+
+/** Index of parent types to child {@link ExemplarDefinition}s, used by {@link DefinitionKeeper}. */
+final class ExemplarChildIndex {
+
+  private final MultiIndex<TypeString, ExemplarDefinition> index = new MultiIndex<>();
+
+  /**
+   * Get the parents to index an exemplar under, including the implicit parent of exemplars without
+   * explicit parents.
+   */
+  private static Collection<TypeString> getIndexedParents(final ExemplarDefinition definition) {
+    final List<TypeString> parents = definition.getParents();
+    if (!parents.isEmpty()) {
+      return parents.stream().map(TypeString::getWithoutGenerics).toList();
+    } else if (definition.getSort() == ExemplarDefinition.Sort.INDEXED) {
+      return List.of(TypeString.SW_INDEXED_FORMAT_MIXIN);
+    } else if (definition.getSort() == ExemplarDefinition.Sort.SLOTTED) {
+      return List.of(TypeString.SW_SLOTTED_FORMAT_MIXIN);
+    }
+
+    return Collections.emptyList();
+  }
+
+  void add(final ExemplarDefinition definition) {
+    ExemplarChildIndex.getIndexedParents(definition)
+        .forEach(parent -> this.index.add(parent, definition));
+  }
+
+  void remove(final ExemplarDefinition definition) {
+    ExemplarChildIndex.getIndexedParents(definition)
+        .forEach(parent -> this.index.remove(parent, definition));
+  }
+
+  Collection<ExemplarDefinition> getByParent(final TypeString parentTypeName) {
+    return this.index.get(parentTypeName.getWithoutGenerics());
+  }
+
+  void clear() {
+    this.index.clear();
+  }
+}
@@ -1,6 +1,7 @@
 package nl.ramsolutions.sw.magik.analysis.definitions;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import nl.ramsolutions.sw.definitions.ModuleDefinition;
@@ -265,6 +266,105 @@ public class FilterableDefinitionKeeperAdapter implements IDefinitionKeeper {
         .collect(Collectors.toSet());
   }
 
+  @Override
+  public Collection<ICallableDefinition> getMethodUsageDefinitions(final MethodUsage methodUsage) {
+    return this.definitionKeeper.getMethodUsageDefinitions(methodUsage).stream()
+        .filter(this::testCallableDefinition)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Collection<ICallableDefinition> getGlobalUsageDefinitions(final GlobalUsage globalUsage) {
+    return this.definitionKeeper.getGlobalUsageDefinitions(globalUsage).stream()
+        .filter(this::testCallableDefinition)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Collection<MethodDefinition> getSlotUsageDefinitions(final SlotUsage slotUsage) {
+    return this.definitionKeeper.getSlotUsageDefinitions(slotUsage).stream()
+        .filter(this.methodDefinitionPredicate)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Collection<ICallableDefinition> getConditionUsageDefinitions(
+      final ConditionUsage conditionUsage) {
+    return this.definitionKeeper.getConditionUsageDefinitions(conditionUsage).stream()
+        .filter(this::testCallableDefinition)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Collection<MethodDefinition> getMethodDefinitionsByName(final String methodName) {
+    return this.definitionKeeper.getMethodDefinitionsByName(methodName).stream()
+        .filter(this.methodDefinitionPredicate)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Collection<MethodDefinition> getMethodDefinitionsByNamePrefix(final String prefix) {
+    return this.definitionKeeper.getMethodDefinitionsByNamePrefix(prefix).stream()
+        .filter(this.methodDefinitionPredicate)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Collection<ExemplarDefinition> getExemplarDefinitionsByParent(
+      final TypeString parentTypeName) {
+    return this.definitionKeeper.getExemplarDefinitionsByParent(parentTypeName).stream()
+        .filter(this.exemplarDefinitionPredicate)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public List<IDefinition> searchDefinitions(
+      final String query, final Predicate<IDefinition> predicate, final int limit) {
+    return this.definitionKeeper.searchDefinitions(
+        query, predicate.and(this::testDefinition), limit);
+  }
+
+  @Override
+  public long getTypeGeneration() {
+    return this.definitionKeeper.getTypeGeneration();
+  }
+
+  @Override
+  public long getMethodGeneration() {
+    return this.definitionKeeper.getMethodGeneration();
+  }
+
+  @Override
+  public long getModuleGeneration() {
+    return this.definitionKeeper.getModuleGeneration();
+  }
+
+  private boolean testDefinition(final IDefinition definition) {
+    if (definition instanceof ProductDefinition productDefinition) {
+      return this.productDefinitionPredicate.test(productDefinition);
+    } else if (definition instanceof ModuleDefinition moduleDefinition) {
+      return this.moduleDefinitionPredicate.test(moduleDefinition);
+    } else if (definition instanceof ExemplarDefinition exemplarDefinition) {
+      return this.exemplarDefinitionPredicate.test(exemplarDefinition);
+    } else if (definition instanceof MethodDefinition methodDefinition) {
+      return this.methodDefinitionPredicate.test(methodDefinition);
+    } else if (definition instanceof ConditionDefinition conditionDefinition) {
+      return this.conditionDefinitionPredicate.test(conditionDefinition);
+    }
+
+    return false;
+  }
+
+  private boolean testCallableDefinition(final ICallableDefinition definition) {
+    if (definition instanceof MethodDefinition methodDefinition) {
+      return this.methodDefinitionPredicate.test(methodDefinition);
+    } else if (definition instanceof ProcedureDefinition procedureDefinition) {
+      return this.procedureDefinitionPredicate.test(procedureDefinition);
+    }
+
+    return false;
+  }
+
   @Override
   public void clear() {
     throw new UnsupportedOperationException();
@@ -1,6 +1,7 @@
 package nl.ramsolutions.sw.magik.analysis.definitions;
 
 import java.util.List;
+import java.util.Set;
 import nl.ramsolutions.sw.magik.analysis.typing.ExpressionResultString;
 
 /** Callable/invokable definition. */
@@ -26,4 +27,25 @@ public interface ICallableDefinition extends IDefinition {
    * @return Loop types.
    */
   ExpressionResultString getLoopTypes();
+
+  /**
+   * Get used globals.
+   *
+   * @return Used globals.
+   */
+  Set<GlobalUsage> getUsedGlobals();
+
+  /**
+   * Get used methods.
+   *
+   * @return Used methods.
+   */
+  Set<MethodUsage> getUsedMethods();
+
+  /**
+   * Get used conditions.
+   *
+   * @return Used conditions.
+   */
+  Set<ConditionUsage> getUsedConditions();
 }
@@ -1,6 +1,8 @@
 package nl.ramsolutions.sw.magik.analysis.definitions;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
 import nl.ramsolutions.sw.definitions.ModuleDefinition;
 import nl.ramsolutions.sw.definitions.ProductDefinition;
 import nl.ramsolutions.sw.magik.analysis.typing.TypeString;
@@ -81,5 +83,101 @@ public interface IDefinitionKeeper {
 
   Collection<ProcedureDefinition> getProcedureDefinitions();
 
+  /**
+   * Get the method/procedure definitions which use the given method.
+   *
+   * @param methodUsage Method usage, location is ignored.
+   * @return Definitions using the method.
+   */
+  Collection<ICallableDefinition> getMethodUsageDefinitions(MethodUsage methodUsage);
+
+  /**
+   * Get the method/procedure definitions which use the given global.
+   *
+   * @param globalUsage Global usage, location is ignored.
+   * @return Definitions using the global.
+   */
+  Collection<ICallableDefinition> getGlobalUsageDefinitions(GlobalUsage globalUsage);
+
+  /**
+   * Get the method definitions which use the given slot.
+   *
+   * @param slotUsage Slot usage, location is ignored.
+   * @return Definitions using the slot.
+   */
+  Collection<MethodDefinition> getSlotUsageDefinitions(SlotUsage slotUsage);
+
+  /**
+   * Get the method/procedure definitions which use the given condition.
+   *
+   * @param conditionUsage Condition usage, location is ignored.
+   * @return Definitions using the condition.
+   */
+  Collection<ICallableDefinition> getConditionUsageDefinitions(ConditionUsage conditionUsage);
+
+  /**
+   * Get the method definitions with the given method name, of any type.
+   *
+   * @param methodName Method name, e.g., {@code m(}.
+   * @return Method definitions with the method name.
+   */
+  Collection<MethodDefinition> getMethodDefinitionsByName(String methodName);
+
+  /**
+   * Get the method definitions of which the method name starts with the given prefix, of any type.
+   *
+   * @param prefix Method name prefix.
+   * @return Method definitions with a matching method name.
+   */
+  Collection<MethodDefinition> getMethodDefinitionsByNamePrefix(String prefix);
+
+  /**
+   * Get the exemplar definitions which directly inherit from the given type.
+   *
+   * <p>Exemplars without explicit parents are considered to inherit from {@code
+   * sw:slotted_format_mixin} or {@code sw:indexed_format_mixin}, depending on their sort.
+   *
+   * @param parentTypeName Parent type, generics are ignored.
+   * @return Exemplar definitions inheriting from the parent type.
+   */
+  Collection<ExemplarDefinition> getExemplarDefinitionsByParent(TypeString parentTypeName);
+
+  /**
+   * Search product, module, exemplar, method and condition definitions by name.
+   *
+   * <p>Matching is case-insensitive, on substrings and on abbreviations of underscore-separated
+   * words. Exemplars are matched by their full type string, methods by their method name.
+   *
+   * @param query Query to search for.
+   * @param predicate Predicate definitions have to match.
+   * @param limit Maximum number of results.
+   * @return Matching definitions, best match first.
+   */
+  List<IDefinition> searchDefinitions(String query, Predicate<IDefinition> predicate, int limit);
+
+  /**
+   * Get the generation of the type definitions, i.e., package, exemplar, global and procedure
+   * definitions. The generation changes whenever any of these definitions is added or removed.
+   *
+   * @return Type definitions generation.
+   */
+  long getTypeGeneration();
+
+  /**
+   * Get the generation of the method definitions. The generation changes whenever a method
+   * definition is added or removed.
+   *
+   * @return Method definitions generation.
+   */
+  long getMethodGeneration();
+
+  /**
+   * Get the generation of the module definitions. The generation changes whenever a module
+   * definition is added or removed.
+   *
+   * @return Module definitions generation.
+   */
+  long getModuleGeneration();
+
   void clear();
 }
@@ -279,10 +279,12 @@ public class MethodDefinition extends MagikDefinition implements ICallableDefini
     return Collections.unmodifiableSet(this.topics);
   }
 
+  @Override
   public Set<GlobalUsage> getUsedGlobals() {
     return Collections.unmodifiableSet(this.usedGlobals);
   }
 
+  @Override
   public Set<MethodUsage> getUsedMethods() {
     return Collections.unmodifiableSet(this.usedMethods);
   }
@@ -291,6 +293,7 @@ public class MethodDefinition extends MagikDefinition implements ICallableDefini
     return Collections.unmodifiableSet(this.usedSlots);
   }
 
+  @Override
   public Set<ConditionUsage> getUsedConditions() {
     return Collections.unmodifiableSet(this.usedConditions);
   }
@@ -0,0 +1,44 @@
+package nl.ramsolutions.sw.magik.analysis.definitions;
+
+import java.util.Collection;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * Sorted index of method names to {@link MethodDefinition}s, used by {@link DefinitionKeeper}.
+ *
+ * <p>The sorted method names are only used to find the names with a prefix, names are not removed
+ * until the index is cleared.
+ */
+final class MethodNameIndex {
+
+  private final NavigableSet<String> methodNames = new ConcurrentSkipListSet<>();
+  private final MultiIndex<String, MethodDefinition> index = new MultiIndex<>();
+
+  void add(final MethodDefinition definition) {
+    final String methodName = definition.getMethodName();
+    this.index.add(methodName, definition);
+    this.methodNames.add(methodName);
+  }
+
+  void remove(final MethodDefinition definition) {
+    this.index.remove(definition.getMethodName(), definition);
+  }
+
+  Collection<MethodDefinition> getByName(final String methodName) {
+    return this.index.get(methodName);
+  }
+
+  Collection<MethodDefinition> getByNamePrefix(final String prefix) {
+    return this.methodNames.tailSet(prefix, true).stream()
+        .takeWhile(methodName -> methodName.startsWith(prefix))
+        .flatMap(methodName -> this.index.get(methodName).stream())
+        .collect(Collectors.toSet());
+  }
+
+  void clear() {
+    this.index.clear();
+    this.methodNames.clear();
+  }
+}
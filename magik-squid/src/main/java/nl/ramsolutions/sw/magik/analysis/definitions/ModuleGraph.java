@@ -0,0 +1,273 @@
+package nl.ramsolutions.sw.magik.analysis.definitions;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import nl.ramsolutions.sw.definitions.ModuleDefinition;
+import nl.ramsolutions.sw.definitions.ModuleUsage;
+import nl.ramsolutions.sw.magik.Location;
+
+/**
+ * Graph of the modules in a {@link IDefinitionKeeper}, built from the {@link ModuleDefinition}s and
+ * their {@link ModuleUsage}s.
+ *
+ * <p>A graph is a snapshot of a generation of the module definitions. {@link
+ * #forDefinitionKeeper(IDefinitionKeeper)} rebuilds the graph whenever a module definition is added
+ * or removed, i.e., when the {@code ProductIndexer} handles a changed {@code module.def} file.
+ * Transitive requires are computed once per module and kept as a {@link BitSet} over the modules.
+ */
+public final class ModuleGraph {
+
+  /** Set of module names, backed by a {@link BitSet} over the modules of the graph. */
+  private final class ModuleSet extends AbstractSet<String> {
+
+    private final BitSet modules;
+
+    private ModuleSet(final BitSet modules) {
+      this.modules = modules;
+    }
+
+    @Override
+    public boolean contains(final Object obj) {
+      final Integer index = ModuleGraph.this.moduleIndices.get(obj);
+      return index != null && this.modules.get(index);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return this.modules.stream().mapToObj(ModuleGraph.this.moduleNames::get).iterator();
+    }
+
+    @Override
+    public int size() {
+      return this.modules.cardinality();
+    }
+  }
+
+  private static final String FILE_SCHEME = "file";
+  private static final Map<IDefinitionKeeper, AtomicReference<ModuleGraph>> GRAPHS =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final long moduleGeneration;
+  private final List<String> moduleNames;
+  private final Map<String, Integer> moduleIndices;
+  private final List<BitSet> directRequires;
+  private final AtomicReferenceArray<Set<String>> requiredModules;
+  private final Map<Path, ModuleDefinition> moduleDefinitionsByDirectory;
+
+  private ModuleGraph(final IDefinitionKeeper definitionKeeper, final long moduleGeneration) {
+    this.moduleGeneration = moduleGeneration;
+
+    final Collection<ModuleDefinition> moduleDefinitions = definitionKeeper.getModuleDefinitions();
+    this.moduleNames =
+        moduleDefinitions.stream().map(ModuleDefinition::getName).distinct().sorted().toList();
+    this.moduleIndices = new HashMap<>();
+    for (int i = 0; i < this.moduleNames.size(); ++i) {
+      this.moduleIndices.put(this.moduleNames.get(i), i);
+    }
+
+    this.directRequires = new ArrayList<>();
+    this.moduleNames.forEach(name -> this.directRequires.add(new BitSet()));
+    this.moduleDefinitionsByDirectory = new HashMap<>();
+    for (final ModuleDefinition moduleDefinition : moduleDefinitions) {
+      final int index = this.moduleIndices.get(moduleDefinition.getName());
+      this.directRequires.get(index).or(this.toBitSet(moduleDefinition.getUsages()));
+
+      final Path directory = ModuleGraph.getDirectory(moduleDefinition);
+      if (directory != null) {
+        this.moduleDefinitionsByDirectory.putIfAbsent(directory, moduleDefinition);
+      }
+    }
+
+    this.requiredModules = new AtomicReferenceArray<>(this.moduleNames.size());
+  }
+
+  /**
+   * Get the (current) module graph for the given {@link IDefinitionKeeper}.
+   *
+   * @param definitionKeeper {@link IDefinitionKeeper} to get the graph for.
+   * @return Module graph.
+   */
+  public static ModuleGraph forDefinitionKeeper(final IDefinitionKeeper definitionKeeper) {
+    final AtomicReference<ModuleGraph> graphRef =
+        GRAPHS.computeIfAbsent(definitionKeeper, keeper -> new AtomicReference<>());
+    // Read the generation before building, so a graph built during a change ends up outdated.
+    final long moduleGeneration = definitionKeeper.getModuleGeneration();
+    return graphRef.updateAndGet(
+        graph ->
+            graph != null && graph.moduleGeneration == moduleGeneration
+                ? graph
+                : new ModuleGraph(definitionKeeper, moduleGeneration));
+  }
+
+  @CheckForNull
+  private static Path getDirectory(final ModuleDefinition moduleDefinition) {
+    final Location location = moduleDefinition.getLocation();
+    if (location == null) {
+      return null;
+    }
+
+    final URI uri = location.getUri();
+    if (!FILE_SCHEME.equals(uri.getScheme())) {
+      return null;
+    }
+
+    final Path path = Path.of(uri).toAbsolutePath().normalize();
+    return path.getParent();
+  }
+
+  private BitSet toBitSet(final Collection<ModuleUsage> moduleUsages) {
+    final BitSet bitSet = new BitSet();
+    moduleUsages.stream()
+        .map(ModuleUsage::getName)
+        .map(this.moduleIndices::get)
+        .filter(Objects::nonNull)
+        .forEach(bitSet::set);
+    return bitSet;
+  }
+
+  private BitSet computeClosure(final BitSet start) {
+    final BitSet closure = new BitSet();
+    final BitSet pending = (BitSet) start.clone();
+    while (!pending.isEmpty()) {
+      final int index = pending.nextSetBit(0);
+      pending.clear(index);
+      closure.set(index);
+
+      final BitSet next = (BitSet) this.directRequires.get(index).clone();
+      next.andNot(closure);
+      pending.or(next);
+    }
+    return closure;
+  }
+
+  /**
+   * Get the {@link ModuleDefinition} the given path belongs to, i.e., the module of the nearest
+   * {@code module.def} file in the path or one of its parents.
+   *
+   * @param path Path to file.
+   * @return Module definition, or null if not found.
+   */
+  @CheckForNull
+  public ModuleDefinition getModuleDefinition(final Path path) {
+    Path directory = path.toAbsolutePath().normalize();
+    while (directory != null) {
+      final ModuleDefinition moduleDefinition = this.moduleDefinitionsByDirectory.get(directory);
+      if (moduleDefinition != null) {
+        return moduleDefinition;
+      }
+
+      directory = directory.getParent();
+    }
+
+    return null;
+  }
+
+  /**
+   * Get the names of all modules (transitively) required by the given module, including itself.
+   *
+   * @param moduleName Name of module.
+   * @return Names of required modules, empty if the module is unknown.
+   */
+  public Set<String> getRequiredModules(final String moduleName) {
+    final Integer index = this.moduleIndices.get(moduleName);
+    if (index == null) {
+      return Collections.emptySet();
+    }
+
+    final Set<String> cached = this.requiredModules.get(index);
+    if (cached != null) {
+      return cached;
+    }
+
+    final BitSet start = new BitSet();
+    start.set(index);
+    final Set<String> required = new ModuleSet(this.computeClosure(start));
+    this.requiredModules.compareAndSet(index, null, required);
+    return this.requiredModules.get(index);
+  }
+
+  /**
+   * Get the names of all modules (transitively) required by the given module, including itself. The
+   * module does not need to be part of this graph.
+   *
+   * @param moduleDefinition Module definition.
+   * @return Names of required modules.
+   */
+  public Set<String> getRequiredModules(final ModuleDefinition moduleDefinition) {
+    final String moduleName = moduleDefinition.getName();
+    if (this.moduleIndices.containsKey(moduleName)) {
+      return this.getRequiredModules(moduleName);
+    }
+
+    final BitSet closure = this.computeClosure(this.toBitSet(moduleDefinition.getUsages()));
+    final Set<String> required = new HashSet<>(new ModuleSet(closure));
+    required.add(moduleName);
+    return Collections.unmodifiableSet(required);
+  }
+
+  /**
+   * Test if {@code moduleName} (transitively) requires {@code requiredModuleName}.
+   *
+   * @param moduleName Name of module.
+   * @param requiredModuleName Name of possibly required module.
+   * @return True if required, false otherwise.
+   */
+  public boolean isRequired(final String moduleName, final String requiredModuleName) {
+    return this.getRequiredModules(moduleName).contains(requiredModuleName);
+  }
+
+  /**
+   * Get the load order of the given module: all (transitively) required modules, each module
+   * following the modules it requires. The module itself comes last.
+   *
+   * @param moduleName Name of module.
+   * @return Names of modules in load order, empty if the module is unknown.
+   */
+  public List<String> getLoadOrder(final String moduleName) {
+    final Integer index = this.moduleIndices.get(moduleName);
+    if (index == null) {
+      return Collections.emptyList();
+    }
+
+    final List<String> loadOrder = new ArrayList<>();
+    this.visitLoadOrder(index, new BitSet(), loadOrder);
+    return Collections.unmodifiableList(loadOrder);
+  }
+
+  private void visitLoadOrder(final int index, final BitSet visited, final List<String> loadOrder) {
+    if (visited.get(index)) {
+      return;
+    }
+
+    visited.set(index);
+    this.directRequires.get(index).stream()
+        .forEach(requiredIndex -> this.visitLoadOrder(requiredIndex, visited, loadOrder));
+    loadOrder.add(this.moduleNames.get(index));
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s@%s(%s, %s)",
+        this.getClass().getName(),
+        Integer.toHexString(this.hashCode()),
+        this.moduleGeneration,
+        this.moduleNames.size());
+  }
+}
@@ -0,0 +1,69 @@
+package nl.ramsolutions.sw.magik.analysis.definitions;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of keys to sets of values, used by {@link DefinitionKeeper} for its secondary indices.
+ *
+ * <p>Values are added and removed inside the atomic remapping functions of a {@link
+ * ConcurrentHashMap}, so a concurrent add and remove under the same key can not leave a value in a
+ * set which is no longer in the index.
+ *
+ * @param <K> Type of key.
+ * @param <V> Type of value.
+ */
+final class MultiIndex<K, V> {
+
+  private final Map<K, Set<V>> index = new ConcurrentHashMap<>();
+
+  /**
+   * Add a value under a key.
+   *
+   * @param key Key.
+   * @param value Value.
+   */
+  void add(final K key, final V value) {
+    this.index.compute(
+        key,
+        (k, values) -> {
+          final Set<V> newValues = values != null ? values : ConcurrentHashMap.newKeySet();
+          newValues.add(value);
+          return newValues;
+        });
+  }
+
+  /**
+   * Remove a value under a key, removing the key when no values remain.
+   *
+   * @param key Key.
+   * @param value Value.
+   */
+  void remove(final K key, final V value) {
+    this.index.computeIfPresent(
+        key,
+        (k, values) -> {
+          values.remove(value);
+          return values.isEmpty() ? null : values;
+        });
+  }
+
+  /**
+   * Get the values under a key.
+   *
+   * @param key Key.
+   * @return Unmodifiable values.
+   */
+  Collection<V> get(final K key) {
+    final Collection<V> values = this.index.getOrDefault(key, Collections.emptySet());
+    return Collections.unmodifiableCollection(values);
+  }
+
+  /** Clear the index. */
+  void clear() {
+    this.index.clear();
+  }
+}
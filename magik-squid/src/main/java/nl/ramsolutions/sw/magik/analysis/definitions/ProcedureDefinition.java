@@ -206,14 +206,17 @@ public class ProcedureDefinition extends MagikDefinition
     return Collections.emptySet();
   }
 
+  @Override
   public Set<GlobalUsage> getUsedGlobals() {
     return Collections.unmodifiableSet(this.usedGlobals);
   }
 
+  @Override
   public Set<MethodUsage> getUsedMethods() {
     return Collections.unmodifiableSet(this.usedMethods);
   }
 
+  @Override
   public Set<ConditionUsage> getUsedConditions() {
     return Collections.unmodifiableSet(this.usedConditions);
   }
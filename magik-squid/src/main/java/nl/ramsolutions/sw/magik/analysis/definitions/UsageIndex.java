@@ -0,0 +1,134 @@
+package nl.ramsolutions.sw.magik.analysis.definitions;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Reverse index of usages (without location) to the definitions containing the usage, used by
+ * {@link DefinitionKeeper}.
+ */
+final class UsageIndex {
+
+  private final MultiIndex<MethodUsage, ICallableDefinition> methodUsageDefinitions =
+      new MultiIndex<>();
+  private final MultiIndex<GlobalUsage, ICallableDefinition> globalUsageDefinitions =
+      new MultiIndex<>();
+  private final MultiIndex<SlotUsage, MethodDefinition> slotUsageDefinitions = new MultiIndex<>();
+  private final MultiIndex<ConditionUsage, ICallableDefinition> conditionUsageDefinitions =
+      new MultiIndex<>();
+
+  /**
+   * Add the usages of a method definition.
+   *
+   * @param definition Method definition.
+   */
+  void add(final MethodDefinition definition) {
+    this.addCallable(
+        definition,
+        definition.getUsedMethods(),
+        definition.getUsedGlobals(),
+        definition.getUsedConditions());
+    definition.getUsedSlots().stream()
+        .map(usage -> new SlotUsage(usage.getSlotName()))
+        .forEach(usage -> this.slotUsageDefinitions.add(usage, definition));
+  }
+
+  /**
+   * Add the usages of a procedure definition.
+   *
+   * @param definition Procedure definition.
+   */
+  void add(final ProcedureDefinition definition) {
+    this.addCallable(
+        definition,
+        definition.getUsedMethods(),
+        definition.getUsedGlobals(),
+        definition.getUsedConditions());
+  }
+
+  /**
+   * Remove the usages of a method definition.
+   *
+   * @param definition Method definition.
+   */
+  void remove(final MethodDefinition definition) {
+    this.removeCallable(
+        definition,
+        definition.getUsedMethods(),
+        definition.getUsedGlobals(),
+        definition.getUsedConditions());
+    definition.getUsedSlots().stream()
+        .map(usage -> new SlotUsage(usage.getSlotName()))
+        .forEach(usage -> this.slotUsageDefinitions.remove(usage, definition));
+  }
+
+  /**
+   * Remove the usages of a procedure definition.
+   *
+   * @param definition Procedure definition.
+   */
+  void remove(final ProcedureDefinition definition) {
+    this.removeCallable(
+        definition,
+        definition.getUsedMethods(),
+        definition.getUsedGlobals(),
+        definition.getUsedConditions());
+  }
+
+  private void addCallable(
+      final ICallableDefinition definition,
+      final Set<MethodUsage> usedMethods,
+      final Set<GlobalUsage> usedGlobals,
+      final Set<ConditionUsage> usedConditions) {
+    usedMethods.stream()
+        .map(usage -> new MethodUsage(usage.getTypeName(), usage.getMethodName()))
+        .forEach(usage -> this.methodUsageDefinitions.add(usage, definition));
+    usedGlobals.stream()
+        .map(usage -> new GlobalUsage(usage.getTypeName(), null))
+        .forEach(usage -> this.globalUsageDefinitions.add(usage, definition));
+    usedConditions.stream()
+        .map(usage -> new ConditionUsage(usage.getConditionName()))
+        .forEach(usage -> this.conditionUsageDefinitions.add(usage, definition));
+  }
+
+  private void removeCallable(
+      final ICallableDefinition definition,
+      final Set<MethodUsage> usedMethods,
+      final Set<GlobalUsage> usedGlobals,
+      final Set<ConditionUsage> usedConditions) {
+    usedMethods.stream()
+        .map(usage -> new MethodUsage(usage.getTypeName(), usage.getMethodName()))
+        .forEach(usage -> this.methodUsageDefinitions.remove(usage, definition));
+    usedGlobals.stream()
+        .map(usage -> new GlobalUsage(usage.getTypeName(), null))
+        .forEach(usage -> this.globalUsageDefinitions.remove(usage, definition));
+    usedConditions.stream()
+        .map(usage -> new ConditionUsage(usage.getConditionName()))
+        .forEach(usage -> this.conditionUsageDefinitions.remove(usage, definition));
+  }
+
+  Collection<ICallableDefinition> getMethodUsageDefinitions(final MethodUsage methodUsage) {
+    return this.methodUsageDefinitions.get(methodUsage);
+  }
+
+  Collection<ICallableDefinition> getGlobalUsageDefinitions(final GlobalUsage globalUsage) {
+    return this.globalUsageDefinitions.get(globalUsage);
+  }
+
+  Collection<MethodDefinition> getSlotUsageDefinitions(final SlotUsage slotUsage) {
+    return this.slotUsageDefinitions.get(slotUsage);
+  }
+
+  Collection<ICallableDefinition> getConditionUsageDefinitions(
+      final ConditionUsage conditionUsage) {
+    return this.conditionUsageDefinitions.get(conditionUsage);
+  }
+
+  /** Clear the index. */
+  void clear() {
+    this.methodUsageDefinitions.clear();
+    this.globalUsageDefinitions.clear();
+    this.slotUsageDefinitions.clear();
+    this.conditionUsageDefinitions.clear();
+  }
+}
@@ -0,0 +1,478 @@
+package nl.ramsolutions.sw.magik.analysis.definitions.io;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import nl.ramsolutions.sw.definitions.ModuleDefinition;
+import nl.ramsolutions.sw.definitions.ModuleUsage;
+import nl.ramsolutions.sw.definitions.ProductDefinition;
+import nl.ramsolutions.sw.definitions.ProductUsage;
+import nl.ramsolutions.sw.magik.Location;
+import nl.ramsolutions.sw.magik.Position;
+import nl.ramsolutions.sw.magik.Range;
+import nl.ramsolutions.sw.magik.analysis.definitions.BinaryOperatorDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.ConditionDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.ConditionUsage;
+import nl.ramsolutions.sw.magik.analysis.definitions.ExemplarDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.GlobalDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.GlobalUsage;
+import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.MethodDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.MethodUsage;
+import nl.ramsolutions.sw.magik.analysis.definitions.PackageDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.ParameterDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.ProcedureDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.SlotDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.SlotUsage;
+import nl.ramsolutions.sw.magik.analysis.typing.ExpressionResultString;
+import nl.ramsolutions.sw.magik.analysis.typing.TypeString;
+import nl.ramsolutions.sw.magik.parser.TypeStringParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Binary TypeKeeper reader.
+ *
+ * <p>The file is memory-mapped and consists of, all numbers being big-endian:
+ *
+ * <ul>
+ *   <li>header: magic, version, string count, type count, record count (all {@code int})
+ *   <li>string table: {@code string count + 1} offsets, followed by the UTF-8 encoded strings
+ *   <li>type table: the string id of the full string of each {@link TypeString}
+ *   <li>record index: kind ({@link Instruction} ordinal) and offset of each record
+ *   <li>record data: the definitions, referring to strings and types by id ({@code -1} for null)
+ * </ul>
+ *
+ * <p>Strings and types are decoded on first use, and shared by all definitions referring to them.
+ */
+public final class BinaryDefinitionReader {
+
+  /** Magic number, {@code MTDB}. */
+  static final int MAGIC = 0x4D544442;
+
+  /** Format version. */
+  static final int VERSION = 1;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BinaryDefinitionReader.class);
+  private static final int HEADER_SIZE = 5 * Integer.BYTES;
+  private static final int RECORD_INDEX_ENTRY_SIZE = 2 * Integer.BYTES;
+  private static final int NULL_ID = -1;
+
+  private final IDefinitionKeeper definitionKeeper;
+  private final ByteBuffer buffer;
+  private final int stringDataStart;
+  private final int typesStart;
+  private final int recordIndexStart;
+  private final int recordDataStart;
+  private final String[] strings;
+  private final TypeString[] types;
+  private final int recordCount;
+  private final ByteBuffer record;
+
+  private BinaryDefinitionReader(final IDefinitionKeeper definitionKeeper, final ByteBuffer buffer)
+      throws IOException {
+    this.definitionKeeper = definitionKeeper;
+    this.buffer = buffer;
+    this.record = buffer.duplicate();
+
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a binary type database");
+    } else if (buffer.getInt(Integer.BYTES) != VERSION) {
+      throw new IOException("Unsupported binary type database version");
+    }
+
+    final int stringCount = buffer.getInt(2 * Integer.BYTES);
+    final int typeCount = buffer.getInt(3 * Integer.BYTES);
+    this.recordCount = buffer.getInt(4 * Integer.BYTES);
+    this.strings = new String[stringCount];
+    this.types = new TypeString[typeCount];
+    this.stringDataStart = HEADER_SIZE + (stringCount + 1) * Integer.BYTES;
+    this.typesStart =
+        this.stringDataStart + buffer.getInt(HEADER_SIZE + stringCount * Integer.BYTES);
+    this.recordIndexStart = this.typesStart + typeCount * Integer.BYTES;
+    this.recordDataStart = this.recordIndexStart + this.recordCount * RECORD_INDEX_ENTRY_SIZE;
+  }
+
+  private void run() {
+    final Instruction[] instructions = Instruction.values();
+    for (int i = 0; i < this.recordCount; ++i) {
+      final int indexEntry = this.recordIndexStart + i * RECORD_INDEX_ENTRY_SIZE;
+      final Instruction kind = instructions[this.buffer.getInt(indexEntry)];
+      final int offset = this.buffer.getInt(indexEntry + Integer.BYTES);
+      this.record.position(this.recordDataStart + offset);
+      this.processRecordSafe(i, kind);
+    }
+  }
+
+  @SuppressWarnings("checkstyle:IllegalCatch")
+  private void processRecordSafe(final int recordNo, final Instruction kind) {
+    try {
+      this.processRecord(kind);
+    } catch (final RuntimeException exception) {
+      LOGGER.error("Error reading record {}, kind: {}", recordNo, kind);
+      LOGGER.error(exception.getMessage(), exception);
+    }
+  }
+
+  private void processRecord(final Instruction kind) {
+    switch (kind) {
+      case PRODUCT -> this.definitionKeeper.add(this.readProduct());
+      case MODULE -> this.definitionKeeper.add(this.readModule());
+      case PACKAGE -> this.definitionKeeper.add(this.readPackage());
+      case TYPE -> this.handleType(this.readExemplar());
+      case GLOBAL -> this.definitionKeeper.add(this.readGlobal());
+      case METHOD -> this.definitionKeeper.add(this.readMethod());
+      case PROCEDURE -> this.definitionKeeper.add(this.readProcedure());
+      case CONDITION -> this.definitionKeeper.add(this.readCondition());
+      case BINARY_OPERATOR -> this.definitionKeeper.add(this.readBinaryOperator());
+      default -> throw new IllegalStateException("Unknown record kind: " + kind);
+    }
+  }
+
+  private void handleType(final ExemplarDefinition definition) {
+    // We are allowed to overwrite definitions which have no location, as these will most likely
+    // be the default definitions from DefaultDefinitionsAdder.
+    final TypeString typeString = definition.getTypeString();
+    this.definitionKeeper.getExemplarDefinitions(typeString).stream()
+        .filter(def -> def.getLocation() == null)
+        .forEach(this.definitionKeeper::remove);
+
+    this.definitionKeeper.add(definition);
+  }
+
+  private ProductDefinition readProduct() {
+    final Location location = this.readLocation();
+    final Instant timestamp = this.readTimestamp();
+    final String name = this.readRequiredString();
+    final String parent = this.readString();
+    final String version = this.readString();
+    final String versionComment = this.readString();
+    final String title = this.readString();
+    final String description = this.readString();
+    final List<ProductUsage> usages =
+        this.readList(() -> new ProductUsage(this.readRequiredString(), this.readLocation()));
+    return new ProductDefinition(
+        location, timestamp, name, parent, version, versionComment, title, description, usages);
+  }
+
+  private ModuleDefinition readModule() {
+    final Location location = this.readLocation();
+    final Instant timestamp = this.readTimestamp();
+    final String name = this.readRequiredString();
+    final String product = this.readString();
+    final String baseVersion = this.readRequiredString();
+    final String currentVersion = this.readString();
+    final String description = this.readString();
+    final List<ModuleUsage> usages =
+        this.readList(() -> new ModuleUsage(this.readRequiredString(), this.readLocation()));
+    return new ModuleDefinition(
+        location, timestamp, name, product, baseVersion, currentVersion, description, usages);
+  }
+
+  private PackageDefinition readPackage() {
+    final Location location = this.readLocation();
+    final Instant timestamp = this.readTimestamp();
+    final String moduleName = this.readString();
+    final String doc = this.readString();
+    final String name = this.readRequiredString();
+    final List<String> uses = this.readList(this::readRequiredString);
+    return new PackageDefinition(location, timestamp, moduleName, doc, null, name, uses);
+  }
+
+  private ExemplarDefinition readExemplar() {
+    final Location location = this.readLocation();
+    final Instant timestamp = this.readTimestamp();
+    final String moduleName = this.readString();
+    final String doc = this.readString();
+    final ExemplarDefinition.Sort sort = ExemplarDefinition.Sort.values()[this.record.get()];
+    final TypeString typeName = this.readType();
+    final List<SlotDefinition> slots = this.readList(this::readSlot);
+    final List<TypeString> parents = this.readList(this::readType);
+    final Set<String> topics = this.readSet(this::readRequiredString);
+    return new ExemplarDefinition(
+        location, timestamp, moduleName, doc, null, sort, typeName, slots, parents, topics);
+  }
+
+  private SlotDefinition readSlot() {
+    final Location location = this.readLocation();
+    final Instant timestamp = this.readTimestamp();
+    final String moduleName = this.readString();
+    final String doc = this.readString();
+    final String name = this.readRequiredString();
+    final TypeString typeName = this.readType();
+    return new SlotDefinition(location, timestamp, moduleName, doc, null, name, typeName);
+  }
+
+  private GlobalDefinition readGlobal() {
+    final Location location = this.readLocation();
+    final Instant timestamp = this.readTimestamp();
+    final String moduleName = this.readString();
+    final String doc = this.readString();
+    final TypeString typeName = this.readType();
+    final TypeString aliasedTypeName = this.readType();
+    return new GlobalDefinition(
+        location, timestamp, moduleName, doc, null, typeName, aliasedTypeName);
+  }
+
+  private MethodDefinition readMethod() {
+    final Location location = this.readLocation();
+    final Instant timestamp = this.readTimestamp();
+    final String moduleName = this.readString();
+    final String doc = this.readString();
+    final MethodDefinition.Modifier[] modifierValues = MethodDefinition.Modifier.values();
+    final Set<MethodDefinition.Modifier> modifiers =
+        this.readSet(() -> modifierValues[this.record.get()]);
+    final TypeString typeName = this.readType();
+    final String methodName = this.readRequiredString();
+    final List<ParameterDefinition> parameters = this.readList(this::readParameter);
+    final ParameterDefinition assignmentParameter =
+        this.record.get() != 0 ? this.readParameter() : null;
+    final Set<String> topics = this.readSet(this::readRequiredString);
+    final ExpressionResultString returnTypes = this.readExpressionResult();
+    final ExpressionResultString loopTypes = this.readExpressionResult();
+    final Set<GlobalUsage> usedGlobals = this.readSet(this::readGlobalUsage);
+    final Set<MethodUsage> usedMethods = this.readSet(this::readMethodUsage);
+    final Set<SlotUsage> usedSlots =
+        this.readSet(() -> new SlotUsage(this.readRequiredString(), this.readLocation()));
+    final Set<ConditionUsage> usedConditions = this.readSet(this::readConditionUsage);
+    return new MethodDefinition(
+        location,
+        timestamp,
+        moduleName,
+        doc,
+        null,
+        typeName,
+        methodName,
+        modifiers,
+        parameters,
+        assignmentParameter,
+        topics,
+        returnTypes,
+        loopTypes,
+        usedGlobals,
+        usedMethods,
+        usedSlots,
+        usedConditions);
+  }
+
+  private ProcedureDefinition readProcedure() {
+    final Location location = this.readLocation();
+    final Instant timestamp = this.readTimestamp();
+    final String moduleName = this.readString();
+    final String doc = this.readString();
+    final ProcedureDefinition.Modifier[] modifierValues = ProcedureDefinition.Modifier.values();
+    final Set<ProcedureDefinition.Modifier> modifiers =
+        this.readSet(() -> modifierValues[this.record.get()]);
+    final TypeString typeName = this.readType();
+    final String procedureName = this.readString();
+    final List<ParameterDefinition> parameters = this.readList(this::readParameter);
+    final ExpressionResultString returnTypes = this.readExpressionResult();
+    final ExpressionResultString loopTypes = this.readExpressionResult();
+    final Set<GlobalUsage> usedGlobals = this.readSet(this::readGlobalUsage);
+    final Set<MethodUsage> usedMethods = this.readSet(this::readMethodUsage);
+    final Set<ConditionUsage> usedConditions = this.readSet(this::readConditionUsage);
+    return new ProcedureDefinition(
+        location,
+        timestamp,
+        moduleName,
+        doc,
+        null,
+        modifiers,
+        typeName,
+        procedureName,
+        parameters,
+        returnTypes,
+        loopTypes,
+        usedGlobals,
+        usedMethods,
+        usedConditions);
+  }
+
+  private ConditionDefinition readCondition() {
+    final Location location = this.readLocation();
+    final Instant timestamp = this.readTimestamp();
+    final String moduleName = this.readString();
+    final String doc = this.readString();
+    final String name = this.readRequiredString();
+    final String parent = this.readString();
+    final List<String> dataNames = this.readList(this::readRequiredString);
+    return new ConditionDefinition(
+        location, timestamp, moduleName, doc, null, name, parent, dataNames);
+  }
+
+  private BinaryOperatorDefinition readBinaryOperator() {
+    final Location location = this.readLocation();
+    final Instant timestamp = this.readTimestamp();
+    final String moduleName = this.readString();
+    final String doc = this.readString();
+    final String operator = this.readRequiredString();
+    final TypeString lhsTypeName = this.readType();
+    final TypeString rhsTypeName = this.readType();
+    final TypeString resultTypeName = this.readType();
+    return new BinaryOperatorDefinition(
+        location,
+        timestamp,
+        moduleName,
+        doc,
+        null,
+        operator,
+        lhsTypeName,
+        rhsTypeName,
+        resultTypeName);
+  }
+
+  private ParameterDefinition readParameter() {
+    final Location location = this.readLocation();
+    final Instant timestamp = this.readTimestamp();
+    final String moduleName = this.readString();
+    final String doc = this.readString();
+    final String name = this.readRequiredString();
+    final ParameterDefinition.Modifier modifier =
+        ParameterDefinition.Modifier.values()[this.record.get()];
+    final TypeString typeName = this.readType();
+    return new ParameterDefinition(
+        location, timestamp, moduleName, doc, null, name, modifier, typeName);
+  }
+
+  private GlobalUsage readGlobalUsage() {
+    final TypeString typeName = this.readType();
+    return new GlobalUsage(typeName, this.readLocation());
+  }
+
+  private MethodUsage readMethodUsage() {
+    final TypeString typeName = this.readType();
+    final String methodName = this.readRequiredString();
+    return new MethodUsage(typeName, methodName, this.readLocation());
+  }
+
+  private ConditionUsage readConditionUsage() {
+    final String conditionName = this.readRequiredString();
+    return new ConditionUsage(conditionName, this.readLocation());
+  }
+
+  private ExpressionResultString readExpressionResult() {
+    final int count = this.record.getInt();
+    if (count == NULL_ID) {
+      return ExpressionResultString.UNDEFINED;
+    }
+
+    final List<TypeString> typeStrings = new ArrayList<>(count);
+    for (int i = 0; i < count; ++i) {
+      typeStrings.add(this.readType());
+    }
+
+    return new ExpressionResultString(typeStrings);
+  }
+
+  @CheckForNull
+  private Location readLocation() {
+    final String uriStr = this.readString();
+    if (uriStr == null) {
+      return null;
+    }
+
+    final URI uri = URI.create(uriStr);
+    if (this.record.get() == 0) {
+      return new Location(uri);
+    }
+
+    final Position startPosition = new Position(this.record.getInt(), this.record.getInt());
+    final Position endPosition = new Position(this.record.getInt(), this.record.getInt());
+    return new Location(uri, new Range(startPosition, endPosition));
+  }
+
+  @CheckForNull
+  private Instant readTimestamp() {
+    if (this.record.get() == 0) {
+      return null;
+    }
+
+    final long seconds = this.record.getLong();
+    final int nanos = this.record.getInt();
+    return Instant.ofEpochSecond(seconds, nanos);
+  }
+
+  private <T> List<T> readList(final Supplier<T> itemReader) {
+    final int count = this.record.getInt();
+    final List<T> items = new ArrayList<>(count);
+    for (int i = 0; i < count; ++i) {
+      items.add(itemReader.get());
+    }
+
+    return items;
+  }
+
+  private <T> Set<T> readSet(final Supplier<T> itemReader) {
+    return new HashSet<>(this.readList(itemReader));
+  }
+
+  private String readRequiredString() {
+    return Objects.requireNonNull(this.readString());
+  }
+
+  @CheckForNull
+  private String readString() {
+    final int id = this.record.getInt();
+    return id != NULL_ID ? this.getString(id) : null;
+  }
+
+  private String getString(final int id) {
+    String value = this.strings[id];
+    if (value == null) {
+      final int offsetEntry = HEADER_SIZE + id * Integer.BYTES;
+      final int start = this.buffer.getInt(offsetEntry);
+      final int end = this.buffer.getInt(offsetEntry + Integer.BYTES);
+      final byte[] bytes = new byte[end - start];
+      this.buffer.get(this.stringDataStart + start, bytes);
+      value = new String(bytes, StandardCharsets.UTF_8);
+      this.strings[id] = value;
+    }
+
+    return value;
+  }
+
+  private TypeString readType() {
+    final int id = this.record.getInt();
+    TypeString typeString = this.types[id];
+    if (typeString == null) {
+      final int stringId = this.buffer.getInt(this.typesStart + id * Integer.BYTES);
+      typeString = TypeStringParser.parseTypeString(this.getString(stringId));
+      this.types[id] = typeString;
+    }
+
+    return typeString;
+  }
+
+  /**
+   * Read types from a binary type database.
+   *
+   * @param path Path to binary type database.
+   * @param definitionKeeper {@link IDefinitionKeeper} to fill.
+   * @throws IOException -
+   */
+  public static void readTypes(final Path path, final IDefinitionKeeper definitionKeeper)
+      throws IOException {
+    LOGGER.debug("Reading binary type database from path: {}", path);
+
+    final MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    final BinaryDefinitionReader reader = new BinaryDefinitionReader(definitionKeeper, buffer);
+    reader.run();
+  }
+}
@@ -0,0 +1,435 @@
+package nl.ramsolutions.sw.magik.analysis.definitions.io;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import nl.ramsolutions.sw.definitions.ModuleDefinition;
+import nl.ramsolutions.sw.definitions.ModuleUsage;
+import nl.ramsolutions.sw.definitions.ProductDefinition;
+import nl.ramsolutions.sw.definitions.ProductUsage;
+import nl.ramsolutions.sw.magik.Location;
+import nl.ramsolutions.sw.magik.Range;
+import nl.ramsolutions.sw.magik.analysis.definitions.BinaryOperatorDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.ConditionDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.ConditionUsage;
+import nl.ramsolutions.sw.magik.analysis.definitions.ExemplarDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.GlobalDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.GlobalUsage;
+import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.MagikDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.MethodDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.MethodUsage;
+import nl.ramsolutions.sw.magik.analysis.definitions.PackageDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.ParameterDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.ProcedureDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.SlotDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.SlotUsage;
+import nl.ramsolutions.sw.magik.analysis.typing.ExpressionResultString;
+import nl.ramsolutions.sw.magik.analysis.typing.TypeString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Binary TypeKeeper writer. See {@link BinaryDefinitionReader} for the format. */
+public final class BinaryDefinitionWriter {
+
+  /** Writes a single definition to the record data. */
+  @FunctionalInterface
+  private interface RecordWriter<T> {
+
+    void write(T definition) throws IOException;
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BinaryDefinitionWriter.class);
+
+  private final IDefinitionKeeper definitionKeeper;
+  private final Map<String, Integer> stringIds = new HashMap<>();
+  private final List<String> strings = new ArrayList<>();
+  private final Map<TypeString, Integer> typeIds = new HashMap<>();
+  private final List<Integer> typeStringIds = new ArrayList<>();
+  private final List<Instruction> recordKinds = new ArrayList<>();
+  private final List<Integer> recordOffsets = new ArrayList<>();
+  private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+  private final DataOutputStream records = new DataOutputStream(this.recordBytes);
+
+  private BinaryDefinitionWriter(final IDefinitionKeeper definitionKeeper) {
+    this.definitionKeeper = definitionKeeper;
+  }
+
+  private void run(final Path path) throws IOException {
+    LOGGER.debug("Writing binary type database to path: {}", path);
+
+    this.writeRecords(
+        Instruction.PRODUCT,
+        this.definitionKeeper.getProductDefinitions(),
+        Comparator.comparing(ProductDefinition::getName),
+        this::writeProduct);
+    this.writeRecords(
+        Instruction.MODULE,
+        this.definitionKeeper.getModuleDefinitions(),
+        Comparator.comparing(ModuleDefinition::getName),
+        this::writeModule);
+    this.writeRecords(
+        Instruction.PACKAGE,
+        this.definitionKeeper.getPackageDefinitions(),
+        Comparator.comparing(PackageDefinition::getName),
+        this::writePackage);
+    this.writeRecords(
+        Instruction.TYPE,
+        this.definitionKeeper.getExemplarDefinitions(),
+        Comparator.comparing(ExemplarDefinition::getTypeString),
+        this::writeExemplar);
+    this.writeRecords(
+        Instruction.GLOBAL,
+        this.definitionKeeper.getGlobalDefinitions(),
+        Comparator.comparing(GlobalDefinition::getTypeString),
+        this::writeGlobal);
+    this.writeRecords(
+        Instruction.METHOD,
+        this.definitionKeeper.getMethodDefinitions(),
+        Comparator.comparing(MethodDefinition::getTypeName)
+            .thenComparing(MethodDefinition::getName),
+        this::writeMethod);
+    this.writeRecords(
+        Instruction.PROCEDURE,
+        this.definitionKeeper.getProcedureDefinitions(),
+        Comparator.comparing(ProcedureDefinition::getTypeString),
+        this::writeProcedure);
+    this.writeRecords(
+        Instruction.CONDITION,
+        this.definitionKeeper.getConditionDefinitions(),
+        Comparator.comparing(ConditionDefinition::getName),
+        this::writeCondition);
+    this.writeRecords(
+        Instruction.BINARY_OPERATOR,
+        this.definitionKeeper.getBinaryOperatorDefinitions(),
+        Comparator.comparing(BinaryOperatorDefinition::getLhsTypeName)
+            .thenComparing(BinaryOperatorDefinition::getRhsTypeName)
+            .thenComparing(BinaryOperatorDefinition::getResultTypeName),
+        this::writeBinaryOperator);
+    this.records.flush();
+
+    try (OutputStream outputStream = Files.newOutputStream(path);
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+      this.writeFile(output);
+    }
+  }
+
+  private void writeFile(final DataOutputStream output) throws IOException {
+    // Header.
+    output.writeInt(BinaryDefinitionReader.MAGIC);
+    output.writeInt(BinaryDefinitionReader.VERSION);
+    output.writeInt(this.strings.size());
+    output.writeInt(this.typeStringIds.size());
+    output.writeInt(this.recordKinds.size());
+
+    // String table: offsets, followed by the UTF-8 encoded strings.
+    final List<byte[]> encodedStrings =
+        this.strings.stream().map(str -> str.getBytes(StandardCharsets.UTF_8)).toList();
+    int stringOffset = 0;
+    output.writeInt(stringOffset);
+    for (final byte[] encodedString : encodedStrings) {
+      stringOffset += encodedString.length;
+      output.writeInt(stringOffset);
+    }
+
+    for (final byte[] encodedString : encodedStrings) {
+      output.write(encodedString);
+    }
+
+    // Type table: string id of each type.
+    for (final int typeStringId : this.typeStringIds) {
+      output.writeInt(typeStringId);
+    }
+
+    // Record index: kind and offset of each record, followed by the record data.
+    for (int i = 0; i < this.recordKinds.size(); ++i) {
+      output.writeInt(this.recordKinds.get(i).ordinal());
+      output.writeInt(this.recordOffsets.get(i));
+    }
+
+    this.recordBytes.writeTo(output);
+  }
+
+  private <T> void writeRecords(
+      final Instruction kind,
+      final Collection<T> definitions,
+      final Comparator<T> sorter,
+      final RecordWriter<T> recordWriter)
+      throws IOException {
+    final List<T> sortedDefinitions = definitions.stream().sorted(sorter).toList();
+    for (final T definition : sortedDefinitions) {
+      this.recordKinds.add(kind);
+      this.recordOffsets.add(this.records.size());
+      recordWriter.write(definition);
+    }
+  }
+
+  private void writeProduct(final ProductDefinition definition) throws IOException {
+    this.writeLocation(definition.getLocation());
+    this.writeTimestamp(definition.getTimestamp());
+    this.writeString(definition.getName());
+    this.writeString(definition.getParent());
+    this.writeString(definition.getVersion());
+    this.writeString(definition.getVersionComment());
+    this.writeString(definition.getTitle());
+    this.writeString(definition.getDescription());
+    this.records.writeInt(definition.getUsages().size());
+    for (final ProductUsage usage : definition.getUsages()) {
+      this.writeString(usage.getName());
+      this.writeLocation(usage.getLocation());
+    }
+  }
+
+  private void writeModule(final ModuleDefinition definition) throws IOException {
+    this.writeLocation(definition.getLocation());
+    this.writeTimestamp(definition.getTimestamp());
+    this.writeString(definition.getName());
+    this.writeString(definition.getProduct());
+    this.writeString(definition.getBaseVersion());
+    this.writeString(definition.getCurrentVersion());
+    this.writeString(definition.getDescription());
+    this.records.writeInt(definition.getUsages().size());
+    for (final ModuleUsage usage : definition.getUsages()) {
+      this.writeString(usage.getName());
+      this.writeLocation(usage.getLocation());
+    }
+  }
+
+  private void writePackage(final PackageDefinition definition) throws IOException {
+    this.writeCommon(definition);
+    this.writeString(definition.getName());
+    this.writeStrings(definition.getUses());
+  }
+
+  private void writeExemplar(final ExemplarDefinition definition) throws IOException {
+    this.writeCommon(definition);
+    this.records.writeByte(definition.getSort().ordinal());
+    this.writeType(definition.getTypeString());
+    this.records.writeInt(definition.getSlots().size());
+    for (final SlotDefinition slot : definition.getSlots()) {
+      this.writeCommon(slot);
+      this.writeString(slot.getName());
+      this.writeType(slot.getTypeName());
+    }
+
+    this.writeTypes(definition.getParents());
+    this.writeStrings(definition.getTopics());
+  }
+
+  private void writeGlobal(final GlobalDefinition definition) throws IOException {
+    this.writeCommon(definition);
+    this.writeType(definition.getTypeString());
+    this.writeType(definition.getAliasedTypeName());
+  }
+
+  private void writeMethod(final MethodDefinition definition) throws IOException {
+    this.writeCommon(definition);
+    this.writeEnums(definition.getModifiers());
+    this.writeType(definition.getTypeName());
+    this.writeString(definition.getMethodName());
+    this.writeParameters(definition.getParameters());
+    final ParameterDefinition assignmentParameter = definition.getAssignmentParameter();
+    this.records.writeBoolean(assignmentParameter != null);
+    if (assignmentParameter != null) {
+      this.writeParameter(assignmentParameter);
+    }
+
+    this.writeStrings(definition.getTopics());
+    this.writeExpressionResult(definition.getReturnTypes());
+    this.writeExpressionResult(definition.getLoopTypes());
+    this.writeGlobalUsages(definition.getUsedGlobals());
+    this.writeMethodUsages(definition.getUsedMethods());
+    this.records.writeInt(definition.getUsedSlots().size());
+    for (final SlotUsage usage : definition.getUsedSlots()) {
+      this.writeString(usage.getSlotName());
+      this.writeLocation(usage.getLocation());
+    }
+
+    this.writeConditionUsages(definition.getUsedConditions());
+  }
+
+  private void writeProcedure(final ProcedureDefinition definition) throws IOException {
+    this.writeCommon(definition);
+    this.writeEnums(definition.getModifiers());
+    this.writeType(definition.getTypeString());
+    this.writeString(definition.getProcedureName());
+    this.writeParameters(definition.getParameters());
+    this.writeExpressionResult(definition.getReturnTypes());
+    this.writeExpressionResult(definition.getLoopTypes());
+    this.writeGlobalUsages(definition.getUsedGlobals());
+    this.writeMethodUsages(definition.getUsedMethods());
+    this.writeConditionUsages(definition.getUsedConditions());
+  }
+
+  private void writeCondition(final ConditionDefinition definition) throws IOException {
+    this.writeCommon(definition);
+    this.writeString(definition.getName());
+    this.writeString(definition.getParent());
+    this.writeStrings(definition.getDataNames());
+  }
+
+  private void writeBinaryOperator(final BinaryOperatorDefinition definition) throws IOException {
+    this.writeCommon(definition);
+    this.writeString(definition.getOperator());
+    this.writeType(definition.getLhsTypeName());
+    this.writeType(definition.getRhsTypeName());
+    this.writeType(definition.getResultTypeName());
+  }
+
+  private void writeCommon(final MagikDefinition definition) throws IOException {
+    this.writeLocation(definition.getLocation());
+    this.writeTimestamp(definition.getTimestamp());
+    this.writeString(definition.getModuleName());
+    this.writeString(definition.getDoc());
+  }
+
+  private void writeParameters(final List<ParameterDefinition> parameters) throws IOException {
+    this.records.writeInt(parameters.size());
+    for (final ParameterDefinition parameter : parameters) {
+      this.writeParameter(parameter);
+    }
+  }
+
+  private void writeParameter(final ParameterDefinition parameter) throws IOException {
+    this.writeCommon(parameter);
+    this.writeString(parameter.getName());
+    this.records.writeByte(parameter.getModifier().ordinal());
+    this.writeType(parameter.getTypeName());
+  }
+
+  private void writeGlobalUsages(final Collection<GlobalUsage> usages) throws IOException {
+    this.records.writeInt(usages.size());
+    for (final GlobalUsage usage : usages) {
+      this.writeType(usage.getTypeName());
+      this.writeLocation(usage.getLocation());
+    }
+  }
+
+  private void writeMethodUsages(final Collection<MethodUsage> usages) throws IOException {
+    this.records.writeInt(usages.size());
+    for (final MethodUsage usage : usages) {
+      this.writeType(usage.getTypeName());
+      this.writeString(usage.getMethodName());
+      this.writeLocation(usage.getLocation());
+    }
+  }
+
+  private void writeConditionUsages(final Collection<ConditionUsage> usages) throws IOException {
+    this.records.writeInt(usages.size());
+    for (final ConditionUsage usage : usages) {
+      this.writeString(usage.getConditionName());
+      this.writeLocation(usage.getLocation());
+    }
+  }
+
+  private void writeExpressionResult(final ExpressionResultString result) throws IOException {
+    if (result == ExpressionResultString.UNDEFINED) {
+      this.records.writeInt(-1);
+      return;
+    }
+
+    this.writeTypes(result.getTypes());
+  }
+
+  private void writeLocation(final @Nullable Location location) throws IOException {
+    if (location == null) {
+      this.records.writeInt(-1);
+      return;
+    }
+
+    this.writeString(location.getUri().toString());
+    final Range range = location.getRange();
+    this.records.writeBoolean(range != null);
+    if (range != null) {
+      this.records.writeInt(range.getStartPosition().getLine());
+      this.records.writeInt(range.getStartPosition().getColumn());
+      this.records.writeInt(range.getEndPosition().getLine());
+      this.records.writeInt(range.getEndPosition().getColumn());
+    }
+  }
+
+  private void writeTimestamp(final @Nullable Instant timestamp) throws IOException {
+    this.records.writeBoolean(timestamp != null);
+    if (timestamp != null) {
+      this.records.writeLong(timestamp.getEpochSecond());
+      this.records.writeInt(timestamp.getNano());
+    }
+  }
+
+  private void writeEnums(final Collection<? extends Enum<?>> values) throws IOException {
+    this.records.writeInt(values.size());
+    for (final Enum<?> value : values) {
+      this.records.writeByte(value.ordinal());
+    }
+  }
+
+  private void writeStrings(final Collection<String> values) throws IOException {
+    this.records.writeInt(values.size());
+    for (final String value : values) {
+      this.writeString(value);
+    }
+  }
+
+  private void writeString(final @Nullable String value) throws IOException {
+    if (value == null) {
+      this.records.writeInt(-1);
+      return;
+    }
+
+    this.records.writeInt(this.getStringId(value));
+  }
+
+  private int getStringId(final String value) {
+    return this.stringIds.computeIfAbsent(
+        value,
+        key -> {
+          this.strings.add(key);
+          return this.strings.size() - 1;
+        });
+  }
+
+  private void writeTypes(final Collection<TypeString> typeStrings) throws IOException {
+    this.records.writeInt(typeStrings.size());
+    for (final TypeString typeString : typeStrings) {
+      this.writeType(typeString);
+    }
+  }
+
+  private void writeType(final TypeString typeString) throws IOException {
+    Integer id = this.typeIds.get(typeString);
+    if (id == null) {
+      final int stringId = this.getStringId(typeString.getFullString());
+      this.typeStringIds.add(stringId);
+      id = this.typeStringIds.size() - 1;
+      this.typeIds.put(typeString, id);
+    }
+
+    this.records.writeInt(id);
+  }
+
+  /**
+   * Write types to a binary type database.
+   *
+   * @param path Path to binary type database.
+   * @param definitionKeeper {@link IDefinitionKeeper} to dump.
+   * @throws IOException -
+   */
+  public static void write(final Path path, final IDefinitionKeeper definitionKeeper)
+      throws IOException {
+    final BinaryDefinitionWriter writer = new BinaryDefinitionWriter(definitionKeeper);
+    writer.run(path);
+  }
+}
@@ -0,0 +1,124 @@
+package nl.ramsolutions.sw.magik.analysis.definitions.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import nl.ramsolutions.sw.magik.analysis.definitions.DefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
+
+/**
+ * Type database helpers, selecting and converting between the JSON-line and binary formats.
+ *
+ * <p>A binary type database is stored next to its JSON-line counterpart, i.e., {@code types.jsonl}
+ * becomes {@code types.bin}.
+ */
+public final class TypeDatabase {
+
+  /** Extension of JSON-line type databases. */
+  public static final String JSON_EXTENSION = ".jsonl";
+
+  /** Extension of binary type databases. */
+  public static final String BINARY_EXTENSION = ".bin";
+
+  private TypeDatabase() {}
+
+  /**
+   * Get the path of the binary type database for a JSON-line type database.
+   *
+   * @param path Path to JSON-line type database.
+   * @return Path to binary type database.
+   */
+  public static Path getBinaryPath(final Path path) {
+    final String filename = path.getFileName().toString();
+    final String basename =
+        filename.endsWith(JSON_EXTENSION)
+            ? filename.substring(0, filename.length() - JSON_EXTENSION.length())
+            : filename;
+    return path.resolveSibling(basename + BINARY_EXTENSION);
+  }
+
+  /**
+   * Read types from a type database.
+   *
+   * <p>If {@code path} is a binary type database, it is read directly. Otherwise, the binary type
+   * database next to it is read if it exists and is at least as new as the JSON-line file.
+   * Otherwise, the JSON-line file is read.
+   *
+   * @param path Path to type database.
+   * @param definitionKeeper {@link IDefinitionKeeper} to fill.
+   * @throws IOException -
+   */
+  public static void readTypes(final Path path, final IDefinitionKeeper definitionKeeper)
+      throws IOException {
+    if (path.getFileName().toString().endsWith(BINARY_EXTENSION)) {
+      BinaryDefinitionReader.readTypes(path, definitionKeeper);
+      return;
+    }
+
+    final Path binaryPath = TypeDatabase.getBinaryPath(path);
+    if (Files.exists(binaryPath)
+        && (!Files.exists(path)
+            || Files.getLastModifiedTime(binaryPath).compareTo(Files.getLastModifiedTime(path))
+                >= 0)) {
+      BinaryDefinitionReader.readTypes(binaryPath, definitionKeeper);
+      return;
+    }
+
+    JsonDefinitionReader.readTypes(path, definitionKeeper);
+  }
+
+  /**
+   * Convert a JSON-line type database to a binary type database.
+   *
+   * @param jsonPath Path to JSON-line type database to read.
+   * @param binaryPath Path to binary type database to write.
+   * @throws IOException -
+   */
+  public static void convertJsonToBinary(final Path jsonPath, final Path binaryPath)
+      throws IOException {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper(false);
+    JsonDefinitionReader.readTypes(jsonPath, definitionKeeper);
+    BinaryDefinitionWriter.write(binaryPath, definitionKeeper);
+  }
+
+  /**
+   * Convert a binary type database to a JSON-line type database.
+   *
+   * @param binaryPath Path to binary type database to read.
+   * @param jsonPath Path to JSON-line type database to write.
+   * @throws IOException -
+   */
+  public static void convertBinaryToJson(final Path binaryPath, final Path jsonPath)
+      throws IOException {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper(false);
+    BinaryDefinitionReader.readTypes(binaryPath, definitionKeeper);
+    JsonDefinitionWriter.write(jsonPath, definitionKeeper);
+  }
+
+  /**
+   * Convert a type database. The direction is determined by the extension of the source.
+   *
+   * @param args Source path and optional target path.
+   * @throws IOException -
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 1 || args.length > 2) {
+      throw new IllegalArgumentException("Usage: TypeDatabase <source> [<target>]");
+    }
+
+    final Path source = Path.of(args[0]);
+    if (source.getFileName().toString().endsWith(BINARY_EXTENSION)) {
+      final String filename = source.getFileName().toString();
+      final Path target =
+          args.length == 2
+              ? Path.of(args[1])
+              : source.resolveSibling(
+                  filename.substring(0, filename.length() - BINARY_EXTENSION.length())
+                      + JSON_EXTENSION);
+      TypeDatabase.convertBinaryToJson(source, target);
+    } else {
+      final Path target = args.length == 2 ? Path.of(args[1]) : TypeDatabase.getBinaryPath(source);
+      TypeDatabase.convertJsonToBinary(source, target);
+    }
+  }
+}
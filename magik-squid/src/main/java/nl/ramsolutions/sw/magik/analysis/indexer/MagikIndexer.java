@@ -3,8 +3,15 @@ package nl.ramsolutions.sw.magik.analysis.indexer;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import nl.ramsolutions.sw.IgnoreHandler;
@@ -31,6 +38,22 @@ public class MagikIndexer {
   private static final Logger LOGGER = LoggerFactory.getLogger(MagikIndexer.class);
   private static final long MAX_SIZE = 1024L * 1024L * 10L; // 10 MB
 
+  /** Listener for progress of indexing multiple files. */
+  @FunctionalInterface
+  public interface ProgressListener {
+
+    /** Listener which does nothing. */
+    ProgressListener NONE = (indexedCount, totalCount) -> {};
+
+    /**
+     * Called after a file has been indexed.
+     *
+     * @param indexedCount Number of files indexed so far.
+     * @param totalCount Total number of files to index.
+     */
+    void onProgress(int indexedCount, int totalCount);
+  }
+
   private final IDefinitionKeeper definitionKeeper;
   private final MagikToolsProperties properties;
   private final IgnoreHandler ignoreHandler;
@@ -71,6 +94,80 @@ public class MagikIndexer {
     LOGGER.debug("Handled file event: {}", fileEvent);
   }
 
+  /**
+   * Handle multiple {@link FileEvent}s at once, such as on the initial index of a workspace.
+   *
+   * <p>Definitions of removed/changed files are removed first. Then, files are parsed and their
+   * definitions are read in parallel on a work-stealing pool. Only adding the definitions of a
+   * single file to the {@link IDefinitionKeeper} is serialized.
+   *
+   * @param fileEvents File events to handle.
+   * @param parallelism Number of files to index in parallel.
+   * @param progressListener Listener to report progress to.
+   * @throws IOException -
+   */
+  public void handleFileEvents(
+      final Collection<FileEvent> fileEvents,
+      final int parallelism,
+      final ProgressListener progressListener)
+      throws IOException {
+    LOGGER.debug("Handling {} file events, parallelism: {}", fileEvents.size(), parallelism);
+
+    final Set<Path> removedPaths = new HashSet<>();
+    final List<Path> indexableFiles = new ArrayList<>();
+    for (final FileEvent fileEvent : fileEvents) {
+      final Path path = fileEvent.getPath();
+      if (this.ignoreHandler.isIgnored(path)) {
+        continue;
+      }
+
+      final FileChangeType fileChangeType = fileEvent.getFileChangeType();
+      if (fileChangeType == FileChangeType.CHANGED || fileChangeType == FileChangeType.DELETED) {
+        removedPaths.add(path);
+      }
+
+      if (fileChangeType == FileChangeType.CREATED || fileChangeType == FileChangeType.CHANGED) {
+        this.ignoreHandler
+            .getIndexableFiles(path)
+            .filter(indexablePath -> indexablePath.toString().toLowerCase().endsWith(".magik"))
+            .forEach(indexableFiles::add);
+      }
+    }
+
+    if (!removedPaths.isEmpty()) {
+      synchronized (this) {
+        this.getIndexedDefinitions(removedPaths).forEach(this::removeDefinition);
+      }
+    }
+
+    final int totalCount = indexableFiles.size();
+    final AtomicInteger indexedCount = new AtomicInteger();
+    final ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+    try {
+      pool.submit(
+              () ->
+                  indexableFiles.parallelStream()
+                      .forEach(
+                          path -> {
+                            final List<MagikDefinition> definitions = this.parseFile(path);
+                            synchronized (this) {
+                              definitions.forEach(this::addDefinition);
+                            }
+                            progressListener.onProgress(indexedCount.incrementAndGet(), totalCount);
+                          }))
+          .get();
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IOException(exception);
+    } catch (final ExecutionException exception) {
+      throw new IOException(exception.getCause());
+    } finally {
+      pool.shutdown();
+    }
+
+    LOGGER.debug("Handled {} file events, indexed {} files", fileEvents.size(), totalCount);
+  }
+
   /**
    * Get all indexed definitions from path or lower.
    *
@@ -94,6 +191,39 @@ public class MagikIndexer {
         .collect(Collectors.toSet());
   }
 
+  /**
+   * Get all indexed definitions from any of the paths or lower.
+   *
+   * @param paths Paths to search from.
+   * @return Indexed definitions.
+   */
+  private Collection<IDefinition> getIndexedDefinitions(final Set<Path> paths) {
+    return Stream.of(
+            this.definitionKeeper.getPackageDefinitions(),
+            this.definitionKeeper.getExemplarDefinitions(),
+            this.definitionKeeper.getMethodDefinitions(),
+            this.definitionKeeper.getGlobalDefinitions(),
+            this.definitionKeeper.getBinaryOperatorDefinitions(),
+            this.definitionKeeper.getConditionDefinitions(),
+            this.definitionKeeper.getProcedureDefinitions())
+        .flatMap(collection -> collection.stream())
+        .filter(def -> def.getLocation() != null && this.isAtOrBelow(def, paths))
+        .collect(Collectors.toSet());
+  }
+
+  private boolean isAtOrBelow(final IDefinition definition, final Set<Path> paths) {
+    Path path = definition.getLocation().getPath();
+    while (path != null) {
+      if (paths.contains(path)) {
+        return true;
+      }
+
+      path = path.getParent();
+    }
+
+    return false;
+  }
+
   /**
    * Index a single magik file when it is created (or first read).
    *
@@ -110,6 +240,25 @@ public class MagikIndexer {
     }
   }
 
+  /**
+   * Parse a single magik file and read its definitions, without adding them.
+   *
+   * @param path Path to magik file.
+   * @return Read definitions.
+   */
+  @SuppressWarnings("checkstyle:IllegalCatch")
+  private List<MagikDefinition> parseFile(final Path path) {
+    LOGGER.debug("Scanning created file: {}", path);
+
+    try {
+      return this.readFileDefinitions(path);
+    } catch (final Exception exception) {
+      LOGGER.error("Error indexing created file: " + path, exception);
+    }
+
+    return Collections.emptyList();
+  }
+
   private void addDefinition(final MagikDefinition rawDefinition) {
     // Strip off AstNode, we don't want to store this.
     final MagikDefinition definition = rawDefinition.getWithoutNode();
@@ -155,18 +304,30 @@ public class MagikIndexer {
    * @param path Path to magik file.
    */
   private void readDefinitions(final Path path) {
+    this.readFileDefinitions(path).forEach(this::addDefinition);
+  }
+
+  /**
+   * Read definitions from path, without adding them.
+   *
+   * @param path Path to magik file.
+   * @return Read definitions.
+   */
+  private List<MagikDefinition> readFileDefinitions(final Path path) {
     try {
       final long size = Files.size(path);
       if (size > MagikIndexer.MAX_SIZE) {
         LOGGER.warn(
             "Ignoring file: {}, due to size: {}, max size: {}", path, size, MagikIndexer.MAX_SIZE);
-        return;
+        return Collections.emptyList();
       }
 
       final MagikFile magikFile = new MagikFile(this.properties, path);
-      magikFile.getDefinitions().forEach(this::addDefinition);
+      return magikFile.getDefinitions();
     } catch (final IOException exception) {
       LOGGER.error(exception.getMessage(), exception);
     }
+
+    return Collections.emptyList();
   }
 }
@@ -6,6 +6,7 @@ import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.HashMap;
 import java.util.Map;
+import nl.ramsolutions.sw.magik.Position;
 import nl.ramsolutions.sw.magik.analysis.AstQuery;
 import nl.ramsolutions.sw.magik.api.MagikGrammar;
 
@@ -13,6 +14,7 @@ import nl.ramsolutions.sw.magik.api.MagikGrammar;
 public class GlobalScope extends Scope {
 
   private final Map<AstNode, Scope> scopeIndex;
+  private ScopeIntervals scopeIntervals;
 
   GlobalScope(final Map<AstNode, Scope> scopeIndex, final AstNode node) {
     super(node);
@@ -102,4 +104,34 @@ public class GlobalScope extends Scope {
     final Token token = lastChild.getToken();
     return token.getColumn() + token.getOriginalValue().length();
   }
+
+  /**
+   * Get the most specific {@link Scope} at {@code line}/{@code column}, using the (lazily built)
+   * {@link ScopeIntervals}.
+   *
+   * @param line Line to target.
+   * @param column Column to target.
+   * @return Scope, if any, at {@code line}/{@code column}.
+   */
+  @Nullable
+  @Override
+  public Scope getScopeForLineColumn(final int line, final int column) {
+    final long position = Position.pack(line, column);
+    if (position < Position.pack(this.getStartLine(), this.getStartColumn())
+        || position > Position.pack(this.getEndLine(), this.getEndColumn())) {
+      // outside of our scope
+      return null;
+    }
+
+    final Scope scope = this.getScopeIntervals().getScope(line, column);
+    return scope != null ? scope : this;
+  }
+
+  private synchronized ScopeIntervals getScopeIntervals() {
+    if (this.scopeIntervals == null) {
+      this.scopeIntervals = new ScopeIntervals(this);
+    }
+
+    return this.scopeIntervals;
+  }
 }
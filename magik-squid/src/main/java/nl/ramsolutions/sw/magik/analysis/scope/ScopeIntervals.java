@@ -0,0 +1,86 @@
+package nl.ramsolutions.sw.magik.analysis.scope;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import nl.ramsolutions.sw.magik.Position;
+
+/**
+ * Flattened intervals of the {@link Scope}s below a {@link GlobalScope}, ordered by start position.
+ *
+ * <p>As scopes are nested, the most specific scope at a position is found by a binary search for
+ * the last scope starting at or before the position, followed by walking up to the first scope
+ * which also ends at or after the position.
+ */
+final class ScopeIntervals {
+
+  private final Scope[] scopes;
+  private final long[] starts;
+  private final long[] ends;
+  private final int[] parents;
+
+  /**
+   * Constructor.
+   *
+   * @param globalScope Global scope to index the descendant scopes of.
+   */
+  ScopeIntervals(final GlobalScope globalScope) {
+    final List<Scope> descendantScopes =
+        globalScope.getSelfAndDescendantScopes().stream()
+            .filter(scope -> scope != globalScope)
+            .sorted(
+                Comparator.comparingLong(
+                    scope -> Position.pack(scope.getStartLine(), scope.getStartColumn())))
+            .toList();
+    this.scopes = descendantScopes.toArray(Scope[]::new);
+    this.starts = new long[this.scopes.length];
+    this.ends = new long[this.scopes.length];
+    this.parents = new int[this.scopes.length];
+
+    final Map<Scope, Integer> indices = new IdentityHashMap<>();
+    for (int i = 0; i < this.scopes.length; ++i) {
+      final Scope scope = this.scopes[i];
+      indices.put(scope, i);
+      this.starts[i] = Position.pack(scope.getStartLine(), scope.getStartColumn());
+      this.ends[i] = Position.pack(scope.getEndLine(), scope.getEndColumn());
+    }
+    for (int i = 0; i < this.scopes.length; ++i) {
+      final Integer parentIndex = indices.get(this.scopes[i].getParentScope());
+      this.parents[i] = parentIndex != null ? parentIndex : -1;
+    }
+  }
+
+  /**
+   * Get the most specific {@link Scope} at {@code line}/{@code column}.
+   *
+   * @param line Line to target.
+   * @param column Column to target.
+   * @return Scope at {@code line}/{@code column}, or null if no descendant scope contains it.
+   */
+  @CheckForNull
+  Scope getScope(final int line, final int column) {
+    final long key = Position.pack(line, column);
+
+    // Find the last scope starting at or before key.
+    int low = 0;
+    int high = this.starts.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (this.starts[mid] <= key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    // Walk up until a scope also contains key.
+    int index = low - 1;
+    while (index != -1 && this.ends[index] < key) {
+      index = this.parents[index];
+    }
+
+    return index != -1 ? this.scopes[index] : null;
+  }
+}
@@ -24,18 +24,23 @@ import nl.ramsolutions.sw.magik.analysis.definitions.PackageDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.ProcedureDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.SlotDefinition;
 
-/** {@link TypeString} resolver tools. */
+/**
+ * {@link TypeString} resolver tools.
+ *
+ * <p>Results are cached in a {@link TypeStringResolverCache}, shared by all resolvers of the same
+ * {@link IDefinitionKeeper}. Cached results are invalidated when the definitions in the {@link
+ * IDefinitionKeeper} change.
+ */
 public class TypeStringResolver {
 
   private static final String ALL_METHODS = "_all_methods";
 
   private final IDefinitionKeeper definitionKeeper;
-  private final Map<TypeString, Set<ITypeStringDefinition>> typeCache = new HashMap<>();
-  private final Map<Map.Entry<TypeString, String>, Collection<MethodDefinition>> methodsCache =
-      new HashMap<>();
+  private final TypeStringResolverCache cache;
 
   public TypeStringResolver(final IDefinitionKeeper definitionKeeper) {
     this.definitionKeeper = definitionKeeper;
+    this.cache = TypeStringResolverCache.forDefinitionKeeper(definitionKeeper);
   }
 
   private List<PackageDefinition> getPackageHierarchy(final TypeString typeString) {
@@ -119,23 +124,29 @@ public class TypeStringResolver {
    * @param typeString Reference to look for.
    * @return A {@link ExemplarDefinition}/{@link ProcedureDefinition}/{@link GlobalDefinition}.
    */
-  public synchronized Collection<ITypeStringDefinition> resolve(final TypeString typeString) {
-    return this.typeCache.computeIfAbsent(
-        typeString,
-        typeStr -> {
-          final Collection<ExemplarDefinition> exemplarDefinitions =
-              this.findExemplarDefinitions(typeStr);
-          final Collection<ProcedureDefinition> procedureDefinitions =
-              this.findProcedureDefinitions(typeStr);
-          final Collection<GlobalDefinition> globalDefinitions =
-              this.findGlobalDefinitions(typeStr);
-          return Stream.of(
-                  exemplarDefinitions.stream(),
-                  procedureDefinitions.stream(),
-                  globalDefinitions.stream())
-              .flatMap(stream -> stream)
-              .collect(Collectors.toSet());
-        });
+  public Collection<ITypeStringDefinition> resolve(final TypeString typeString) {
+    final Map<TypeString, Collection<ITypeStringDefinition>> resolved =
+        this.cache.getTypeEntries(this.definitionKeeper).resolved;
+    final Collection<ITypeStringDefinition> cached = resolved.get(typeString);
+    if (cached != null) {
+      return cached;
+    }
+
+    final Collection<ExemplarDefinition> exemplarDefinitions =
+        this.findExemplarDefinitions(typeString);
+    final Collection<ProcedureDefinition> procedureDefinitions =
+        this.findProcedureDefinitions(typeString);
+    final Collection<GlobalDefinition> globalDefinitions = this.findGlobalDefinitions(typeString);
+    final Collection<ITypeStringDefinition> definitions =
+        Stream.of(
+                exemplarDefinitions.stream(),
+                procedureDefinitions.stream(),
+                globalDefinitions.stream())
+            .flatMap(stream -> stream)
+            .collect(Collectors.toUnmodifiableSet());
+    final Collection<ITypeStringDefinition> existing =
+        resolved.putIfAbsent(typeString, definitions);
+    return existing != null ? existing : definitions;
   }
 
   /**
@@ -183,6 +194,20 @@ public class TypeStringResolver {
    * @return True if is kind of, false otherwise.
    */
   public boolean isKindOf(final TypeString typeString1, final TypeString typeString2) {
+    final Map<Map.Entry<TypeString, TypeString>, Boolean> kindOf =
+        this.cache.getTypeEntries(this.definitionKeeper).kindOf;
+    final Map.Entry<TypeString, TypeString> cacheKey = Map.entry(typeString1, typeString2);
+    final Boolean cached = kindOf.get(cacheKey);
+    if (cached != null) {
+      return cached;
+    }
+
+    final boolean isKindOf = this.isKindOfUncached(typeString1, typeString2);
+    kindOf.putIfAbsent(cacheKey, isKindOf);
+    return isKindOf;
+  }
+
+  private boolean isKindOfUncached(final TypeString typeString1, final TypeString typeString2) {
     for (final TypeString typeStr1 : TypeString.combine(typeString1).getCombinedTypes()) {
       final ITypeStringDefinition definition1 =
           this.resolve(typeStr1).stream().findAny().orElse(null);
@@ -234,25 +259,28 @@ public class TypeStringResolver {
    * @param typeString {@link TypeString} to resolve.
    * @return {@link MethodDefinition}s the {@link TypeString} responds to.
    */
-  public synchronized Collection<MethodDefinition> getMethodDefinitions(
-      final TypeString typeString) {
+  public Collection<MethodDefinition> getMethodDefinitions(final TypeString typeString) {
+    final Map<Entry<TypeString, String>, Collection<MethodDefinition>> methods =
+        this.cache.getMethodEntries(this.definitionKeeper).methods;
     final Entry<TypeString, String> cacheKey = Map.entry(typeString, ALL_METHODS);
-    return this.methodsCache.computeIfAbsent(
-        cacheKey,
-        entry -> {
-          // Try to resolve the typeString to an actual type.
-          final Collection<ITypeStringDefinition> resolvedTypes = this.resolve(typeString);
-          final TypeString actualTypeStr =
-              resolvedTypes.isEmpty()
-                  ? typeString
-                  : resolvedTypes.iterator().next().getTypeString();
-
-          final Map<String, Set<MethodDefinition>> methodDefinitionsByName = new HashMap<>();
-          this.fillMethodDefinitions(actualTypeStr, methodDefinitionsByName);
-          return methodDefinitionsByName.values().stream()
-              .flatMap(Set::stream)
-              .collect(Collectors.toSet());
-        });
+    final Collection<MethodDefinition> cached = methods.get(cacheKey);
+    if (cached != null) {
+      return cached;
+    }
+
+    // Try to resolve the typeString to an actual type.
+    final Collection<ITypeStringDefinition> resolvedTypes = this.resolve(typeString);
+    final TypeString actualTypeStr =
+        resolvedTypes.isEmpty() ? typeString : resolvedTypes.iterator().next().getTypeString();
+
+    final Map<String, Set<MethodDefinition>> methodDefinitionsByName = new HashMap<>();
+    this.fillMethodDefinitions(actualTypeStr, methodDefinitionsByName);
+    final Collection<MethodDefinition> methodDefinitions =
+        methodDefinitionsByName.values().stream()
+            .flatMap(Set::stream)
+            .collect(Collectors.toUnmodifiableSet());
+    final Collection<MethodDefinition> existing = methods.putIfAbsent(cacheKey, methodDefinitions);
+    return existing != null ? existing : methodDefinitions;
   }
 
   /**
@@ -262,16 +290,22 @@ public class TypeStringResolver {
    * @param methodName Method name to resolve.
    * @return {@link MethodDefinition}s for the given type and method name.
    */
-  public synchronized Collection<MethodDefinition> getMethodDefinitions(
+  public Collection<MethodDefinition> getMethodDefinitions(
       final TypeString typeString, final String methodName) {
+    final Map<Entry<TypeString, String>, Collection<MethodDefinition>> methods =
+        this.cache.getMethodEntries(this.definitionKeeper).methods;
     final Entry<TypeString, String> cacheKey = Map.entry(typeString, methodName);
-    final Collection<MethodDefinition> methodDefinitions = this.getMethodDefinitions(typeString);
-    return this.methodsCache.computeIfAbsent(
-        cacheKey,
-        entry ->
-            methodDefinitions.stream()
-                .filter(methodDef -> methodDef.getMethodName().equals(methodName))
-                .toList());
+    final Collection<MethodDefinition> cached = methods.get(cacheKey);
+    if (cached != null) {
+      return cached;
+    }
+
+    final Collection<MethodDefinition> methodDefinitions =
+        this.getMethodDefinitions(typeString).stream()
+            .filter(methodDef -> methodDef.getMethodName().equals(methodName))
+            .toList();
+    final Collection<MethodDefinition> existing = methods.putIfAbsent(cacheKey, methodDefinitions);
+    return existing != null ? existing : methodDefinitions;
   }
 
   private void fillMethodDefinitions(
@@ -366,9 +400,19 @@ public class TypeStringResolver {
    * @return All ancestors this the given type.
    */
   public Collection<TypeString> getAllAncestors(final TypeString typeString) {
+    final Map<TypeString, Collection<TypeString>> allAncestors =
+        this.cache.getTypeEntries(this.definitionKeeper).ancestors;
+    final Collection<TypeString> cached = allAncestors.get(typeString);
+    if (cached != null) {
+      return cached;
+    }
+
     final List<TypeString> ancestors = new ArrayList<>();
     this.getAllAncestors(typeString, ancestors);
-    return ancestors;
+    final Collection<TypeString> unmodifiableAncestors = Collections.unmodifiableList(ancestors);
+    final Collection<TypeString> existing =
+        allAncestors.putIfAbsent(typeString, unmodifiableAncestors);
+    return existing != null ? existing : unmodifiableAncestors;
   }
 
   private void getAllAncestors(final TypeString typeString, final List<TypeString> ancestors) {
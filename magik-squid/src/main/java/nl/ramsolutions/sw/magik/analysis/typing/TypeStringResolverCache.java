@@ -0,0 +1,100 @@
+package nl.ramsolutions.sw.magik.analysis.typing;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.ITypeStringDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.MethodDefinition;
+
+/**
+ * Cache for {@link TypeStringResolver}, shared by all resolvers of a {@link IDefinitionKeeper}.
+ *
+ * <p>Entries are kept per generation of the {@link IDefinitionKeeper}. Type entries are dropped
+ * when the type generation changes, method entries are dropped when either the type or method
+ * generation changes.
+ */
+final class TypeStringResolverCache {
+
+  /** Entries depending on the type definitions. */
+  static final class TypeEntries {
+
+    private final long typeGeneration;
+    final Map<TypeString, Collection<ITypeStringDefinition>> resolved = new ConcurrentHashMap<>();
+    final Map<TypeString, Collection<TypeString>> ancestors = new ConcurrentHashMap<>();
+    final Map<Map.Entry<TypeString, TypeString>, Boolean> kindOf = new ConcurrentHashMap<>();
+
+    private TypeEntries(final long typeGeneration) {
+      this.typeGeneration = typeGeneration;
+    }
+  }
+
+  /** Entries depending on the type and method definitions. */
+  static final class MethodEntries {
+
+    private final long typeGeneration;
+    private final long methodGeneration;
+    final Map<Map.Entry<TypeString, String>, Collection<MethodDefinition>> methods =
+        new ConcurrentHashMap<>();
+
+    private MethodEntries(final long typeGeneration, final long methodGeneration) {
+      this.typeGeneration = typeGeneration;
+      this.methodGeneration = methodGeneration;
+    }
+  }
+
+  private static final Map<IDefinitionKeeper, TypeStringResolverCache> CACHES =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final AtomicReference<TypeEntries> typeEntries =
+      new AtomicReference<>(new TypeEntries(-1));
+  private final AtomicReference<MethodEntries> methodEntries =
+      new AtomicReference<>(new MethodEntries(-1, -1));
+
+  private TypeStringResolverCache() {}
+
+  /**
+   * Get the cache for the given {@link IDefinitionKeeper}.
+   *
+   * @param definitionKeeper {@link IDefinitionKeeper} to get the cache for.
+   * @return Cache.
+   */
+  static TypeStringResolverCache forDefinitionKeeper(final IDefinitionKeeper definitionKeeper) {
+    return CACHES.computeIfAbsent(definitionKeeper, keeper -> new TypeStringResolverCache());
+  }
+
+  /**
+   * Get the type entries for the current generation of the {@link IDefinitionKeeper}.
+   *
+   * <p>The generation is read before anything is resolved, so entries resolved during a change of
+   * definitions end up in an outdated generation.
+   *
+   * @param definitionKeeper {@link IDefinitionKeeper} to get the generation from.
+   * @return Type entries.
+   */
+  TypeEntries getTypeEntries(final IDefinitionKeeper definitionKeeper) {
+    final long typeGeneration = definitionKeeper.getTypeGeneration();
+    return this.typeEntries.updateAndGet(
+        entries ->
+            entries.typeGeneration == typeGeneration ? entries : new TypeEntries(typeGeneration));
+  }
+
+  /**
+   * Get the method entries for the current generation of the {@link IDefinitionKeeper}.
+   *
+   * @param definitionKeeper {@link IDefinitionKeeper} to get the generation from.
+   * @return Method entries.
+   */
+  MethodEntries getMethodEntries(final IDefinitionKeeper definitionKeeper) {
+    final long typeGeneration = definitionKeeper.getTypeGeneration();
+    final long methodGeneration = definitionKeeper.getMethodGeneration();
+    return this.methodEntries.updateAndGet(
+        entries ->
+            entries.typeGeneration == typeGeneration && entries.methodGeneration == methodGeneration
+                ? entries
+                : new MethodEntries(typeGeneration, methodGeneration));
+  }
+}
@@ -3,6 +3,7 @@ package nl.ramsolutions.sw.magik.analysis.typing.reasoner;
 import com.sonar.sslr.api.AstNode;
 import nl.ramsolutions.sw.magik.MagikTypedFile;
 import nl.ramsolutions.sw.magik.analysis.MagikAstWalker;
+import nl.ramsolutions.sw.magik.api.MagikGrammar;
 
 /**
  * Reason over types in Magik code.
@@ -20,6 +21,8 @@ import nl.ramsolutions.sw.magik.analysis.MagikAstWalker;
  * we need to proxy the type.
  *
  * <p>Note that this class never writes to the {@link IDefinitionKeeper}.
+ *
+ * <p>The {@link LocalTypeReasonerState} reasons lazily, per top-level method definition.
  */
 public class LocalTypeReasoner extends MagikAstWalker {
 
@@ -41,7 +44,16 @@ public class LocalTypeReasoner extends MagikAstWalker {
    * @param magikFile Magik file to reason on.
    */
   public LocalTypeReasoner(final MagikTypedFile magikFile) {
-    this.state = new LocalTypeReasonerState(magikFile);
+    this(new LocalTypeReasonerState(magikFile));
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param state State to reason into.
+   */
+  LocalTypeReasoner(final LocalTypeReasonerState state) {
+    this.state = state;
 
     this.assignmentHandler = new AssignmentHandler(this.state);
     this.atomHandler = new AtomHandler(this.state);
@@ -64,11 +76,25 @@ public class LocalTypeReasoner extends MagikAstWalker {
     return this.state;
   }
 
-  /** Evaluate the given top {@link AstNode}. */
+  /** Evaluate the whole file, instead of lazily. */
   public void run() {
-    // Start walking.
-    final AstNode topNode = this.state.getMagikFile().getTopNode();
-    this.walkAst(topNode);
+    this.state.reasonAll();
+  }
+
+  /**
+   * Evaluate a single unit.
+   *
+   * @param unitNode METHOD_DEFINITION node, or the MAGIK node for all other top-level code.
+   */
+  void walkUnit(final AstNode unitNode) {
+    if (!unitNode.is(MagikGrammar.MAGIK)) {
+      this.walkAst(unitNode);
+      return;
+    }
+
+    unitNode.getChildren().stream()
+        .filter(childNode -> !childNode.is(MagikGrammar.METHOD_DEFINITION))
+        .forEach(this::walkAst);
   }
 
   @Override
@@ -1,28 +1,63 @@
 package nl.ramsolutions.sw.magik.analysis.typing.reasoner;
 
 import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Token;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import nl.ramsolutions.sw.magik.MagikTypedFile;
 import nl.ramsolutions.sw.magik.analysis.definitions.DefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.helpers.PackageNodeHelper;
 import nl.ramsolutions.sw.magik.analysis.scope.ScopeEntry;
 import nl.ramsolutions.sw.magik.analysis.typing.ExpressionResultString;
+import nl.ramsolutions.sw.magik.api.MagikGrammar;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Adapter to adapt State {@link LocalTypeReasonerStateAdapter} + {@link DefinitionKeeper} for older
  * components.
+ *
+ * <p>Reasoning is done lazily, per unit. Each top-level method definition is a unit of its own, all
+ * other top-level code is a single unit. A unit is reasoned over when the type of one of its nodes
+ * is requested first.
  */
 public class LocalTypeReasonerState {
 
+  /** Results of a single unit. */
+  private static final class UnitState {
+
+    private final AstNode node;
+    private final String key;
+    private final long typeGeneration;
+    private final long methodGeneration;
+    private final Map<AstNode, ExpressionResultString> nodeTypes = new HashMap<>();
+    private final Map<AstNode, ExpressionResultString> nodeIterTypes = new HashMap<>();
+
+    private UnitState(
+        final AstNode node,
+        final @Nullable String key,
+        final long typeGeneration,
+        final long methodGeneration) {
+      this.node = node;
+      this.key = key;
+      this.typeGeneration = typeGeneration;
+      this.methodGeneration = methodGeneration;
+    }
+  }
+
   private static final Logger LOGGER = LoggerFactory.getLogger(LocalTypeReasonerState.class);
 
   private final MagikTypedFile magikFile;
-  private final Map<AstNode, ExpressionResultString> nodeTypes = new HashMap<>();
-  private final Map<AstNode, ExpressionResultString> nodeIterTypes = new HashMap<>();
+  private final Map<AstNode, UnitState> units = new HashMap<>();
   private final Map<ScopeEntry, AstNode> currentScopeEntryNodes = new HashMap<>();
+  private final Map<String, UnitState> reasonedUnits = new ConcurrentHashMap<>();
+  private final Map<String, UnitState> previousUnits = new ConcurrentHashMap<>();
+  private LocalTypeReasoner reasoner;
 
   LocalTypeReasonerState(final MagikTypedFile magikFile) {
     this.magikFile = magikFile;
@@ -32,6 +67,164 @@ public class LocalTypeReasonerState {
     return this.magikFile;
   }
 
+  /**
+   * Reuse the results of the unchanged methods of a previous version of the same file. A method is
+   * unchanged if its source, package and the generations of the {@link IDefinitionKeeper} are the
+   * same.
+   *
+   * <p>Units which the previous version did not reason over itself are carried forward from its own
+   * previous version, so versions which are never queried do not lose results. This does not wait
+   * for any reasoning in progress on the previous version.
+   *
+   * @param previousState State of the previous version of the file.
+   */
+  public void reuse(final LocalTypeReasonerState previousState) {
+    final Map<String, UnitState> reusableUnits = new HashMap<>(previousState.previousUnits);
+    reusableUnits.putAll(previousState.reasonedUnits);
+    this.previousUnits.putAll(reusableUnits);
+  }
+
+  /** Reason over all units. */
+  synchronized void reasonAll() {
+    final AstNode topNode = this.magikFile.getTopNode();
+    this.getUnit(topNode);
+    topNode.getChildren(MagikGrammar.METHOD_DEFINITION).forEach(this::getUnit);
+  }
+
+  private AstNode getUnitNode(final AstNode node) {
+    AstNode currentNode = node;
+    while (currentNode.getParent() != null) {
+      final AstNode parentNode = currentNode.getParent();
+      if (parentNode.is(MagikGrammar.MAGIK)) {
+        return currentNode.is(MagikGrammar.METHOD_DEFINITION) ? currentNode : parentNode;
+      }
+
+      currentNode = parentNode;
+    }
+
+    return currentNode;
+  }
+
+  /**
+   * Get the (reasoned) unit for a node.
+   *
+   * @param node Node to get the unit for.
+   * @return Unit.
+   */
+  private synchronized UnitState getUnit(final AstNode node) {
+    final AstNode unitNode = this.getUnitNode(node);
+    final UnitState existingUnit = this.units.get(unitNode);
+    if (existingUnit != null) {
+      return existingUnit;
+    }
+
+    final String key =
+        unitNode.is(MagikGrammar.METHOD_DEFINITION)
+            ? LocalTypeReasonerState.computeKey(unitNode)
+            : null;
+    final IDefinitionKeeper definitionKeeper = this.magikFile.getDefinitionKeeper();
+    final UnitState unit =
+        new UnitState(
+            unitNode,
+            key,
+            definitionKeeper.getTypeGeneration(),
+            definitionKeeper.getMethodGeneration());
+    this.units.put(unitNode, unit);
+
+    final UnitState previousUnit = key != null ? this.previousUnits.remove(key) : null;
+    if (previousUnit != null && LocalTypeReasonerState.copyResults(previousUnit, unit)) {
+      LOGGER.trace("Reused results for: {}", unitNode);
+      this.reasonedUnits.put(key, unit);
+      return unit;
+    }
+
+    if (this.reasoner == null) {
+      this.reasoner = new LocalTypeReasoner(this);
+    }
+
+    try {
+      this.reasoner.walkUnit(unitNode);
+    } finally {
+      this.currentScopeEntryNodes.clear();
+    }
+
+    if (key != null) {
+      // Only publish completed units, for reuse by a next version.
+      this.reasonedUnits.put(key, unit);
+    }
+
+    return unit;
+  }
+
+  private static String computeKey(final AstNode unitNode) {
+    final StringBuilder builder = new StringBuilder();
+    builder.append(new PackageNodeHelper(unitNode).getCurrentPackage());
+    final List<Token> tokens = unitNode.getTokens();
+    for (final Token token : tokens) {
+      // Comments in the method can contain type annotations, comments before the method cannot.
+      if (token != tokens.get(0)) {
+        token.getTrivia().stream()
+            .map(trivia -> trivia.getToken().getOriginalValue())
+            .forEach(value -> builder.append('\n').append(value));
+      }
+      builder.append('\n').append(token.getOriginalValue());
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Copy the results from a previous unit, with equal source, to a new unit.
+   *
+   * @param previousUnit Previous unit.
+   * @param unit New unit.
+   * @return True if copied, false if the generations or trees differ.
+   */
+  private static boolean copyResults(final UnitState previousUnit, final UnitState unit) {
+    if (previousUnit.typeGeneration != unit.typeGeneration
+        || previousUnit.methodGeneration != unit.methodGeneration) {
+      return false;
+    }
+
+    if (!LocalTypeReasonerState.copyResults(previousUnit, previousUnit.node, unit, unit.node)) {
+      unit.nodeTypes.clear();
+      unit.nodeIterTypes.clear();
+      return false;
+    }
+
+    return true;
+  }
+
+  private static boolean copyResults(
+      final UnitState previousUnit,
+      final AstNode previousNode,
+      final UnitState unit,
+      final AstNode node) {
+    final List<AstNode> previousChildren = previousNode.getChildren();
+    final List<AstNode> children = node.getChildren();
+    if (previousNode.getType() != node.getType() || previousChildren.size() != children.size()) {
+      return false;
+    }
+
+    final ExpressionResultString nodeType = previousUnit.nodeTypes.get(previousNode);
+    if (nodeType != null) {
+      unit.nodeTypes.put(node, nodeType);
+    }
+
+    final ExpressionResultString nodeIterType = previousUnit.nodeIterTypes.get(previousNode);
+    if (nodeIterType != null) {
+      unit.nodeIterTypes.put(node, nodeIterType);
+    }
+
+    for (int i = 0; i < children.size(); ++i) {
+      if (!LocalTypeReasonerState.copyResults(
+          previousUnit, previousChildren.get(i), unit, children.get(i))) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
   /**
    * Test if the type for a {@link AstNode} is known.
    *
@@ -39,7 +232,7 @@ public class LocalTypeReasonerState {
    * @return True if known, false otherwise.
    */
   boolean hasNodeType(final AstNode node) {
-    return this.nodeTypes.containsKey(node);
+    return this.getUnit(node).nodeTypes.containsKey(node);
   }
 
   /**
@@ -49,7 +242,7 @@ public class LocalTypeReasonerState {
    * @return Resulting type.
    */
   public ExpressionResultString getNodeType(final AstNode node) {
-    final ExpressionResultString result = this.nodeTypes.get(node);
+    final ExpressionResultString result = this.getUnit(node).nodeTypes.get(node);
     if (result == null) {
       LOGGER.debug("Node without type: {}", node);
       return ExpressionResultString.UNDEFINED;
@@ -66,7 +259,7 @@ public class LocalTypeReasonerState {
    */
   @CheckForNull
   public ExpressionResultString getNodeTypeSilent(final AstNode node) {
-    return this.nodeTypes.get(node);
+    return this.getUnit(node).nodeTypes.get(node);
   }
 
   /**
@@ -77,7 +270,7 @@ public class LocalTypeReasonerState {
    */
   void setNodeType(final AstNode node, final ExpressionResultString result) {
     LOGGER.trace("{} is of type: {}", node, result);
-    this.nodeTypes.put(node, result);
+    this.getUnit(node).nodeTypes.put(node, result);
   }
 
   /**
@@ -87,7 +280,7 @@ public class LocalTypeReasonerState {
    * @return True if known, false otherwise.
    */
   boolean hasNodeIterType(final AstNode node) {
-    return this.nodeIterTypes.containsKey(node);
+    return this.getUnit(node).nodeIterTypes.containsKey(node);
   }
 
   /**
@@ -97,7 +290,7 @@ public class LocalTypeReasonerState {
    * @return Resulting type.
    */
   public ExpressionResultString getNodeIterType(final AstNode node) {
-    final ExpressionResultString result = this.nodeIterTypes.get(node);
+    final ExpressionResultString result = this.getUnit(node).nodeIterTypes.get(node);
     if (result == null) {
       LOGGER.debug("Node without type: {}", node);
       return ExpressionResultString.UNDEFINED;
@@ -113,7 +306,7 @@ public class LocalTypeReasonerState {
    * @param result Type.
    */
   void setNodeIterType(final AstNode node, final ExpressionResultString result) {
-    this.nodeIterTypes.put(node, result);
+    this.getUnit(node).nodeIterTypes.put(node, result);
   }
 
   /**
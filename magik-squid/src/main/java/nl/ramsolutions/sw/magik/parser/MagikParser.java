@@ -25,6 +25,10 @@ import org.sonar.sslr.parser.ParserAdapter;
  * Magik Parser.
  *
  * <p>Parses sections, separated by $, one by one, like the Magik parser itself.
+ *
+ * <p>The grammar and compiled parser are created once per thread, as the grammar is not thread
+ * safe. Constructing a {@link MagikParser} is cheap and instances can be used from multiple
+ * threads.
  */
 @SuppressWarnings("java:S3011")
 public class MagikParser {
@@ -59,12 +63,13 @@ public class MagikParser {
     RULE_MAPPING.put(MagikGrammar.PARAMETERS_SQUARE, MagikGrammar.PARAMETERS);
   }
 
-  private final Parser<LexerlessGrammar> parser;
+  private static final ThreadLocal<Parser<LexerlessGrammar>> PARSER =
+      ThreadLocal.withInitial(
+          () -> new ParserAdapter<>(StandardCharsets.ISO_8859_1, MagikGrammar.create()));
 
   /** Constructor with default charset. */
   public MagikParser() {
-    final LexerlessGrammar magikGrammar = MagikGrammar.create();
-    this.parser = new ParserAdapter<>(StandardCharsets.ISO_8859_1, magikGrammar);
+    // Grammar and parser are shared, see PARSER.
   }
 
   /**
@@ -113,7 +118,7 @@ public class MagikParser {
    * @return Tree
    */
   public AstNode parse(final String source) {
-    final AstNode magikNode = this.parser.parse(source);
+    final AstNode magikNode = MagikParser.PARSER.get().parse(source);
 
     // Update identifiers.
     this.updateIdentifiersSymbolsCasing(magikNode);
@@ -134,7 +139,7 @@ public class MagikParser {
   public AstNode parse(final Path path) throws IOException {
     final Charset charset = FileCharsetDeterminer.determineCharset(path);
     final String source = Files.readString(path, charset);
-    final AstNode node = this.parser.parse(source);
+    final AstNode node = MagikParser.PARSER.get().parse(source);
 
     final URI uri = path.toUri();
     AstNodeHelper.updateUri(node, uri);
@@ -3,10 +3,15 @@ package nl.ramsolutions.sw.magik.parser;
 import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.api.Token;
 import com.sonar.sslr.impl.Parser;
-import com.sonar.sslr.impl.ast.AstWalker;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import nl.ramsolutions.sw.magik.analysis.typing.ExpressionResultString;
 import nl.ramsolutions.sw.magik.analysis.typing.TypeString;
 import nl.ramsolutions.sw.magik.api.TypeStringGrammar;
@@ -15,11 +20,38 @@ import org.slf4j.LoggerFactory;
 import org.sonar.sslr.parser.LexerlessGrammar;
 import org.sonar.sslr.parser.ParserAdapter;
 
-/** Parses {@link TypeString}s/{@link ExpressionResultString}s. */
+/**
+ * Parses {@link TypeString}s/{@link ExpressionResultString}s.
+ *
+ * <p>Parsing is done by a hand-written parser, following the rules of {@link TypeStringGrammar}.
+ * Parsed {@link TypeString}s are interned, i.e., parsing the same string twice yields the same
+ * instance. The {@link TypeStringGrammar} is only used to get an {@link AstNode}, see {@link
+ * #getParsedNodeForTypeString(AstNode)}.
+ */
 public final class TypeStringParser {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(TypeStringParser.class);
 
+  private static final int MAX_INTERNED = 100_000;
+
+  /** Interned {@link TypeString}s, bounded by evicting the least recently used entry. */
+  private static final Map<Map.Entry<String, String>, TypeString> INTERNED =
+      Collections.synchronizedMap(
+          new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<Map.Entry<String, String>, TypeString> eldest) {
+              return this.size() > TypeStringParser.MAX_INTERNED;
+            }
+          });
+
+  private static final ThreadLocal<Parser<LexerlessGrammar>> PARSER =
+      ThreadLocal.withInitial(
+          () ->
+              new ParserAdapter<>(
+                  StandardCharsets.ISO_8859_1,
+                  TypeStringGrammar.create(TypeStringGrammar.TYPE_STRING)));
+
   private TypeStringParser() {}
 
   /**
@@ -45,11 +77,15 @@ public final class TypeStringParser {
       return TypeString.UNDEFINED;
     }
 
-    final Parser<LexerlessGrammar> parser =
-        new ParserAdapter<>(
-            StandardCharsets.ISO_8859_1, TypeStringGrammar.create(TypeStringGrammar.TYPE_STRING));
-    final AstNode node = parser.parse(typeStr);
-    return TypeStringParser.typeStringNodeToTypeString(node, currentPakkage);
+    final Map.Entry<String, String> key = Map.entry(currentPakkage, typeStr);
+    final TypeString internedTypeString = TypeStringParser.INTERNED.get(key);
+    if (internedTypeString != null) {
+      return internedTypeString;
+    }
+
+    final TypeString typeString = new Reader(typeStr, currentPakkage).readTypeString();
+    final TypeString existingTypeString = TypeStringParser.INTERNED.putIfAbsent(key, typeString);
+    return existingTypeString != null ? existingTypeString : typeString;
   }
 
   /**
@@ -61,11 +97,7 @@ public final class TypeStringParser {
   public static AstNode getParsedNodeForTypeString(final AstNode typeDocNode) {
     final Token typeDocToken = typeDocNode.getToken();
     final String typeStr = typeDocToken.getOriginalValue();
-    final Parser<LexerlessGrammar> parser =
-        new ParserAdapter<>(
-            StandardCharsets.ISO_8859_1, TypeStringGrammar.create(TypeStringGrammar.TYPE_STRING));
-    final AstNode node = parser.parse(typeStr);
-
+    final AstNode node = TypeStringParser.PARSER.get().parse(typeStr);
     // Update token location for easier handling in other parts.
     final int lineOffset = typeDocToken.getLine();
     final int columnOffset = typeDocToken.getColumn();
@@ -107,27 +139,354 @@ public final class TypeStringParser {
       return ExpressionResultString.EMPTY;
     }
 
-    final Parser<LexerlessGrammar> parser =
-        new ParserAdapter<>(
-            StandardCharsets.ISO_8859_1,
-            TypeStringGrammar.create(TypeStringGrammar.EXPRESSION_RESULT_STRING));
-    final AstNode node = parser.parse(expressionResultStr);
-    if (node.hasDescendant(TypeStringGrammar.EXPRESSION_RESULT_STRING_UNDEFINED)) {
-      return ExpressionResultString.UNDEFINED;
+    return new Reader(expressionResultStr, currentPakkage).readExpressionResultString();
+  }
+
+  /**
+   * Hand-written parser for {@link TypeString}s, following the (PEG) rules of {@link
+   * TypeStringGrammar}. Unparseable parts result in {@link TypeString#UNDEFINED}, trailing input is
+   * ignored.
+   */
+  private static final class Reader {
+
+    private static final String LINE_TERMINATORS = "\n\r";
+    private static final String SPACING_NO_LB = " \t\u000B\f";
+    private static final String SPACING_LB = LINE_TERMINATORS + "\u00A0\uFEFF";
+
+    private final String input;
+    private final String currentPakkage;
+    private int pos;
+
+    Reader(final String input, final String currentPakkage) {
+      this.input = input;
+      this.currentPakkage = currentPakkage;
     }
 
-    return node.getChildren(TypeStringGrammar.TYPE_STRING).stream()
-        .map(
-            typeStringNode ->
-                TypeStringParser.typeStringNodeToTypeString(typeStringNode, currentPakkage))
-        .collect(ExpressionResultString.COLLECTOR);
-  }
+    ExpressionResultString readExpressionResultString() {
+      if (this.readKeyword(TypeStringGrammar.Keyword.EXPRESSION_RESULT_UNDEFINED)) {
+        return ExpressionResultString.UNDEFINED;
+      }
+
+      final List<TypeString> typeStrings = new ArrayList<>();
+      typeStrings.add(this.readTypeString());
+      while (this.readPunctuator(TypeStringGrammar.Punctuator.TYPE_SEPARATOR)) {
+        typeStrings.add(this.readTypeString());
+      }
+
+      return new ExpressionResultString(typeStrings);
+    }
+
+    /**
+     * Read a {@code TYPE_STRING}.
+     *
+     * @return Read {@link TypeString}, {@link TypeString#UNDEFINED} on a syntax error.
+     */
+    TypeString readTypeString() {
+      final TypeString first = this.readElement();
+      if (first == null) {
+        this.skipSyntaxError();
+        return TypeString.UNDEFINED;
+      }
+
+      final List<TypeString> elements = new ArrayList<>();
+      elements.add(first);
+      while (true) {
+        final int mark = this.pos;
+        final TypeString next =
+            this.readPunctuator(TypeStringGrammar.Punctuator.TYPE_COMBINATOR)
+                ? this.readElement()
+                : null;
+        if (next == null) {
+          this.pos = mark;
+          break;
+        }
+
+        elements.add(next);
+      }
+
+      if (elements.size() == 1) {
+        return first;
+      }
+
+      return TypeString.combine(elements.toArray(TypeString[]::new));
+    }
+
+    @CheckForNull
+    private TypeString readElement() {
+      if (this.readKeyword(TypeStringGrammar.Keyword.TYPE_STRING_UNDEFINED)) {
+        return TypeString.UNDEFINED;
+      } else if (this.readKeyword(TypeStringGrammar.Keyword.TYPE_STRING_SELF)
+          || this.readKeyword(TypeStringGrammar.Keyword.TYPE_STRING_CLONE)) {
+        return TypeString.SELF;
+      }
+
+      final int mark = this.pos;
+      final TypeString genericDefinition = this.readGenericSingle(true);
+      if (genericDefinition != null) {
+        return genericDefinition;
+      }
+
+      this.pos = mark;
+      final TypeString genericReference = this.readGenericSingle(false);
+      if (genericReference != null) {
+        return genericReference;
+      }
+
+      this.pos = mark;
+      final TypeString parameterReference = this.readParameterReference();
+      if (parameterReference != null) {
+        return parameterReference;
+      }
+
+      this.pos = mark;
+      final TypeString identifier = this.readTypeIdentifier();
+      if (identifier != null) {
+        return identifier;
+      }
+
+      this.pos = mark;
+      return null;
+    }
+
+    /**
+     * Read a single generic definition ({@code <E=sw:integer>}) or reference ({@code <E>}).
+     *
+     * @param definition Read a definition if {@code true}, a reference otherwise.
+     * @return Read generic, or {@code null} if none could be read.
+     */
+    @CheckForNull
+    private TypeString readGenericSingle(final boolean definition) {
+      if (!this.readPunctuator(TypeStringGrammar.Punctuator.TYPE_GENERIC_OPEN)) {
+        return null;
+      }
+
+      final TypeString generic =
+          definition ? this.readGenericDefinition() : this.readGenericReference();
+      if (generic == null
+          || !this.readPunctuator(TypeStringGrammar.Punctuator.TYPE_GENERIC_CLOSE)) {
+        return null;
+      }
+
+      return generic;
+    }
+
+    @CheckForNull
+    private TypeString readParameterReference() {
+      if (!this.readKeyword(TypeStringGrammar.Keyword.TYPE_STRING_PARAMETER)
+          || !this.readPunctuator(TypeStringGrammar.Punctuator.TYPE_ARG_OPEN)) {
+        return null;
+      }
+
+      this.skipSpacing(false);
+      final String identifier = this.readSimpleIdentifier();
+      if (identifier == null || !this.readPunctuator(TypeStringGrammar.Punctuator.TYPE_ARG_CLOSE)) {
+        return null;
+      }
+
+      return TypeString.ofParameterRef(identifier);
+    }
+
+    @CheckForNull
+    private TypeString readGenericDefinition() {
+      final int mark = this.pos;
+      final String identifier = this.readTypeIdentifierString();
+      if (identifier == null) {
+        this.pos = mark;
+        return null;
+      }
+
+      // Like the grammar, an identifier can be followed by generics, though these are ignored.
+      this.readGenerics();
+      if (!this.readPunctuator(TypeStringGrammar.Punctuator.TYPE_GENERIC_ASSIGN)) {
+        this.pos = mark;
+        return null;
+      }
+
+      final TypeString typeString = this.readTypeString();
+      return TypeString.ofGenericDefinition(identifier, typeString);
+    }
+
+    @CheckForNull
+    private TypeString readGenericReference() {
+      this.skipSpacing(false);
+      final String identifier = this.readSimpleIdentifier();
+      if (identifier == null) {
+        return null;
+      }
 
-  private static TypeString typeStringNodeToTypeString(
-      final AstNode node, final String currentPakkage) {
-    final TypeStringBuilderVisitor visitor = new TypeStringBuilderVisitor(currentPakkage);
-    final AstWalker walker = new AstWalker(visitor);
-    walker.walkAndVisit(node);
-    return visitor.getTypeString();
+      return TypeString.ofGenericReference(identifier);
+    }
+
+    @CheckForNull
+    private TypeString readTypeIdentifier() {
+      final String identifier = this.readTypeIdentifierString();
+      if (identifier == null) {
+        return null;
+      }
+
+      final List<TypeString> generics = this.readGenerics();
+      final TypeString[] genericsArr =
+          generics != null ? generics.toArray(TypeString[]::new) : new TypeString[0];
+      return TypeString.ofIdentifier(identifier, this.currentPakkage, genericsArr);
+    }
+
+    /**
+     * Read {@code TYPE_GENERICS}, if any.
+     *
+     * @return Read generics, or {@code null} if none could be read.
+     */
+    @CheckForNull
+    private List<TypeString> readGenerics() {
+      final int mark = this.pos;
+      if (!this.readPunctuator(TypeStringGrammar.Punctuator.TYPE_GENERIC_OPEN)) {
+        return null;
+      }
+
+      final List<TypeString> generics = new ArrayList<>();
+      do {
+        final TypeString generic = this.readGenericDefinitionOrReference();
+        if (generic == null) {
+          this.pos = mark;
+          return null;
+        }
+
+        generics.add(generic);
+      } while (this.readPunctuator(TypeStringGrammar.Punctuator.TYPE_GENERIC_SEPARATOR));
+
+      if (!this.readPunctuator(TypeStringGrammar.Punctuator.TYPE_GENERIC_CLOSE)) {
+        this.pos = mark;
+        return null;
+      }
+
+      return generics;
+    }
+
+    @CheckForNull
+    private TypeString readGenericDefinitionOrReference() {
+      final int mark = this.pos;
+      final TypeString genericDefinition = this.readGenericDefinition();
+      if (genericDefinition != null) {
+        return genericDefinition;
+      }
+
+      this.pos = mark;
+      return this.readGenericReference();
+    }
+
+    /**
+     * Read a (possibly package qualified) identifier, such as {@code sw:rope}.
+     *
+     * @return Identifier, or {@code null} if none could be read.
+     */
+    @CheckForNull
+    private String readTypeIdentifierString() {
+      this.skipSpacing(false);
+      final int start = this.pos;
+      if (this.readSimpleIdentifier() == null) {
+        return null;
+      }
+
+      final int mark = this.pos;
+      if (this.peek() == ':') {
+        this.pos++;
+        if (this.readSimpleIdentifier() == null) {
+          this.pos = mark;
+        }
+      }
+
+      return this.input.substring(start, this.pos);
+    }
+
+    @CheckForNull
+    private String readSimpleIdentifier() {
+      final int start = this.pos;
+      if (!this.readIdentifierChar(true)) {
+        return null;
+      }
+
+      while (this.readIdentifierChar(false)) {
+        // Continue reading.
+      }
+
+      return this.input.substring(start, this.pos);
+    }
+
+    private boolean readIdentifierChar(final boolean first) {
+      final char chr = this.peek();
+      if (chr == '\\'
+          && this.pos + 1 < this.input.length()
+          && !Reader.isLineTerminator(this.input.charAt(this.pos + 1))) {
+        // Escaped character.
+        this.pos += 2;
+        return true;
+      }
+
+      final boolean isIdentifierChar =
+          Reader.isAsciiLetter(chr) || chr == '!' || chr == '?' || !first && Reader.isWordChar(chr);
+      if (isIdentifierChar) {
+        this.pos++;
+      }
+
+      return isIdentifierChar;
+    }
+
+    private boolean readKeyword(final TypeStringGrammar.Keyword keyword) {
+      final int mark = this.pos;
+      this.skipSpacing(true);
+      final String value = keyword.getValue();
+      final int end = this.pos + value.length();
+      if (this.input.regionMatches(true, this.pos, value, 0, value.length())
+          && (end >= this.input.length() || !Reader.isWordChar(this.input.charAt(end)))) {
+        this.pos = end;
+        return true;
+      }
+
+      this.pos = mark;
+      return false;
+    }
+
+    private boolean readPunctuator(final TypeStringGrammar.Punctuator punctuator) {
+      final int mark = this.pos;
+      this.skipSpacing(false);
+      final String value = punctuator.getValue();
+      if (this.input.startsWith(value, this.pos)) {
+        this.pos += value.length();
+        return true;
+      }
+
+      this.pos = mark;
+      return false;
+    }
+
+    private void skipSpacing(final boolean includeLineTerminators) {
+      while (this.pos < this.input.length()
+          && (SPACING_NO_LB.indexOf(this.input.charAt(this.pos)) != -1
+              || includeLineTerminators && SPACING_LB.indexOf(this.input.charAt(this.pos)) != -1)) {
+        this.pos++;
+      }
+    }
+
+    private void skipSyntaxError() {
+      while (this.pos < this.input.length()
+          && !Reader.isLineTerminator(this.input.charAt(this.pos))) {
+        this.pos++;
+      }
+    }
+
+    private char peek() {
+      return this.pos < this.input.length() ? this.input.charAt(this.pos) : '\0';
+    }
+
+    private static boolean isLineTerminator(final char chr) {
+      return LINE_TERMINATORS.indexOf(chr) != -1;
+    }
+
+    private static boolean isAsciiLetter(final char chr) {
+      return chr >= 'a' && chr <= 'z' || chr >= 'A' && chr <= 'Z';
+    }
+
+    private static boolean isWordChar(final char chr) {
+      return Reader.isAsciiLetter(chr) || chr >= '0' && chr <= '9' || chr == '_';
+    }
   }
 }
@@ -0,0 +1,360 @@
+package nl.ramsolutions.sw.magik.utils;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Index of values by name, for fast case-insensitive searching.
+ *
+ * <p>Names are indexed by: a sorted map for prefix searches, trigrams for substring searches, and
+ * the initials of their underscore-separated words for abbreviation searches (i.e., {@code grs}
+ * finds {@code get_rope_size}). Searching returns the top-N ranked values. Matches are ranked in
+ * tiers: exact/prefix matches, substring matches, abbreviation matches. Later tiers are not
+ * searched when earlier tiers already yield enough results.
+ *
+ * <p>This class is thread safe. The sets of values in the primary map are immutable and replaced
+ * atomically per name. The trigram and initials indexes are updated afterwards, under a lock, to
+ * match the names present in the primary map.
+ *
+ * @param <T> Type of indexed value.
+ */
+public class NameIndex<T> {
+
+  private static final int TRIGRAM_LENGTH = 3;
+  private static final int SCORE_EXACT = 4000;
+  private static final int SCORE_PREFIX = 3000;
+  private static final int SCORE_WORD_START = 2000;
+  private static final int SCORE_SUBSTRING = 1000;
+  private static final int SCORE_ABBREVIATION = 0;
+  private static final int MAX_LENGTH_PENALTY = 999;
+
+  private final NavigableMap<String, Set<T>> values = new ConcurrentSkipListMap<>();
+  private final Map<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+  private final NavigableMap<String, Set<String>> initials = new ConcurrentSkipListMap<>();
+  private final Set<String> indexedNames = new HashSet<>();
+  private final Object sideIndexLock = new Object();
+
+  /**
+   * Add a value under the given name.
+   *
+   * @param name Name to index the value by.
+   * @param value Value to add.
+   */
+  public void add(final String name, final T value) {
+    final String key = NameIndex.normalize(name);
+    this.values.compute(key, (k, keyValues) -> NameIndex.with(keyValues, value));
+    this.updateSideIndexes(key);
+  }
+
+  /**
+   * Remove a value under the given name.
+   *
+   * @param name Name the value was indexed by.
+   * @param value Value to remove.
+   */
+  public void remove(final String name, final T value) {
+    final String key = NameIndex.normalize(name);
+    this.values.computeIfPresent(key, (k, keyValues) -> NameIndex.without(keyValues, value));
+    this.updateSideIndexes(key);
+  }
+
+  /** Clear the index. */
+  public void clear() {
+    synchronized (this.sideIndexLock) {
+      this.values.clear();
+      this.trigrams.clear();
+      this.initials.clear();
+      this.indexedNames.clear();
+    }
+  }
+
+  /**
+   * Update the trigram and initials indexes for {@code key}, to match its presence in the primary
+   * map. Concurrent updates for the same key each re-check the primary map, so the last one wins.
+   */
+  private void updateSideIndexes(final String key) {
+    synchronized (this.sideIndexLock) {
+      final boolean isPresent = this.values.containsKey(key);
+      if (isPresent && this.indexedNames.add(key)) {
+        NameIndex.trigramsOf(key).forEach(trigram -> NameIndex.put(this.trigrams, trigram, key));
+        NameIndex.put(this.initials, NameIndex.initialsOf(key), key);
+      } else if (!isPresent && this.indexedNames.remove(key)) {
+        NameIndex.trigramsOf(key).forEach(trigram -> NameIndex.delete(this.trigrams, trigram, key));
+        NameIndex.delete(this.initials, NameIndex.initialsOf(key), key);
+      }
+    }
+  }
+
+  private static <T> Set<T> with(final @Nullable Set<T> keyValues, final T value) {
+    if (keyValues != null && keyValues.contains(value)) {
+      return keyValues;
+    }
+
+    final Set<T> newKeyValues = keyValues != null ? new HashSet<>(keyValues) : new HashSet<>();
+    newKeyValues.add(value);
+    return Collections.unmodifiableSet(newKeyValues);
+  }
+
+  @CheckForNull
+  private static <T> Set<T> without(final Set<T> keyValues, final T value) {
+    if (!keyValues.contains(value)) {
+      return keyValues;
+    }
+
+    final Set<T> newKeyValues = new HashSet<>(keyValues);
+    newKeyValues.remove(value);
+    return newKeyValues.isEmpty() ? null : Collections.unmodifiableSet(newKeyValues);
+  }
+
+  /**
+   * Search for values of which the name matches {@code query}, case-insensitive.
+   *
+   * @param query Query to search for.
+   * @param predicate Predicate values have to match.
+   * @param limit Maximum number of results.
+   * @return Matching values, best match first.
+   */
+  public List<T> search(final String query, final Predicate<? super T> predicate, final int limit) {
+    final String normalizedQuery = NameIndex.normalize(query);
+    if (normalizedQuery.isEmpty() || limit <= 0) {
+      return Collections.emptyList();
+    }
+
+    final PriorityQueue<Match<T>> topMatches =
+        new PriorityQueue<>(Comparator.comparingInt((Match<T> match) -> match.score));
+    final Set<String> seenNames = new HashSet<>();
+
+    // Tier 1: exact and prefix matches.
+    this.values
+        .subMap(normalizedQuery, true, normalizedQuery + Character.MAX_VALUE, true)
+        .keySet()
+        .forEach(
+            name -> this.offer(topMatches, seenNames, name, normalizedQuery, predicate, limit));
+    if (topMatches.size() >= limit) {
+      return NameIndex.toSortedList(topMatches);
+    }
+
+    // Tier 2: substring matches.
+    this.getSubstringCandidates(normalizedQuery).stream()
+        .filter(name -> name.contains(normalizedQuery))
+        .forEach(
+            name -> this.offer(topMatches, seenNames, name, normalizedQuery, predicate, limit));
+    if (topMatches.size() >= limit) {
+      return NameIndex.toSortedList(topMatches);
+    }
+
+    // Tier 3: abbreviation matches.
+    this.initials
+        .subMap(normalizedQuery, true, normalizedQuery + Character.MAX_VALUE, true)
+        .values()
+        .forEach(
+            names ->
+                names.forEach(
+                    name ->
+                        this.offer(
+                            topMatches, seenNames, name, normalizedQuery, predicate, limit)));
+
+    return NameIndex.toSortedList(topMatches);
+  }
+
+  /**
+   * Rank values which are not indexed by how well their name matches {@code query},
+   * case-insensitive. Values are ranked like {@link #search(String, Predicate, int)}, an empty
+   * query matches all values.
+   *
+   * @param <T> Type of value.
+   * @param values Values to rank.
+   * @param nameFunction Function to get the name of a value.
+   * @param query Query to search for.
+   * @param limit Maximum number of results.
+   * @return Matching values, best match first.
+   */
+  public static <T> List<T> rank(
+      final Collection<T> values,
+      final Function<? super T, String> nameFunction,
+      final String query,
+      final int limit) {
+    if (limit <= 0) {
+      return Collections.emptyList();
+    }
+
+    final String normalizedQuery = NameIndex.normalize(query);
+    final PriorityQueue<Match<T>> topMatches =
+        new PriorityQueue<>(Comparator.comparingInt((Match<T> match) -> match.score));
+    for (final T value : values) {
+      final String name = NameIndex.normalize(nameFunction.apply(value));
+      if (!name.contains(normalizedQuery)
+          && !NameIndex.initialsOf(name).startsWith(normalizedQuery)) {
+        continue;
+      }
+
+      final int score = NameIndex.score(name, normalizedQuery);
+      if (topMatches.size() >= limit && topMatches.peek().score >= score) {
+        continue;
+      }
+
+      topMatches.add(new Match<>(score, value));
+      if (topMatches.size() > limit) {
+        topMatches.poll();
+      }
+    }
+
+    return NameIndex.toSortedList(topMatches);
+  }
+
+  private Collection<String> getSubstringCandidates(final String query) {
+    if (query.length() < TRIGRAM_LENGTH) {
+      return this.values.keySet();
+    }
+
+    // Intersect posting lists, smallest first.
+    final List<Set<String>> postings = new ArrayList<>();
+    for (final String trigram : NameIndex.trigramsOf(query)) {
+      final Set<String> posting = this.trigrams.get(trigram);
+      if (posting == null) {
+        return Collections.emptySet();
+      }
+
+      postings.add(posting);
+    }
+
+    postings.sort(Comparator.comparingInt(Set::size));
+    final Set<String> candidates = new HashSet<>(postings.get(0));
+    for (int i = 1; i < postings.size() && !candidates.isEmpty(); ++i) {
+      candidates.retainAll(postings.get(i));
+    }
+
+    return candidates;
+  }
+
+  private void offer(
+      final PriorityQueue<Match<T>> topMatches,
+      final Set<String> seenNames,
+      final String name,
+      final String query,
+      final Predicate<? super T> predicate,
+      final int limit) {
+    if (!seenNames.add(name)) {
+      return;
+    }
+
+    final Set<T> nameValues = this.values.get(name);
+    if (nameValues == null) {
+      return;
+    }
+
+    final int score = NameIndex.score(name, query);
+    for (final T value : nameValues) {
+      if (topMatches.size() >= limit && topMatches.peek().score >= score) {
+        // Early out: can't beat any of the current top matches.
+        return;
+      }
+
+      if (!predicate.test(value)) {
+        continue;
+      }
+
+      topMatches.add(new Match<>(score, value));
+      if (topMatches.size() > limit) {
+        topMatches.poll();
+      }
+    }
+  }
+
+  private static int score(final String name, final String query) {
+    final int lengthPenalty = Math.min(name.length() - query.length(), MAX_LENGTH_PENALTY);
+    if (name.equals(query)) {
+      return SCORE_EXACT;
+    } else if (name.startsWith(query)) {
+      return SCORE_PREFIX - lengthPenalty;
+    }
+
+    final int index = name.indexOf(query);
+    if (index > 0 && !Character.isLetterOrDigit(name.charAt(index - 1))) {
+      return SCORE_WORD_START - lengthPenalty;
+    } else if (index > 0) {
+      return SCORE_SUBSTRING - lengthPenalty;
+    }
+
+    return SCORE_ABBREVIATION - lengthPenalty;
+  }
+
+  private static <T> List<T> toSortedList(final PriorityQueue<Match<T>> topMatches) {
+    final List<Match<T>> matches = new ArrayList<>(topMatches);
+    matches.sort(Comparator.comparingInt((Match<T> match) -> match.score).reversed());
+    return matches.stream().map(match -> match.value).toList();
+  }
+
+  private static String normalize(final String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  private static Set<String> trigramsOf(final String name) {
+    final Set<String> nameTrigrams = new HashSet<>();
+    for (int i = 0; i + TRIGRAM_LENGTH <= name.length(); ++i) {
+      nameTrigrams.add(name.substring(i, i + TRIGRAM_LENGTH));
+    }
+
+    return nameTrigrams;
+  }
+
+  private static String initialsOf(final String name) {
+    final StringBuilder builder = new StringBuilder();
+    boolean atWordStart = true;
+    for (int i = 0; i < name.length(); ++i) {
+      final char chr = name.charAt(i);
+      if (!Character.isLetterOrDigit(chr)) {
+        atWordStart = true;
+      } else if (atWordStart) {
+        builder.append(chr);
+        atWordStart = false;
+      }
+    }
+
+    return builder.toString();
+  }
+
+  private static void put(final Map<String, Set<String>> map, final String key, final String name) {
+    map.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(name);
+  }
+
+  private static void delete(
+      final Map<String, Set<String>> map, final String key, final String name) {
+    final Set<String> names = map.get(key);
+    if (names == null) {
+      return;
+    }
+
+    names.remove(name);
+    if (names.isEmpty()) {
+      map.remove(key);
+    }
+  }
+
+  /** Scored match. */
+  private static final class Match<T> {
+
+    private final int score;
+    private final T value;
+
+    Match(final int score, final T value) {
+      this.score = score;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package nl.ramsolutions.sw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for {@link ConfigurationReader}. */
+class ConfigurationReaderTest {
+
+  @TempDir Path directory;
+
+  @AfterEach
+  void resetCache() {
+    ConfigurationReader.resetCache();
+  }
+
+  private Path writeConfiguration(final String contents) throws IOException {
+    final Path configPath = this.directory.resolve(ConfigurationLocator.MAGIK_LINT_RC_FILENAME);
+    Files.writeString(configPath, contents);
+    return configPath;
+  }
+
+  @Test
+  void testReadPropertiesFromFileDirectory() throws IOException {
+    this.writeConfiguration("disabled=line-length\n");
+    final Path path = Files.writeString(this.directory.resolve("a.magik"), "");
+
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    final MagikToolsProperties fileProperties =
+        ConfigurationReader.readProperties(path, properties);
+    assertThat(fileProperties.getPropertyString("disabled")).isEqualTo("line-length");
+  }
+
+  @Test
+  void testReadPropertiesCachedPerDirectory() throws IOException {
+    this.writeConfiguration("disabled=line-length\n");
+    final Path pathA = Files.writeString(this.directory.resolve("a.magik"), "");
+    final Path pathB = Files.writeString(this.directory.resolve("b.magik"), "");
+
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    final MagikToolsProperties propertiesA = ConfigurationReader.readProperties(pathA, properties);
+    final MagikToolsProperties propertiesB = ConfigurationReader.readProperties(pathB, properties);
+    assertThat(propertiesB).isSameAs(propertiesA);
+  }
+
+  @Test
+  void testReadPropertiesInvalidated() throws IOException {
+    this.writeConfiguration("disabled=line-length\n");
+    final Path path = Files.writeString(this.directory.resolve("a.magik"), "");
+
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    final MagikToolsProperties fileProperties0 =
+        ConfigurationReader.readProperties(path, properties);
+    assertThat(fileProperties0.getPropertyString("disabled")).isEqualTo("line-length");
+
+    // Changing the given properties invalidates.
+    properties.setProperty("enabled", "sw-method-doc");
+    final MagikToolsProperties fileProperties1 =
+        ConfigurationReader.readProperties(path, properties);
+    assertThat(fileProperties1).isNotSameAs(fileProperties0);
+    assertThat(fileProperties1.getPropertyString("enabled")).isEqualTo("sw-method-doc");
+
+    // Changing the configuration file, after a reset, invalidates.
+    final Path configPath = this.writeConfiguration("disabled=all\n");
+    assertThat(ConfigurationReader.isConfigurationFile(configPath)).isTrue();
+    ConfigurationReader.resetCache();
+    final MagikToolsProperties fileProperties2 =
+        ConfigurationReader.readProperties(path, properties);
+    assertThat(fileProperties2.getPropertyString("disabled")).isEqualTo("all");
+  }
+
+  @Test
+  void testReadPropertiesEvictsOlderGenerations() throws IOException {
+    this.writeConfiguration("disabled=line-length\n");
+    final Path path = Files.writeString(this.directory.resolve("a.magik"), "");
+
+    final MagikToolsProperties properties = new MagikToolsProperties();
+    final MagikToolsProperties fileProperties0 =
+        ConfigurationReader.readProperties(path, properties);
+    final Object derived0 = fileProperties0.computeDerivedIfAbsent("key", props -> new Object());
+    final Object derived1 = fileProperties0.computeDerivedIfAbsent("key", props -> new Object());
+    assertThat(derived1).isSameAs(derived0);
+    assertThat(ConfigurationReader.getCacheSize()).isEqualTo(1);
+
+    properties.setProperty("enabled", "sw-method-doc");
+    ConfigurationReader.readProperties(path, properties);
+    properties.setProperty("enabled", "line-length");
+    ConfigurationReader.readProperties(path, properties);
+    assertThat(ConfigurationReader.getCacheSize()).isEqualTo(1);
+  }
+}
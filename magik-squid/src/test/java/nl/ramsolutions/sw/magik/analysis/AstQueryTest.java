@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.api.Token;
+import nl.ramsolutions.sw.magik.MagikFile;
 import nl.ramsolutions.sw.magik.Position;
 import nl.ramsolutions.sw.magik.parser.MagikParser;
 import org.junit.jupiter.api.Test;
@@ -44,4 +45,51 @@ class AstQueryTest {
 
     assertThat(nodeAt).isNull();
   }
+
+  @Test
+  void testNodeBefore() {
+    String code =
+        """
+        a << 10
+        b << 20""";
+    AstNode node = this.parseCode(code);
+    AstNode nodeBefore = AstQuery.nodeBefore(node, new Position(2, 2));
+    assertThat(nodeBefore).isNotNull();
+
+    Token tokenBefore = nodeBefore.getToken();
+    assertThat(tokenBefore.getLine()).isEqualTo(2);
+    assertThat(tokenBefore.getColumn()).isEqualTo(0);
+    assertThat(tokenBefore.getOriginalValue()).isEqualTo("b");
+
+    assertThat(AstQuery.nodeBefore(node, new Position(1, 0))).isNull();
+  }
+
+  @Test
+  void testNodeAfter() {
+    String code =
+        """
+        a << 10
+        b << 20""";
+    AstNode node = this.parseCode(code);
+    AstNode nodeAfter = AstQuery.nodeAfter(node, new Position(1, 4));
+    assertThat(nodeAfter).isNotNull();
+
+    Token tokenAfter = nodeAfter.getToken();
+    assertThat(tokenAfter.getLine()).isEqualTo(1);
+    assertThat(tokenAfter.getColumn()).isEqualTo(5);
+    assertThat(tokenAfter.getOriginalValue()).isEqualTo("10");
+  }
+
+  @Test
+  void testNodeAtMagikFileUsesTokenIndex() {
+    String code = "a << 10";
+    MagikFile magikFile = new MagikFile(MagikFile.DEFAULT_URI, code);
+    TokenIndex tokenIndex = magikFile.getTokenIndex();
+    assertThat(magikFile.getTokenIndex()).isSameAs(tokenIndex);
+    assertThat(tokenIndex.getTopNode()).isSameAs(magikFile.getTopNode());
+
+    AstNode nodeAt = AstQuery.nodeAt(magikFile, new Position(1, 6));
+    assertThat(nodeAt).isNotNull();
+    assertThat(nodeAt.getTokenOriginalValue()).isEqualTo("10");
+  }
 }
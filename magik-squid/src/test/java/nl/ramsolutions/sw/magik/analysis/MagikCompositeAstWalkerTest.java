@@ -0,0 +1,112 @@
+package nl.ramsolutions.sw.magik.analysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Token;
+import java.util.ArrayList;
+import java.util.List;
+import nl.ramsolutions.sw.magik.parser.MagikParser;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link MagikCompositeAstWalker}. */
+class MagikCompositeAstWalkerTest {
+
+  private static final String SOURCE =
+      """
+      _method a.b(p1)
+        # comment
+        _return p1 + 1
+      _endmethod
+      $
+      _proc()
+        write(1)
+      _endproc
+      """;
+
+  /** Records method definitions and tokens. */
+  private static class MethodWalker extends MagikAstWalker {
+
+    private final List<String> events = new ArrayList<>();
+
+    @Override
+    protected void walkPreMethodDefinition(final AstNode node) {
+      this.events.add("pre method");
+    }
+
+    @Override
+    protected void walkPostMethodDefinition(final AstNode node) {
+      this.events.add("post method");
+    }
+
+    @Override
+    protected void walkToken(final Token token) {
+      this.events.add("token " + token.getOriginalValue());
+    }
+  }
+
+  /** Records all nodes. */
+  private static class DefaultWalker extends MagikAstWalker {
+
+    private final List<String> events = new ArrayList<>();
+
+    @Override
+    protected void walkPreDefault(final AstNode node) {
+      this.events.add("pre " + node.getType());
+    }
+
+    @Override
+    protected void walkPostDefault(final AstNode node) {
+      this.events.add("post " + node.getType());
+    }
+
+    @Override
+    protected void walkPostProcedureDefinition(final AstNode node) {
+      this.events.add("post procedure");
+    }
+  }
+
+  /** Walks its own way. */
+  private static class TraversingWalker extends MagikAstWalker {
+
+    @Override
+    public void walkAst(final AstNode node) {
+      // Pass.
+    }
+  }
+
+  private AstNode parse() {
+    final MagikParser parser = new MagikParser();
+    return parser.parseSafe(SOURCE);
+  }
+
+  @Test
+  void testSameEventsAsSeparateWalks() {
+    final MethodWalker methodWalker = new MethodWalker();
+    final DefaultWalker defaultWalker = new DefaultWalker();
+    methodWalker.walkAst(this.parse());
+    defaultWalker.walkAst(this.parse());
+
+    final MethodWalker combinedMethodWalker = new MethodWalker();
+    final DefaultWalker combinedDefaultWalker = new DefaultWalker();
+    final MagikCompositeAstWalker walker =
+        new MagikCompositeAstWalker(List.of(combinedMethodWalker, combinedDefaultWalker));
+    walker.walkAst(this.parse());
+
+    assertThat(combinedMethodWalker.events)
+        .isNotEmpty()
+        .containsExactlyElementsOf(methodWalker.events);
+    assertThat(combinedDefaultWalker.events)
+        .contains("post procedure")
+        .containsExactlyElementsOf(defaultWalker.events);
+  }
+
+  @Test
+  void testCanCombine() {
+    assertThat(MagikCompositeAstWalker.canCombine(new MethodWalker())).isTrue();
+    assertThat(MagikCompositeAstWalker.canCombine(new TraversingWalker())).isFalse();
+    assertThatThrownBy(() -> new MagikCompositeAstWalker(List.of(new TraversingWalker())))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
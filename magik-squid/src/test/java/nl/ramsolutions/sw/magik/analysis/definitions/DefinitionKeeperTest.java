@@ -0,0 +1,134 @@
+package nl.ramsolutions.sw.magik.analysis.definitions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import nl.ramsolutions.sw.magik.analysis.typing.ExpressionResultString;
+import nl.ramsolutions.sw.magik.analysis.typing.TypeString;
+import org.junit.jupiter.api.Test;
+
+/** Test DefinitionKeeper. */
+class DefinitionKeeperTest {
+
+  private MethodDefinition createMethodDefinition() {
+    return new MethodDefinition(
+        null,
+        null,
+        null,
+        null,
+        null,
+        TypeString.ofIdentifier("exemplar", "user"),
+        "method()",
+        Collections.emptySet(),
+        Collections.emptyList(),
+        null,
+        Collections.emptySet(),
+        ExpressionResultString.UNDEFINED,
+        ExpressionResultString.EMPTY,
+        Set.of(new GlobalUsage(TypeString.ofIdentifier("rope", "sw"), null)),
+        Set.of(new MethodUsage(TypeString.UNDEFINED, "size", null)),
+        Set.of(new SlotUsage("slot1", null)),
+        Set.of(new ConditionUsage("error", null)));
+  }
+
+  @Test
+  void testUsageIndexAdd() {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper(false);
+    final MethodDefinition methodDefinition = this.createMethodDefinition();
+    definitionKeeper.add(methodDefinition);
+
+    assertThat(
+            definitionKeeper.getMethodUsageDefinitions(
+                new MethodUsage(TypeString.UNDEFINED, "size")))
+        .containsOnly(methodDefinition);
+    assertThat(
+            definitionKeeper.getGlobalUsageDefinitions(
+                new GlobalUsage(TypeString.ofIdentifier("rope", "sw"), null)))
+        .containsOnly(methodDefinition);
+    assertThat(definitionKeeper.getSlotUsageDefinitions(new SlotUsage("slot1")))
+        .containsOnly(methodDefinition);
+    assertThat(definitionKeeper.getConditionUsageDefinitions(new ConditionUsage("error")))
+        .containsOnly(methodDefinition);
+
+    assertThat(
+            definitionKeeper.getMethodUsageDefinitions(
+                new MethodUsage(TypeString.UNDEFINED, "empty?")))
+        .isEmpty();
+  }
+
+  @Test
+  void testUsageIndexRemove() {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper(false);
+    final MethodDefinition methodDefinition = this.createMethodDefinition();
+    definitionKeeper.add(methodDefinition);
+    definitionKeeper.remove(methodDefinition);
+
+    assertThat(
+            definitionKeeper.getMethodUsageDefinitions(
+                new MethodUsage(TypeString.UNDEFINED, "size")))
+        .isEmpty();
+    assertThat(
+            definitionKeeper.getGlobalUsageDefinitions(
+                new GlobalUsage(TypeString.ofIdentifier("rope", "sw"), null)))
+        .isEmpty();
+    assertThat(definitionKeeper.getSlotUsageDefinitions(new SlotUsage("slot1"))).isEmpty();
+    assertThat(definitionKeeper.getConditionUsageDefinitions(new ConditionUsage("error")))
+        .isEmpty();
+  }
+
+  private ExemplarDefinition createExemplarDefinition(
+      final String identifier, final ExemplarDefinition.Sort sort, final List<TypeString> parents) {
+    return new ExemplarDefinition(
+        null,
+        null,
+        null,
+        null,
+        null,
+        sort,
+        TypeString.ofIdentifier(identifier, "user"),
+        Collections.emptyList(),
+        parents,
+        Collections.emptySet());
+  }
+
+  @Test
+  void testMethodNameIndex() {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper(false);
+    final MethodDefinition methodDefinition = this.createMethodDefinition();
+    definitionKeeper.add(methodDefinition);
+
+    assertThat(definitionKeeper.getMethodDefinitionsByName("method()"))
+        .containsOnly(methodDefinition);
+    assertThat(definitionKeeper.getMethodDefinitionsByName("method")).isEmpty();
+    assertThat(definitionKeeper.getMethodDefinitionsByNamePrefix("meth"))
+        .containsOnly(methodDefinition);
+    assertThat(definitionKeeper.getMethodDefinitionsByNamePrefix("")).contains(methodDefinition);
+    assertThat(definitionKeeper.getMethodDefinitionsByNamePrefix("methods")).isEmpty();
+
+    definitionKeeper.remove(methodDefinition);
+    assertThat(definitionKeeper.getMethodDefinitionsByName("method()")).isEmpty();
+    assertThat(definitionKeeper.getMethodDefinitionsByNamePrefix("meth")).isEmpty();
+  }
+
+  @Test
+  void testExemplarParentIndex() {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper(false);
+    final ExemplarDefinition aDefinition =
+        this.createExemplarDefinition("a", ExemplarDefinition.Sort.SLOTTED, List.of());
+    final TypeString aRef = aDefinition.getTypeString();
+    final ExemplarDefinition bDefinition =
+        this.createExemplarDefinition("b", ExemplarDefinition.Sort.SLOTTED, List.of(aRef));
+    definitionKeeper.add(aDefinition);
+    definitionKeeper.add(bDefinition);
+
+    assertThat(definitionKeeper.getExemplarDefinitionsByParent(aRef)).containsOnly(bDefinition);
+    assertThat(definitionKeeper.getExemplarDefinitionsByParent(TypeString.SW_SLOTTED_FORMAT_MIXIN))
+        .contains(aDefinition)
+        .doesNotContain(bDefinition);
+
+    definitionKeeper.remove(bDefinition);
+    assertThat(definitionKeeper.getExemplarDefinitionsByParent(aRef)).isEmpty();
+  }
+}
@@ -0,0 +1,93 @@
+package nl.ramsolutions.sw.magik.analysis.definitions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+import nl.ramsolutions.sw.definitions.ModuleDefinition;
+import nl.ramsolutions.sw.definitions.ModuleUsage;
+import nl.ramsolutions.sw.magik.Location;
+import org.junit.jupiter.api.Test;
+
+/** Test ModuleGraph. */
+class ModuleGraphTest {
+
+  private static final Path PRODUCT_PATH = Path.of("/product").toAbsolutePath();
+
+  private static ModuleDefinition createModuleDefinition(
+      final String name, final String... requiredNames) {
+    final Path moduleDefPath = PRODUCT_PATH.resolve(name).resolve("module.def");
+    final Location location = new Location(moduleDefPath.toUri());
+    final List<ModuleUsage> usages =
+        List.of(requiredNames).stream()
+            .map(requiredName -> new ModuleUsage(requiredName, null))
+            .toList();
+    return new ModuleDefinition(location, null, name, null, "1", null, null, usages);
+  }
+
+  private static IDefinitionKeeper createDefinitionKeeper() {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper(false);
+    definitionKeeper.add(ModuleGraphTest.createModuleDefinition("module_a", "module_b"));
+    definitionKeeper.add(
+        ModuleGraphTest.createModuleDefinition("module_b", "module_c", "module_unknown"));
+    definitionKeeper.add(ModuleGraphTest.createModuleDefinition("module_c", "module_a"));
+    definitionKeeper.add(ModuleGraphTest.createModuleDefinition("module_d"));
+    return definitionKeeper;
+  }
+
+  @Test
+  void testGetModuleDefinition() {
+    final IDefinitionKeeper definitionKeeper = ModuleGraphTest.createDefinitionKeeper();
+    final ModuleGraph moduleGraph = ModuleGraph.forDefinitionKeeper(definitionKeeper);
+
+    final Path path = PRODUCT_PATH.resolve("module_b").resolve("source").resolve("file.magik");
+    final ModuleDefinition moduleDefinition = moduleGraph.getModuleDefinition(path);
+    assertThat(moduleDefinition).isNotNull();
+    assertThat(moduleDefinition.getName()).isEqualTo("module_b");
+
+    assertThat(moduleGraph.getModuleDefinition(PRODUCT_PATH.resolve("file.magik"))).isNull();
+  }
+
+  @Test
+  void testGetRequiredModules() {
+    final IDefinitionKeeper definitionKeeper = ModuleGraphTest.createDefinitionKeeper();
+    final ModuleGraph moduleGraph = ModuleGraph.forDefinitionKeeper(definitionKeeper);
+
+    assertThat(moduleGraph.getRequiredModules("module_a"))
+        .containsExactlyInAnyOrder("module_a", "module_b", "module_c");
+    assertThat(moduleGraph.getRequiredModules("module_d")).containsExactly("module_d");
+    assertThat(moduleGraph.getRequiredModules("module_unknown")).isEmpty();
+    assertThat(moduleGraph.isRequired("module_b", "module_a")).isTrue();
+    assertThat(moduleGraph.isRequired("module_a", "module_d")).isFalse();
+
+    final ModuleDefinition unindexedDefinition =
+        ModuleGraphTest.createModuleDefinition("module_e", "module_c");
+    assertThat(moduleGraph.getRequiredModules(unindexedDefinition))
+        .containsExactlyInAnyOrder("module_a", "module_b", "module_c", "module_e");
+  }
+
+  @Test
+  void testGetLoadOrder() {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper(false);
+    definitionKeeper.add(
+        ModuleGraphTest.createModuleDefinition("module_a", "module_b", "module_c"));
+    definitionKeeper.add(ModuleGraphTest.createModuleDefinition("module_b", "module_c"));
+    definitionKeeper.add(ModuleGraphTest.createModuleDefinition("module_c"));
+    final ModuleGraph moduleGraph = ModuleGraph.forDefinitionKeeper(definitionKeeper);
+
+    assertThat(moduleGraph.getLoadOrder("module_a"))
+        .containsExactly("module_c", "module_b", "module_a");
+  }
+
+  @Test
+  void testInvalidatedOnModuleChange() {
+    final IDefinitionKeeper definitionKeeper = ModuleGraphTest.createDefinitionKeeper();
+    final ModuleGraph moduleGraph0 = ModuleGraph.forDefinitionKeeper(definitionKeeper);
+    assertThat(ModuleGraph.forDefinitionKeeper(definitionKeeper)).isSameAs(moduleGraph0);
+
+    definitionKeeper.add(ModuleGraphTest.createModuleDefinition("module_unknown", "module_d"));
+    final ModuleGraph moduleGraph1 = ModuleGraph.forDefinitionKeeper(definitionKeeper);
+    assertThat(moduleGraph1).isNotSameAs(moduleGraph0);
+    assertThat(moduleGraph1.isRequired("module_a", "module_d")).isTrue();
+  }
+}
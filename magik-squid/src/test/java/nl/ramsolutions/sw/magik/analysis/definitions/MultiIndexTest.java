@@ -0,0 +1,48 @@
+package nl.ramsolutions.sw.magik.analysis.definitions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/** Test MultiIndex. */
+class MultiIndexTest {
+
+  @Test
+  void testAddRemove() {
+    final MultiIndex<String, String> index = new MultiIndex<>();
+    index.add("key", "value1");
+    index.add("key", "value2");
+    index.remove("key", "value1");
+
+    assertThat(index.get("key")).containsOnly("value2");
+    assertThat(index.get("other_key")).isEmpty();
+  }
+
+  @Test
+  void testConcurrentAddRemoveKeepsValues() throws InterruptedException {
+    final MultiIndex<String, String> index = new MultiIndex<>();
+    final int iterations = 10_000;
+    final Thread adder =
+        new Thread(
+            () -> {
+              for (int i = 0; i < iterations; ++i) {
+                index.remove("key", "value1");
+                index.add("key", "value1");
+              }
+            });
+    final Thread toggler =
+        new Thread(
+            () -> {
+              for (int i = 0; i < iterations; ++i) {
+                index.add("key", "value2");
+                index.remove("key", "value2");
+              }
+            });
+    adder.start();
+    toggler.start();
+    adder.join();
+    toggler.join();
+
+    assertThat(index.get("key")).containsOnly("value1");
+  }
+}
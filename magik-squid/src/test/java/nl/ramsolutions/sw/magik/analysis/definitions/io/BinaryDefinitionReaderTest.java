@@ -0,0 +1,107 @@
+package nl.ramsolutions.sw.magik.analysis.definitions.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import nl.ramsolutions.sw.magik.analysis.definitions.DefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.MethodDefinition;
+import nl.ramsolutions.sw.magik.analysis.typing.TypeString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests for BinaryDefinitionReader/BinaryDefinitionWriter. */
+class BinaryDefinitionReaderTest {
+
+  private static final Path JSON_PATH = Path.of("src/test/resources/tests/type_database.jsonl");
+
+  private Path tempDir;
+
+  @BeforeEach
+  void createTempDir() throws IOException {
+    this.tempDir = Files.createTempDirectory("type_database");
+  }
+
+  @AfterEach
+  void deleteTempDir() throws IOException {
+    try (var paths = Files.list(this.tempDir)) {
+      for (final Path path : paths.toList()) {
+        Files.delete(path);
+      }
+    }
+
+    Files.delete(this.tempDir);
+  }
+
+  @Test
+  void testRoundTrip() throws IOException {
+    final Path binaryPath = this.tempDir.resolve("types.bin");
+    TypeDatabase.convertJsonToBinary(JSON_PATH, binaryPath);
+    final Path jsonPath = this.tempDir.resolve("types.jsonl");
+    TypeDatabase.convertBinaryToJson(binaryPath, jsonPath);
+
+    // Writing the definitions read from JSON and from binary gives the same result.
+    final IDefinitionKeeper jsonDefinitionKeeper = new DefinitionKeeper(false);
+    JsonDefinitionReader.readTypes(JSON_PATH, jsonDefinitionKeeper);
+    final Path expectedPath = this.tempDir.resolve("expected.jsonl");
+    JsonDefinitionWriter.write(expectedPath, jsonDefinitionKeeper);
+
+    assertThat(jsonPath).hasSameTextualContentAs(expectedPath);
+  }
+
+  @Test
+  void testReadMethod() throws IOException {
+    final Path binaryPath = this.tempDir.resolve("types.bin");
+    TypeDatabase.convertJsonToBinary(JSON_PATH, binaryPath);
+
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+    BinaryDefinitionReader.readTypes(binaryPath, definitionKeeper);
+
+    final TypeString bRef = TypeString.ofIdentifier("b", "user");
+    final Collection<MethodDefinition> methodDefs =
+        definitionKeeper.getMethodDefinitions(bRef).stream()
+            .filter(def -> def.getMethodName().equals("m2<<"))
+            .toList();
+    assertThat(methodDefs).hasSize(1);
+    final MethodDefinition methodDef = methodDefs.iterator().next();
+    assertThat(methodDef.getTypeName()).isEqualTo(bRef);
+    assertThat(methodDef.getDoc()).isEqualTo("Test method m2()");
+    assertThat(methodDef.getModifiers()).containsOnly(MethodDefinition.Modifier.PRIVATE);
+    assertThat(methodDef.getAssignmentParameter()).isNotNull();
+    assertThat(methodDef.getAssignmentParameter().getTypeName()).isEqualTo(TypeString.SW_SYMBOL);
+  }
+
+  @Test
+  void testReadTypesPrefersBinary() throws IOException {
+    final Path jsonPath = this.tempDir.resolve("types.jsonl");
+    Files.copy(JSON_PATH, jsonPath);
+    final Path binaryPath = TypeDatabase.getBinaryPath(jsonPath);
+    assertThat(binaryPath).hasFileName("types.bin");
+
+    // Write an empty binary database, which is newer than the JSON-line file.
+    BinaryDefinitionWriter.write(binaryPath, new DefinitionKeeper(false));
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper(false);
+    TypeDatabase.readTypes(jsonPath, definitionKeeper);
+    assertThat(definitionKeeper.getExemplarDefinitions()).isEmpty();
+
+    // Without the binary database, the JSON-line file is read.
+    Files.delete(binaryPath);
+    TypeDatabase.readTypes(jsonPath, definitionKeeper);
+    assertThat(definitionKeeper.getExemplarDefinitions()).isNotEmpty();
+  }
+
+  @Test
+  void testReadInvalidFile() throws IOException {
+    final Path path = this.tempDir.resolve("invalid.bin");
+    Files.writeString(path, "not a binary type database");
+
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper(false);
+    assertThatThrownBy(() -> BinaryDefinitionReader.readTypes(path, definitionKeeper))
+        .isInstanceOf(IOException.class);
+  }
+}
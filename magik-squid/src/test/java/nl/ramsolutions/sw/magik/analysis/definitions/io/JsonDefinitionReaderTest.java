@@ -11,10 +11,12 @@ import nl.ramsolutions.sw.magik.analysis.definitions.ConditionDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.DefinitionKeeper;
 import nl.ramsolutions.sw.magik.analysis.definitions.ExemplarDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.GlobalDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.GlobalUsage;
 import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
 import nl.ramsolutions.sw.magik.analysis.definitions.MethodDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.PackageDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.ParameterDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.ProcedureDefinition;
 import nl.ramsolutions.sw.magik.analysis.definitions.SlotDefinition;
 import nl.ramsolutions.sw.magik.analysis.typing.ExpressionResultString;
 import nl.ramsolutions.sw.magik.analysis.typing.TypeString;
@@ -66,6 +68,25 @@ class JsonDefinitionReaderTest {
     assertThat(slot2Def.getTypeName()).isEqualTo(TypeString.SW_FLOAT);
   }
 
+  @Test
+  void testReadProcedure() throws IOException {
+    final IDefinitionKeeper definitionKeeper = this.readTypes();
+
+    final TypeString quitRef = TypeString.ofIdentifier("sw:quit", "sw");
+    assertThat(definitionKeeper.getProcedureDefinitions(quitRef)).hasSize(1);
+
+    final TypeString rangeRef = TypeString.ofIdentifier("sw:range", "sw");
+    final Collection<ProcedureDefinition> rangeDefs =
+        definitionKeeper.getProcedureDefinitions(rangeRef);
+    assertThat(rangeDefs).hasSize(1);
+    final ProcedureDefinition rangeDef = rangeDefs.stream().findAny().orElseThrow();
+    assertThat(rangeDef.getUsedMethods()).isEmpty();
+    assertThat(rangeDef.getUsedConditions()).isEmpty();
+
+    final GlobalUsage integerUsage = new GlobalUsage(TypeString.SW_INTEGER, null);
+    assertThat(definitionKeeper.getGlobalUsageDefinitions(integerUsage)).containsOnly(rangeDef);
+  }
+
   @Test
   void testReadMethod() throws IOException {
     final IDefinitionKeeper definitionKeeper = this.readTypes();
@@ -9,6 +9,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import nl.ramsolutions.sw.IgnoreHandler;
 import nl.ramsolutions.sw.MagikToolsProperties;
@@ -379,4 +380,44 @@ class MagikIndexerTest {
         definitionKeeper.getExemplarDefinitions(typeString);
     assertThat(postExemplarDefs).isEmpty();
   }
+
+  @Test
+  void testFileEventsParallel() throws IOException {
+    final Path path = Path.of("magik-squid/src/test/resources/test_magik_indexer.magik");
+    final Path typeDocPath =
+        Path.of("magik-squid/src/test/resources/test_magik_indexer_with_type_doc.magik");
+    final URI uri = this.getPath(path).toUri();
+    final URI typeDocUri = this.getPath(typeDocPath).toUri();
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+    final IgnoreHandler ignoreHandler = new IgnoreHandler();
+    final MagikIndexer magikIndexer =
+        new MagikIndexer(definitionKeeper, MagikToolsProperties.DEFAULT_PROPERTIES, ignoreHandler);
+    final List<FileEvent> fileEvents =
+        List.of(
+            new FileEvent(uri, FileChangeType.CREATED),
+            new FileEvent(typeDocUri, FileChangeType.CREATED));
+    final AtomicInteger lastIndexedCount = new AtomicInteger();
+    magikIndexer.handleFileEvents(
+        fileEvents,
+        2,
+        (indexedCount, totalCount) -> {
+          assertThat(totalCount).isEqualTo(2);
+          lastIndexedCount.accumulateAndGet(indexedCount, Math::max);
+        });
+    assertThat(lastIndexedCount.get()).isEqualTo(2);
+
+    // Test exemplar, defined in both files.
+    final TypeString typeString = TypeString.ofIdentifier("test_exemplar", "user");
+    final Collection<ExemplarDefinition> exemplarDefs =
+        definitionKeeper.getExemplarDefinitions(typeString);
+    assertThat(exemplarDefs).hasSize(2);
+
+    // Pretend delete of one file.
+    final FileEvent deletedFileEvent = new FileEvent(typeDocUri, FileChangeType.DELETED);
+    magikIndexer.handleFileEvents(List.of(deletedFileEvent), 2, MagikIndexer.ProgressListener.NONE);
+
+    final Collection<ExemplarDefinition> postExemplarDefs =
+        definitionKeeper.getExemplarDefinitions(typeString);
+    assertThat(postExemplarDefs).hasSize(1);
+  }
 }
@@ -568,4 +568,36 @@ class ScopeBuilderVisitorTest {
     final ScopeEntry loopXEntry = loopScope.getScopeEntry("x");
     assertThat(bodyXEntry).isEqualTo(loopXEntry);
   }
+
+  @Test
+  void testScopeForLineColumn() {
+    final String code =
+        """
+        _method a.b
+          _block
+            show(1)
+          _endblock
+          _block
+            show(2)
+          _endblock
+        _endmethod
+        $
+        _method a.c
+        _endmethod""";
+    final ScopeBuilderVisitor visitor = this.buildCode(code);
+    final GlobalScope globalScope = visitor.getGlobalScope();
+    final Scope methodScope = globalScope.getSelfAndDescendantScopes().get(1);
+    final Scope block1Scope = globalScope.getSelfAndDescendantScopes().get(2);
+    final Scope block2Scope = globalScope.getSelfAndDescendantScopes().get(3);
+    final Scope method2Scope = globalScope.getSelfAndDescendantScopes().get(4);
+
+    assertThat(globalScope.getScopeForLineColumn(1, 0)).isEqualTo(globalScope);
+    assertThat(globalScope.getScopeForLineColumn(2, 2)).isEqualTo(methodScope);
+    assertThat(globalScope.getScopeForLineColumn(3, 4)).isEqualTo(block1Scope);
+    assertThat(globalScope.getScopeForLineColumn(4, 11)).isEqualTo(methodScope);
+    assertThat(globalScope.getScopeForLineColumn(6, 4)).isEqualTo(block2Scope);
+    assertThat(globalScope.getScopeForLineColumn(9, 0)).isEqualTo(globalScope);
+    assertThat(globalScope.getScopeForLineColumn(11, 0)).isEqualTo(method2Scope);
+    assertThat(globalScope.getScopeForLineColumn(20, 0)).isNull();
+  }
 }
@@ -0,0 +1,87 @@
+package nl.ramsolutions.sw.magik.analysis.typing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import nl.ramsolutions.sw.magik.analysis.definitions.DefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.ExemplarDefinition;
+import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.MethodDefinition;
+import org.junit.jupiter.api.Test;
+
+/** Test TypeStringResolver. */
+class TypeStringResolverTest {
+
+  private static final TypeString ROPE_REF = TypeString.ofIdentifier("rope", "sw");
+
+  private ExemplarDefinition createExemplarDefinition() {
+    return new ExemplarDefinition(
+        null,
+        null,
+        null,
+        null,
+        null,
+        ExemplarDefinition.Sort.SLOTTED,
+        ROPE_REF,
+        Collections.emptyList(),
+        Collections.emptyList(),
+        Collections.emptySet());
+  }
+
+  private MethodDefinition createMethodDefinition() {
+    return new MethodDefinition(
+        null,
+        null,
+        null,
+        null,
+        null,
+        ROPE_REF,
+        "size",
+        Collections.emptySet(),
+        Collections.emptyList(),
+        null,
+        Collections.emptySet(),
+        ExpressionResultString.UNDEFINED,
+        ExpressionResultString.EMPTY);
+  }
+
+  @Test
+  void testCacheSharedBetweenResolvers() {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+    definitionKeeper.add(this.createExemplarDefinition());
+
+    final TypeStringResolver resolver1 = new TypeStringResolver(definitionKeeper);
+    final TypeStringResolver resolver2 = new TypeStringResolver(definitionKeeper);
+    assertThat(resolver2.resolve(ROPE_REF)).isSameAs(resolver1.resolve(ROPE_REF));
+  }
+
+  @Test
+  void testCacheInvalidatedOnTypeChange() {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+    final TypeStringResolver resolver = new TypeStringResolver(definitionKeeper);
+    assertThat(resolver.resolve(ROPE_REF)).isEmpty();
+
+    final ExemplarDefinition exemplarDefinition = this.createExemplarDefinition();
+    definitionKeeper.add(exemplarDefinition);
+    assertThat(resolver.resolve(ROPE_REF)).containsOnly(exemplarDefinition);
+
+    definitionKeeper.remove(exemplarDefinition);
+    assertThat(resolver.resolve(ROPE_REF)).isEmpty();
+  }
+
+  @Test
+  void testCacheInvalidatedOnMethodChange() {
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+    definitionKeeper.add(this.createExemplarDefinition());
+    final TypeStringResolver resolver = new TypeStringResolver(definitionKeeper);
+    assertThat(resolver.getMethodDefinitions(ROPE_REF, "size")).isEmpty();
+
+    final MethodDefinition methodDefinition = this.createMethodDefinition();
+    definitionKeeper.add(methodDefinition);
+    assertThat(resolver.getMethodDefinitions(ROPE_REF, "size")).containsOnly(methodDefinition);
+    assertThat(resolver.getMethodDefinitions(ROPE_REF)).containsOnly(methodDefinition);
+
+    definitionKeeper.remove(methodDefinition);
+    assertThat(resolver.getMethodDefinitions(ROPE_REF, "size")).isEmpty();
+  }
+}
@@ -2000,4 +2000,166 @@ class LocalTypeReasonerTest {
                     TypeString.ofGenericDefinition(
                         "E", TypeString.combine(TypeString.SW_INTEGER, TypeString.SW_SYMBOL)))));
   }
+
+  @Test
+  void testReasonLazilyPerMethod() {
+    final String code =
+        """
+        _package sw
+        _method object.m1
+          _return 1
+        _endmethod
+        $
+        _method object.m2
+          _return rope.new()
+        _endmethod
+        $
+        """;
+
+    // Set up.
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+
+    // Do analysis of first method.
+    final MagikTypedFile magikFile = this.createMagikFile(code, definitionKeeper);
+    final LocalTypeReasonerState state = magikFile.getTypeReasonerState();
+    final List<AstNode> methodNodes =
+        magikFile.getTopNode().getChildren(MagikGrammar.METHOD_DEFINITION);
+    assertThat(state.getNodeType(methodNodes.get(0)))
+        .isEqualTo(new ExpressionResultString(TypeString.SW_INTEGER));
+
+    // Definitions added afterwards are used for the second method.
+    final TypeString ropeRef = TypeString.ofIdentifier("rope", "sw");
+    definitionKeeper.add(
+        new ExemplarDefinition(
+            null,
+            null,
+            null,
+            null,
+            null,
+            ExemplarDefinition.Sort.SLOTTED,
+            ropeRef,
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.emptySet()));
+    definitionKeeper.add(
+        new MethodDefinition(
+            null,
+            null,
+            null,
+            null,
+            null,
+            ropeRef,
+            "new()",
+            EnumSet.noneOf(MethodDefinition.Modifier.class),
+            Collections.emptyList(),
+            null,
+            Collections.emptySet(),
+            new ExpressionResultString(TypeString.SELF),
+            ExpressionResultString.EMPTY));
+    assertThat(state.getNodeType(methodNodes.get(1)))
+        .isEqualTo(new ExpressionResultString(ropeRef));
+  }
+
+  @Test
+  void testReuseUnchangedMethods() {
+    final String code0 =
+        """
+        _method exemplar.m1
+          _return {1, :a}
+        _endmethod
+        $
+        _method exemplar.m2
+          _return {1, :a}
+        _endmethod
+        $
+        """;
+    final String code1 =
+        """
+        # Comment.
+        _method exemplar.m1
+          _return {1, :a}
+        _endmethod
+        $
+        _method exemplar.m2
+          _return {1, :b}
+        _endmethod
+        $
+        """;
+
+    // Set up.
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+
+    // Do analysis.
+    final MagikTypedFile magikFile0 = this.createMagikFile(code0, definitionKeeper);
+    final LocalTypeReasonerState state0 = magikFile0.getTypeReasonerState();
+    final List<AstNode> methodNodes0 =
+        magikFile0.getTopNode().getChildren(MagikGrammar.METHOD_DEFINITION);
+    final ExpressionResultString result0m1 = state0.getNodeType(methodNodes0.get(0));
+    final ExpressionResultString result0m2 = state0.getNodeType(methodNodes0.get(1));
+
+    final MagikTypedFile magikFile1 = this.createMagikFile(code1, definitionKeeper);
+    magikFile1.reuseTypeReasonerState(magikFile0);
+    final LocalTypeReasonerState state1 = magikFile1.getTypeReasonerState();
+    final List<AstNode> methodNodes1 =
+        magikFile1.getTopNode().getChildren(MagikGrammar.METHOD_DEFINITION);
+    assertThat(state1.getNodeType(methodNodes1.get(0))).isSameAs(result0m1);
+    assertThat(state1.getNodeType(methodNodes1.get(1))).isNotSameAs(result0m2).isEqualTo(result0m2);
+  }
+
+  @Test
+  void testReuseStateSkippedVersion() {
+    final String code0 =
+        """
+        _method exemplar.m1
+          _return {1, :a}
+        _endmethod
+        $
+        _method exemplar.m2
+          _return {1, :a}
+        _endmethod
+        $
+        """;
+    final String code1 =
+        """
+        _method exemplar.m1
+          _return {1, :a}
+        _endmethod
+        $
+        _method exemplar.m2
+          _return {1, :b}
+        _endmethod
+        $
+        """;
+    final String code2 =
+        """
+        _method exemplar.m1
+          _return {1, :a}
+        _endmethod
+        $
+        _method exemplar.m2
+          _return {1, :c}
+        _endmethod
+        $
+        """;
+
+    // Set up.
+    final IDefinitionKeeper definitionKeeper = new DefinitionKeeper();
+
+    // Do analysis, version 1 is never queried.
+    final MagikTypedFile magikFile0 = this.createMagikFile(code0, definitionKeeper);
+    final LocalTypeReasonerState state0 = magikFile0.getTypeReasonerState();
+    final AstNode methodNode0 =
+        magikFile0.getTopNode().getFirstChild(MagikGrammar.METHOD_DEFINITION);
+    final ExpressionResultString result0m1 = state0.getNodeType(methodNode0);
+
+    final MagikTypedFile magikFile1 = this.createMagikFile(code1, definitionKeeper);
+    magikFile1.reuseTypeReasonerState(magikFile0);
+
+    final MagikTypedFile magikFile2 = this.createMagikFile(code2, definitionKeeper);
+    magikFile2.reuseTypeReasonerState(magikFile1);
+    final LocalTypeReasonerState state2 = magikFile2.getTypeReasonerState();
+    final AstNode methodNode2 =
+        magikFile2.getTopNode().getFirstChild(MagikGrammar.METHOD_DEFINITION);
+    assertThat(state2.getNodeType(methodNode2)).isSameAs(result0m1);
+  }
 }
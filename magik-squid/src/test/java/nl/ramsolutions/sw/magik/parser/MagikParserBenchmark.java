@@ -0,0 +1,124 @@
+package nl.ramsolutions.sw.magik.parser;
+
+import com.sonar.sslr.api.AstNode;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import nl.ramsolutions.sw.FileCharsetDeterminer;
+import nl.ramsolutions.sw.magik.api.MagikGrammar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sonar.sslr.parser.LexerlessGrammar;
+import org.sonar.sslr.parser.ParserAdapter;
+
+/**
+ * Benchmark per-file parse cost of {@link MagikParser}.
+ *
+ * <p>Compares creating the grammar and parser for every file (the previous behavior) with the
+ * shared grammar/parser. Parses all {@code .magik} files below the {@code corpus} directory. Run
+ * with (from the {@code magik-squid} directory, after {@code mvn test-compile}):
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath \
+ *   -Dmdep.outputFile=/dev/stdout) nl.ramsolutions.sw.magik.parser.MagikParserBenchmark \
+ *   /path/to/magik/sources
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MagikParserBenchmark {
+
+  @Param("src/test/resources")
+  private String corpus;
+
+  private List<String> sources;
+
+  @Setup
+  public void setup() throws IOException {
+    try (Stream<Path> paths = Files.walk(Path.of(this.corpus))) {
+      this.sources =
+          paths
+              .filter(Files::isRegularFile)
+              .filter(path -> path.toString().toLowerCase().endsWith(".magik"))
+              .map(MagikParserBenchmark::readFile)
+              .toList();
+    }
+  }
+
+  /**
+   * Parse the corpus, creating a new grammar and parser for each file.
+   *
+   * @param blackhole Blackhole.
+   */
+  @Benchmark
+  public void parseWithNewGrammar(final Blackhole blackhole) {
+    for (final String source : this.sources) {
+      final LexerlessGrammar grammar = MagikGrammar.create();
+      final ParserAdapter<LexerlessGrammar> parser =
+          new ParserAdapter<>(StandardCharsets.ISO_8859_1, grammar);
+      final AstNode node = parser.parse(source);
+      blackhole.consume(node);
+    }
+  }
+
+  /**
+   * Parse the corpus, using {@link MagikParser} for each file.
+   *
+   * @param blackhole Blackhole.
+   */
+  @Benchmark
+  public void parseWithMagikParser(final Blackhole blackhole) {
+    for (final String source : this.sources) {
+      final MagikParser parser = new MagikParser();
+      final AstNode node = parser.parse(source);
+      blackhole.consume(node);
+    }
+  }
+
+  private static String readFile(final Path path) {
+    try {
+      return Files.readString(path, FileCharsetDeterminer.determineCharset(path));
+    } catch (final IOException exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+
+  /**
+   * Run the benchmark.
+   *
+   * @param args Optional path to corpus directory.
+   * @throws RunnerException -
+   */
+  public static void main(final String[] args) throws RunnerException {
+    final OptionsBuilder optionsBuilder = new OptionsBuilder();
+    optionsBuilder.include(MagikParserBenchmark.class.getSimpleName());
+    if (args.length > 0) {
+      optionsBuilder.param("corpus", args[0]);
+    }
+
+    final Options options = optionsBuilder.build();
+    new Runner(options).run();
+  }
+}
@@ -7,6 +7,7 @@ import com.sonar.sslr.api.GenericTokenType;
 import com.sonar.sslr.api.Token;
 import com.sonar.sslr.api.Trivia;
 import java.util.List;
+import java.util.stream.IntStream;
 import nl.ramsolutions.sw.magik.api.MagikGrammar;
 import org.junit.jupiter.api.Test;
 
@@ -340,4 +341,20 @@ class MagikParserTest {
     assertThat(trivia6.getToken().getType()).isEqualTo(GenericTokenType.EOL);
     assertThat(trivia6.getToken().getOriginalValue()).isEqualTo("\n");
   }
+
+  @Test
+  void testParseConcurrently() {
+    final List<AstNode> nodes =
+        IntStream.range(0, 100)
+            .parallel()
+            .mapToObj(i -> this.parseMagik("_block\n\twrite(" + i + ")\n_endblock"))
+            .toList();
+
+    assertThat(nodes)
+        .allSatisfy(
+            node -> {
+              assertThat(node.getChildren()).hasSize(2);
+              assertThat(node.getFirstChild().getType()).isEqualTo(MagikGrammar.STATEMENT);
+            });
+  }
 }
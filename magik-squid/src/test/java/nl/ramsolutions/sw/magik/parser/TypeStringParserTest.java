@@ -2,9 +2,17 @@ package nl.ramsolutions.sw.magik.parser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.impl.ast.AstWalker;
+import java.nio.charset.StandardCharsets;
 import nl.ramsolutions.sw.magik.analysis.typing.ExpressionResultString;
 import nl.ramsolutions.sw.magik.analysis.typing.TypeString;
+import nl.ramsolutions.sw.magik.api.TypeStringGrammar;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.sonar.sslr.parser.LexerlessGrammar;
+import org.sonar.sslr.parser.ParserAdapter;
 
 /** Tests for TypeStringParser. */
 class TypeStringParserTest {
@@ -133,4 +141,71 @@ class TypeStringParserTest {
         TypeStringParser.parseExpressionResultString(exprStr, SW_PACKAGE);
     assertThat(result).isEqualTo(ExpressionResultString.UNDEFINED);
   }
+
+  @Test
+  void testInterned() {
+    final TypeString typeString1 = TypeStringParser.parseTypeString("sw:rope<E=sw:integer>");
+    final TypeString typeString2 = TypeStringParser.parseTypeString("sw:rope<E=sw:integer>");
+    assertThat(typeString1).isSameAs(typeString2);
+
+    final TypeString typeString3 =
+        TypeStringParser.parseTypeString("sw:rope<E=sw:integer>", SW_PACKAGE);
+    assertThat(typeString3).isEqualTo(typeString1);
+  }
+
+  @Test
+  void testInternedKeepsRecentlyUsed() {
+    final TypeString typeString = TypeStringParser.parseTypeString("sw:rope<E=sw:float>");
+    for (int i = 0; i < 150_000; ++i) {
+      TypeStringParser.parseTypeString("sw:type" + i);
+      assertThat(TypeStringParser.parseTypeString("sw:rope<E=sw:float>")).isSameAs(typeString);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "",
+        "rope",
+        "sw:rope",
+        " sw:rope ",
+        "_UNDEFINED",
+        "_clone|sw:unset",
+        "_selfish",
+        "sw:integer|sw:float|_undefined",
+        "sw:integer|",
+        "sw:integer | sw:float",
+        "sw:rope<E=sw:integer|sw:float>",
+        "sw:rope<E=>",
+        "sw:property_list<K=sw:symbol,E=sw:rope<E=sw:integer>>",
+        "<E=sw:integer>",
+        "<E>|sw:unset",
+        "_parameter( p1 )",
+        "_parameter(p1",
+        "sw:char\\|16_vector",
+        "sw:",
+        "sw:integer garbage",
+        "!abc?",
+      })
+  void testMatchesGrammar(final String typeStr) {
+    final ParserAdapter<LexerlessGrammar> parser =
+        new ParserAdapter<>(
+            StandardCharsets.ISO_8859_1, TypeStringGrammar.create(TypeStringGrammar.TYPE_STRING));
+    final AstNode node = parser.parse(typeStr);
+    final TypeStringBuilderVisitor visitor = new TypeStringBuilderVisitor(SW_PACKAGE);
+    new AstWalker(visitor).walkAndVisit(node);
+    final TypeString expected = visitor.getTypeString();
+
+    final TypeString typeString = TypeStringParser.parseTypeString(typeStr, SW_PACKAGE);
+    assertThat(typeString).isEqualTo(expected);
+  }
+
+  @Test
+  void testExpressionResultStringTrailingSeparator() {
+    final String exprStr = "sw:integer, ";
+    final ExpressionResultString result =
+        TypeStringParser.parseExpressionResultString(exprStr, SW_PACKAGE);
+    assertThat(result)
+        .isEqualTo(new ExpressionResultString(TypeString.SW_INTEGER, TypeString.UNDEFINED));
+  }
 }
@@ -0,0 +1,115 @@
+package nl.ramsolutions.sw.magik.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Test NameIndex. */
+class NameIndexTest {
+
+  private NameIndex<String> createIndex() {
+    final NameIndex<String> index = new NameIndex<>();
+    List.of("size", "get_rope_size", "rope", "sw:rope", "sw:hash_table", "empty?")
+        .forEach(name -> index.add(name, name));
+    return index;
+  }
+
+  @Test
+  void testSearchPrefixRankedFirst() {
+    final NameIndex<String> index = this.createIndex();
+
+    final List<String> results = index.search("rope", value -> true, 10);
+    assertThat(results).containsExactly("rope", "sw:rope", "get_rope_size");
+  }
+
+  @Test
+  void testSearchCaseInsensitive() {
+    final NameIndex<String> index = this.createIndex();
+
+    final List<String> results = index.search("SIZE", value -> true, 10);
+    assertThat(results).containsExactly("size", "get_rope_size");
+  }
+
+  @Test
+  void testSearchShortQuery() {
+    final NameIndex<String> index = this.createIndex();
+
+    final List<String> results = index.search("ha", value -> true, 10);
+    assertThat(results).containsExactly("sw:hash_table");
+  }
+
+  @Test
+  void testSearchAbbreviation() {
+    final NameIndex<String> index = this.createIndex();
+
+    final List<String> results = index.search("grs", value -> true, 10);
+    assertThat(results).containsExactly("get_rope_size");
+  }
+
+  @Test
+  void testSearchLimit() {
+    final NameIndex<String> index = this.createIndex();
+
+    final List<String> results = index.search("s", value -> true, 2);
+    assertThat(results).containsExactly("size", "sw:rope");
+  }
+
+  @Test
+  void testSearchPredicate() {
+    final NameIndex<String> index = this.createIndex();
+
+    final List<String> results = index.search("rope", value -> value.startsWith("sw:"), 10);
+    assertThat(results).containsExactly("sw:rope");
+  }
+
+  @Test
+  void testRemove() {
+    final NameIndex<String> index = this.createIndex();
+    index.remove("get_rope_size", "get_rope_size");
+
+    assertThat(index.search("rope_size", value -> true, 10)).isEmpty();
+    assertThat(index.search("grs", value -> true, 10)).isEmpty();
+  }
+
+  @Test
+  void testConcurrentAddRemoveKeepsSideIndexes() throws InterruptedException {
+    final NameIndex<String> index = new NameIndex<>();
+    final int iterations = 10_000;
+    final Thread adder =
+        new Thread(
+            () -> {
+              for (int i = 0; i < iterations; ++i) {
+                index.add("get_rope_size", "value1");
+              }
+            });
+    final Thread toggler =
+        new Thread(
+            () -> {
+              for (int i = 0; i < iterations; ++i) {
+                index.add("get_rope_size", "value2");
+                index.remove("get_rope_size", "value2");
+                index.remove("get_rope_size", "value1");
+              }
+            });
+    adder.start();
+    toggler.start();
+    adder.join();
+    toggler.join();
+    index.add("get_rope_size", "value1");
+
+    assertThat(index.search("get_", value -> true, 10)).containsExactly("value1");
+    assertThat(index.search("ope_si", value -> true, 10)).containsExactly("value1");
+    assertThat(index.search("grs", value -> true, 10)).containsExactly("value1");
+  }
+
+  @Test
+  void testRank() {
+    final List<String> values = List.of("rope_size", "size", "get_rope_size", "empty?");
+
+    assertThat(NameIndex.rank(values, value -> value, "size", 10))
+        .containsExactly("size", "rope_size", "get_rope_size");
+    assertThat(NameIndex.rank(values, value -> value, "grs", 10)).containsExactly("get_rope_size");
+    assertThat(NameIndex.rank(values, value -> value, "", 2)).hasSize(2);
+  }
+}
@@ -6,16 +6,13 @@ import edu.umd.cs.findbugs.annotations.CheckForNull;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
-import java.util.ArrayDeque;
-import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
-import java.util.HashSet;
 import java.util.Set;
 import nl.ramsolutions.sw.definitions.ModuleDefFileScanner;
 import nl.ramsolutions.sw.definitions.ModuleDefinition;
 import nl.ramsolutions.sw.magik.ModuleDefFile;
 import nl.ramsolutions.sw.magik.analysis.definitions.IDefinitionKeeper;
+import nl.ramsolutions.sw.magik.analysis.definitions.ModuleGraph;
 import nl.ramsolutions.sw.magik.analysis.scope.GlobalScope;
 import nl.ramsolutions.sw.magik.analysis.scope.Scope;
 import nl.ramsolutions.sw.magik.analysis.scope.ScopeEntry;
@@ -44,17 +41,26 @@ public class ModuleRequiredForGlobalTypedCheck extends MagikTypedCheck {
 
   @Override
   protected void walkPreMagik(final AstNode node) {
-    this.moduleDefinition = this.readModuleDefinition();
-    this.requiredModules = this.getRequiredModules();
+    final ModuleGraph moduleGraph = ModuleGraph.forDefinitionKeeper(this.getDefinitionKeeper());
+    this.moduleDefinition = this.getModuleDefinition(moduleGraph);
+    this.requiredModules =
+        this.moduleDefinition != null
+            ? moduleGraph.getRequiredModules(this.moduleDefinition)
+            : Collections.emptySet();
   }
 
   @CheckForNull
-  private ModuleDefinition readModuleDefinition() {
+  private ModuleDefinition getModuleDefinition(final ModuleGraph moduleGraph) {
     final URI uri = this.getMagikFile().getUri();
     final Path path = Path.of(uri);
+    final ModuleDefinition indexedModuleDefinition = moduleGraph.getModuleDefinition(path);
+    if (indexedModuleDefinition != null) {
+      return indexedModuleDefinition;
+    }
+
+    // Module is not indexed, read it from disk.
     final ModuleDefFile moduleDefFile;
     try {
-      // TODO: Better get this from IDefinitionKeeper, instead of reading this for every file.
       moduleDefFile = ModuleDefFileScanner.getModuleDefFileForPath(path);
     } catch (final RecognitionException exception) {
       LOGGER.warn("Unable to parse module.def");
@@ -71,35 +77,6 @@ public class ModuleRequiredForGlobalTypedCheck extends MagikTypedCheck {
     return moduleDefFile.getModuleDefinition();
   }
 
-  private Set<String> getRequiredModules() {
-    if (this.moduleDefinition == null) {
-      return Collections.emptySet();
-    }
-
-    final Set<String> seen = new HashSet<>();
-
-    final IDefinitionKeeper definitionKeeper = this.getDefinitionKeeper();
-    final Deque<ModuleDefinition> stack = new ArrayDeque<>();
-    stack.add(this.moduleDefinition);
-    while (!stack.isEmpty()) {
-      final ModuleDefinition currentModuleDefinition = stack.pop();
-      final String moduleName = currentModuleDefinition.getName();
-      if (seen.contains(moduleName)) {
-        continue;
-      }
-
-      seen.add(moduleName);
-
-      currentModuleDefinition.getUsages().stream()
-          .map(moduleUsage -> moduleUsage.getName())
-          .map(definitionKeeper::getModuleDefinitions)
-          .flatMap(Collection::stream)
-          .forEach(stack::push);
-    }
-
-    return seen;
-  }
-
   @Override
   protected void walkPostMagik(final AstNode node) {
     this.moduleDefinition = null;
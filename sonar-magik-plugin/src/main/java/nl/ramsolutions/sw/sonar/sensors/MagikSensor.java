@@ -111,16 +111,17 @@ public class MagikSensor implements Sensor {
         checkFactory
             .<MagikCheck>create(CheckList.REPOSITORY_KEY)
             .addAnnotatedChecks(CheckList.getChecks());
-    for (final MagikCheck check : checks.all()) {
-      LOGGER.debug("Running check: {}", check);
-      final List<MagikIssue> issues = check.scanFileForIssues(magikFile);
-      final RuleKey ruleKey = checks.ruleKey(check);
-      if (ruleKey == null) {
-        continue;
-      }
-
-      this.saveIssues(context, ruleKey, issues, inputFile);
-    }
+    final List<MagikCheck> allChecks = List.copyOf(checks.all());
+    MagikCheck.scanFileForIssues(magikFile, allChecks)
+        .forEach(
+            (check, issues) -> {
+              final RuleKey ruleKey = checks.ruleKey(check);
+              if (ruleKey == null) {
+                return;
+              }
+
+              this.saveIssues(context, ruleKey, issues, inputFile);
+            });
 
     // Save highlighted tokens.
     LOGGER.debug("Saving highlighted tokens");